@@ -0,0 +1,227 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.ai.luis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.bot.builder.RecognizerResult;
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.builder.TurnContextStateCollection;
+import com.microsoft.bot.schema.Pair;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Caches LUIS predictions for a {@link LuisRecognizer}.
+ *
+ * Within a turn, a prediction for the same utterance and options is only
+ * requested once, so a dispatcher, a child recognizer and interruption checks
+ * can recognize the same activity without calling LUIS again. Across turns,
+ * up to a number of predictions are kept for a time to live, for requests
+ * without external entities or dynamic lists. A LUIS trace activity is only
+ * sent for predictions that are requested from the service.
+ *
+ * The same cache can be shared by several recognizers.
+ */
+public class LuisPredictionCache {
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final String TURN_STATE_KEY = LuisPredictionCache.class.getName();
+
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+    private final Map<List<Object>, Entry> entries;
+
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Initializes a new instance of the LuisPredictionCache.
+     *
+     * @param withMaxEntries The maximum number of predictions kept across turns.
+     *                       The least recently used predictions are removed
+     *                       first. If 0, predictions are only reused within a
+     *                       turn.
+     * @param withTimeToLive How long a prediction is kept across turns.
+     */
+    public LuisPredictionCache(int withMaxEntries, Duration withTimeToLive) {
+        if (withMaxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries cannot be negative");
+        }
+
+        if (withTimeToLive == null || withTimeToLive.isNegative()) {
+            throw new IllegalArgumentException("timeToLive cannot be null or negative");
+        }
+
+        this.maxEntries = withMaxEntries;
+        this.timeToLiveNanos = withTimeToLive.toNanos();
+        this.entries = new LinkedHashMap<List<Object>, Entry>(Math.max(withMaxEntries, 1), LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of recognitions that reused a prediction.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of cacheable recognitions that requested a prediction
+     * from LUIS.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Removes all the predictions kept across turns.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Recognizes an utterance, reusing a cached prediction if there is one.
+     *
+     * @param turnContext The turn the utterance belongs to.
+     * @param utterance   The utterance.
+     * @param options     The options to recognize the utterance with.
+     * @param recognize   Requests the prediction from LUIS.
+     * @return The recognizer result, and whether it was cached. Null if the
+     *         recognition can't be cached.
+     */
+    CompletableFuture<Pair<RecognizerResult, Boolean>> recognize(
+        TurnContext turnContext,
+        String utterance,
+        LuisRecognizerOptions options,
+        Supplier<CompletableFuture<RecognizerResult>> recognize
+    ) {
+        List<Object> key = options.getCacheKey(utterance);
+        if (key == null) {
+            return null;
+        }
+
+        Map<List<Object>, CompletableFuture<RecognizerResult>> memo = getTurnMemo(turnContext);
+        CompletableFuture<RecognizerResult> prediction;
+        boolean cached;
+        synchronized (memo) {
+            prediction = memo.get(key);
+            cached = prediction != null;
+            if (!cached) {
+                RecognizerResult shared = options.isSharedCacheable() ? get(key) : null;
+                cached = shared != null;
+                if (cached) {
+                    prediction = CompletableFuture.completedFuture(shared);
+                } else {
+                    prediction = recognize.get();
+                    if (options.isSharedCacheable()) {
+                        prediction = prediction.thenApply(result -> {
+                            put(key, result);
+                            return result;
+                        });
+                    }
+                }
+                memo.put(key, prediction);
+            }
+        }
+
+        synchronized (this) {
+            if (cached) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+
+        CompletableFuture<RecognizerResult> memoized = prediction;
+        boolean hit = cached;
+        return prediction.handle((result, exception) -> {
+            if (exception != null) {
+                // Failed predictions are requested again.
+                synchronized (memo) {
+                    memo.remove(key, memoized);
+                }
+                throw exception instanceof CompletionException
+                    ? (CompletionException) exception
+                    : new CompletionException(exception);
+            }
+            return new Pair<>(copy(result), hit);
+        });
+    }
+
+    private synchronized RecognizerResult get(List<Object> key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (System.nanoTime() - entry.expiresAt >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.result;
+    }
+
+    private void put(List<Object> key, RecognizerResult result) {
+        if (maxEntries == 0 || timeToLiveNanos == 0) {
+            return;
+        }
+
+        Entry entry = new Entry(copy(result), System.nanoTime() + timeToLiveNanos);
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static Map<List<Object>, CompletableFuture<RecognizerResult>> getTurnMemo(TurnContext turnContext) {
+        TurnContextStateCollection turnState = turnContext.getTurnState();
+        synchronized (turnState) {
+            Map<List<Object>, CompletableFuture<RecognizerResult>> memo = turnState.get(TURN_STATE_KEY);
+            if (memo == null) {
+                memo = new HashMap<>();
+                turnState.add(TURN_STATE_KEY, memo);
+            }
+            return memo;
+        }
+    }
+
+    /**
+     * Recognizer results are mutable, so every caller gets its own copy.
+     */
+    private static RecognizerResult copy(RecognizerResult result) {
+        try {
+            return MAPPER.treeToValue(MAPPER.valueToTree(result), RecognizerResult.class);
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final RecognizerResult result;
+        private final long expiresAt;
+
+        private Entry(RecognizerResult withResult, long withExpiresAt) {
+            result = withResult;
+            expiresAt = withExpiresAt;
+        }
+    }
+}
@@ -4,6 +4,8 @@
 package com.microsoft.bot.ai.luis;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.microsoft.bot.builder.BotMetricsConstants;
+import com.microsoft.bot.builder.BotMetricsRegistry;
 import com.microsoft.bot.builder.IntentScore;
 import com.microsoft.bot.builder.NullBotTelemetryClient;
 import com.microsoft.bot.builder.RecognizerConvert;
@@ -11,6 +13,7 @@ import com.microsoft.bot.builder.RecognizerResult;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.Pair;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -21,6 +24,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Luis Recognizer class to query the LUIS Service using the configuration set
@@ -33,6 +37,11 @@ public class LuisRecognizer extends TelemetryRecognizer {
      */
     private LuisRecognizerOptions luisRecognizerOptions;
 
+    /**
+     * Cache of the predictions, or null if predictions are not cached.
+     */
+    private LuisPredictionCache predictionCache;
+
     /**
      * Initializes a new instance of the Luis Recognizer.
      *
@@ -51,6 +60,28 @@ public class LuisRecognizer extends TelemetryRecognizer {
         this.setLogPersonalInformation(recognizerOptions.isLogPersonalInformation());
     }
 
+    /**
+     * Gets the cache of the predictions made by this recognizer.
+     *
+     * @return The prediction cache, or null if predictions are not cached.
+     */
+    public LuisPredictionCache getPredictionCache() {
+        return predictionCache;
+    }
+
+    /**
+     * Sets the cache of the predictions made by this recognizer. When set, the
+     * {@link LuisTelemetryConstants#LUIS_RESULT} event has a
+     * {@link LuisTelemetryConstants#CACHE_HIT_PROPERTY} property for the
+     * predictions that can be cached.
+     *
+     * @param withPredictionCache The prediction cache, or null to not cache
+     *                            predictions.
+     */
+    public void setPredictionCache(LuisPredictionCache withPredictionCache) {
+        this.predictionCache = withPredictionCache;
+    }
+
     /**
      * Returns the name of the top scoring intent from a set of LUIS results.
      *
@@ -451,7 +482,8 @@ public class LuisRecognizer extends TelemetryRecognizer {
         Map<String, String> properties = fillLuisEventProperties(recognizerResult, turnContext,
                 telemetryProperties);
         // Track the event
-        this.getTelemetryClient().trackEvent(LuisTelemetryConstants.LUIS_RESULT, properties, telemetryMetrics);
+        this.getTelemetryClient(turnContext)
+            .trackEvent(LuisTelemetryConstants.LUIS_RESULT, properties, telemetryMetrics);
     }
 
     /**
@@ -540,10 +572,10 @@ public class LuisRecognizer extends TelemetryRecognizer {
             LuisRecognizerOptions options, Map<String, String> telemetryProperties,
             Map<String, Double> telemetryMetrics) {
         LuisRecognizerOptions predictionOptionsToRun = options == null ? luisRecognizerOptions : options;
-        return predictionOptionsToRun.recognizeInternal(turnContext).thenApply(recognizerResult -> {
-            onRecognizerResult(recognizerResult, turnContext, telemetryProperties, telemetryMetrics);
-            return recognizerResult;
-        });
+        return BotMetricsRegistry.time(BotMetricsConstants.RECOGNIZE,
+                () -> recognizeCached(turnContext, turnContext.getActivity(), predictionOptionsToRun,
+                        () -> predictionOptionsToRun.recognizeInternal(turnContext), telemetryProperties,
+                        telemetryMetrics));
     }
 
     /**
@@ -554,9 +586,34 @@ public class LuisRecognizer extends TelemetryRecognizer {
             LuisRecognizerOptions options, Map<String, String> telemetryProperties,
             Map<String, Double> telemetryMetrics) {
         LuisRecognizerOptions predictionOptionsToRun = options == null ? luisRecognizerOptions : options;
-        return predictionOptionsToRun.recognizeInternal(dialogContext, activity).thenApply(recognizerResult -> {
-            onRecognizerResult(recognizerResult, dialogContext.getContext(), telemetryProperties, telemetryMetrics);
-            return recognizerResult;
+        return BotMetricsRegistry.time(BotMetricsConstants.RECOGNIZE,
+                () -> recognizeCached(dialogContext.getContext(), activity, predictionOptionsToRun,
+                        () -> predictionOptionsToRun.recognizeInternal(dialogContext, activity), telemetryProperties,
+                        telemetryMetrics));
+    }
+
+    private CompletableFuture<RecognizerResult> recognizeCached(TurnContext turnContext, Activity activity,
+            LuisRecognizerOptions options, Supplier<CompletableFuture<RecognizerResult>> recognize,
+            Map<String, String> telemetryProperties, Map<String, Double> telemetryMetrics) {
+        LuisPredictionCache cache = predictionCache;
+        CompletableFuture<Pair<RecognizerResult, Boolean>> prediction = cache == null || activity == null ? null
+                : cache.recognize(turnContext, activity.getText(), options, recognize);
+
+        if (prediction == null) {
+            return recognize.get().thenApply(recognizerResult -> {
+                onRecognizerResult(recognizerResult, turnContext, telemetryProperties, telemetryMetrics);
+                return recognizerResult;
+            });
+        }
+
+        return prediction.thenApply(cached -> {
+            Map<String, String> properties = new HashMap<>();
+            properties.put(LuisTelemetryConstants.CACHE_HIT_PROPERTY, Boolean.toString(cached.getRight()));
+            if (telemetryProperties != null) {
+                properties.putAll(telemetryProperties);
+            }
+            onRecognizerResult(cached.getLeft(), turnContext, properties, telemetryMetrics);
+            return cached.getLeft();
         });
     }
 
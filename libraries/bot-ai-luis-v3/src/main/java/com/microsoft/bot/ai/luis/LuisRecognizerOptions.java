@@ -9,6 +9,7 @@ import com.microsoft.bot.builder.RecognizerResult;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.schema.Activity;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -139,4 +140,25 @@ public abstract class LuisRecognizerOptions {
      * @return Recognizer Result populated by the Luis response.
      */
     abstract CompletableFuture<RecognizerResult> recognizeInternal(DialogContext context, Activity activity);
+
+    /**
+     * Gets the key a prediction for an utterance with these options is cached
+     * under by a {@link LuisPredictionCache}.
+     *
+     * @param utterance The utterance to recognize.
+     * @return The cache key, or null if the prediction can't be cached.
+     */
+    List<Object> getCacheKey(String utterance) {
+        return null;
+    }
+
+    /**
+     * Gets whether predictions with these options can be reused across turns.
+     *
+     * @return True if the predictions only depend on the utterance and the
+     *         options in the cache key.
+     */
+    boolean isSharedCacheable() {
+        return false;
+    }
 }
@@ -6,12 +6,15 @@ package com.microsoft.bot.ai.luis;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.bot.builder.IntentScore;
 import com.microsoft.bot.builder.RecognizerResult;
 import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.connector.DispatcherFactory;
+import com.microsoft.bot.connector.ExecutorFactory;
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.dialogs.Recognizer;
 import com.microsoft.bot.schema.Activity;
@@ -19,12 +22,16 @@ import com.microsoft.bot.schema.ResourceResponse;
 
 import org.apache.commons.lang3.StringUtils;
 
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -34,6 +41,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -42,6 +50,18 @@ import java.util.concurrent.CompletableFuture;
  *
  */
 public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private static final ObjectWriter TRACE_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
+
+    /**
+     * The client shared by the options that are not given one, so predictions
+     * reuse its connection pool and dispatcher threads.
+     */
+    private static final OkHttpClient DEFAULT_HTTP_CLIENT = createDefaultHttpClient();
+
     private final HashSet<String> dateSubtypes = new HashSet<>(
             Arrays.asList("date", "daterange", "datetime", "datetimerange", "duration", "set", "time", "timerange"));
 
@@ -110,9 +130,16 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
     private String version = null;
 
     /**
-     * The HttpClient instance to use for http calls against the LUIS endpoint.
+     * The HttpClient instance to use for http calls against the LUIS endpoint. By
+     * default, a client shared by all the options is used.
+     */
+    private OkHttpClient httpClient = DEFAULT_HTTP_CLIENT;
+
+    /**
+     * The url and headers of the last prediction request, reused while the
+     * application and the options they depend on don't change.
      */
-    private OkHttpClient httpClient = new OkHttpClient();
+    private volatile RequestTemplate requestTemplate;
 
     /**
      * The value type for a LUIS trace activity.
@@ -430,30 +457,63 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
         return recognizeInternal(turnContext, turnContext.getActivity().getText());
     }
 
-    private Request buildRequest(RequestBody body) {
-        StringBuilder path = new StringBuilder(getApplication().getEndpoint());
-        path.append(String.format("/luis/prediction/v3.0/apps/%s", getApplication().getApplicationId()));
+    /**
+     * Gets the key a prediction for an utterance is cached under. Predictions
+     * that use an external entity recognizer are not cached.
+     *
+     * @param utterance The utterance to recognize.
+     * @return The cache key, or null if the prediction can't be cached.
+     */
+    @Override
+    List<Object> getCacheKey(String utterance) {
+        if (StringUtils.isEmpty(utterance) || externalEntityRecognizer != null) {
+            return null;
+        }
 
-        if (version == null) {
-            path.append(String.format("/slots/%s/predict", slot));
-        } else {
-            path.append(String.format("/versions/%s/predict", version));
+        try {
+            return Arrays.asList(
+                getApplication().getEndpoint(),
+                getApplication().getApplicationId(),
+                utterance,
+                slot,
+                version,
+                includeAllIntents,
+                includeInstanceData,
+                log,
+                preferExternalEntities,
+                dateTimeReference,
+                isIncludeAPIResults(),
+                externalEntities == null ? null : MAPPER.writeValueAsString(externalEntities),
+                dynamicLists == null ? null : MAPPER.writeValueAsString(dynamicLists));
+        } catch (JsonProcessingException e) {
+            return null;
         }
+    }
 
-        HttpUrl.Builder httpBuilder = HttpUrl.parse(path.toString()).newBuilder();
+    /**
+     * Gets whether predictions can be reused across turns, which is only the
+     * case without external entities and dynamic lists.
+     *
+     * @return True if there are no external entities or dynamic lists.
+     */
+    @Override
+    boolean isSharedCacheable() {
+        return (externalEntities == null || externalEntities.isEmpty())
+            && (dynamicLists == null || dynamicLists.isEmpty());
+    }
 
-        httpBuilder.addQueryParameter("verbose", Boolean.toString(includeInstanceData));
-        httpBuilder.addQueryParameter("log", Boolean.toString(log));
-        httpBuilder.addQueryParameter("show-all-intents", Boolean.toString(includeAllIntents));
+    private Request buildRequest(RequestBody body) {
+        LuisApplication application = getApplication();
+        RequestTemplate template = requestTemplate;
+        if (template == null || !template.matches(application, this)) {
+            template = new RequestTemplate(application, this);
+            requestTemplate = template;
+        }
 
-        Request.Builder requestBuilder = new Request.Builder().url(httpBuilder.build())
-                .addHeader("Ocp-Apim-Subscription-Key", getApplication().getEndpointKey()).post(body);
-        return requestBuilder.build();
+        return new Request.Builder().url(template.url).headers(template.headers).post(body).build();
     }
 
     private RequestBody buildRequestBody(String utterance) throws JsonProcessingException {
-
-        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
         ObjectNode content = JsonNodeFactory.instance.objectNode().put("query", utterance);
         ObjectNode queryOptions = JsonNodeFactory.instance.objectNode().put("preferExternalEntities",
                 preferExternalEntities);
@@ -465,66 +525,94 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
         content.set("options", queryOptions);
 
         if (dynamicLists != null) {
-            content.set("dynamicLists", mapper.valueToTree(dynamicLists));
+            content.set("dynamicLists", MAPPER.valueToTree(dynamicLists));
         }
 
         if (externalEntities != null) {
             for (ExternalEntity entity : externalEntities) {
                 entity.validate();
             }
-            content.set("externalEntities", mapper.valueToTree(externalEntities));
+            content.set("externalEntities", MAPPER.valueToTree(externalEntities));
         }
 
-        String contentAsText = mapper.writeValueAsString(content);
-        return RequestBody.create(MediaType.parse("application/json; charset=utf-8"), contentAsText);
+        return RequestBody.create(JSON_MEDIA_TYPE, MAPPER.writeValueAsBytes(content));
     }
 
     private CompletableFuture<RecognizerResult> recognizeInternal(TurnContext turnContext, String utterance) {
-
-        RecognizerResult recognizerResult;
-        JsonNode luisResponse = null;
-        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
-
         if (utterance == null || utterance.isEmpty()) {
-            recognizerResult = new RecognizerResult();
+            RecognizerResult recognizerResult = new RecognizerResult();
             recognizerResult.setText(utterance);
-        } else {
-            try {
-                Request request = buildRequest(buildRequestBody(utterance));
-                Response response = httpClient.newCall(request).execute();
-                luisResponse = mapper.readTree(response.body().string());
-                if (!response.isSuccessful()) {
-                    throw new IOException("Unexpected code " + luisResponse.toString());
-                }
+            return sendTraceActivity(recognizerResult, null, turnContext).thenApply(v -> recognizerResult);
+        }
 
-            } catch (IOException e) {
-                CompletableFuture<RecognizerResult> exceptionResult = new CompletableFuture<>();
-                exceptionResult.completeExceptionally(e);
-                return exceptionResult;
+        Request request;
+        try {
+            request = buildRequest(buildRequestBody(utterance));
+        } catch (IOException e) {
+            CompletableFuture<RecognizerResult> exceptionResult = new CompletableFuture<>();
+            exceptionResult.completeExceptionally(e);
+            return exceptionResult;
+        }
+
+        return predict(request).thenCompose(luisResponse -> {
+            RecognizerResult recognizerResult = buildRecognizerResult(utterance, luisResponse);
+            return sendTraceActivity(recognizerResult, luisResponse, turnContext).thenApply(v -> recognizerResult);
+        });
+    }
+
+    /**
+     * Sends a prediction request without blocking the calling thread. The
+     * response body is read directly from the connection.
+     */
+    private CompletableFuture<JsonNode> predict(Request request) {
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                ExecutorFactory.completeOnExecutor(result, null, e);
             }
 
-            JsonNode prediction = luisResponse.get("prediction");
-            recognizerResult = new RecognizerResult();
-            recognizerResult.setText(utterance);
-            if (prediction.get("alteredQuery") != null) {
-                recognizerResult.setAlteredText(prediction.get("alteredQuery").asText());
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    JsonNode luisResponse = MAPPER.readTree(body.byteStream());
+                    if (!response.isSuccessful()) {
+                        throw new IOException("Unexpected code " + luisResponse.toString());
+                    }
+                    ExecutorFactory.completeOnExecutor(result, luisResponse, null);
+                } catch (Exception e) {
+                    ExecutorFactory.completeOnExecutor(result, null, e);
+                }
             }
+        });
+        return result;
+    }
 
-            recognizerResult.setIntents(getIntents(prediction));
-            recognizerResult.setEntities(getEntities(prediction));
 
-            addProperties(prediction, recognizerResult);
-            if (isIncludeAPIResults()) {
-                recognizerResult.getProperties().put("luisResult", luisResponse);
-            }
+    private static OkHttpClient createDefaultHttpClient() {
+        return new OkHttpClient.Builder().dispatcher(DispatcherFactory.newDispatcher()).build();
+    }
 
-            if (includeInstanceData && recognizerResult.getEntities().get(metadataKey) == null) {
-                ((ObjectNode) recognizerResult.getEntities()).putObject(metadataKey);
-            }
+    private RecognizerResult buildRecognizerResult(String utterance, JsonNode luisResponse) {
+        JsonNode prediction = luisResponse.get("prediction");
+        RecognizerResult recognizerResult = new RecognizerResult();
+        recognizerResult.setText(utterance);
+        if (prediction.get("alteredQuery") != null) {
+            recognizerResult.setAlteredText(prediction.get("alteredQuery").asText());
         }
 
-        return sendTraceActivity(recognizerResult, luisResponse, turnContext).thenApply(v -> recognizerResult);
+        recognizerResult.setIntents(getIntents(prediction));
+        recognizerResult.setEntities(getEntities(prediction));
+
+        addProperties(prediction, recognizerResult);
+        if (isIncludeAPIResults()) {
+            recognizerResult.getProperties().put("luisResult", luisResponse);
+        }
 
+        if (includeInstanceData && recognizerResult.getEntities().get(metadataKey) == null) {
+            ((ObjectNode) recognizerResult.getEntities()).putObject(metadataKey);
+        }
+        return recognizerResult;
     }
 
     private Map<String, IntentScore> getIntents(JsonNode prediction) {
@@ -684,11 +772,10 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
 
     private CompletableFuture<ResourceResponse> sendTraceActivity(RecognizerResult recognizerResult,
             JsonNode luisResponse, TurnContext turnContext) {
-        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
         try {
             ObjectNode traceInfo = JsonNodeFactory.instance.objectNode();
             traceInfo.put("recognizerResult",
-                    mapper.writerWithDefaultPrettyPrinter().writeValueAsString(recognizerResult));
+                    TRACE_WRITER.writeValueAsString(recognizerResult));
             traceInfo.set("luisResult", luisResponse);
             traceInfo.set("luisModel",
                     JsonNodeFactory.instance.objectNode().put("ModelId", getApplication().getApplicationId()));
@@ -705,7 +792,7 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
             if (externalEntities != null) {
                 ArrayNode externalEntitiesNode = JsonNodeFactory.instance.arrayNode();
                 for (ExternalEntity e : externalEntities) {
-                    externalEntitiesNode.add(mapper.valueToTree(e));
+                    externalEntitiesNode.add(MAPPER.valueToTree(e));
                 }
                 luisOptions.put("externalEntities", externalEntitiesNode);
             }
@@ -713,7 +800,7 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
             if (dynamicLists != null) {
                 ArrayNode dynamicListNode = JsonNodeFactory.instance.arrayNode();
                 for (DynamicList e : dynamicLists) {
-                    dynamicListNode.add(mapper.valueToTree(e));
+                    dynamicListNode.add(MAPPER.valueToTree(e));
                 }
                 luisOptions.put("dynamicLists", dynamicListNode);
             }
@@ -729,4 +816,59 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
             return exceptionResult;
         }
     }
+
+    /**
+     * The parts of a prediction request that only depend on the application and
+     * the options.
+     */
+    private static final class RequestTemplate {
+        private final String endpoint;
+        private final String applicationId;
+        private final String endpointKey;
+        private final String slot;
+        private final String version;
+        private final boolean includeInstanceData;
+        private final boolean log;
+        private final boolean includeAllIntents;
+        private final HttpUrl url;
+        private final Headers headers;
+
+        private RequestTemplate(LuisApplication application, LuisRecognizerOptionsV3 options) {
+            endpoint = application.getEndpoint();
+            applicationId = application.getApplicationId();
+            endpointKey = application.getEndpointKey();
+            slot = options.slot;
+            version = options.version;
+            includeInstanceData = options.includeInstanceData;
+            log = options.log;
+            includeAllIntents = options.includeAllIntents;
+
+            StringBuilder path = new StringBuilder(endpoint);
+            path.append(String.format("/luis/prediction/v3.0/apps/%s", applicationId));
+
+            if (version == null) {
+                path.append(String.format("/slots/%s/predict", slot));
+            } else {
+                path.append(String.format("/versions/%s/predict", version));
+            }
+
+            url = HttpUrl.parse(path.toString()).newBuilder()
+                .addQueryParameter("verbose", Boolean.toString(includeInstanceData))
+                .addQueryParameter("log", Boolean.toString(log))
+                .addQueryParameter("show-all-intents", Boolean.toString(includeAllIntents))
+                .build();
+            headers = new Headers.Builder().add("Ocp-Apim-Subscription-Key", endpointKey).build();
+        }
+
+        private boolean matches(LuisApplication application, LuisRecognizerOptionsV3 options) {
+            return Objects.equals(endpoint, application.getEndpoint())
+                && Objects.equals(applicationId, application.getApplicationId())
+                && Objects.equals(endpointKey, application.getEndpointKey())
+                && Objects.equals(slot, options.slot)
+                && Objects.equals(version, options.version)
+                && includeInstanceData == options.includeInstanceData
+                && log == options.log
+                && includeAllIntents == options.includeAllIntents;
+        }
+    }
 }
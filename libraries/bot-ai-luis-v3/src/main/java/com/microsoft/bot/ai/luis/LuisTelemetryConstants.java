@@ -76,4 +76,10 @@ public final class LuisTelemetryConstants {
      * The Key used when storing the FromId in a custom event within telemetry.
      */
     public static final String FROM_ID_PROPERTY = "fromId";
+
+    /**
+     * The Key used when storing whether a LUIS prediction was reused from a
+     * {@link LuisPredictionCache} in a custom event within telemetry.
+     */
+    public static final String CACHE_HIT_PROPERTY = "cacheHit";
 }
@@ -8,6 +8,7 @@ import com.microsoft.bot.builder.Recognizer;
 import com.microsoft.bot.builder.RecognizerConvert;
 import com.microsoft.bot.builder.RecognizerResult;
 import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.builder.TurnContextStateCollection;
 
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -51,6 +52,23 @@ public abstract class TelemetryRecognizer implements Recognizer {
         return telemetryClient;
     }
 
+    /**
+     * Gets the Bot Telemetry Client that logs the LuisResult event of a turn. The
+     * client in the turn state is preferred, since it may be bound to the
+     * conversation of the turn.
+     *
+     * @param turnContext Context object containing information for a single
+     *                    turn of conversation with a user.
+     * @return The Bot Telemetry Client.
+     */
+    protected BotTelemetryClient getTelemetryClient(TurnContext turnContext) {
+        TurnContextStateCollection turnState = turnContext.getTurnState();
+        BotTelemetryClient turnStateTelemetryClient = turnState != null
+            ? turnState.get(BotTelemetryClient.class)
+            : null;
+        return turnStateTelemetryClient != null ? turnStateTelemetryClient : telemetryClient;
+    }
+
     /**
      * Sets the currently configured Bot Telemetry Client that logs the LuisResult
      * event.
@@ -37,6 +37,7 @@ import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -91,6 +92,113 @@ public class LuisRecognizerOptionsV3Tests {
         }
     }
 
+    @Test
+    public void shouldRebuildRequestWhenOptionsChange() {
+        MockWebServer mockWebServer = new MockWebServer();
+
+        try {
+            String content = readFileContent("/src/test/java/com/microsoft/bot/ai/luis/testdata/Minimal.json");
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            String v3Response = mapper.writeValueAsString(mapper.readTree(content).get("v3").get("response"));
+            for (int i = 0; i < 3; i++) {
+                mockWebServer.enqueue(new MockResponse()
+                    .addHeader("Content-Type", "application/json; charset=utf-8")
+                    .setBody(v3Response));
+            }
+            mockWebServer.start();
+
+            LuisRecognizerOptionsV3 v3 = new LuisRecognizerOptionsV3(
+                new LuisApplication(
+                    this.applicationId,
+                    this.subscriptionKey,
+                    String.format("http://localhost:%s", mockWebServer.getPort())));
+
+            Activity activity = new Activity(ActivityTypes.MESSAGE);
+            activity.setText("Please deliver February 2nd 2001");
+            doReturn(activity)
+                .when(turnContext)
+                .getActivity();
+
+            doReturn(CompletableFuture.completedFuture(new ResourceResponse()))
+                .when(turnContext)
+                .sendActivity(any(Activity.class));
+
+            String slotPath = String.format("/luis/prediction/v3.0/apps/%s/slots/production/predict", applicationId);
+            v3.recognizeInternal(turnContext).get();
+            v3.recognizeInternal(turnContext).get();
+            assertEquals(slotPath + "?verbose=true&log=true&show-all-intents=false",
+                mockWebServer.takeRequest().getPath());
+            assertEquals(slotPath + "?verbose=true&log=true&show-all-intents=false",
+                mockWebServer.takeRequest().getPath());
+
+            v3.setVersion("0.1");
+            v3.setLog(false);
+            v3.getApplication().setEndpointKey("other-key");
+            v3.recognizeInternal(turnContext).get();
+            RecordedRequest request = mockWebServer.takeRequest();
+            assertEquals(
+                String.format("/luis/prediction/v3.0/apps/%s/versions/0.1/predict", applicationId)
+                    + "?verbose=true&log=false&show-all-intents=false",
+                request.getPath());
+            assertEquals("other-key", request.getHeader("Ocp-Apim-Subscription-Key"));
+        } catch (InterruptedException | ExecutionException | IOException e) {
+            e.printStackTrace();
+            assertFalse(true);
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                // Empty error
+            }
+        }
+    }
+
+    @Test
+    public void shouldShareClientAndCompleteOffDispatcherThread() {
+        MockWebServer mockWebServer = new MockWebServer();
+
+        try {
+            String content = readFileContent("/src/test/java/com/microsoft/bot/ai/luis/testdata/Minimal.json");
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            mockWebServer.enqueue(new MockResponse()
+                .addHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(mapper.writeValueAsString(mapper.readTree(content).get("v3").get("response"))));
+            mockWebServer.start();
+
+            LuisApplication application = new LuisApplication(
+                this.applicationId,
+                this.subscriptionKey,
+                String.format("http://localhost:%s", mockWebServer.getPort()));
+            LuisRecognizerOptionsV3 v3 = new LuisRecognizerOptionsV3(application);
+            assertSame(v3.getHttpClient(), new LuisRecognizerOptionsV3(application).getHttpClient());
+
+            Activity activity = new Activity(ActivityTypes.MESSAGE);
+            activity.setText("Please deliver February 2nd 2001");
+            doReturn(activity)
+                .when(turnContext)
+                .getActivity();
+
+            // the trace activity is sent from the thread that completed the prediction
+            String[] traceThread = new String[1];
+            doAnswer(invocation -> {
+                traceThread[0] = Thread.currentThread().getName();
+                return CompletableFuture.completedFuture(new ResourceResponse());
+            }).when(turnContext).sendActivity(any(Activity.class));
+
+            v3.recognizeInternal(turnContext).get();
+            assertFalse(traceThread[0], traceThread[0].startsWith("OkHttp"));
+        } catch (InterruptedException | ExecutionException | IOException e) {
+            e.printStackTrace();
+            assertFalse(true);
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                // Empty error
+            }
+        }
+    }
+
     private void shouldParseLuisResponsesCorrectly_TurnContextPassed(String fileName) {
         RecognizerResult  result = null, expected  = null;
         MockWebServer mockWebServer = new MockWebServer();
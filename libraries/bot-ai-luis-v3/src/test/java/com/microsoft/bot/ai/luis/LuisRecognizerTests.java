@@ -11,6 +11,7 @@ import com.microsoft.bot.builder.BotTelemetryClient;
 import com.microsoft.bot.builder.IntentScore;
 import com.microsoft.bot.builder.RecognizerResult;
 import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.builder.TurnContextStateCollection;
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ActivityTypes;
@@ -20,10 +21,13 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
@@ -388,6 +392,68 @@ public class LuisRecognizerTests {
         verify(telemetryClient, atLeastOnce()).trackEvent("LuisResult", expectedProperties, telemetryMetrics);
     }
 
+    @Test
+    public void telemetryPrefersTurnStateClient() {
+        setMockObjectsForTelemetry();
+        // the turn state client may be bound to the conversation of the turn
+        BotTelemetryClient turnStateTelemetryClient = mock(BotTelemetryClient.class);
+        TurnContextStateCollection turnState = new TurnContextStateCollection();
+        turnState.add(BotTelemetryClient.class.getName(), turnStateTelemetryClient);
+        when(turnContext.getTurnState()).thenReturn(turnState);
+
+        LuisRecognizer recognizer = new LuisRecognizer(options);
+        recognizer.recognize(turnContext).join();
+
+        verify(turnStateTelemetryClient).trackEvent(eq("LuisResult"), anyMap(), isNull());
+        verifyNoInteractions(telemetryClient);
+    }
+
+    @Test
+    public void predictionCacheReusesPredictions() {
+        setMockObjectsForTelemetry();
+        AtomicReference<TurnContextStateCollection> turnState =
+            new AtomicReference<>(new TurnContextStateCollection());
+        when(turnContext.getTurnState()).thenAnswer(invocation -> turnState.get());
+        when(options.getCacheKey("Random Message"))
+            .thenReturn(Arrays.asList("b31aeaf3-3511-495b-a07f-571fc873214b", "Random Message"));
+        when(options.isSharedCacheable()).thenReturn(true);
+
+        LuisRecognizer recognizer = new LuisRecognizer(options);
+        LuisPredictionCache cache = new LuisPredictionCache(10, Duration.ofMinutes(5));
+        recognizer.setPredictionCache(cache);
+
+        try {
+            RecognizerResult first = recognizer.recognize(turnContext).get();
+            first.getIntents().clear();
+            RecognizerResult sameTurn = recognizer.recognize(turnContext).get();
+            turnState.set(new TurnContextStateCollection());
+            RecognizerResult nextTurn = recognizer.recognize(turnContext).get();
+            assertEquals(2, sameTurn.getIntents().size());
+            assertEquals(2, nextTurn.getIntents().size());
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            Assert.assertTrue(false);
+        }
+
+        verify(options, times(1)).recognizeInternal(any(TurnContext.class));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        Map<String, String> expectedProperties = new HashMap<String, String>();
+        expectedProperties.put("intentScore", "0.4");
+        expectedProperties.put("intent2", "Test");
+        expectedProperties.put("entities", "{}");
+        expectedProperties.put("intentScore2", "0.2");
+        expectedProperties.put("applicationId", "b31aeaf3-3511-495b-a07f-571fc873214b");
+        expectedProperties.put("intent", "Greeting");
+        expectedProperties.put("fromId", "Activity-from-ID");
+        expectedProperties.put("sentimentLabel", "neutral");
+        expectedProperties.put("cacheHit", "false");
+        verify(telemetryClient, times(1)).trackEvent("LuisResult", expectedProperties, null);
+        expectedProperties.put("cacheHit", "true");
+        verify(telemetryClient, times(2)).trackEvent("LuisResult", expectedProperties, null);
+    }
+
     private void setMockObjectsForTelemetry() {
         Activity activity = new Activity(ActivityTypes.MESSAGE);
         activity.setText("Random Message");
@@ -10,12 +10,14 @@ import com.microsoft.bot.ai.qna.models.QueryResult;
 import com.microsoft.bot.ai.qna.models.QueryResults;
 import com.microsoft.bot.ai.qna.utils.ActiveLearningUtils;
 import com.microsoft.bot.ai.qna.utils.GenerateAnswerUtils;
+import com.microsoft.bot.ai.qna.utils.QnAAnswerCache;
 import com.microsoft.bot.ai.qna.utils.QnATelemetryConstants;
 import com.microsoft.bot.ai.qna.utils.TrainUtils;
 
 import com.microsoft.bot.builder.BotTelemetryClient;
 import com.microsoft.bot.builder.NullBotTelemetryClient;
 import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.builder.TurnContextStateCollection;
 import com.microsoft.bot.connector.Async;
 import com.microsoft.bot.restclient.serializer.JacksonAdapter;
 import com.microsoft.bot.schema.Activity;
@@ -33,6 +35,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +83,32 @@ public class QnAMaker implements QnAMakerClient, TelemetryQnAMaker {
         QnAMakerOptions options,
         BotTelemetryClient withTelemetryClient,
         Boolean withLogPersonalInformation
+    ) {
+        this(withEndpoint, options, withTelemetryClient, withLogPersonalInformation, null);
+    }
+
+    /**
+     * Initializes a new instance of the QnAMaker class.
+     *
+     * @param withEndpoint               The endpoint of the knowledge base to
+     *                                   query.
+     * @param options                    The options for the QnA Maker knowledge
+     *                                   base.
+     * @param withTelemetryClient        The IBotTelemetryClient used for logging
+     *                                   telemetry events.
+     * @param withLogPersonalInformation Set to true to include personally
+     *                                   identifiable information in telemetry
+     *                                   events.
+     * @param withHttpClient             The HTTP client to use for requests to
+     *                                   the QnA Maker service. If null, a client
+     *                                   shared by all QnAMaker instances is used.
+     */
+    public QnAMaker(
+        QnAMakerEndpoint withEndpoint,
+        QnAMakerOptions options,
+        BotTelemetryClient withTelemetryClient,
+        Boolean withLogPersonalInformation,
+        @Nullable OkHttpClient withHttpClient
     ) {
         if (withLogPersonalInformation == null) {
             withLogPersonalInformation = false;
@@ -111,8 +140,8 @@ public class QnAMaker implements QnAMakerClient, TelemetryQnAMaker {
         this.telemetryClient = withTelemetryClient != null ? withTelemetryClient : new NullBotTelemetryClient();
         this.logPersonalInformation = withLogPersonalInformation;
 
-        this.generateAnswerHelper = new GenerateAnswerUtils(this.endpoint, options);
-        this.activeLearningTrainHelper = new TrainUtils(this.endpoint);
+        this.generateAnswerHelper = new GenerateAnswerUtils(this.endpoint, options, withHttpClient);
+        this.activeLearningTrainHelper = new TrainUtils(this.endpoint, withHttpClient);
     }
 
     /**
@@ -146,6 +175,42 @@ public class QnAMaker implements QnAMakerClient, TelemetryQnAMaker {
         return this.telemetryClient;
     }
 
+    /**
+     * Gets the {@link BotTelemetryClient} that logs the events of a turn. The
+     * client in the turn state is preferred, since it may be bound to the
+     * conversation of the turn.
+     */
+    private BotTelemetryClient getTelemetryClient(TurnContext turnContext) {
+        TurnContextStateCollection turnState = turnContext.getTurnState();
+        BotTelemetryClient turnStateTelemetryClient = turnState != null
+            ? turnState.get(BotTelemetryClient.class)
+            : null;
+        return turnStateTelemetryClient != null ? turnStateTelemetryClient : this.telemetryClient;
+    }
+
+    /**
+     * Gets the cache of the answers returned by the knowledge base.
+     *
+     * @return The answer cache, or null if answers are not cached.
+     */
+    public QnAAnswerCache getAnswerCache() {
+        return this.generateAnswerHelper.getAnswerCache();
+    }
+
+    /**
+     * Sets the cache of the answers returned by the knowledge base. A cache can
+     * be shared by several QnAMaker instances. It is cleared for the knowledge
+     * base when feedback is sent with {@link #callTrain(FeedbackRecords)}.
+     * While a cache is set, the QnaMessage telemetry event of a question that
+     * can be cached has a {@link QnATelemetryConstants#CACHE_HIT_PROPERTY}
+     * property and a {@link QnATelemetryConstants#CACHE_HIT_RATE_METRIC} metric.
+     *
+     * @param withAnswerCache The answer cache, or null to not cache answers.
+     */
+    public void setAnswerCache(QnAAnswerCache withAnswerCache) {
+        this.generateAnswerHelper.setAnswerCache(withAnswerCache);
+    }
+
     /**
      * Generates an answer from the knowledge base.
      *
@@ -225,14 +290,33 @@ public class QnAMaker implements QnAMakerClient, TelemetryQnAMaker {
             return Async.completeExceptionally(new IllegalArgumentException("Null or empty text"));
         }
 
-        return this.generateAnswerHelper.getAnswersRaw(turnContext, messageActivity, options).thenCompose(result -> {
-            try {
-                this.onQnaResults(result.getAnswers(), turnContext, telemetryProperties, telemetryMetrics);
-            } catch (IOException e) {
-                LoggerFactory.getLogger(QnAMaker.class).error("getAnswersRaw");
-            }
-            return CompletableFuture.completedFuture(result);
-        });
+        return this.generateAnswerHelper.getAnswersRawWithCacheHit(turnContext, messageActivity, options)
+            .thenCompose(answers -> {
+                QueryResults result = answers.getLeft();
+                Map<String, String> properties = telemetryProperties;
+                Map<String, Double> metrics = telemetryMetrics;
+                QnAAnswerCache answerCache = this.getAnswerCache();
+                if (answers.getRight() != null && answerCache != null) {
+                    // the cache is reported on the QnaMessage event, so it adds no events
+                    properties = new HashMap<>();
+                    properties.put(QnATelemetryConstants.CACHE_HIT_PROPERTY, answers.getRight().toString());
+                    if (telemetryProperties != null) {
+                        properties.putAll(telemetryProperties);
+                    }
+                    metrics = new HashMap<>();
+                    metrics.put(QnATelemetryConstants.CACHE_HIT_RATE_METRIC, answerCache.getHitRate());
+                    if (telemetryMetrics != null) {
+                        metrics.putAll(telemetryMetrics);
+                    }
+                }
+
+                try {
+                    this.onQnaResults(result.getAnswers(), turnContext, properties, metrics);
+                } catch (IOException e) {
+                    LoggerFactory.getLogger(QnAMaker.class).error("getAnswersRaw");
+                }
+                return CompletableFuture.completedFuture(result);
+            });
     }
 
     /**
@@ -254,7 +338,13 @@ public class QnAMaker implements QnAMakerClient, TelemetryQnAMaker {
      * @throws IOException Throws an IOException if there is any.
      */
     public CompletableFuture<Void> callTrain(FeedbackRecords feedbackRecords) throws IOException {
-        return this.activeLearningTrainHelper.callTrain(feedbackRecords);
+        return this.activeLearningTrainHelper.callTrain(feedbackRecords).thenApply(result -> {
+            QnAAnswerCache answerCache = this.getAnswerCache();
+            if (answerCache != null) {
+                answerCache.invalidate(this.endpoint.getKnowledgeBaseId());
+            }
+            return result;
+        });
     }
 
     /**
@@ -278,7 +368,7 @@ public class QnAMaker implements QnAMakerClient, TelemetryQnAMaker {
         return fillQnAEvent(queryResults, turnContext, telemetryProperties, telemetryMetrics).thenAccept(
             eventData -> {
                 // Track the event
-                this.telemetryClient
+                this.getTelemetryClient(turnContext)
                     .trackEvent(QnATelemetryConstants.QNA_MSG_EVENT, eventData.getLeft(), eventData.getRight());
             }
         );
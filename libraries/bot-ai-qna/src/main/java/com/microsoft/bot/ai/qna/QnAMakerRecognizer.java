@@ -14,6 +14,7 @@ import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -23,6 +24,8 @@ import com.microsoft.bot.ai.qna.models.Metadata;
 import com.microsoft.bot.ai.qna.models.QnARequestContext;
 import com.microsoft.bot.ai.qna.models.QueryResult;
 import com.microsoft.bot.ai.qna.models.RankerTypes;
+import com.microsoft.bot.ai.qna.utils.QnAAnswerCache;
+import com.microsoft.bot.ai.qna.utils.QnAMakerClientCache;
 import com.microsoft.bot.builder.IntentScore;
 import com.microsoft.bot.builder.RecognizerResult;
 import com.microsoft.bot.dialogs.DialogContext;
@@ -81,6 +84,9 @@ public class QnAMakerRecognizer extends Recognizer {
     @JsonProperty("logPersonalInformation")
     private Boolean logPersonalInformation = false;
 
+    @JsonIgnore
+    private final QnAMakerClientCache clientCache = new QnAMakerClientCache();
+
     /**
      * Gets key used when adding the intent to the {@link RecognizerResult} intents
      * collection.
@@ -92,6 +98,25 @@ public class QnAMakerRecognizer extends Recognizer {
         return qnAMatchIntent;
     }
 
+    /**
+     * Gets the cache of the answers returned by the knowledge base.
+     *
+     * @return The answer cache, or null if answers are not cached.
+     */
+    public QnAAnswerCache getAnswerCache() {
+        return clientCache.getAnswerCache();
+    }
+
+    /**
+     * Sets the cache of the answers returned by the knowledge base. A cache can
+     * be shared by several recognizers.
+     *
+     * @param withAnswerCache The answer cache, or null to not cache answers.
+     */
+    public void setAnswerCache(QnAAnswerCache withAnswerCache) {
+        clientCache.setAnswerCache(withAnswerCache);
+    }
+
     /**
      * Gets the KnowledgeBase Id of your QnA Maker KnowledgeBase.
      *
@@ -390,6 +415,19 @@ public class QnAMakerRecognizer extends Recognizer {
         options.setStrictFiltersJoinOperator(strictFiltersJoinOperator);
 
         // Calling QnAMaker to get response.
+        return timeRecognize(dialogContext, () -> queryKnowledgeBase(
+            dialogContext, activity, options, recognizerResult, telemetryProperties, telemetryMetrics
+        ));
+    }
+
+    private CompletableFuture<RecognizerResult> queryKnowledgeBase(
+        DialogContext dialogContext,
+        Activity activity,
+        QnAMakerOptions options,
+        RecognizerResult recognizerResult,
+        Map<String, String> telemetryProperties,
+        Map<String, Double> telemetryMetrics
+    ) {
         return this.getQnAMakerClient(dialogContext).thenCompose(qnaClient -> {
             return qnaClient.getAnswers(dialogContext.getContext(), options, null, null).thenApply(answers -> {
                 if (answers.length > 0) {
@@ -468,8 +506,9 @@ public class QnAMakerRecognizer extends Recognizer {
         endpoint.setHost(hn);
         endpoint.setKnowledgeBaseId(kbId);
 
-        return CompletableFuture
-            .completedFuture(new QnAMaker(endpoint, new QnAMakerOptions(), this.getTelemetryClient(), logPersonalInfo));
+        return CompletableFuture.completedFuture(
+            clientCache.getClient(endpoint, new QnAMakerOptions(), this.getTelemetryClient(), logPersonalInfo, null)
+        );
     }
 
     /**
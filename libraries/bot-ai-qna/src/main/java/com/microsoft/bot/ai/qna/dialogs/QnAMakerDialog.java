@@ -17,7 +17,6 @@ import javax.annotation.Nullable;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.microsoft.bot.ai.qna.QnADialogResponseOptions;
-import com.microsoft.bot.ai.qna.QnAMaker;
 import com.microsoft.bot.ai.qna.QnAMakerClient;
 import com.microsoft.bot.ai.qna.QnAMakerEndpoint;
 import com.microsoft.bot.ai.qna.QnAMakerOptions;
@@ -31,6 +30,8 @@ import com.microsoft.bot.ai.qna.models.RankerTypes;
 import com.microsoft.bot.ai.qna.utils.ActiveLearningUtils;
 import com.microsoft.bot.ai.qna.utils.BindToActivity;
 import com.microsoft.bot.ai.qna.utils.QnACardBuilder;
+import com.microsoft.bot.ai.qna.utils.QnAAnswerCache;
+import com.microsoft.bot.ai.qna.utils.QnAMakerClientCache;
 import com.microsoft.bot.builder.MessageFactory;
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.dialogs.DialogEvent;
@@ -58,6 +59,9 @@ public class QnAMakerDialog extends WaterfallDialog {
     @JsonIgnore
     private OkHttpClient httpClient;
 
+    @JsonIgnore
+    private final QnAMakerClientCache clientCache = new QnAMakerClientCache();
+
     @JsonProperty("knowledgeBaseId")
     private String knowledgeBaseId;
 
@@ -161,6 +165,25 @@ public class QnAMakerDialog extends WaterfallDialog {
         this.httpClient = withHttpClient;
     }
 
+    /**
+     * Gets the cache of the answers returned by the knowledge base.
+     *
+     * @return The answer cache, or null if answers are not cached.
+     */
+    public QnAAnswerCache getAnswerCache() {
+        return clientCache.getAnswerCache();
+    }
+
+    /**
+     * Sets the cache of the answers returned by the knowledge base. A cache can
+     * be shared by several dialogs.
+     *
+     * @param withAnswerCache The answer cache, or null to not cache answers.
+     */
+    public void setAnswerCache(QnAAnswerCache withAnswerCache) {
+        clientCache.setAnswerCache(withAnswerCache);
+    }
+
     /**
      * Gets the QnA Maker knowledge base ID to query.
      *
@@ -624,20 +647,21 @@ public class QnAMakerDialog extends WaterfallDialog {
             return CompletableFuture.completedFuture(END_OF_TURN);
         }
 
-        QnAMakerOptions qnAMakerOptions = this.getQnAMakerOptions(dc).join();
-        QnADialogResponseOptions qnADialogResponseOptions = this.getQnAResponseOptions(dc).join();
-
-        QnAMakerDialogOptions dialogOptions = new QnAMakerDialogOptions();
-        dialogOptions.setQnAMakerOptions(qnAMakerOptions);
-        dialogOptions.setResponseOptions(qnADialogResponseOptions);
+        return this.getQnAMakerOptions(dc).thenCompose(
+            qnAMakerOptions -> this.getQnAResponseOptions(dc).thenCompose(qnADialogResponseOptions -> {
+                QnAMakerDialogOptions dialogOptions = new QnAMakerDialogOptions();
+                dialogOptions.setQnAMakerOptions(qnAMakerOptions);
+                dialogOptions.setResponseOptions(qnADialogResponseOptions);
 
-        if (options != null) {
-            dialogOptions = ObjectPath.assign(dialogOptions, options);
-        }
+                if (options != null) {
+                    dialogOptions = ObjectPath.assign(dialogOptions, options);
+                }
 
-        ObjectPath.setPathValue(dc.getActiveDialog().getState(), OPTIONS, dialogOptions);
+                ObjectPath.setPathValue(dc.getActiveDialog().getState(), OPTIONS, dialogOptions);
 
-        return super.beginDialog(dc, dialogOptions);
+                return super.beginDialog(dc, dialogOptions);
+            })
+        );
     }
 
     /**
@@ -711,7 +735,7 @@ public class QnAMakerDialog extends WaterfallDialog {
      *         successful, the result contains the QnA Maker client to use.
      */
     protected CompletableFuture<QnAMakerClient> getQnAMakerClient(DialogContext dc) {
-        QnAMakerClient qnaClient = (QnAMakerClient) dc.getContext().getTurnState();
+        QnAMakerClient qnaClient = dc.getContext().getTurnState().get(QnAMakerClient.class);
         if (qnaClient != null) {
             // return mock client
             return CompletableFuture.completedFuture(qnaClient);
@@ -722,9 +746,10 @@ public class QnAMakerDialog extends WaterfallDialog {
         endpoint.setHost(hostName);
         endpoint.setKnowledgeBaseId(knowledgeBaseId);
 
-        return this.getQnAMakerOptions(
-            dc
-        ).thenApply(options -> new QnAMaker(endpoint, options, this.getTelemetryClient(), this.logPersonalInformation));
+        return this.getQnAMakerOptions(dc).thenApply(
+            options -> clientCache
+                .getClient(endpoint, options, this.getTelemetryClient(), this.logPersonalInformation, this.httpClient)
+        );
     }
 
     /**
@@ -756,15 +781,19 @@ public class QnAMakerDialog extends WaterfallDialog {
      *         successful, the result contains the response options to use.
      */
     protected CompletableFuture<QnADialogResponseOptions> getQnAResponseOptions(DialogContext dc) {
-        QnADialogResponseOptions options = new QnADialogResponseOptions();
-        options.setNoAnswer(noAnswer.bind(dc, dc.getState()).join());
-        options.setActiveLearningCardTitle(
-            activeLearningCardTitle != null ? activeLearningCardTitle : DEFAULT_CARD_TITLE
+        return noAnswer.bind(dc, dc.getState()).thenCombine(
+            cardNoMatchResponse.bind(dc, null),
+            (noAnswerActivity, cardNoMatchResponseActivity) -> {
+                QnADialogResponseOptions options = new QnADialogResponseOptions();
+                options.setNoAnswer(noAnswerActivity);
+                options.setActiveLearningCardTitle(
+                    activeLearningCardTitle != null ? activeLearningCardTitle : DEFAULT_CARD_TITLE
+                );
+                options.setCardNoMatchText(cardNoMatchText != null ? cardNoMatchText : DEFAULT_CARD_NO_MATCH_TEXT);
+                options.setCardNoMatchResponse(cardNoMatchResponseActivity);
+                return options;
+            }
         );
-        options.setCardNoMatchText(cardNoMatchText != null ? cardNoMatchText : DEFAULT_CARD_NO_MATCH_TEXT);
-        options.setCardNoMatchResponse(cardNoMatchResponse.bind(dc, null).join());
-
-        return CompletableFuture.completedFuture(options);
     }
 
     /**
@@ -5,12 +5,14 @@ package com.microsoft.bot.ai.qna.utils;
 
 import com.microsoft.bot.connector.Async;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.microsoft.bot.ai.qna.QnAMaker;
 import com.microsoft.bot.ai.qna.QnAMakerEndpoint;
 import com.microsoft.bot.ai.qna.QnAMakerOptions;
@@ -22,8 +24,10 @@ import com.microsoft.bot.ai.qna.models.RankerTypes;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.restclient.serializer.JacksonAdapter;
 import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.Pair;
 
 import net.minidev.json.JSONObject;
+import okhttp3.OkHttpClient;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -32,11 +36,16 @@ import org.slf4j.LoggerFactory;
 public class GenerateAnswerUtils {
     private QnAMakerEndpoint endpoint;
     private QnAMakerOptions options;
+    private HttpRequestUtils httpRequestHelper;
+    private QnAAnswerCache answerCache;
 
     private static final Integer PERCENTAGE_DIVISOR = 100;
     private static final Float SCORE_THRESHOLD = 0.3f;
     private static final Double TIMEOUT = 100000d;
 
+    private static final JacksonAdapter JACKSON_ADAPTER = new JacksonAdapter();
+    private static final ObjectReader QUERY_RESULT_READER = JACKSON_ADAPTER.serializer().readerFor(QueryResult.class);
+
     /**
      * Initializes a new instance of the {@link GenerateAnswerUtils} class.
      *
@@ -44,7 +53,24 @@ public class GenerateAnswerUtils {
      * @param withOptions  QnA Maker options.
      */
     public GenerateAnswerUtils(QnAMakerEndpoint withEndpoint, QnAMakerOptions withOptions) {
+        this(withEndpoint, withOptions, null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link GenerateAnswerUtils} class.
+     *
+     * @param withEndpoint   QnA Maker endpoint details.
+     * @param withOptions    QnA Maker options.
+     * @param withHttpClient The HTTP client to use for requests. If null, a shared
+     *                       client is used.
+     */
+    public GenerateAnswerUtils(
+        QnAMakerEndpoint withEndpoint,
+        QnAMakerOptions withOptions,
+        OkHttpClient withHttpClient
+    ) {
         this.endpoint = withEndpoint;
+        this.httpRequestHelper = new HttpRequestUtils(withHttpClient);
 
         this.options = withOptions != null ? withOptions : new QnAMakerOptions();
         GenerateAnswerUtils.validateOptions(this.options);
@@ -68,6 +94,24 @@ public class GenerateAnswerUtils {
         this.options = withOptions;
     }
 
+    /**
+     * Gets the cache of the answers returned by the knowledge base.
+     *
+     * @return The answer cache, or null if answers are not cached.
+     */
+    public QnAAnswerCache getAnswerCache() {
+        return this.answerCache;
+    }
+
+    /**
+     * Sets the cache of the answers returned by the knowledge base.
+     *
+     * @param withAnswerCache The answer cache, or null to not cache answers.
+     */
+    public void setAnswerCache(QnAAnswerCache withAnswerCache) {
+        this.answerCache = withAnswerCache;
+    }
+
     /**
      * Generates an answer from the knowledge base.
      *
@@ -104,6 +148,28 @@ public class GenerateAnswerUtils {
         TurnContext turnContext,
         Activity messageActivity,
         QnAMakerOptions withOptions
+    ) {
+        return this.getAnswersRawWithCacheHit(turnContext, messageActivity, withOptions)
+            .thenApply(result -> result != null ? result.getLeft() : null);
+    }
+
+    /**
+     * Generates an answer from the knowledge base, and tells whether it was
+     * found in the answer cache.
+     *
+     * @param turnContext     The Turn Context that contains the user question to be
+     *                        queried against your knowledge base.
+     * @param messageActivity Message activity of the turn context.
+     * @param withOptions     The options for the QnA Maker knowledge base. If null,
+     *                        constructor option is used for this instance.
+     * @return The answers, and true if they were found in the answer cache, false
+     *         if they were not, or null if the question is not looked up in an
+     *         answer cache.
+     */
+    public CompletableFuture<Pair<QueryResults, Boolean>> getAnswersRawWithCacheHit(
+        TurnContext turnContext,
+        Activity messageActivity,
+        QnAMakerOptions withOptions
     ) {
         if (turnContext == null) {
             return Async.completeExceptionally(new IllegalArgumentException("turnContext"));
@@ -128,10 +194,24 @@ public class GenerateAnswerUtils {
         QnAMakerOptions hydratedOptions = this.hydrateOptions(withOptions);
         GenerateAnswerUtils.validateOptions(hydratedOptions);
 
+        String question = messageActivity.getText();
+        QnAAnswerCache cache = this.answerCache;
+        boolean cacheable = cache != null && QnAAnswerCache.isCacheable(question, hydratedOptions);
+        if (cacheable) {
+            QueryResults cached = cache.get(this.endpoint, question, hydratedOptions);
+            if (cached != null) {
+                this.emitTraceInfo(turnContext, messageActivity, cached.getAnswers(), hydratedOptions);
+                return CompletableFuture.completedFuture(new Pair<>(cached, true));
+            }
+        }
+
         try {
             return this.queryQnaService(messageActivity, hydratedOptions).thenCompose(result -> {
+                if (cacheable) {
+                    cache.put(this.endpoint, question, hydratedOptions, result);
+                }
                 this.emitTraceInfo(turnContext, messageActivity, result.getAnswers(), hydratedOptions);
-                return CompletableFuture.completedFuture(result);
+                return CompletableFuture.completedFuture(new Pair<>(result, cacheable ? false : null));
             });
         } catch (IOException e) {
             LoggerFactory.getLogger(GenerateAnswerUtils.class).error("getAnswersRaw");
@@ -139,26 +219,38 @@ public class GenerateAnswerUtils {
         }
     }
 
-    private static CompletableFuture<QueryResults> formatQnAResult(
-        JsonNode response,
-        QnAMakerOptions options
-    ) throws IOException {
-        String jsonResponse = null;
-        JacksonAdapter jacksonAdapter = new JacksonAdapter();
-        QueryResults results = null;
-
-        jsonResponse = response.toString();
-        results = jacksonAdapter.deserialize(jsonResponse, QueryResults.class);
-        for (QueryResult answer : results.getAnswers()) {
-            answer.setScore(answer.getScore() / PERCENTAGE_DIVISOR);
+    /**
+     * Reads the answers of a generate answer response as they are received,
+     * rescoring them to a value between 0 and 1 and keeping only the ones above
+     * the score threshold.
+     */
+    private static QueryResults readQnAResult(JsonParser parser, QnAMakerOptions options) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a generate answer response object.");
         }
-        List<QueryResult> answerList = Arrays.asList(results.getAnswers())
-            .stream()
-            .filter(answer -> answer.getScore() > options.getScoreThreshold())
-            .collect(Collectors.toList());
-        results.setAnswers(answerList.toArray(new QueryResult[answerList.size()]));
 
-        return CompletableFuture.completedFuture(results);
+        QueryResults results = new QueryResults();
+        List<QueryResult> answers = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("answers".equalsIgnoreCase(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    QueryResult answer = QUERY_RESULT_READER.readValue(parser);
+                    answer.setScore(answer.getScore() / PERCENTAGE_DIVISOR);
+                    if (answer.getScore() > options.getScoreThreshold()) {
+                        answers.add(answer);
+                    }
+                }
+            } else if ("activeLearningEnabled".equalsIgnoreCase(field)) {
+                results.setActiveLearningEnabled(JACKSON_ADAPTER.serializer().readValue(parser, Boolean.class));
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        results.setAnswers(answers.toArray(new QueryResult[answers.size()]));
+        return results;
     }
 
     private static void validateOptions(QnAMakerOptions options) {
@@ -201,11 +293,10 @@ public class GenerateAnswerUtils {
      * @return Return modified options for the QnA Maker knowledge base.
      */
     private QnAMakerOptions hydrateOptions(QnAMakerOptions queryOptions) {
-        JacksonAdapter jacksonAdapter = new JacksonAdapter();
         QnAMakerOptions hydratedOptions = null;
 
         try {
-            hydratedOptions = jacksonAdapter.deserialize(jacksonAdapter.serialize(options), QnAMakerOptions.class);
+            hydratedOptions = JACKSON_ADAPTER.deserialize(JACKSON_ADAPTER.serialize(options), QnAMakerOptions.class);
         } catch (IOException e) {
             LoggerFactory.getLogger(GenerateAnswerUtils.class).error("hydrateOptions");
         }
@@ -247,7 +338,6 @@ public class GenerateAnswerUtils {
             this.endpoint.getHost(),
             this.endpoint.getKnowledgeBaseId()
         );
-        JacksonAdapter jacksonAdapter = new JacksonAdapter();
         String jsonRequest = null;
 
         JSONObject jsonObject = new JSONObject();
@@ -261,17 +351,14 @@ public class GenerateAnswerUtils {
         jsonObject.put("rankerType", withOptions.getRankerType());
         jsonObject.put("StrictFiltersCompoundOperationType", withOptions.getStrictFiltersJoinOperator());
 
-        jsonRequest = jacksonAdapter.serialize(jsonObject);
+        jsonRequest = JACKSON_ADAPTER.serialize(jsonObject);
 
-        HttpRequestUtils httpRequestHelper = new HttpRequestUtils();
-        return httpRequestHelper.executeHttpRequest(requestUrl, jsonRequest, this.endpoint).thenCompose(response -> {
-            try {
-                return GenerateAnswerUtils.formatQnAResult(response, withOptions);
-            } catch (IOException e) {
-                LoggerFactory.getLogger(GenerateAnswerUtils.class).error("QueryQnAService", e);
-                return CompletableFuture.completedFuture(null);
-            }
-        });
+        return httpRequestHelper.executeHttpRequest(
+            requestUrl,
+            jsonRequest,
+            this.endpoint,
+            parser -> GenerateAnswerUtils.readQnAResult(parser, withOptions)
+        );
     }
 
     private CompletableFuture<Void> emitTraceInfo(
@@ -4,27 +4,81 @@
 package com.microsoft.bot.ai.qna.utils;
 
 import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.connector.DispatcherFactory;
+import com.microsoft.bot.connector.ExecutorFactory;
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.bot.ai.qna.QnAMakerEndpoint;
 import com.microsoft.bot.connector.UserAgent;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.slf4j.LoggerFactory;
 
 /**
  * Helper for HTTP requests.
+ *
+ * Requests are sent without blocking the calling thread, and their results are
+ * completed on the SDK executor, so the continuations of a request never run on
+ * an OkHttp dispatcher thread.
  */
 public class HttpRequestUtils {
-    private final OkHttpClient httpClient = new OkHttpClient();
+    /**
+     * The client shared by the helpers that are not given one, so requests reuse
+     * its connection pool.
+     */
+    private static final OkHttpClient DEFAULT_HTTP_CLIENT = createDefaultHttpClient();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private final OkHttpClient httpClient;
+
+    /**
+     * Initializes a new instance of the {@link HttpRequestUtils} class, which uses
+     * a shared HTTP client.
+     */
+    public HttpRequestUtils() {
+        this(null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link HttpRequestUtils} class.
+     *
+     * @param withHttpClient The HTTP client to use for requests. If null, a shared
+     *                       client is used.
+     */
+    public HttpRequestUtils(OkHttpClient withHttpClient) {
+        this.httpClient = withHttpClient != null ? withHttpClient : DEFAULT_HTTP_CLIENT;
+    }
+
+    /**
+     * Reads the body of a successful response.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface ResponseParser<T> {
+        /**
+         * Reads the result from the response body.
+         *
+         * @param parser A parser over the response body, before its first token.
+         * @return The result.
+         * @throws IOException The body could not be read.
+         */
+        T parse(JsonParser parser) throws IOException;
+    }
 
     /**
      * Execute Http request.
@@ -38,6 +92,28 @@ public class HttpRequestUtils {
         String requestUrl,
         String payloadBody,
         QnAMakerEndpoint endpoint
+    ) {
+        return executeHttpRequest(requestUrl, payloadBody, endpoint, parser -> MAPPER.readTree(parser));
+    }
+
+    /**
+     * Execute Http request without blocking the calling thread, reading the
+     * response body as it is received.
+     *
+     * @param <T>            The type of the result.
+     * @param requestUrl     Http request url.
+     * @param payloadBody    Http request body.
+     * @param endpoint       QnA Maker endpoint details.
+     * @param responseParser Reads the result from the response body.
+     * @return Returns the result read from the response. Completes exceptionally
+     *         if the request fails, the response is not successful, or its body
+     *         cannot be parsed.
+     */
+    public <T> CompletableFuture<T> executeHttpRequest(
+        String requestUrl,
+        String payloadBody,
+        QnAMakerEndpoint endpoint,
+        ResponseParser<T> responseParser
     ) {
         if (requestUrl == null) {
             return Async
@@ -53,24 +129,51 @@ public class HttpRequestUtils {
             return Async.completeExceptionally(new IllegalArgumentException("endpoint"));
         }
 
-        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
-        String endpointKey = endpoint.getEndpointKey();
-        Response response;
-        JsonNode qnaResponse = null;
+        if (responseParser == null) {
+            return Async.completeExceptionally(new IllegalArgumentException("responseParser"));
+        }
+
+        Request request;
         try {
-            Request request = buildRequest(requestUrl, endpointKey, buildRequestBody(payloadBody));
-            response = this.httpClient.newCall(request).execute();
-            qnaResponse = mapper.readTree(response.body().string());
-            if (!response.isSuccessful()) {
-                String message = "Unexpected code " + response.code();
-                return Async.completeExceptionally(new Exception(message));
-            }
+            request = buildRequest(requestUrl, endpoint.getEndpointKey(), buildRequestBody(payloadBody));
         } catch (Exception e) {
-            LoggerFactory.getLogger(HttpRequestUtils.class).error("findPackages", e);
+            LoggerFactory.getLogger(HttpRequestUtils.class).error("executeHttpRequest", e);
             return Async.completeExceptionally(e);
         }
 
-        return CompletableFuture.completedFuture(qnaResponse);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        this.httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                LoggerFactory.getLogger(HttpRequestUtils.class).error("executeHttpRequest", e);
+                ExecutorFactory.completeOnExecutor(result, null, e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful()) {
+                        ExecutorFactory.completeOnExecutor(
+                            result, null, new Exception("Unexpected code " + response.code()));
+                        return;
+                    }
+
+                    // the body is read here, but the turn continues on the SDK executor
+                    try (JsonParser parser = MAPPER.getFactory().createParser(body.byteStream())) {
+                        ExecutorFactory.completeOnExecutor(result, responseParser.parse(parser), null);
+                    }
+                } catch (Exception e) {
+                    LoggerFactory.getLogger(HttpRequestUtils.class).error("executeHttpRequest", e);
+                    ExecutorFactory.completeOnExecutor(result, null, e);
+                }
+            }
+        });
+        return result;
+    }
+
+
+    private static OkHttpClient createDefaultHttpClient() {
+        return new OkHttpClient.Builder().dispatcher(DispatcherFactory.newDispatcher()).build();
     }
 
     private Request buildRequest(String requestUrl, String endpointKey, RequestBody body) {
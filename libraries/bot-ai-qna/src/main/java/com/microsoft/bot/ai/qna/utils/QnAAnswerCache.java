@@ -0,0 +1,290 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.ai.qna.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.microsoft.bot.ai.qna.QnAMakerEndpoint;
+import com.microsoft.bot.ai.qna.QnAMakerOptions;
+import com.microsoft.bot.ai.qna.dialogs.QnAMakerPrompt;
+import com.microsoft.bot.ai.qna.models.Metadata;
+import com.microsoft.bot.ai.qna.models.QnAResponseContext;
+import com.microsoft.bot.ai.qna.models.QueryResult;
+import com.microsoft.bot.ai.qna.models.QueryResults;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Caches the answers of a QnA Maker knowledge base, so a question that was
+ * asked recently with the same options is not sent to the service again.
+ *
+ * Questions are compared after trimming, collapsing white space and ignoring
+ * case. Questions that follow up a previous answer, which set the previous QnA
+ * id of the {@link com.microsoft.bot.ai.qna.models.QnARequestContext} or a QnA
+ * id, and questions to the test index are always sent to the service. The hits
+ * and misses are counted, see {@link #getHitRate()}, and reported on the
+ * QnaMessage telemetry event of {@link com.microsoft.bot.ai.qna.QnAMaker}.
+ *
+ * The answers are copied on the way in and out of the cache, so callers may
+ * modify the answers they get.
+ */
+public class QnAAnswerCache {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+    private final Map<List<Object>, Entry> entries;
+
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Initializes a new instance of the {@link QnAAnswerCache} class.
+     *
+     * @param withMaxEntries  The maximum number of answers to keep. The least
+     *                        recently used answers are removed first.
+     * @param withTimeToLive  How long an answer is kept.
+     */
+    public QnAAnswerCache(int withMaxEntries, Duration withTimeToLive) {
+        if (withMaxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries: The maximum number of entries should be greater than 0");
+        }
+
+        if (withTimeToLive == null || withTimeToLive.isNegative() || withTimeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLive: The time to live should be greater than 0");
+        }
+
+        this.maxEntries = withMaxEntries;
+        this.timeToLiveNanos = withTimeToLive.toNanos();
+        this.entries = new LinkedHashMap<List<Object>, Entry>(withMaxEntries, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of lookups that returned a cached answer.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups that had to query the service.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the share of the lookups that returned a cached answer.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Gets the number of cached answers, including the ones that expired but
+     * were not looked up since.
+     *
+     * @return The number of cached answers.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes the cached answers of a knowledge base, for example after it was
+     * trained.
+     *
+     * @param knowledgeBaseId The knowledge base id.
+     */
+    public synchronized void invalidate(String knowledgeBaseId) {
+        entries.keySet().removeIf(key -> StringUtils.equals((String) key.get(1), knowledgeBaseId));
+    }
+
+    /**
+     * Removes all the cached answers.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Determines whether the answers to a question can be cached.
+     *
+     * @param question The question.
+     * @param options  The options of the query.
+     * @return True unless the question is blank, follows up a previous answer or
+     *         is sent to the test index. A request context without a previous
+     *         QnA id, as set by the QnA Maker dialog on the first turn, does not
+     *         prevent caching.
+     */
+    public static boolean isCacheable(String question, QnAMakerOptions options) {
+        return !StringUtils.isBlank(question)
+            && (options.getContext() == null || isUnset(options.getContext().getPreviousQnAId()))
+            && isUnset(options.getQnAId())
+            && !Boolean.TRUE.equals(options.getIsTest());
+    }
+
+    private static boolean isUnset(Integer qnaId) {
+        return qnaId == null || qnaId == 0;
+    }
+
+    /**
+     * Gets the cached answers to a question.
+     *
+     * @param endpoint The endpoint of the knowledge base.
+     * @param question The question.
+     * @param options  The options of the query.
+     * @return A copy of the cached answers, or null if they are not cached or
+     *         expired.
+     */
+    public QueryResults get(QnAMakerEndpoint endpoint, String question, QnAMakerOptions options) {
+        List<Object> key = createKey(endpoint, question, options);
+        QueryResults results = null;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAt >= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+
+            if (entry != null) {
+                hitCount++;
+                results = copy(entry.results);
+            } else {
+                missCount++;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Caches the answers to a question.
+     *
+     * @param endpoint The endpoint of the knowledge base.
+     * @param question The question.
+     * @param options  The options of the query.
+     * @param results  The answers returned by the service.
+     */
+    public void put(QnAMakerEndpoint endpoint, String question, QnAMakerOptions options, QueryResults results) {
+        if (results == null || results.getAnswers() == null) {
+            return;
+        }
+
+        List<Object> key = createKey(endpoint, question, options);
+        Entry entry = new Entry(copy(results), System.nanoTime() + timeToLiveNanos);
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static List<Object> createKey(QnAMakerEndpoint endpoint, String question, QnAMakerOptions options) {
+        List<String> strictFilters = new ArrayList<>();
+        if (options.getStrictFilters() != null) {
+            for (Metadata filter : options.getStrictFilters()) {
+                strictFilters.add(filter.getName() + "=" + filter.getValue());
+            }
+        }
+
+        return Arrays.asList(
+            endpoint.getHost(),
+            endpoint.getKnowledgeBaseId(),
+            normalize(question),
+            options.getTop(),
+            options.getScoreThreshold(),
+            options.getRankerType(),
+            options.getStrictFiltersJoinOperator(),
+            strictFilters
+        );
+    }
+
+    private static String normalize(String question) {
+        return StringUtils.normalizeSpace(question).toLowerCase(Locale.ROOT);
+    }
+
+    private static QueryResults copy(QueryResults results) {
+        QueryResult[] answers = new QueryResult[results.getAnswers().length];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = copy(results.getAnswers()[i]);
+        }
+
+        QueryResults copy = new QueryResults();
+        copy.setAnswers(answers);
+        copy.setActiveLearningEnabled(results.getActiveLearningEnabled());
+        return copy;
+    }
+
+    private static QueryResult copy(QueryResult answer) {
+        if (answer == null) {
+            return null;
+        }
+
+        QueryResult copy = new QueryResult();
+        copy.setQuestions(answer.getQuestions() != null ? answer.getQuestions().clone() : null);
+        copy.setAnswer(answer.getAnswer());
+        copy.setScore(answer.getScore());
+        copy.setSource(answer.getSource());
+        copy.setId(answer.getId());
+
+        if (answer.getMetadata() != null) {
+            Metadata[] metadata = new Metadata[answer.getMetadata().length];
+            for (int i = 0; i < metadata.length; i++) {
+                Metadata item = answer.getMetadata()[i];
+                if (item != null) {
+                    metadata[i] = new Metadata();
+                    metadata[i].setName(item.getName());
+                    metadata[i].setValue(item.getValue());
+                }
+            }
+            copy.setMetadata(metadata);
+        }
+
+        if (answer.getContext() != null) {
+            QnAResponseContext context = new QnAResponseContext();
+            if (answer.getContext().getPrompts() != null) {
+                QnAMakerPrompt[] prompts = new QnAMakerPrompt[answer.getContext().getPrompts().length];
+                for (int i = 0; i < prompts.length; i++) {
+                    QnAMakerPrompt prompt = answer.getContext().getPrompts()[i];
+                    if (prompt != null) {
+                        prompts[i] = new QnAMakerPrompt();
+                        prompts[i].setDisplayOrder(prompt.getDisplayOrder());
+                        prompts[i].setQnaId(prompt.getQnaId());
+                        prompts[i].setDisplayText(prompt.getDisplayText());
+                        prompts[i].setQna(prompt.getQna());
+                    }
+                }
+                context.setPrompts(prompts);
+            }
+            copy.setContext(context);
+        }
+        return copy;
+    }
+
+    private static final class Entry {
+        private final QueryResults results;
+        private final long expiresAt;
+
+        private Entry(QueryResults withResults, long withExpiresAt) {
+            results = withResults;
+            expiresAt = withExpiresAt;
+        }
+    }
+}
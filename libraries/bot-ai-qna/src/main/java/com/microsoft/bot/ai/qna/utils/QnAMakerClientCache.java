@@ -0,0 +1,109 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.ai.qna.utils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.bot.ai.qna.QnAMaker;
+import com.microsoft.bot.ai.qna.QnAMakerEndpoint;
+import com.microsoft.bot.ai.qna.QnAMakerOptions;
+import com.microsoft.bot.builder.BotTelemetryClient;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Keeps the {@link QnAMaker} clients created by a recognizer or dialog, so they
+ * are reused while the knowledge base, endpoint key, host and options don't
+ * change. The clients it returns use its answer cache, if one is set.
+ */
+public class QnAMakerClientCache {
+    private static final int MAX_CLIENTS = 16;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private final Map<List<Object>, QnAMaker> clients = new LinkedHashMap<List<Object>, QnAMaker>(
+        MAX_CLIENTS, 0.75f, true
+    ) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, QnAMaker> eldest) {
+            return size() > MAX_CLIENTS;
+        }
+    };
+
+    private volatile QnAAnswerCache answerCache;
+
+    /**
+     * Gets the cache of the answers returned by the knowledge bases.
+     *
+     * @return The answer cache, or null if answers are not cached.
+     */
+    public QnAAnswerCache getAnswerCache() {
+        return answerCache;
+    }
+
+    /**
+     * Sets the cache of the answers returned by the knowledge bases. It is used
+     * by the clients returned from now on.
+     *
+     * @param withAnswerCache The answer cache, or null to not cache answers.
+     */
+    public void setAnswerCache(QnAAnswerCache withAnswerCache) {
+        answerCache = withAnswerCache;
+    }
+
+    /**
+     * Gets a client for an endpoint, creating it if it isn't cached.
+     *
+     * @param endpoint               The endpoint of the knowledge base to query.
+     * @param options                The options for the QnA Maker knowledge base.
+     * @param telemetryClient        The IBotTelemetryClient used for logging
+     *                               telemetry events.
+     * @param logPersonalInformation Set to true to include personally identifiable
+     *                               information in telemetry events.
+     * @param httpClient             The HTTP client to use for requests, or null
+     *                               to use a shared client.
+     * @return The QnA Maker client.
+     */
+    public QnAMaker getClient(
+        QnAMakerEndpoint endpoint,
+        QnAMakerOptions options,
+        BotTelemetryClient telemetryClient,
+        Boolean logPersonalInformation,
+        OkHttpClient httpClient
+    ) {
+        List<Object> key;
+        try {
+            key = Arrays.asList(
+                endpoint.getKnowledgeBaseId(),
+                endpoint.getEndpointKey(),
+                endpoint.getHost(),
+                MAPPER.writeValueAsString(options),
+                telemetryClient,
+                logPersonalInformation,
+                httpClient
+            );
+        } catch (JsonProcessingException e) {
+            // Options that can't be compared are not cached.
+            QnAMaker client = new QnAMaker(endpoint, options, telemetryClient, logPersonalInformation, httpClient);
+            client.setAnswerCache(answerCache);
+            return client;
+        }
+
+        QnAMaker client;
+        synchronized (clients) {
+            client = clients.get(key);
+            if (client == null) {
+                client = new QnAMaker(endpoint, options, telemetryClient, logPersonalInformation, httpClient);
+                clients.put(key, client);
+            }
+        }
+        client.setAnswerCache(answerCache);
+        return client;
+    }
+}
@@ -66,4 +66,16 @@ public final class QnATelemetryConstants {
      * The Key used when storing a username in a custom event within telemetry.
      */
     public static final String USERNAME_PROPERTY = "username";
+
+    /**
+     * The Key used when storing whether the answers were found in the
+     * {@link QnAAnswerCache} in a custom event within telemetry.
+     */
+    public static final String CACHE_HIT_PROPERTY = "cacheHit";
+
+    /**
+     * The Key used when storing the hit rate of the {@link QnAAnswerCache} in a
+     * custom event within telemetry.
+     */
+    public static final String CACHE_HIT_RATE_METRIC = "cacheHitRate";
 }
@@ -11,11 +11,16 @@ import com.microsoft.bot.restclient.serializer.JacksonAdapter;
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 
+import okhttp3.OkHttpClient;
+
 /**
  * Helper class for train API.
  */
 public class TrainUtils {
     private QnAMakerEndpoint endpoint;
+    private HttpRequestUtils httpRequestHelper;
+
+    private static final JacksonAdapter JACKSON_ADAPTER = new JacksonAdapter();
 
     /**
      * Initializes a new instance of the {@link TrainUtils} class.
@@ -23,7 +28,19 @@ public class TrainUtils {
      * @param withEndpoint QnA Maker endpoint details.
      */
     public TrainUtils(QnAMakerEndpoint withEndpoint) {
+        this(withEndpoint, null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link TrainUtils} class.
+     *
+     * @param withEndpoint   QnA Maker endpoint details.
+     * @param withHttpClient The HTTP client to use for requests. If null, a shared
+     *                       client is used.
+     */
+    public TrainUtils(QnAMakerEndpoint withEndpoint, OkHttpClient withHttpClient) {
         this.endpoint = withEndpoint;
+        this.httpRequestHelper = new HttpRequestUtils(withHttpClient);
     }
 
     /**
@@ -52,10 +69,9 @@ public class TrainUtils {
         String requestUrl = String
             .format("%1$s/knowledgebases/%2$s/train", this.endpoint.getHost(), this.endpoint.getKnowledgeBaseId());
 
-        JacksonAdapter jacksonAdapter = new JacksonAdapter();
-        String jsonRequest = jacksonAdapter.serialize(feedbackRecords);
+        String jsonRequest = JACKSON_ADAPTER.serialize(feedbackRecords);
 
-        HttpRequestUtils httpRequestHelper = new HttpRequestUtils();
-        return httpRequestHelper.executeHttpRequest(requestUrl, jsonRequest, this.endpoint).thenApply(result -> null);
+        // The train API has no answer to read, so the response body is not parsed.
+        return this.httpRequestHelper.executeHttpRequest(requestUrl, jsonRequest, this.endpoint, parser -> null);
     }
 }
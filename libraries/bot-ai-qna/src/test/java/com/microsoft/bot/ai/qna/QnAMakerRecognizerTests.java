@@ -6,9 +6,20 @@ package com.microsoft.bot.ai.qna;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.bot.ai.qna.models.QnARequestContext;
+import com.microsoft.bot.ai.qna.models.QueryResult;
+import com.microsoft.bot.ai.qna.models.QueryResults;
+import com.microsoft.bot.ai.qna.utils.QnAAnswerCache;
+import com.microsoft.bot.ai.qna.utils.QnATelemetryConstants;
+import com.microsoft.bot.builder.BotMetricsConstants;
+import com.microsoft.bot.builder.BotMetricsRegistry;
+import com.microsoft.bot.builder.BotTelemetryClient;
+import com.microsoft.bot.builder.InMemoryBotMetrics;
 import com.microsoft.bot.builder.RecognizerResult;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.builder.TurnContextImpl;
@@ -22,6 +33,8 @@ import okhttp3.HttpUrl;
 import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -46,6 +59,23 @@ public class QnAMakerRecognizerTests {
         Assert.assertFalse(logPersonalInfo);
     }
 
+    @Test
+    public void reusesQnAMakerClient() {
+        Activity activity = Activity.createMessageActivity();
+        TurnContext context = new TurnContextImpl(new TestAdapter(), activity);
+        DialogContext dc = new DialogContext(new DialogSet(), context, new DialogState());
+        QnAMakerRecognizer recognizer = new QnAMakerRecognizer();
+        recognizer.setHostName(hostname);
+        recognizer.setKnowledgeBaseId(knowledgeBaseId);
+        recognizer.setEndpointKey(endpointKey);
+
+        QnAMakerClient client = recognizer.getQnAMakerClient(dc).join();
+        Assert.assertSame(client, recognizer.getQnAMakerClient(dc).join());
+
+        recognizer.setKnowledgeBaseId("other-id");
+        Assert.assertNotSame(client, recognizer.getQnAMakerClient(dc).join());
+    }
+
     @Test
     public void noTextNoAnswer() {
         Activity activity = Activity.createMessageActivity();
@@ -103,6 +133,46 @@ public class QnAMakerRecognizerTests {
         }
     }
 
+    @Test
+    public void recordsRecognizeTimerOnce() {
+        MockWebServer mockWebServer = new MockWebServer();
+        InMemoryBotMetrics metrics = new InMemoryBotMetrics();
+        BotMetricsRegistry.setMetrics(metrics);
+        try {
+            String content = readFileContent("QnaMaker_ReturnsNoAnswer.json");
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            JsonNode response = mapper.readTree(content);
+            mockWebServer.enqueue(new MockResponse()
+                .addHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(mapper.writeValueAsString(response)));
+            String url = "/qnamaker/knowledgebases/";
+            String endpoint = String.format("%s:%s", hostname, initializeMockServer(mockWebServer, response, url).port());
+            QnAMakerRecognizer recognizer = new QnAMakerRecognizer();
+            recognizer.setHostName(endpoint);
+            recognizer.setKnowledgeBaseId(knowledgeBaseId);
+            recognizer.setEndpointKey(endpointKey);
+
+            Activity activity = Activity.createMessageActivity();
+            activity.setText("test");
+            TurnContext context = new TurnContextImpl(new TestAdapter(), activity);
+            DialogContext dc = new DialogContext(new DialogSet(), context, new DialogState());
+            recognizer.recognize(dc, activity).join();
+            recognizer.recognize(dc, activity, null, null).join();
+
+            Assert.assertEquals(2, metrics.getTimer(BotMetricsConstants.RECOGNIZE).getCount());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            BotMetricsRegistry.setMetrics(null);
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                // Empty error
+            }
+        }
+    }
+
     @Test
     public void returnAnswers() {
         MockWebServer mockWebServer = new MockWebServer();
@@ -179,6 +249,191 @@ public class QnAMakerRecognizerTests {
         }
     }
 
+    @Test
+    public void rescoresAndFiltersAnswers() {
+        MockWebServer mockWebServer = new MockWebServer();
+        try {
+            String content = "{\"debugInfo\":{\"trace\":[1,{\"answers\":[]}]},\"answers\":["
+                + "{\"questions\":[\"how do I clean the stove?\"],\"answer\":\"BaseCamp: You can use a damp rag\","
+                + "\"score\":90.5,\"id\":1,\"source\":\"Editorial\",\"metadata\":[],\"extra\":{\"a\":[1]}},"
+                + "{\"questions\":[\"where is the stove?\"],\"answer\":\"In the kitchen\","
+                + "\"score\":10,\"id\":2,\"source\":\"Editorial\",\"metadata\":[]}],"
+                + "\"activeLearningEnabled\":true}";
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            JsonNode response = mapper.readTree(content);
+            String url = "/qnamaker/knowledgebases/";
+            String endpoint = String.format("%s:%s", hostname, initializeMockServer(mockWebServer, response, url).port());
+
+            QnAMakerEndpoint qnaMakerEndpoint = new QnAMakerEndpoint();
+            qnaMakerEndpoint.setKnowledgeBaseId(knowledgeBaseId);
+            qnaMakerEndpoint.setEndpointKey(endpointKey);
+            qnaMakerEndpoint.setHost(endpoint);
+            QnAMaker qna = new QnAMaker(qnaMakerEndpoint, null);
+
+            Activity activity = Activity.createMessageActivity();
+            activity.setText("how do I clean the stove?");
+            TurnContext context = new TurnContextImpl(new TestAdapter(), activity);
+            QueryResults results = qna.getAnswersRaw(context, null, null, null).join();
+
+            Assert.assertTrue(results.getActiveLearningEnabled());
+            Assert.assertEquals(1, results.getAnswers().length);
+            Assert.assertEquals(Integer.valueOf(1), results.getAnswers()[0].getId());
+            Assert.assertEquals(0.905f, results.getAnswers()[0].getScore(), 0.0001f);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                // Empty error
+            }
+        }
+    }
+
+    @Test
+    public void cachesAnswers() {
+        MockWebServer mockWebServer = new MockWebServer();
+        try {
+            String content = readFileContent("QnaMaker_ReturnsAnswer.json");
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            JsonNode response = mapper.readTree(content);
+            String url = "/qnamaker/knowledgebases/";
+            String endpoint = String.format("%s:%s", hostname, initializeMockServer(mockWebServer, response, url).port());
+            mockWebServer.enqueue(new MockResponse()
+                .addHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(content));
+
+            QnAMakerEndpoint qnaMakerEndpoint = new QnAMakerEndpoint();
+            qnaMakerEndpoint.setKnowledgeBaseId(knowledgeBaseId);
+            qnaMakerEndpoint.setEndpointKey(endpointKey);
+            qnaMakerEndpoint.setHost(endpoint);
+            BotTelemetryClient telemetryClient = Mockito.mock(BotTelemetryClient.class);
+            QnAMaker qna = new QnAMaker(qnaMakerEndpoint, null, telemetryClient, false);
+            QnAAnswerCache answerCache = new QnAAnswerCache(10, Duration.ofMinutes(5));
+            qna.setAnswerCache(answerCache);
+
+            QueryResult[] first = qna.getAnswers(createContext("how do I clean the stove?"), null).join();
+            QueryResult[] second = qna.getAnswers(createContext("  How do I  clean the stove? "), null).join();
+            Assert.assertEquals(1, mockWebServer.getRequestCount());
+            Assert.assertEquals(1, answerCache.getHitCount());
+            Assert.assertEquals(0.5, answerCache.getHitRate(), 0);
+
+            // the cache is reported on the QnaMessage event, one event per question
+            ArgumentCaptor<Map<String, String>> properties = ArgumentCaptor.forClass(Map.class);
+            ArgumentCaptor<Map<String, Double>> metrics = ArgumentCaptor.forClass(Map.class);
+            Mockito.verify(telemetryClient, Mockito.times(2)).trackEvent(
+                Mockito.eq(QnATelemetryConstants.QNA_MSG_EVENT), properties.capture(), metrics.capture());
+            Assert.assertEquals("false", properties.getAllValues().get(0).get(QnATelemetryConstants.CACHE_HIT_PROPERTY));
+            Assert.assertEquals("true", properties.getAllValues().get(1).get(QnATelemetryConstants.CACHE_HIT_PROPERTY));
+            Assert.assertEquals(
+                0.5, metrics.getAllValues().get(1).get(QnATelemetryConstants.CACHE_HIT_RATE_METRIC), 0);
+            Assert.assertEquals(first[0].getAnswer(), second[0].getAnswer());
+
+            // cached answers are copied, so callers can't change them
+            second[0].setAnswer("changed");
+            second[0].getQuestions()[0] = "changed";
+
+            // a request context without a previous answer is cached, as the QnA Maker dialog sends one
+            QnAMakerOptions firstTurn = new QnAMakerOptions();
+            firstTurn.setContext(new QnARequestContext());
+            QueryResult[] third = qna.getAnswers(createContext("how do I clean the stove?"), firstTurn).join();
+            Assert.assertEquals(1, mockWebServer.getRequestCount());
+            Assert.assertEquals(2, answerCache.getHitCount());
+            Assert.assertEquals(first[0].getAnswer(), third[0].getAnswer());
+            Assert.assertEquals(first[0].getQuestions()[0], third[0].getQuestions()[0]);
+
+            QnAMakerOptions followUp = new QnAMakerOptions();
+            followUp.setContext(new QnARequestContext());
+            followUp.getContext().setPreviousQnAId(1);
+            qna.getAnswers(createContext("how do I clean the stove?"), followUp).join();
+            Assert.assertEquals(2, mockWebServer.getRequestCount());
+            Assert.assertEquals(2, answerCache.getHitCount());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                // Empty error
+            }
+        }
+    }
+
+    @Test
+    public void telemetryPrefersTurnStateClient() {
+        MockWebServer mockWebServer = new MockWebServer();
+        try {
+            String content = readFileContent("QnaMaker_ReturnsAnswer.json");
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            JsonNode response = mapper.readTree(content);
+            String url = "/qnamaker/knowledgebases/";
+            String endpoint = String.format("%s:%s", hostname, initializeMockServer(mockWebServer, response, url).port());
+
+            QnAMakerEndpoint qnaMakerEndpoint = new QnAMakerEndpoint();
+            qnaMakerEndpoint.setKnowledgeBaseId(knowledgeBaseId);
+            qnaMakerEndpoint.setEndpointKey(endpointKey);
+            qnaMakerEndpoint.setHost(endpoint);
+            BotTelemetryClient telemetryClient = Mockito.mock(BotTelemetryClient.class);
+            QnAMaker qna = new QnAMaker(qnaMakerEndpoint, null, telemetryClient, false);
+
+            // the turn state client may be bound to the conversation of the turn
+            BotTelemetryClient turnStateTelemetryClient = Mockito.mock(BotTelemetryClient.class);
+            TurnContext context = createContext("how do I clean the stove?");
+            context.getTurnState().add(BotTelemetryClient.class.getName(), turnStateTelemetryClient);
+            qna.getAnswers(context, null).join();
+
+            Mockito.verify(turnStateTelemetryClient).trackEvent(
+                Mockito.eq(QnATelemetryConstants.QNA_MSG_EVENT), Mockito.anyMap(), Mockito.anyMap());
+            Mockito.verifyNoInteractions(telemetryClient);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                // Empty error
+            }
+        }
+    }
+
+    @Test
+    public void recognizerCachesAnswers() {
+        MockWebServer mockWebServer = new MockWebServer();
+        try {
+            String content = readFileContent("QnaMaker_ReturnsAnswer.json");
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            JsonNode response = mapper.readTree(content);
+            String url = "/qnamaker/knowledgebases/";
+            String endpoint = String.format("%s:%s", hostname, initializeMockServer(mockWebServer, response, url).port());
+
+            QnAMakerRecognizer recognizer = new QnAMakerRecognizer();
+            recognizer.setHostName(endpoint);
+            recognizer.setKnowledgeBaseId(knowledgeBaseId);
+            recognizer.setEndpointKey(endpointKey);
+            QnAAnswerCache answerCache = new QnAAnswerCache(10, Duration.ofMinutes(5));
+            recognizer.setAnswerCache(answerCache);
+
+            for (int i = 0; i < 2; i++) {
+                Activity activity = Activity.createMessageActivity();
+                activity.setText("how do I clean the stove?");
+                TurnContext context = new TurnContextImpl(new TestAdapter(), activity);
+                DialogContext dc = new DialogContext(new DialogSet(), context, new DialogState());
+                validateAnswers(recognizer.recognize(dc, activity).join());
+            }
+
+            Assert.assertEquals(1, mockWebServer.getRequestCount());
+            Assert.assertEquals(1, answerCache.getHitCount());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                // Empty error
+            }
+        }
+    }
+
     @Test
     public void returnAnswersWithIntents() {
         MockWebServer mockWebServer = new MockWebServer();
@@ -217,6 +472,12 @@ public class QnAMakerRecognizerTests {
         }
     }
 
+    private TurnContext createContext(String text) {
+        Activity activity = Activity.createMessageActivity();
+        activity.setText(text);
+        return new TurnContextImpl(new TestAdapter(), activity);
+    }
+
     private String readFileContent (String fileName) throws IOException {
         String path = Paths.get("", "src", "test", "java", "com", "microsoft", "bot", "ai", "qna",
             "testdata", fileName).toAbsolutePath().toString();
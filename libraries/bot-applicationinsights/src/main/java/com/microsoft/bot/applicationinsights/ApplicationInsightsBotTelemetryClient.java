@@ -5,6 +5,7 @@ package com.microsoft.bot.applicationinsights;
 
 import com.microsoft.applicationinsights.TelemetryClient;
 import com.microsoft.applicationinsights.TelemetryConfiguration;
+import com.microsoft.applicationinsights.telemetry.BaseSampleSourceTelemetry;
 import com.microsoft.applicationinsights.telemetry.EventTelemetry;
 import com.microsoft.applicationinsights.telemetry.ExceptionTelemetry;
 import com.microsoft.applicationinsights.telemetry.PageViewTelemetry;
@@ -13,6 +14,7 @@ import com.microsoft.applicationinsights.telemetry.SeverityLevel;
 import com.microsoft.applicationinsights.telemetry.TraceTelemetry;
 import com.microsoft.bot.builder.BotTelemetryClient;
 import com.microsoft.bot.builder.Severity;
+import com.microsoft.bot.builder.TelemetryConstants;
 import org.apache.commons.lang3.StringUtils;
 
 import java.time.Duration;
@@ -29,6 +31,7 @@ public class ApplicationInsightsBotTelemetryClient implements BotTelemetryClient
 
     private final TelemetryClient telemetryClient;
     private final TelemetryConfiguration telemetryConfiguration;
+    private BotTelemetrySampler sampler;
 
     /**
      * Provides access to the Application Insights configuration that is running here.
@@ -39,6 +42,61 @@ public class ApplicationInsightsBotTelemetryClient implements BotTelemetryClient
         return telemetryConfiguration;
     }
 
+    /**
+     * Gets the sampler that decides which events, traces, page views and
+     * successful dependencies are sent.
+     *
+     * @return The sampler, or null if all the telemetry is sent.
+     */
+    public BotTelemetrySampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Sets the sampler that decides which events, traces, page views and
+     * successful dependencies are sent. Exceptions, failed dependencies and
+     * availability results, and traces with an error or critical severity are
+     * always sent.
+     *
+     * <p>
+     * Items are sampled by the conversation in their
+     * {@link TelemetryConstants#CONVERSATIONIDPROPERTY} property or, if they don't
+     * have one, by the conversation of the client returned by
+     * {@link #forConversation(String)} that tracked them. The sent items carry the
+     * sampling percentage, so Application Insights extrapolates their counts.
+     * </p>
+     *
+     * @param withSampler The sampler, or null to send all the telemetry.
+     */
+    public void setSampler(BotTelemetrySampler withSampler) {
+        sampler = withSampler;
+    }
+
+    /**
+     * Gets the share of the sampled telemetry that is currently sent.
+     *
+     * @return The sampling ratio, between 0 and 1. 1 if there is no sampler.
+     */
+    public double getSamplingRatio() {
+        BotTelemetrySampler current = sampler;
+        return current != null ? current.getSamplingRatio() : 1;
+    }
+
+    /**
+     * Gets a client that tracks telemetry for a conversation. The items it tracks
+     * are sampled with the conversation, whichever thread tracks them, unless
+     * their {@link TelemetryConstants#CONVERSATIONIDPROPERTY} property names
+     * another one.
+     * {@link com.microsoft.bot.applicationinsights.core.TelemetryInitializerMiddleware}
+     * adds such a client to the turn state of each turn.
+     *
+     * @param conversationId The id of the conversation.
+     * @return A client that sends its telemetry through this client.
+     */
+    public BotTelemetryClient forConversation(String conversationId) {
+        return new ConversationTelemetryClient(conversationId);
+    }
+
     /**
      * Initializes a new instance of the {@link BotTelemetryClient}.
      *
@@ -146,6 +204,28 @@ public class ApplicationInsightsBotTelemetryClient implements BotTelemetryClient
         String resultCode,
         boolean success
     ) {
+        trackDependency(
+            dependencyTypeName, target, dependencyName, data, startTime, duration, resultCode, success, null
+        );
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private void trackDependency(
+        String dependencyTypeName,
+        String target,
+        String dependencyName,
+        String data,
+        OffsetDateTime startTime,
+        Duration duration,
+        String resultCode,
+        boolean success,
+        String conversationId
+    ) {
+        BotTelemetrySampler current = success ? sampler : null;
+        if (current != null && !current.isSampledIn(conversationId)) {
+            return;
+        }
+
         com.microsoft.applicationinsights.telemetry.Duration durationTelemetry =
             new com.microsoft.applicationinsights.telemetry.Duration(duration.toNanos());
 
@@ -156,6 +236,7 @@ public class ApplicationInsightsBotTelemetryClient implements BotTelemetryClient
         telemetry.setTarget(target);
         telemetry.setTimestamp(new Date(startTime.toInstant().toEpochMilli()));
         telemetry.setResultCode(resultCode);
+        setSamplingPercentage(telemetry, current);
 
         telemetryClient.trackDependency(telemetry);
     }
@@ -170,7 +251,22 @@ public class ApplicationInsightsBotTelemetryClient implements BotTelemetryClient
      */
     @Override
     public void trackEvent(String eventName, Map<String, String> properties, Map<String, Double> metrics) {
+        trackEvent(eventName, properties, metrics, null);
+    }
+
+    private void trackEvent(
+        String eventName,
+        Map<String, String> properties,
+        Map<String, Double> metrics,
+        String conversationId
+    ) {
+        BotTelemetrySampler current = sampler;
+        if (current != null && !isSampledIn(current, properties, conversationId)) {
+            return;
+        }
+
         EventTelemetry telemetry = new EventTelemetry(eventName);
+        setSamplingPercentage(telemetry, current);
         if (properties != null) {
             for (Map.Entry<String, String> pair : properties.entrySet()) {
                 telemetry.getProperties().put(pair.getKey(), pair.getValue());
@@ -222,7 +318,22 @@ public class ApplicationInsightsBotTelemetryClient implements BotTelemetryClient
      */
     @Override
     public void trackTrace(String message, Severity severityLevel, Map<String, String> properties) {
+        trackTrace(message, severityLevel, properties, null);
+    }
+
+    private void trackTrace(
+        String message,
+        Severity severityLevel,
+        Map<String, String> properties,
+        String conversationId
+    ) {
+        BotTelemetrySampler current = severityLevel.ordinal() < Severity.ERROR.ordinal() ? sampler : null;
+        if (current != null && !isSampledIn(current, properties, conversationId)) {
+            return;
+        }
+
         TraceTelemetry telemetry = new TraceTelemetry(message);
+        setSamplingPercentage(telemetry, current);
         telemetry.setSeverityLevel(SeverityLevel.values()[severityLevel.ordinal()]);
 
         if (properties != null) {
@@ -253,7 +364,22 @@ public class ApplicationInsightsBotTelemetryClient implements BotTelemetryClient
      * @param metrics    Measurements associated with this event.
      */
     public void trackPageView(String dialogName, Map<String, String> properties, Map<String, Double> metrics) {
+        trackPageView(dialogName, properties, metrics, null);
+    }
+
+    private void trackPageView(
+        String dialogName,
+        Map<String, String> properties,
+        Map<String, Double> metrics,
+        String conversationId
+    ) {
+        BotTelemetrySampler current = sampler;
+        if (current != null && !isSampledIn(current, properties, conversationId)) {
+            return;
+        }
+
         PageViewTelemetry telemetry = new PageViewTelemetry(dialogName);
+        setSamplingPercentage(telemetry, current);
 
         if (properties != null) {
             for (Map.Entry<String, String> pair : properties.entrySet()) {
@@ -277,4 +403,92 @@ public class ApplicationInsightsBotTelemetryClient implements BotTelemetryClient
     public void flush() {
         telemetryClient.flush();
     }
+
+    private static boolean isSampledIn(
+        BotTelemetrySampler sampler,
+        Map<String, String> properties,
+        String conversationId
+    ) {
+        String propertyConversationId = properties != null
+            ? properties.get(TelemetryConstants.CONVERSATIONIDPROPERTY)
+            : null;
+        return sampler.isSampledIn(propertyConversationId != null ? propertyConversationId : conversationId);
+    }
+
+    private static void setSamplingPercentage(BaseSampleSourceTelemetry<?> telemetry, BotTelemetrySampler sampler) {
+        if (sampler != null && sampler.getSamplingRatio() < 1) {
+            telemetry.setSamplingPercentage(sampler.getSamplingPercentage());
+        }
+    }
+
+    /**
+     * Tracks telemetry through the outer client on behalf of a conversation.
+     */
+    private final class ConversationTelemetryClient implements BotTelemetryClient {
+        private final String conversationId;
+
+        private ConversationTelemetryClient(String withConversationId) {
+            conversationId = withConversationId;
+        }
+
+        @SuppressWarnings("checkstyle:ParameterNumber")
+        @Override
+        public void trackAvailability(
+            String name,
+            OffsetDateTime timeStamp,
+            Duration duration,
+            String runLocation,
+            boolean success,
+            String message,
+            Map<String, String> properties,
+            Map<String, Double> metrics
+        ) {
+            ApplicationInsightsBotTelemetryClient.this.trackAvailability(
+                name, timeStamp, duration, runLocation, success, message, properties, metrics
+            );
+        }
+
+        @SuppressWarnings("checkstyle:ParameterNumber")
+        @Override
+        public void trackDependency(
+            String dependencyTypeName,
+            String target,
+            String dependencyName,
+            String data,
+            OffsetDateTime startTime,
+            Duration duration,
+            String resultCode,
+            boolean success
+        ) {
+            ApplicationInsightsBotTelemetryClient.this.trackDependency(
+                dependencyTypeName, target, dependencyName, data, startTime, duration, resultCode, success,
+                conversationId
+            );
+        }
+
+        @Override
+        public void trackEvent(String eventName, Map<String, String> properties, Map<String, Double> metrics) {
+            ApplicationInsightsBotTelemetryClient.this.trackEvent(eventName, properties, metrics, conversationId);
+        }
+
+        @Override
+        public void trackException(Exception exception, Map<String, String> properties, Map<String, Double> metrics) {
+            ApplicationInsightsBotTelemetryClient.this.trackException(exception, properties, metrics);
+        }
+
+        @Override
+        public void trackTrace(String message, Severity severityLevel, Map<String, String> properties) {
+            ApplicationInsightsBotTelemetryClient.this.trackTrace(message, severityLevel, properties, conversationId);
+        }
+
+        @Override
+        public void trackDialogView(String dialogName, Map<String, String> properties, Map<String, Double> metrics) {
+            ApplicationInsightsBotTelemetryClient.this.trackPageView(dialogName, properties, metrics, conversationId);
+        }
+
+        @Override
+        public void flush() {
+            ApplicationInsightsBotTelemetryClient.this.flush();
+        }
+    }
 }
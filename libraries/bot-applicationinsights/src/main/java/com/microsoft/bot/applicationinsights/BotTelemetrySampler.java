@@ -0,0 +1,181 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.applicationinsights;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples bot telemetry adaptively, to keep the telemetry sent close to a
+ * target number of items per second.
+ *
+ * <p>
+ * The sampler counts the telemetry items it is asked about and, after each
+ * evaluation interval, computes the ratio that would have kept the target rate.
+ * The sampling ratio drops to a lower ratio at once, and rises towards a higher
+ * one gradually. Items are sampled by conversation: every item of a
+ * conversation is kept or dropped together, and the conversations that are kept
+ * at a ratio are also kept at any higher ratio. Items without a conversation
+ * are sampled at random.
+ * </p>
+ */
+public class BotTelemetrySampler {
+    /**
+     * The default interval after which the sampling ratio is evaluated.
+     */
+    public static final Duration DEFAULT_EVALUATION_INTERVAL = Duration.ofSeconds(15);
+
+    /**
+     * The lowest sampling ratio. One in a thousand conversations is always kept.
+     */
+    public static final double MIN_SAMPLING_RATIO = 0.001;
+
+    /**
+     * How far the sampling ratio moves up towards its new value at each
+     * evaluation. The ratio moves down at once.
+     */
+    private static final double SMOOTHING = 0.5;
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static final double PERCENT = 100.0;
+
+    /**
+     * Scales the top 53 bits of a hash to a double between 0 and 1.
+     */
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private static final int DOUBLE_SHIFT = 11;
+
+    /**
+     * The constants of the MurmurHash3 64-bit finalizer.
+     */
+    private static final int MIX_SHIFT = 33;
+    private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+    private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+
+    private final double targetItemsPerSecond;
+    private final long evaluationIntervalNanos;
+    private final LongSupplier clock;
+
+    private final AtomicLong itemCount = new AtomicLong();
+    private final AtomicLong windowStart;
+    private volatile double samplingRatio = 1;
+
+    /**
+     * Initializes a new instance of the {@link BotTelemetrySampler} class that
+     * evaluates the sampling ratio every {@link #DEFAULT_EVALUATION_INTERVAL}.
+     *
+     * @param withTargetItemsPerSecond The number of telemetry items per second
+     *                                 to keep.
+     */
+    public BotTelemetrySampler(double withTargetItemsPerSecond) {
+        this(withTargetItemsPerSecond, DEFAULT_EVALUATION_INTERVAL);
+    }
+
+    /**
+     * Initializes a new instance of the {@link BotTelemetrySampler} class.
+     *
+     * @param withTargetItemsPerSecond The number of telemetry items per second
+     *                                 to keep.
+     * @param withEvaluationInterval   How often the sampling ratio is evaluated.
+     */
+    public BotTelemetrySampler(double withTargetItemsPerSecond, Duration withEvaluationInterval) {
+        this(withTargetItemsPerSecond, withEvaluationInterval, System::nanoTime);
+    }
+
+    BotTelemetrySampler(double withTargetItemsPerSecond, Duration withEvaluationInterval, LongSupplier withClock) {
+        if (!(withTargetItemsPerSecond > 0)) {
+            throw new IllegalArgumentException("targetItemsPerSecond must be greater than 0");
+        }
+
+        if (withEvaluationInterval == null || withEvaluationInterval.isNegative() || withEvaluationInterval.isZero()) {
+            throw new IllegalArgumentException("evaluationInterval must be greater than 0");
+        }
+
+        targetItemsPerSecond = withTargetItemsPerSecond;
+        evaluationIntervalNanos = withEvaluationInterval.toNanos();
+        clock = withClock;
+        windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Gets the number of telemetry items per second to keep.
+     *
+     * @return The target rate.
+     */
+    public double getTargetItemsPerSecond() {
+        return targetItemsPerSecond;
+    }
+
+    /**
+     * Gets the share of the sampled telemetry that is currently kept.
+     *
+     * @return The sampling ratio, between {@link #MIN_SAMPLING_RATIO} and 1.
+     */
+    public double getSamplingRatio() {
+        return samplingRatio;
+    }
+
+    /**
+     * Gets the share of the sampled telemetry that is currently kept, as the
+     * percentage Application Insights uses to extrapolate counts.
+     *
+     * @return The sampling percentage, between 0.1 and 100.
+     */
+    public double getSamplingPercentage() {
+        return samplingRatio * PERCENT;
+    }
+
+    /**
+     * Counts a telemetry item and determines whether it is kept.
+     *
+     * @param conversationId The conversation the item belongs to, or null if it
+     *                       does not belong to one.
+     * @return True if the item is kept.
+     */
+    public boolean isSampledIn(String conversationId) {
+        itemCount.incrementAndGet();
+        evaluate();
+
+        double ratio = samplingRatio;
+        if (ratio >= 1) {
+            return true;
+        }
+
+        double score = conversationId != null
+            ? scoreOf(conversationId)
+            : ThreadLocalRandom.current().nextDouble();
+        return score < ratio;
+    }
+
+    private void evaluate() {
+        long start = windowStart.get();
+        long now = clock.getAsLong();
+        long elapsed = now - start;
+        if (elapsed < evaluationIntervalNanos || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+
+        double itemsPerSecond = itemCount.getAndSet(0) * NANOS_PER_SECOND / elapsed;
+        double target = itemsPerSecond > 0 ? Math.min(1, targetItemsPerSecond / itemsPerSecond) : 1;
+        double ratio = target < samplingRatio ? target : samplingRatio + (target - samplingRatio) * SMOOTHING;
+        samplingRatio = 1 - ratio < MIN_SAMPLING_RATIO ? 1 : Math.max(MIN_SAMPLING_RATIO, ratio);
+    }
+
+    /**
+     * Maps a conversation id to a stable score between 0 and 1.
+     */
+    private static double scoreOf(String conversationId) {
+        long hash = conversationId.hashCode();
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_2;
+        hash ^= hash >>> MIX_SHIFT;
+        return (hash >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+    }
+}
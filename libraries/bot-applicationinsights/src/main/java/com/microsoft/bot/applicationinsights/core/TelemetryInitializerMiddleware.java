@@ -6,7 +6,9 @@ package com.microsoft.bot.applicationinsights.core;
 
 import com.microsoft.applicationinsights.core.dependencies.http.client.protocol.HttpClientContext;
 import com.microsoft.applicationinsights.core.dependencies.http.protocol.HttpContext;
+import com.microsoft.bot.applicationinsights.ApplicationInsightsBotTelemetryClient;
 import com.microsoft.bot.builder.BotAssert;
+import com.microsoft.bot.builder.BotTelemetryClient;
 import com.microsoft.bot.builder.Middleware;
 import com.microsoft.bot.builder.NextDelegate;
 import com.microsoft.bot.builder.TelemetryLoggerMiddleware;
@@ -16,7 +18,12 @@ import com.microsoft.bot.schema.Activity;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Middleware for storing incoming activity on the HttpContext.
+ * Middleware for storing incoming activity on the HttpContext. When the
+ * telemetry client of the logger middleware is an
+ * {@link ApplicationInsightsBotTelemetryClient}, it also adds a client for the
+ * conversation of the turn to the turn state, so the telemetry that dialogs
+ * and recognizers track during the turn is sampled by conversation on any
+ * thread. See {@link com.microsoft.bot.applicationinsights.BotTelemetrySampler}.
  */
 public class TelemetryInitializerMiddleware implements Middleware {
 
@@ -70,10 +77,35 @@ public class TelemetryInitializerMiddleware implements Middleware {
             httpContext.setAttribute(botActivityKey, activity);
         }
 
+        addConversationTelemetryClient(context);
+
         if (logActivityTelemetry) {
             return telemetryLoggerMiddleware.onTurn(context, next);
         } else {
             return next.next();
         }
     }
+
+    /**
+     * Adds a telemetry client bound to the conversation of the turn to the turn
+     * state, unless the turn already has a telemetry client.
+     */
+    private void addConversationTelemetryClient(TurnContext context) {
+        BotTelemetryClient telemetryClient = telemetryLoggerMiddleware != null
+            ? telemetryLoggerMiddleware.getTelemetryClient()
+            : null;
+        Activity activity = context.getActivity();
+        if (!(telemetryClient instanceof ApplicationInsightsBotTelemetryClient)
+            || activity == null
+            || activity.getConversation() == null
+            || context.getTurnState().get(BotTelemetryClient.class) != null) {
+            return;
+        }
+
+        context.getTurnState().add(
+            BotTelemetryClient.class.getName(),
+            ((ApplicationInsightsBotTelemetryClient) telemetryClient)
+                .forConversation(activity.getConversation().getId())
+        );
+    }
 }
@@ -0,0 +1,175 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.applicationinsights;
+
+import com.microsoft.applicationinsights.channel.TelemetryChannel;
+import com.microsoft.applicationinsights.telemetry.EventTelemetry;
+import com.microsoft.applicationinsights.telemetry.ExceptionTelemetry;
+import com.microsoft.applicationinsights.telemetry.Telemetry;
+import com.microsoft.bot.applicationinsights.core.TelemetryInitializerMiddleware;
+import com.microsoft.bot.builder.BotTelemetryClient;
+import com.microsoft.bot.builder.Severity;
+import com.microsoft.bot.builder.TelemetryConstants;
+import com.microsoft.bot.builder.TelemetryLoggerMiddleware;
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.builder.TurnContextImpl;
+import com.microsoft.bot.builder.adapters.TestAdapter;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ConversationAccount;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class BotTelemetrySamplerTests {
+    private long now;
+    private BotTelemetrySampler sampler;
+
+    @Before
+    public void initialize() {
+        now = 0;
+        sampler = new BotTelemetrySampler(10, Duration.ofSeconds(1), () -> now);
+    }
+
+    @Test
+    public void keepsEverythingUnderTarget() {
+        for (int second = 0; second < 5; second++) {
+            for (int i = 0; i < 5; i++) {
+                Assert.assertTrue(sampler.isSampledIn("conversation" + i));
+            }
+            now += Duration.ofSeconds(1).toNanos();
+        }
+        Assert.assertEquals(1, sampler.getSamplingRatio(), 0);
+    }
+
+    @Test
+    public void adaptsToTarget() {
+        offer(100);
+        Assert.assertEquals(0.1, sampler.getSamplingRatio(), 0.002);
+        Assert.assertEquals(10, sampler.getSamplingPercentage(), 0.2);
+
+        // The ratio rises half way towards 0.5 at once.
+        offer(20);
+        Assert.assertEquals(0.3, sampler.getSamplingRatio(), 0.02);
+
+        for (int i = 0; i < 20; i++) {
+            offer(5);
+        }
+        Assert.assertEquals(1, sampler.getSamplingRatio(), 0);
+    }
+
+    @Test
+    public void samplesByConversation() {
+        offer(1000);
+        double ratio = sampler.getSamplingRatio();
+        Assert.assertTrue(ratio < 0.1);
+
+        Set<String> kept = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            if (sampler.isSampledIn("conversation" + i)) {
+                kept.add("conversation" + i);
+            }
+        }
+        Assert.assertEquals(10000 * ratio, kept.size(), 10000 * ratio * 0.3);
+
+        // The same conversations are kept every time.
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertEquals(kept.contains("conversation" + i), sampler.isSampledIn("conversation" + i));
+        }
+    }
+
+    @Test
+    public void clientKeepsErrors() {
+        ApplicationInsightsBotTelemetryClient client = new ApplicationInsightsBotTelemetryClient("fakeKey");
+        TelemetryChannel channel = Mockito.mock(TelemetryChannel.class);
+        client.getTelemetryConfiguration().setChannel(channel);
+        client.setSampler(sampler);
+        offer(1000);
+        Assert.assertEquals(sampler.getSamplingRatio(), client.getSamplingRatio(), 0);
+
+        String keptConversation = null;
+        String droppedConversation = null;
+        for (int i = 0; keptConversation == null || droppedConversation == null; i++) {
+            if (sampler.isSampledIn("conversation" + i)) {
+                keptConversation = "conversation" + i;
+            } else {
+                droppedConversation = "conversation" + i;
+            }
+        }
+
+        client.trackEvent("kept", properties(keptConversation), null);
+        client.trackEvent("dropped", properties(droppedConversation), null);
+        client.trackTrace("dropped", Severity.INFORMATION, properties(droppedConversation));
+        client.trackTrace("kept", Severity.ERROR, properties(droppedConversation));
+        client.trackException(new IllegalStateException(), properties(droppedConversation), null);
+
+        ArgumentCaptor<Telemetry> sent = ArgumentCaptor.forClass(Telemetry.class);
+        Mockito.verify(channel, Mockito.times(3)).send(sent.capture());
+        List<Telemetry> telemetry = sent.getAllValues();
+
+        EventTelemetry event = (EventTelemetry) telemetry.get(0);
+        Assert.assertEquals("kept", event.getName());
+        Assert.assertEquals(sampler.getSamplingPercentage(), event.getSamplingPercentage(), 0);
+        Assert.assertTrue(telemetry.get(2) instanceof ExceptionTelemetry);
+    }
+
+    @Test
+    public void turnClientSamplesByConversationOnAnyThread() {
+        ApplicationInsightsBotTelemetryClient client = new ApplicationInsightsBotTelemetryClient("fakeKey");
+        TelemetryChannel channel = Mockito.mock(TelemetryChannel.class);
+        client.getTelemetryConfiguration().setChannel(channel);
+        client.setSampler(sampler);
+        offer(1000);
+
+        String keptConversation = null;
+        String droppedConversation = null;
+        for (int i = 0; keptConversation == null || droppedConversation == null; i++) {
+            if (sampler.isSampledIn("conversation" + i)) {
+                keptConversation = "conversation" + i;
+            } else {
+                droppedConversation = "conversation" + i;
+            }
+        }
+
+        TelemetryInitializerMiddleware middleware =
+            new TelemetryInitializerMiddleware(new TelemetryLoggerMiddleware(client, false), false);
+        for (String conversationId : new String[] { keptConversation, droppedConversation }) {
+            Activity activity = Activity.createMessageActivity();
+            activity.setConversation(new ConversationAccount(conversationId));
+            TurnContext turnContext = new TurnContextImpl(new TestAdapter(), activity);
+
+            // the telemetry is tracked after a hop to another thread
+            middleware.onTurn(turnContext, () -> CompletableFuture.runAsync(() -> {
+                BotTelemetryClient turnClient = turnContext.getTurnState().get(BotTelemetryClient.class);
+                turnClient.trackEvent(conversationId);
+                turnClient.trackTrace(conversationId, Severity.INFORMATION, null);
+            })).join();
+        }
+
+        ArgumentCaptor<Telemetry> sent = ArgumentCaptor.forClass(Telemetry.class);
+        Mockito.verify(channel, Mockito.times(2)).send(sent.capture());
+        Assert.assertEquals(keptConversation, ((EventTelemetry) sent.getAllValues().get(0)).getName());
+    }
+
+    private void offer(int itemsPerSecond) {
+        for (int i = 0; i < itemsPerSecond; i++) {
+            sampler.isSampledIn(null);
+        }
+        now += Duration.ofSeconds(1).toNanos();
+        sampler.isSampledIn(null);
+    }
+
+    private static Map<String, String> properties(String conversationId) {
+        return Collections.singletonMap(TelemetryConstants.CONVERSATIONIDPROPERTY, conversationId);
+    }
+}
@@ -100,6 +100,12 @@ public class BotFrameworkAdapter extends BotAdapter
      */
     public static final String TEAMSCONNECTOR_CLIENT_KEY = "TeamsConnectorClient";
 
+    /**
+     * Records the requests of the connector clients created by the adapter.
+     */
+    private static final ConnectorClientMetricsInterceptor CONNECTOR_METRICS_INTERCEPTOR =
+        new ConnectorClientMetricsInterceptor();
+
     private AppCredentials appCredentials;
 
     /**
@@ -428,9 +434,11 @@ public class BotFrameworkAdapter extends BotAdapter
             return Async.completeExceptionally(new IllegalArgumentException("Activity"));
         }
 
-        return JwtTokenValidation
-            .authenticateRequest(activity, authHeader, credentialProvider, channelProvider, authConfiguration)
-            .thenCompose(claimsIdentity -> processActivity(claimsIdentity, activity, callback));
+        return BotMetricsRegistry.time(
+            BotMetricsConstants.AUTHENTICATION,
+            () -> JwtTokenValidation
+                .authenticateRequest(activity, authHeader, credentialProvider, channelProvider, authConfiguration)
+        ).thenCompose(claimsIdentity -> processActivity(claimsIdentity, activity, callback));
     }
 
     /**
@@ -456,6 +464,8 @@ public class BotFrameworkAdapter extends BotAdapter
             return Async.completeExceptionally(new IllegalArgumentException("Activity"));
         }
 
+        BotMetricsRegistry.increment(BotMetricsConstants.ACTIVITIES_RECEIVED);
+        long turnStart = System.nanoTime();
         CompletableFuture<InvokeResponse> pipelineResult = new CompletableFuture<>();
 
         try (TurnContextImpl context = new TurnContextImpl(this, activity)) {
@@ -512,6 +522,12 @@ public class BotFrameworkAdapter extends BotAdapter
             pipelineResult.completeExceptionally(e);
         }
 
+        if (BotMetricsRegistry.isEnabled()) {
+            return pipelineResult.whenComplete(
+                (response, exception) -> BotMetricsRegistry
+                    .recordTimer(BotMetricsConstants.TURN, turnStart, exception == null)
+            );
+        }
         return pipelineResult;
     }
 
@@ -1278,17 +1294,19 @@ public class BotFrameworkAdapter extends BotAdapter
 
         result.complete(connectorClients.computeIfAbsent(clientKey, key -> {
             try {
-                RestConnectorClient connectorClient;
-                if (usingAppCredentials != null) {
-                    connectorClient =
-                        new RestConnectorClient(new URI(serviceUrl).toURL().toString(), usingAppCredentials);
-                } else {
-                    AppCredentials emptyCredentials = channelProvider != null && channelProvider.isGovernment()
+                AppCredentials credentials = usingAppCredentials;
+                if (credentials == null) {
+                    credentials = channelProvider != null && channelProvider.isGovernment()
                         ? MicrosoftGovernmentAppCredentials.empty()
                         : MicrosoftAppCredentials.empty();
-                    connectorClient = new RestConnectorClient(new URI(serviceUrl).toURL().toString(), emptyCredentials);
                 }
 
+                RestConnectorClient connectorClient = new RestConnectorClient(
+                    RestConnectorClient.getDefaultRestClientBuilder(new URI(serviceUrl).toURL().toString(), credentials)
+                        .withInterceptor(CONNECTOR_METRICS_INTERCEPTOR)
+                        .build()
+                );
+
                 if (connectorClientRetryStrategy != null) {
                     connectorClient.setRestRetryStrategy(connectorClientRetryStrategy);
                 }
@@ -0,0 +1,43 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+/**
+ * Receives the timers and counters the SDK records while it processes a turn.
+ *
+ * <p>
+ * Set an implementation with {@link BotMetricsRegistry#setMetrics(BotMetrics)}.
+ * The names of the metrics the SDK records are in {@link BotMetricsConstants}.
+ * Implementations are called on the threads that process turns, so they must
+ * be thread safe and should return quickly.
+ * </p>
+ */
+public interface BotMetrics {
+    /**
+     * Gets whether metrics are recorded. If false, the SDK does not time or count
+     * anything.
+     *
+     * @return True if metrics are recorded.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records how long an operation took.
+     *
+     * @param name         The name of the timer.
+     * @param elapsedNanos The time the operation took, in nanoseconds.
+     * @param success      True if the operation completed successfully.
+     */
+    void recordTimer(String name, long elapsedNanos, boolean success);
+
+    /**
+     * Adds to a counter.
+     *
+     * @param name  The name of the counter.
+     * @param count The number to add.
+     */
+    void incrementCounter(String name, long count);
+}
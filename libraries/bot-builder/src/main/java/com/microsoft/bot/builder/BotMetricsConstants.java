@@ -0,0 +1,88 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+/**
+ * The names of the timers and counters recorded by the SDK.
+ */
+public final class BotMetricsConstants {
+    private BotMetricsConstants() {
+
+    }
+
+    /**
+     * The timer for a turn processed by the adapter, from the creation of the
+     * turn context to the end of the middleware pipeline.
+     */
+    public static final String TURN = "turn";
+
+    /**
+     * The timer for the authentication of an incoming request.
+     */
+    public static final String AUTHENTICATION = "turn.authentication";
+
+    /**
+     * The prefix of the timers for each middleware, followed by the simple class
+     * name of the middleware, or its full class name if it is anonymous. The time
+     * spent in the rest of the pipeline is not included.
+     */
+    public static final String MIDDLEWARE_PREFIX = "turn.middleware.";
+
+    /**
+     * The timer for the bot logic at the end of the middleware pipeline.
+     */
+    public static final String BOT = "turn.bot";
+
+    /**
+     * The timer for sending activities through the adapter.
+     */
+    public static final String SEND = "turn.send";
+
+    /**
+     * The timer for loading bot state, including the loads that are served from
+     * the state already cached in the turn.
+     */
+    public static final String STATE_LOAD = "state.load";
+
+    /**
+     * The timer for saving bot state.
+     */
+    public static final String STATE_SAVE = "state.saveChanges";
+
+    /**
+     * The timer for storage reads.
+     */
+    public static final String STORAGE_READ = "storage.read";
+
+    /**
+     * The timer for storage writes.
+     */
+    public static final String STORAGE_WRITE = "storage.write";
+
+    /**
+     * The timer for storage deletes.
+     */
+    public static final String STORAGE_DELETE = "storage.delete";
+
+    /**
+     * The timer for HTTP requests sent by a connector client.
+     */
+    public static final String CONNECTOR_REQUEST = "connector.request";
+
+    /**
+     * The timer for a dialogs recognizer, recorded once per recognition by its
+     * base class or by the recognizer itself, or for a LUIS recognizer.
+     */
+    public static final String RECOGNIZE = "recognizer.recognize";
+
+    /**
+     * The counter of activities received by the adapter.
+     */
+    public static final String ACTIVITIES_RECEIVED = "activities.received";
+
+    /**
+     * The counter of activities sent by the bot.
+     */
+    public static final String ACTIVITIES_SENT = "activities.sent";
+}
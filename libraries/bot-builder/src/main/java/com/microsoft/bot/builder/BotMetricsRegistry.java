@@ -0,0 +1,136 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the {@link BotMetrics} the SDK records its timers and counters to.
+ *
+ * <p>
+ * Metrics are disabled until an enabled implementation is set. While they are
+ * disabled, the SDK does not read the clock or allocate anything to record
+ * them.
+ * </p>
+ */
+public final class BotMetricsRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BotMetricsRegistry.class);
+
+    private static final BotMetrics DISABLED = new NullBotMetrics();
+
+    /**
+     * The metrics in use, or null if they are disabled.
+     */
+    private static volatile BotMetrics enabledMetrics;
+
+    private BotMetricsRegistry() {
+
+    }
+
+    /**
+     * Gets the metrics the SDK records to.
+     *
+     * @return The metrics, or a {@link NullBotMetrics} if none were set.
+     */
+    public static BotMetrics getMetrics() {
+        BotMetrics metrics = enabledMetrics;
+        return metrics != null ? metrics : DISABLED;
+    }
+
+    /**
+     * Sets the metrics the SDK records to. {@link BotMetrics#isEnabled()} is
+     * read once, when the metrics are set.
+     *
+     * @param withMetrics The metrics. If null, metrics are disabled.
+     */
+    public static void setMetrics(BotMetrics withMetrics) {
+        enabledMetrics = withMetrics != null && withMetrics.isEnabled() ? withMetrics : null;
+    }
+
+    /**
+     * Gets whether metrics are recorded.
+     *
+     * @return True if metrics are recorded.
+     */
+    public static boolean isEnabled() {
+        return enabledMetrics != null;
+    }
+
+    /**
+     * Times an asynchronous operation.
+     *
+     * @param name      The name of the timer.
+     * @param operation Starts the operation.
+     * @param <T>       The type of the result of the operation.
+     * @return The result of the operation.
+     */
+    public static <T> CompletableFuture<T> time(String name, Supplier<CompletableFuture<T>> operation) {
+        BotMetrics metrics = enabledMetrics;
+        if (metrics == null) {
+            return operation.get();
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            recordTimer(metrics, name, start, false);
+            throw e;
+        }
+
+        return result.whenComplete((value, exception) -> recordTimer(metrics, name, start, exception == null));
+    }
+
+    /**
+     * Records how long an operation took.
+     *
+     * @param name    The name of the timer.
+     * @param start   The {@link System#nanoTime()} when the operation started.
+     * @param success True if the operation completed successfully.
+     */
+    public static void recordTimer(String name, long start, boolean success) {
+        BotMetrics metrics = enabledMetrics;
+        if (metrics != null) {
+            recordTimer(metrics, name, start, success);
+        }
+    }
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param name The name of the counter.
+     */
+    public static void increment(String name) {
+        increment(name, 1);
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param name  The name of the counter.
+     * @param count The number to add.
+     */
+    public static void increment(String name, long count) {
+        BotMetrics metrics = enabledMetrics;
+        if (metrics != null) {
+            try {
+                metrics.incrementCounter(name, count);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to record counter " + name, e);
+            }
+        }
+    }
+
+    private static void recordTimer(BotMetrics metrics, String name, long start, boolean success) {
+        try {
+            metrics.recordTimer(name, System.nanoTime() - start, success);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to record timer " + name, e);
+        }
+    }
+}
@@ -97,26 +97,55 @@ public abstract class BotState implements PropertyManager {
      * @return A task that represents the work queued to execute.
      */
     public CompletableFuture<Void> load(TurnContext turnContext, boolean force) {
-        return Async.tryCompletable(() -> {
+        return BotMetricsRegistry.time(BotMetricsConstants.STATE_LOAD, () -> Async.tryCompletable(() -> {
             if (turnContext == null) {
                 throw new IllegalArgumentException("turnContext cannot be null");
             }
 
-            CachedBotState cachedState = turnContext.getTurnState().get(contextServiceKey);
-            String storageKey = getStorageKey(turnContext);
-            if (force || cachedState == null || cachedState.getState() == null) {
-                return storage.read(new String[]{storageKey}).thenApply(val -> {
-                    turnContext.getTurnState()
-                        .replace(
-                            contextServiceKey,
-                            new CachedBotState((Map<String, Object>) val.get(storageKey))
-                        );
+            String storageKey = getStorageKeyToLoad(turnContext, force);
+            if (storageKey != null) {
+                return BotMetricsRegistry.time(
+                    BotMetricsConstants.STORAGE_READ, () -> storage.read(new String[]{storageKey})
+                ).thenApply(val -> {
+                    setCachedState(turnContext, (Map<String, Object>) val.get(storageKey));
                     return null;
                 });
             }
 
             return CompletableFuture.completedFuture(null);
-        });
+        }));
+    }
+
+    /**
+     * @return The storage this state is read from and written to.
+     */
+    Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Gets the key to read from storage to load this state.
+     *
+     * @param turnContext The context object for this turn.
+     * @param force       true to load even if the state is already cached.
+     * @return The storage key, or null if the cached state is used.
+     */
+    String getStorageKeyToLoad(TurnContext turnContext, boolean force) {
+        CachedBotState cachedState = turnContext.getTurnState().get(contextServiceKey);
+        if (force || cachedState == null || cachedState.getState() == null) {
+            return getStorageKey(turnContext);
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the cached state for this turn with state read from storage.
+     *
+     * @param turnContext The context object for this turn.
+     * @param state       The state read from storage, or null if there was none.
+     */
+    void setCachedState(TurnContext turnContext, Map<String, Object> state) {
+        turnContext.getTurnState().replace(contextServiceKey, new CachedBotState(state));
     }
 
     /**
@@ -139,7 +168,7 @@ public abstract class BotState implements PropertyManager {
      * @return A task that represents the work queued to execute.
      */
     public CompletableFuture<Void> saveChanges(TurnContext turnContext, boolean force) {
-        return Async.tryCompletable(() -> {
+        return BotMetricsRegistry.time(BotMetricsConstants.STATE_SAVE, () -> Async.tryCompletable(() -> {
             if (turnContext == null) {
                 throw new IllegalArgumentException("turnContext cannot be null");
             }
@@ -150,14 +179,15 @@ public abstract class BotState implements PropertyManager {
                 Map<String, Object> changes = new HashMap<String, Object>();
                 changes.put(storageKey, cachedState.state);
 
-                return storage.write(changes).thenApply(val -> {
-                    cachedState.setHash(cachedState.computeHash(cachedState.state));
-                    return null;
-                });
+                return BotMetricsRegistry.time(BotMetricsConstants.STORAGE_WRITE, () -> storage.write(changes))
+                    .thenApply(val -> {
+                        cachedState.setHash(cachedState.computeHash(cachedState.state));
+                        return null;
+                    });
             }
 
             return CompletableFuture.completedFuture(null);
-        });
+        }));
     }
 
     /**
@@ -197,7 +227,9 @@ public abstract class BotState implements PropertyManager {
         }
 
         String storageKey = getStorageKey(turnContext);
-        return storage.delete(new String[] {storageKey}).thenApply(result -> {
+        return BotMetricsRegistry.time(
+            BotMetricsConstants.STORAGE_DELETE, () -> storage.delete(new String[] {storageKey})
+        ).thenApply(result -> {
             CachedBotState cachedState = turnContext.getTurnState().get(contextServiceKey);
             if (cachedState != null) {
                 turnContext.getTurnState().remove(contextServiceKey);
@@ -5,9 +5,14 @@ package com.microsoft.bot.builder;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+import com.microsoft.bot.connector.Async;
+
 /**
  * Manages a collection of botState and provides ability to load and save in
  * parallel.
@@ -18,6 +23,22 @@ public class BotStateSet {
      */
     private List<BotState> botStates = new ArrayList<>();
 
+    /**
+     * Whether a BotState class overrides {@link BotState#load(TurnContext, boolean)}.
+     * Such states are loaded through their own load instead of a shared read.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_LOAD = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("load", TurnContext.class, boolean.class).getDeclaringClass()
+                    != BotState.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
     /**
      * Initializes a new instance of the BotStateSet class.
      *
@@ -81,16 +102,48 @@ public class BotStateSet {
     }
 
     /**
-     * Load all BotState records in parallel.
+     * Load all BotState records in parallel. The records of states that share a
+     * Storage are read with a single call to it, except for states that
+     * override {@link BotState#load(TurnContext, boolean)}, which are loaded
+     * through their own load.
      *
      * @param turnContext The TurnContext.
      * @param force       should data be forced into cache.
      * @return A task that represents the work queued to execute.
      */
     public CompletableFuture<Void> loadAll(TurnContext turnContext, boolean force) {
-        return CompletableFuture.allOf(
-            botStates.stream().map(future -> future.load(turnContext, force)).toArray(CompletableFuture[]::new)
-        );
+        return BotMetricsRegistry.time(BotMetricsConstants.STATE_LOAD, () -> Async.tryCompletable(() -> {
+            if (turnContext == null) {
+                throw new IllegalArgumentException("turnContext cannot be null");
+            }
+
+            List<CompletableFuture<?>> loads = new ArrayList<>();
+            Map<Storage, Map<BotState, String>> reads = new IdentityHashMap<>();
+            for (BotState botState : botStates) {
+                if (OVERRIDES_LOAD.get(botState.getClass())) {
+                    loads.add(botState.load(turnContext, force));
+                    continue;
+                }
+
+                String storageKey = botState.getStorageKeyToLoad(turnContext, force);
+                if (storageKey != null) {
+                    reads.computeIfAbsent(botState.getStorage(), storage -> new LinkedHashMap<>())
+                        .put(botState, storageKey);
+                }
+            }
+
+            reads.forEach((storage, storageKeys) -> loads.add(
+                BotMetricsRegistry.time(
+                    BotMetricsConstants.STORAGE_READ,
+                    () -> storage.read(storageKeys.values().toArray(new String[0]))
+                ).thenAccept(
+                    values -> storageKeys.forEach((botState, storageKey) -> botState.setCachedState(
+                        turnContext, (Map<String, Object>) values.get(storageKey)
+                    ))
+                )
+            ));
+            return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]));
+        }));
     }
 
     /**
@@ -0,0 +1,355 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import com.microsoft.bot.connector.ExecutorFactory;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link BotTelemetryClient} that queues telemetry and sends it to another
+ * client off the turn.
+ *
+ * <p>
+ * Each call is queued in a bounded buffer and returns immediately. The queued
+ * telemetry is sent to the wrapped client in batches on the SDK executor, in
+ * the order it was tracked. Event properties can be passed as a
+ * {@link Supplier}, so they are only built when the event is sent.
+ * </p>
+ *
+ * <p>
+ * When the buffer is full, telemetry is dropped according to the
+ * {@link DropPolicy}. When the buffer is at least half full, events, traces
+ * and dialog views can also be sampled, so exceptions, dependencies and
+ * availability results are more likely to be kept. {@link #flush()} sends the
+ * queued telemetry on the calling thread and then flushes the wrapped client.
+ * </p>
+ */
+public final class BufferedBotTelemetryClient implements BotTelemetryClient {
+    /**
+     * The default number of telemetry items the buffer holds.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * The default number of telemetry items sent in a batch.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    /**
+     * What to drop when the buffer is full.
+     */
+    public enum DropPolicy {
+        /**
+         * Drop the telemetry that is being tracked.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Drop the oldest queued telemetry to make room.
+         */
+        DROP_OLDEST
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BufferedBotTelemetryClient.class);
+
+    private final BotTelemetryClient telemetryClient;
+    private final BlockingQueue<Consumer<BotTelemetryClient>> buffer;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Object deliveryLock = new Object();
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong sampledOutCount = new AtomicLong();
+
+    private volatile DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+    private volatile int samplingRatio = 1;
+
+    /**
+     * Initializes a new instance of the class with the default capacity and
+     * batch size.
+     *
+     * @param withTelemetryClient The client the telemetry is sent to.
+     */
+    public BufferedBotTelemetryClient(BotTelemetryClient withTelemetryClient) {
+        this(withTelemetryClient, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Initializes a new instance of the class.
+     *
+     * @param withTelemetryClient The client the telemetry is sent to.
+     * @param withCapacity        The number of telemetry items the buffer holds.
+     * @param withMaxBatchSize    The number of telemetry items sent in a batch.
+     */
+    public BufferedBotTelemetryClient(
+        BotTelemetryClient withTelemetryClient,
+        int withCapacity,
+        int withMaxBatchSize
+    ) {
+        this(withTelemetryClient, withCapacity, withMaxBatchSize, null);
+    }
+
+    BufferedBotTelemetryClient(
+        BotTelemetryClient withTelemetryClient,
+        int withCapacity,
+        int withMaxBatchSize,
+        Executor withExecutor
+    ) {
+        if (withTelemetryClient == null) {
+            throw new IllegalArgumentException("telemetryClient cannot be null");
+        }
+
+        if (withCapacity < 1 || withMaxBatchSize < 1) {
+            throw new IllegalArgumentException("capacity and maxBatchSize must be greater than 0");
+        }
+
+        telemetryClient = withTelemetryClient;
+        capacity = withCapacity;
+        maxBatchSize = withMaxBatchSize;
+        buffer = new ArrayBlockingQueue<>(withCapacity);
+        executor = withExecutor;
+    }
+
+    /**
+     * Gets the client the telemetry is sent to.
+     *
+     * @return The wrapped telemetry client.
+     */
+    public BotTelemetryClient getTelemetryClient() {
+        return telemetryClient;
+    }
+
+    /**
+     * Gets what is dropped when the buffer is full.
+     *
+     * @return The drop policy. The default is {@link DropPolicy#DROP_NEWEST}.
+     */
+    public DropPolicy getDropPolicy() {
+        return dropPolicy;
+    }
+
+    /**
+     * Sets what is dropped when the buffer is full.
+     *
+     * @param withDropPolicy The drop policy.
+     */
+    public void setDropPolicy(DropPolicy withDropPolicy) {
+        if (withDropPolicy == null) {
+            throw new IllegalArgumentException("dropPolicy cannot be null");
+        }
+        dropPolicy = withDropPolicy;
+    }
+
+    /**
+     * Gets the sampling ratio applied while the buffer is at least half full.
+     *
+     * @return One in this many events, traces and dialog views are kept. The
+     *         default is 1, which keeps all of them.
+     */
+    public int getSamplingRatio() {
+        return samplingRatio;
+    }
+
+    /**
+     * Sets the sampling ratio applied while the buffer is at least half full.
+     *
+     * @param withSamplingRatio One in this many events, traces and dialog views
+     *                          are kept.
+     */
+    public void setSamplingRatio(int withSamplingRatio) {
+        if (withSamplingRatio < 1) {
+            throw new IllegalArgumentException("samplingRatio must be greater than 0");
+        }
+        samplingRatio = withSamplingRatio;
+    }
+
+    /**
+     * Gets the number of telemetry items dropped because the buffer was full,
+     * or because their properties could not be built.
+     *
+     * @return The number of dropped telemetry items.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Gets the number of telemetry items sampled out while the buffer was at
+     * least half full.
+     *
+     * @return The number of sampled out telemetry items.
+     */
+    public long getSampledOutCount() {
+        return sampledOutCount.get();
+    }
+
+    /**
+     * Gets the number of telemetry items waiting to be sent.
+     *
+     * @return The number of queued telemetry items.
+     */
+    public int getQueuedCount() {
+        return buffer.size();
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    @Override
+    public void trackAvailability(
+        String name,
+        OffsetDateTime timeStamp,
+        Duration duration,
+        String runLocation,
+        boolean success,
+        String message,
+        Map<String, String> properties,
+        Map<String, Double> metrics
+    ) {
+        enqueue(client -> client.trackAvailability(
+            name, timeStamp, duration, runLocation, success, message, properties, metrics), false);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    @Override
+    public void trackDependency(
+        String dependencyTypeName,
+        String target,
+        String dependencyName,
+        String data,
+        OffsetDateTime startTime,
+        Duration duration,
+        String resultCode,
+        boolean success
+    ) {
+        enqueue(client -> client.trackDependency(
+            dependencyTypeName, target, dependencyName, data, startTime, duration, resultCode, success), false);
+    }
+
+    @Override
+    public void trackEvent(String eventName, Map<String, String> properties, Map<String, Double> metrics) {
+        enqueue(client -> client.trackEvent(eventName, properties, metrics), true);
+    }
+
+    /**
+     * Logs a custom event whose properties and metrics are built when the event
+     * is sent to the wrapped client, off the turn.
+     *
+     * @param eventName  A name for the event.
+     * @param properties Builds the named string values you can use to search and
+     *                   classify events. May be null.
+     * @param metrics    Builds the measurements associated with this event. May
+     *                   be null.
+     */
+    public void trackEvent(
+        String eventName,
+        Supplier<Map<String, String>> properties,
+        Supplier<Map<String, Double>> metrics
+    ) {
+        enqueue(client -> client.trackEvent(
+            eventName,
+            properties != null ? properties.get() : null,
+            metrics != null ? metrics.get() : null
+        ), true);
+    }
+
+    @Override
+    public void trackException(
+        Exception exception,
+        Map<String, String> properties,
+        Map<String, Double> metrics
+    ) {
+        enqueue(client -> client.trackException(exception, properties, metrics), false);
+    }
+
+    @Override
+    public void trackTrace(String message, Severity severityLevel, Map<String, String> properties) {
+        enqueue(client -> client.trackTrace(message, severityLevel, properties), true);
+    }
+
+    @Override
+    public void trackDialogView(String dialogName, Map<String, String> properties, Map<String, Double> metrics) {
+        enqueue(client -> client.trackDialogView(dialogName, properties, metrics), true);
+    }
+
+    /**
+     * Sends the queued telemetry on the calling thread, then flushes the wrapped
+     * client.
+     */
+    @Override
+    public void flush() {
+        deliver();
+        telemetryClient.flush();
+    }
+
+    private void enqueue(Consumer<BotTelemetryClient> item, boolean sampled) {
+        int ratio = samplingRatio;
+        if (sampled && ratio > 1 && buffer.size() >= capacity / 2
+            && sampleCounter.incrementAndGet() % ratio != 0) {
+            sampledOutCount.incrementAndGet();
+            return;
+        }
+
+        if (!buffer.offer(item)) {
+            droppedCount.incrementAndGet();
+            if (dropPolicy == DropPolicy.DROP_OLDEST) {
+                buffer.poll();
+                if (!buffer.offer(item)) {
+                    droppedCount.incrementAndGet();
+                }
+            }
+        }
+
+        scheduleDelivery();
+    }
+
+    private void scheduleDelivery() {
+        if (draining.compareAndSet(false, true)) {
+            Executor target = executor != null ? executor : ExecutorFactory.getExecutor();
+            ExecutorFactory.executeOrRun(target, () -> {
+                try {
+                    deliver();
+                } finally {
+                    draining.set(false);
+                }
+
+                // Telemetry queued after the last batch was taken.
+                if (!buffer.isEmpty()) {
+                    scheduleDelivery();
+                }
+            });
+        }
+    }
+
+    private void deliver() {
+        List<Consumer<BotTelemetryClient>> batch = new ArrayList<>(Math.min(maxBatchSize, capacity));
+        synchronized (deliveryLock) {
+            while (buffer.drainTo(batch, maxBatchSize) > 0) {
+                for (Consumer<BotTelemetryClient> item : batch) {
+                    try {
+                        item.accept(telemetryClient);
+                    } catch (RuntimeException e) {
+                        droppedCount.incrementAndGet();
+                        LOGGER.warn("Unable to send telemetry", e);
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Records the {@link BotMetricsConstants#CONNECTOR_REQUEST} timer for the HTTP
+ * requests sent by a connector client. A request fails if it throws or if its
+ * response does not have a 2xx status code.
+ */
+final class ConnectorClientMetricsInterceptor implements Interceptor {
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!BotMetricsRegistry.isEnabled()) {
+            return chain.proceed(chain.request());
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            BotMetricsRegistry.recordTimer(BotMetricsConstants.CONNECTOR_REQUEST, start, false);
+            throw e;
+        }
+
+        BotMetricsRegistry.recordTimer(BotMetricsConstants.CONNECTOR_REQUEST, start, response.isSuccessful());
+        return response;
+    }
+}
@@ -0,0 +1,240 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the timers and counters recorded by the SDK in memory.
+ *
+ * <p>
+ * Each timer is a histogram of the recorded durations, so percentiles such as
+ * the p99 of a stage of the turn can be read without keeping every sample. The
+ * durations are kept in buckets that are at most 12.5% wide, so percentiles are
+ * accurate to within 12.5%.
+ * </p>
+ */
+public class InMemoryBotMetrics implements BotMetrics {
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Records a duration to the histogram of a timer.
+     *
+     * @param name         The name of the timer.
+     * @param elapsedNanos The time the operation took, in nanoseconds.
+     * @param success      True if the operation completed successfully.
+     */
+    @Override
+    public void recordTimer(String name, long elapsedNanos, boolean success) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(name, key -> new Timer());
+        }
+        timer.record(elapsedNanos, success);
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param name  The name of the counter.
+     * @param count The number to add.
+     */
+    @Override
+    public void incrementCounter(String name, long count) {
+        LongAdder counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, key -> new LongAdder());
+        }
+        counter.add(count);
+    }
+
+    /**
+     * Gets a timer.
+     *
+     * @param name The name of the timer.
+     * @return The timer, or null if nothing was recorded to it.
+     */
+    public Timer getTimer(String name) {
+        return timers.get(name);
+    }
+
+    /**
+     * Gets all the timers.
+     *
+     * @return The timers, sorted by name.
+     */
+    public Map<String, Timer> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    /**
+     * Gets the value of a counter.
+     *
+     * @param name The name of the counter.
+     * @return The value of the counter, or 0 if nothing was added to it.
+     */
+    public long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Gets the values of all the counters.
+     *
+     * @return The values of the counters, sorted by name.
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    /**
+     * Removes all the timers and counters.
+     */
+    public void reset() {
+        timers.clear();
+        counters.clear();
+    }
+
+    /**
+     * A histogram of the durations recorded to a timer.
+     */
+    public static final class Timer {
+        /**
+         * Each power of two is split in 2^SUB_BUCKET_BITS buckets.
+         */
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = Long.SIZE * SUB_BUCKETS;
+        private static final double PERCENT = 100.0;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errorCount = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Timer() {
+        }
+
+        private void record(long elapsedNanos, boolean success) {
+            long nanos = Math.max(elapsedNanos, 0);
+            buckets.incrementAndGet(bucketOf(nanos));
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (!success) {
+                errorCount.incrementAndGet();
+            }
+            count.incrementAndGet();
+        }
+
+        /**
+         * Gets the number of recorded durations.
+         *
+         * @return The number of times the operation was timed.
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * Gets the number of recorded durations of operations that failed.
+         *
+         * @return The number of failed operations.
+         */
+        public long getErrorCount() {
+            return errorCount.get();
+        }
+
+        /**
+         * Gets the sum of the recorded durations.
+         *
+         * @return The total duration.
+         */
+        public Duration getTotal() {
+            return Duration.ofNanos(totalNanos.get());
+        }
+
+        /**
+         * Gets the mean of the recorded durations.
+         *
+         * @return The mean duration, or zero if nothing was recorded.
+         */
+        public Duration getMean() {
+            long recorded = count.get();
+            return recorded == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.get() / recorded);
+        }
+
+        /**
+         * Gets the longest recorded duration.
+         *
+         * @return The maximum duration.
+         */
+        public Duration getMax() {
+            return Duration.ofNanos(maxNanos.get());
+        }
+
+        /**
+         * Gets a percentile of the recorded durations.
+         *
+         * @param percentile The percentile, between 0 and 100. For example 99
+         *                   for the p99.
+         * @return The duration that this percentage of the recorded durations
+         *         did not exceed, or zero if nothing was recorded.
+         */
+        public Duration getPercentile(double percentile) {
+            if (percentile < 0 || percentile > PERCENT) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return Duration.ZERO;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Duration.ofNanos(Math.min(upperBoundOf(i), maxNanos.get()));
+                }
+            }
+            return getMax();
+        }
+
+        private static int bucketOf(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) nanos;
+            }
+
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+            int shift = exponent - SUB_BUCKET_BITS;
+            int subBucket = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+            return (shift + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lowerBound + (1L << shift) - 1;
+        }
+    }
+}
@@ -6,11 +6,24 @@ package com.microsoft.bot.builder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Contains an ordered set of {@link Middleware}.
  */
 public class MiddlewareSet implements Middleware {
+    /**
+     * The timer name of each middleware class. Anonymous classes have no simple
+     * name, so their full name is used.
+     */
+    private static final ClassValue<String> TIMER_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getSimpleName();
+            return BotMetricsConstants.MIDDLEWARE_PREFIX + (name.isEmpty() ? type.getName() : name);
+        }
+    };
+
     /**
      * List of {@link Middleware} objects this class manages.
      */
@@ -96,13 +109,17 @@ public class MiddlewareSet implements Middleware {
             if (callback == null) {
                 return CompletableFuture.completedFuture(null);
             } else {
-                return callback.invoke(context);
+                return BotMetricsRegistry.time(BotMetricsConstants.BOT, () -> callback.invoke(context));
             }
         }
 
         // Get the next piece of middleware
         Middleware nextMiddleware = middlewareList.get(nextMiddlewareIndex);
 
+        if (BotMetricsRegistry.isEnabled()) {
+            return timeMiddleware(context, callback, nextMiddleware, nextMiddlewareIndex);
+        }
+
         // Execute the next middleware passing a closure that will recurse back into
         // this method at the
         // next piece of middleware as the NextDelegate
@@ -110,4 +127,35 @@ public class MiddlewareSet implements Middleware {
             context, () -> receiveActivityInternal(context, callback, nextMiddlewareIndex + 1)
         );
     }
+
+    /**
+     * Runs a middleware and records the time spent in it, without the time spent
+     * in the rest of the pipeline.
+     */
+    private CompletableFuture<Void> timeMiddleware(
+        TurnContext context,
+        BotCallbackHandler callback,
+        Middleware middleware,
+        int middlewareIndex
+    ) {
+        String name = TIMER_NAMES.get(middleware.getClass());
+        AtomicLong nextNanos = new AtomicLong();
+        long start = System.nanoTime();
+
+        CompletableFuture<Void> result;
+        try {
+            result = middleware.onTurn(context, () -> {
+                long nextStart = System.nanoTime();
+                return receiveActivityInternal(context, callback, middlewareIndex + 1)
+                    .whenComplete((value, exception) -> nextNanos.addAndGet(System.nanoTime() - nextStart));
+            });
+        } catch (RuntimeException e) {
+            BotMetricsRegistry.recordTimer(name, start + nextNanos.get(), false);
+            throw e;
+        }
+
+        return result.whenComplete(
+            (value, exception) -> BotMetricsRegistry.recordTimer(name, start + nextNanos.get(), exception == null)
+        );
+    }
 }
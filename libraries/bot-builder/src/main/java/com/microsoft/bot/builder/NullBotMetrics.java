@@ -0,0 +1,29 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+/**
+ * A no-op metrics implementation. Nothing is timed or counted when it is used.
+ */
+public class NullBotMetrics implements BotMetrics {
+    /**
+     * Gets whether metrics are recorded.
+     *
+     * @return Always false.
+     */
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void recordTimer(String name, long elapsedNanos, boolean success) {
+
+    }
+
+    @Override
+    public void incrementCounter(String name, long count) {
+
+    }
+}
@@ -12,7 +12,16 @@ import com.microsoft.bot.schema.ConversationReference;
 import com.microsoft.bot.schema.ResourceResponse;
 
 import java.util.Collections;
+import java.util.Deque;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * When added, this middleware will send typing activities back to the user when
@@ -22,6 +31,13 @@ import java.util.concurrent.CompletableFuture;
  * also in milliseconds which determines how often another typing activity is
  * sent. Typing activities will continue to be sent until your bot sends another
  * message back to the user.
+ *
+ * <p>
+ * The typing activities are scheduled on a single timer thread shared by all
+ * the conversations, so no thread waits for the next typing activity. The
+ * turns of a conversation that run at the same time share one typing
+ * indicator.
+ * </p>
  */
 public class ShowTypingMiddleware implements Middleware {
     private static final int DEFAULT_DELAY = 500;
@@ -38,6 +54,17 @@ public class ShowTypingMiddleware implements Middleware {
      */
     private long period;
 
+    /**
+     * The typing indicators of the conversations with a turn running.
+     */
+    private final ConcurrentMap<String, TypingIndicator> indicators = new ConcurrentHashMap<>();
+
+    /**
+     * The timer shared by all the typing indicators. Created when it is first
+     * needed.
+     */
+    private static volatile ScheduledExecutorService typingTimer;
+
     /**
      * Constructs with default delay and period.
      */
@@ -79,10 +106,19 @@ public class ShowTypingMiddleware implements Middleware {
             return next.next();
         }
 
-        // do not await task - we want this to run in the background and we will cancel
-        // it when its done
-        CompletableFuture sendFuture = sendTyping(turnContext, delay, period);
-        return next.next().thenAccept(result -> sendFuture.cancel(true));
+        // the typing indicator runs on the shared timer in the background, and is
+        // stopped when the last turn of the conversation is done
+        String conversationKey = getConversationKey(turnContext.getActivity());
+        TypingIndicator indicator = startTyping(conversationKey, turnContext);
+
+        CompletableFuture<Void> result;
+        try {
+            result = next.next();
+        } catch (RuntimeException e) {
+            stopTyping(conversationKey, indicator, turnContext);
+            throw e;
+        }
+        return result.whenComplete((value, exception) -> stopTyping(conversationKey, indicator, turnContext));
     }
 
     private static Boolean isSkillBot(TurnContext turnContext) {
@@ -95,23 +131,131 @@ public class ShowTypingMiddleware implements Middleware {
         }
     }
 
-    private static CompletableFuture<Void> sendTyping(
-        TurnContext turnContext,
-        long delay,
-        long period
-    ) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(delay);
+    private static String getConversationKey(Activity activity) {
+        if (activity.getConversation() == null || activity.getConversation().getId() == null) {
+            return null;
+        }
+        return activity.getChannelId() + "/" + activity.getConversation().getId();
+    }
+
+    /**
+     * Starts a typing indicator for the conversation of a turn, or joins the
+     * indicator of a turn of the same conversation that is still running.
+     */
+    private TypingIndicator startTyping(String conversationKey, TurnContext turnContext) {
+        if (conversationKey == null) {
+            TypingIndicator indicator = new TypingIndicator(turnContext);
+            indicator.start(delay, period);
+            return indicator;
+        }
+
+        boolean[] created = new boolean[1];
+        TypingIndicator indicator = indicators.compute(conversationKey, (key, existing) -> {
+            if (existing != null) {
+                existing.turns.add(turnContext);
+                return existing;
+            }
+            created[0] = true;
+            return new TypingIndicator(turnContext);
+        });
+
+        if (created[0]) {
+            indicator.start(delay, period);
+        }
+        return indicator;
+    }
+
+    private void stopTyping(String conversationKey, TypingIndicator indicator, TurnContext turnContext) {
+        if (conversationKey == null) {
+            indicator.stop();
+            return;
+        }
+
+        indicators.computeIfPresent(conversationKey, (key, existing) -> {
+            existing.turns.remove(turnContext);
+            if (existing.turns.isEmpty()) {
+                existing.stop();
+                return null;
+            }
+            return existing;
+        });
+    }
 
-                while (!Thread.currentThread().isInterrupted()) {
-                    sendTypingActivity(turnContext).join();
-                    Thread.sleep(period);
+    private static ScheduledExecutorService getTimer() {
+        ScheduledExecutorService timer = typingTimer;
+        if (timer == null) {
+            synchronized (ShowTypingMiddleware.class) {
+                timer = typingTimer;
+                if (timer == null) {
+                    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        Thread thread = new Thread(runnable, "bot-typing-timer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor.setRemoveOnCancelPolicy(true);
+                    typingTimer = executor;
+                    timer = executor;
                 }
-            } catch (InterruptedException e) {
-                // do nothing
             }
-        }, ExecutorFactory.getExecutor());
+        }
+        return timer;
+    }
+
+    /**
+     * Sends typing activities for a conversation while at least one of its
+     * turns is running. The shared timer only schedules the sends; they run on
+     * the SDK executor, and a send is skipped while the previous one is still in
+     * flight.
+     */
+    private static final class TypingIndicator {
+        private final Deque<TurnContext> turns = new ConcurrentLinkedDeque<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean stopped;
+        private volatile ScheduledFuture<?> schedule;
+
+        private TypingIndicator(TurnContext turnContext) {
+            turns.add(turnContext);
+        }
+
+        private void start(long delay, long period) {
+            schedule = period > 0
+                ? getTimer().scheduleAtFixedRate(this::tick, delay, period, TimeUnit.MILLISECONDS)
+                : getTimer().schedule(this::tick, delay, TimeUnit.MILLISECONDS);
+
+            // the turn may have ended while the timer was scheduled
+            if (stopped) {
+                schedule.cancel(false);
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            ScheduledFuture<?> current = schedule;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+
+        private void tick() {
+            if (stopped || !sending.compareAndSet(false, true)) {
+                return;
+            }
+
+            ExecutorFactory.executeOrRun(ExecutorFactory.getExecutor(), () -> {
+                // the most recent turn of the conversation is still running
+                TurnContext turnContext = turns.peekLast();
+                if (stopped || turnContext == null) {
+                    sending.set(false);
+                    return;
+                }
+
+                try {
+                    sendTypingActivity(turnContext).whenComplete((responses, exception) -> sending.set(false));
+                } catch (RuntimeException e) {
+                    sending.set(false);
+                }
+            });
+        }
     }
 
     private static CompletableFuture<ResourceResponse[]> sendTypingActivity(
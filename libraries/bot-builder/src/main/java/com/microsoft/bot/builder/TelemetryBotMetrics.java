@@ -0,0 +1,60 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Sends the timers recorded by the SDK to a {@link BotTelemetryClient} as
+ * dependencies.
+ *
+ * <p>
+ * Each recorded duration is sent with {@link BotTelemetryClient#trackDependency},
+ * with the {@link #DEPENDENCY_TYPE} type and the name of the timer as its target
+ * and name, so percentiles can be computed by the telemetry backend.
+ * Counters are not sent: every timed operation is already counted by its
+ * dependency. A timer is recorded for every stage of every turn, so consider
+ * wrapping the telemetry client in a {@link BufferedBotTelemetryClient}.
+ * </p>
+ */
+public class TelemetryBotMetrics implements BotMetrics {
+    /**
+     * The dependency type of the timers sent to the telemetry client.
+     */
+    public static final String DEPENDENCY_TYPE = "BotFramework";
+
+    private final BotTelemetryClient telemetryClient;
+
+    /**
+     * Initializes a new instance of the class.
+     *
+     * @param withTelemetryClient The client the timers are sent to.
+     */
+    public TelemetryBotMetrics(BotTelemetryClient withTelemetryClient) {
+        if (withTelemetryClient == null) {
+            throw new IllegalArgumentException("telemetryClient cannot be null");
+        }
+        telemetryClient = withTelemetryClient;
+    }
+
+    /**
+     * Sends a duration to the telemetry client as a dependency.
+     *
+     * @param name         The name of the timer.
+     * @param elapsedNanos The time the operation took, in nanoseconds.
+     * @param success      True if the operation completed successfully.
+     */
+    @Override
+    public void recordTimer(String name, long elapsedNanos, boolean success) {
+        Duration duration = Duration.ofNanos(elapsedNanos);
+        telemetryClient.trackDependency(
+            DEPENDENCY_TYPE, name, name, null, OffsetDateTime.now().minus(duration), duration, null, success);
+    }
+
+    @Override
+    public void incrementCounter(String name, long count) {
+
+    }
+}
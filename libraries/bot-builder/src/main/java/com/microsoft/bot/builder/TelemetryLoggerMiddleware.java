@@ -16,10 +16,15 @@ import org.apache.commons.lang3.StringUtils;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Middleware for logging incoming, outgoing, updated or deleted Activity
  * messages. Uses the {@link BotTelemetryClient} interface.
+ *
+ * When the telemetry client is a {@link BufferedBotTelemetryClient}, a copy of
+ * the activity is taken on the turn, and the event properties are filled from
+ * that copy when the event is sent, off the turn.
  */
 public class TelemetryLoggerMiddleware implements Middleware {
     /**
@@ -131,9 +136,8 @@ public class TelemetryLoggerMiddleware implements Middleware {
             return CompletableFuture.completedFuture(null);
         }
 
-        return fillReceiveEventProperties(activity, null).thenAccept(properties -> {
-            telemetryClient.trackEvent(TelemetryLoggerConstants.BOTMSGRECEIVEEVENT, properties);
-        });
+        return trackEvent(TelemetryLoggerConstants.BOTMSGRECEIVEEVENT, activity,
+            snapshot -> fillReceiveEventProperties(snapshot, null));
     }
 
     /**
@@ -145,9 +149,8 @@ public class TelemetryLoggerMiddleware implements Middleware {
      * @return A task that represents the work queued to execute.
      */
     protected CompletableFuture<Void> onSendActivity(Activity activity) {
-        return fillSendEventProperties(activity, null).thenAccept(properties -> {
-            telemetryClient.trackEvent(TelemetryLoggerConstants.BOTMSGSENDEVENT, properties);
-        });
+        return trackEvent(TelemetryLoggerConstants.BOTMSGSENDEVENT, activity,
+            snapshot -> fillSendEventProperties(snapshot, null));
     }
 
     /**
@@ -159,9 +162,8 @@ public class TelemetryLoggerMiddleware implements Middleware {
      * @return A task that represents the work queued to execute.
      */
     protected CompletableFuture<Void> onUpdateActivity(Activity activity) {
-        return fillUpdateEventProperties(activity, null).thenAccept(properties -> {
-            telemetryClient.trackEvent(TelemetryLoggerConstants.BOTMSGUPDATEEVENT, properties);
-        });
+        return trackEvent(TelemetryLoggerConstants.BOTMSGUPDATEEVENT, activity,
+            snapshot -> fillUpdateEventProperties(snapshot, null));
     }
 
     /**
@@ -173,9 +175,30 @@ public class TelemetryLoggerMiddleware implements Middleware {
      * @return A task that represents the work queued to execute.
      */
     protected CompletableFuture<Void> onDeleteActivity(Activity activity) {
-        return fillDeleteEventProperties(activity, null).thenAccept(properties -> {
-            telemetryClient.trackEvent(TelemetryLoggerConstants.BOTMSGDELETEEVENT, properties);
-        });
+        return trackEvent(TelemetryLoggerConstants.BOTMSGDELETEEVENT, activity,
+            snapshot -> fillDeleteEventProperties(snapshot, null));
+    }
+
+    /**
+     * Logs an event. With a {@link BufferedBotTelemetryClient}, the activity is
+     * copied on the turn and the properties are filled from the copy when the
+     * event is sent, so later changes to the activity are not logged.
+     */
+    private CompletableFuture<Void> trackEvent(
+        String eventName,
+        Activity activity,
+        Function<Activity, CompletableFuture<Map<String, String>>> fillProperties
+    ) {
+        if (telemetryClient instanceof BufferedBotTelemetryClient) {
+            Activity snapshot = Activity.clone(activity);
+            snapshot.setId(activity.getId());
+            ((BufferedBotTelemetryClient) telemetryClient)
+                .trackEvent(eventName, () -> fillProperties.apply(snapshot).join(), null);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return fillProperties.apply(activity)
+            .thenAccept(properties -> telemetryClient.trackEvent(eventName, properties));
     }
 
     /**
@@ -391,6 +391,8 @@ public class TurnContextImpl implements TurnContext, AutoCloseable {
     private CompletableFuture<ResourceResponse[]> sendActivitiesThroughAdapter(
         List<Activity> activities
     ) {
+        BotMetricsRegistry.increment(BotMetricsConstants.ACTIVITIES_SENT, activities.size());
+
         if (DeliveryModes.fromString(getActivity().getDeliveryMode()) == DeliveryModes.EXPECT_REPLIES) {
             ResourceResponse[] responses = new ResourceResponse[activities.size()];
             boolean sentNonTraceActivity = false;
@@ -415,7 +417,9 @@ public class TurnContextImpl implements TurnContext, AutoCloseable {
 
             return CompletableFuture.completedFuture(responses);
         } else {
-            return adapter.sendActivities(this, activities).thenApply(responses -> {
+            return BotMetricsRegistry.time(
+                BotMetricsConstants.SEND, () -> adapter.sendActivities(this, activities)
+            ).thenApply(responses -> {
                 boolean sentNonTraceActivity = false;
 
                 for (int index = 0; index < responses.length; index++) {
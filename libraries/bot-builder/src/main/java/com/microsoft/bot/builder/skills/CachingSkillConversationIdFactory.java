@@ -0,0 +1,142 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder.skills;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.microsoft.bot.builder.Storage;
+import com.microsoft.bot.connector.Async;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A {@link SkillConversationIdFactoryBase} that keeps the references of active
+ * skill conversations in a bounded in-process cache, and falls back to another
+ * factory (by default a storage backed {@link SkillConversationIdFactory}) on a
+ * cache miss.
+ *
+ * Replies from a skill are resolved without a storage round-trip as long as the
+ * conversation is among the most recently used ones.
+ */
+public class CachingSkillConversationIdFactory extends SkillConversationIdFactoryBase {
+    /**
+     * The default maximum number of skill conversation references kept in memory.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final SkillConversationIdFactoryBase innerFactory;
+
+    private final Map<String, SkillConversationReference> cache;
+
+    /**
+     * Creates an instance backed by storage, holding up to
+     * {@link #DEFAULT_MAX_ENTRIES} references in memory.
+     *
+     * @param storage A storage instance for the factory.
+     */
+    public CachingSkillConversationIdFactory(Storage storage) {
+        this(new SkillConversationIdFactory(storage), DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates an instance that caches the references of another factory.
+     *
+     * @param withInnerFactory The factory used to create, read and delete
+     *                         references on a cache miss.
+     * @param maxEntries       The maximum number of references kept in memory.
+     */
+    public CachingSkillConversationIdFactory(SkillConversationIdFactoryBase withInnerFactory, int maxEntries) {
+        if (withInnerFactory == null) {
+            throw new IllegalArgumentException("innerFactory cannot be null.");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1.");
+        }
+
+        innerFactory = withInnerFactory;
+        cache = Collections.synchronizedMap(new LinkedHashMap<String, SkillConversationReference>(
+            INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SkillConversationReference> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Creates a conversation id for a skill conversation, and caches its
+     * reference.
+     *
+     * @param options A {@link SkillConversationIdFactoryOptions} instance
+     *                containing parameters for creating the conversation ID.
+     *
+     * @return A unique conversation ID used to communicate with the skill.
+     */
+    @Override
+    public CompletableFuture<String> createSkillConversationId(SkillConversationIdFactoryOptions options) {
+        if (options == null) {
+            return Async.completeExceptionally(new IllegalArgumentException("options cannot be null."));
+        }
+
+        return innerFactory.createSkillConversationId(options).thenApply(skillConversationId -> {
+            SkillConversationReference skillConversationReference = new SkillConversationReference();
+            skillConversationReference.setConversationReference(options.getActivity().getConversationReference());
+            skillConversationReference.setOAuthScope(options.getFromBotOAuthScope());
+            cache.put(skillConversationId, skillConversationReference);
+            return skillConversationId;
+        });
+    }
+
+    /**
+     * Gets the {@link SkillConversationReference} used during
+     * {@link #createSkillConversationId(SkillConversationIdFactoryOptions)} for a
+     * skillConversationId, from memory if possible.
+     *
+     * @param skillConversationId A skill conversationId created using
+     *                            {@link #createSkillConversationId(SkillConversationIdFactoryOptions)}.
+     *
+     * @return The caller's {@link com.microsoft.bot.schema.ConversationReference}
+     *         for a skillConversationId, or null if not found.
+     */
+    @Override
+    public CompletableFuture<SkillConversationReference> getSkillConversationReference(String skillConversationId) {
+        if (StringUtils.isAllBlank(skillConversationId)) {
+            return Async.completeExceptionally(new IllegalArgumentException("skillConversationId cannot be null."));
+        }
+
+        SkillConversationReference cached = cache.get(skillConversationId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return innerFactory.getSkillConversationReference(skillConversationId).thenApply(reference -> {
+            if (reference != null) {
+                cache.put(skillConversationId, reference);
+            }
+            return reference;
+        });
+    }
+
+    /**
+     * Deletes the {@link SkillConversationReference} from memory and from the
+     * inner factory.
+     *
+     * @param skillConversationId A skill conversationId created using
+     *                            {@link #createSkillConversationId(SkillConversationIdFactoryOptions)}.
+     *
+     * @return A {@link CompletableFuture} representing the asynchronous operation.
+     */
+    @Override
+    public CompletableFuture<Void> deleteConversationReference(String skillConversationId) {
+        cache.remove(skillConversationId);
+        return innerFactory.deleteConversationReference(skillConversationId);
+    }
+}
@@ -0,0 +1,323 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder.skills;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.schema.Serialization;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A stateless {@link SkillConversationIdFactoryBase} that encodes the
+ * {@link SkillConversationReference} into the skill conversation id itself.
+ *
+ * The id is a compressed, URL safe encoding of the reference, its expiry and
+ * the id of the key it was signed with, signed with an HMAC-SHA256 key, so
+ * replies from a skill are resolved without any storage lookup. Ids that are
+ * expired, or were not signed with one of the keys of the factory, resolve to
+ * null.
+ *
+ * All instances of a bot must share the same signing keys. To rotate keys,
+ * sign with a new key id and keep the previous key as a verification key
+ * with {@link #addVerificationKey(int, byte[])} until the ids it signed have
+ * expired.
+ *
+ * {@link #deleteConversationReference(String)} revokes an id on this instance
+ * only, until the id expires. Other instances keep resolving it until it
+ * expires or its key is removed.
+ */
+public class SignedSkillConversationIdFactory extends SkillConversationIdFactoryBase {
+    /**
+     * The minimum signing key length, in bytes.
+     */
+    public static final int MIN_KEY_LENGTH = 32;
+
+    /**
+     * The largest key id.
+     */
+    public static final int MAX_KEY_ID = 255;
+
+    /**
+     * The default time an id can be resolved after it is created.
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofDays(1);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte FORMAT_VERSION = 2;
+    private static final int NONCE_LENGTH = 8;
+    private static final int SIGNATURE_LENGTH = 16;
+    private static final int KEY_ID_OFFSET = 1;
+    private static final int EXPIRES_AT_OFFSET = KEY_ID_OFFSET + 1;
+    private static final int HEADER_LENGTH = EXPIRES_AT_OFFSET + Long.BYTES + NONCE_LENGTH;
+    private static final int BUFFER_SIZE = 256;
+    private static final int BYTE_MASK = 0xFF;
+    private static final char SEPARATOR = '.';
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final int signingKeyId;
+    private final long timeToLiveMillis;
+    private final Map<Integer, ThreadLocal<Mac>> keys = new ConcurrentHashMap<>();
+
+    /**
+     * The ids deleted on this instance, with their expiry.
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an instance that signs ids with the given key, as key id 0, for
+     * the {@link #DEFAULT_TIME_TO_LIVE}.
+     *
+     * @param signingKey The HMAC key, at least {@link #MIN_KEY_LENGTH} bytes.
+     */
+    public SignedSkillConversationIdFactory(byte[] signingKey) {
+        this(0, signingKey, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Creates an instance that signs ids with the UTF-8 bytes of a secret, as
+     * key id 0, for the {@link #DEFAULT_TIME_TO_LIVE}.
+     *
+     * @param signingSecret The secret, at least {@link #MIN_KEY_LENGTH} bytes long
+     *                      when UTF-8 encoded.
+     */
+    public SignedSkillConversationIdFactory(String signingSecret) {
+        this(signingSecret != null ? signingSecret.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Creates an instance that signs ids with the given key.
+     *
+     * @param withSigningKeyId The id of the signing key, from 0 to
+     *                         {@link #MAX_KEY_ID}.
+     * @param signingKey       The HMAC key, at least {@link #MIN_KEY_LENGTH}
+     *                         bytes.
+     * @param timeToLive       How long an id can be resolved after it is
+     *                         created.
+     */
+    public SignedSkillConversationIdFactory(int withSigningKeyId, byte[] signingKey, Duration timeToLive) {
+        if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLive must be greater than 0.");
+        }
+
+        signingKeyId = withSigningKeyId;
+        timeToLiveMillis = timeToLive.toMillis();
+        putKey(withSigningKeyId, signingKey);
+    }
+
+    /**
+     * Adds a key that ids are verified with, such as the previous signing key
+     * while keys are rotated.
+     *
+     * @param keyId The id of the key, from 0 to {@link #MAX_KEY_ID}.
+     * @param key   The HMAC key, at least {@link #MIN_KEY_LENGTH} bytes.
+     * @return The updated factory, so you can fluently add several keys.
+     */
+    public SignedSkillConversationIdFactory addVerificationKey(int keyId, byte[] key) {
+        putKey(keyId, key);
+        return this;
+    }
+
+    private void putKey(int keyId, byte[] key) {
+        if (keyId < 0 || keyId > MAX_KEY_ID) {
+            throw new IllegalArgumentException(String.format("keyId must be from 0 to %d.", MAX_KEY_ID));
+        }
+
+        if (key == null || key.length < MIN_KEY_LENGTH) {
+            throw new IllegalArgumentException(String.format("key must be at least %d bytes.", MIN_KEY_LENGTH));
+        }
+
+        SecretKeySpec keySpec = new SecretKeySpec(Arrays.copyOf(key, key.length), HMAC_ALGORITHM);
+        keys.put(keyId, ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+                instance.init(keySpec);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+
+    /**
+     * Creates a conversation id for a skill conversation that carries its own
+     * signed reference.
+     *
+     * @param options A {@link SkillConversationIdFactoryOptions} instance
+     *                containing parameters for creating the conversation ID.
+     *
+     * @return A unique conversation ID used to communicate with the skill.
+     */
+    @Override
+    public CompletableFuture<String> createSkillConversationId(SkillConversationIdFactoryOptions options) {
+        if (options == null) {
+            return Async.completeExceptionally(new IllegalArgumentException("options cannot be null."));
+        }
+
+        SkillConversationReference skillConversationReference = new SkillConversationReference();
+        skillConversationReference.setConversationReference(options.getActivity().getConversationReference());
+        skillConversationReference.setOAuthScope(options.getFromBotOAuthScope());
+
+        try {
+            return CompletableFuture.completedFuture(encode(skillConversationReference));
+        } catch (JsonProcessingException e) {
+            return Async.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Gets the {@link SkillConversationReference} encoded in a skillConversationId.
+     *
+     * @param skillConversationId A skill conversationId created using
+     *                            {@link #createSkillConversationId(SkillConversationIdFactoryOptions)}.
+     *
+     * @return The caller's {@link com.microsoft.bot.schema.ConversationReference}
+     *         for a skillConversationId, or null if the id is malformed, expired,
+     *         deleted, or its signature doesn't match.
+     */
+    @Override
+    public CompletableFuture<SkillConversationReference> getSkillConversationReference(String skillConversationId) {
+        if (StringUtils.isAllBlank(skillConversationId)) {
+            return Async.completeExceptionally(new IllegalArgumentException("skillConversationId cannot be null."));
+        }
+
+        return CompletableFuture.completedFuture(decode(skillConversationId));
+    }
+
+    /**
+     * Revokes a skill conversation id on this instance until it expires.
+     *
+     * @param skillConversationId A skill conversationId created using
+     *                            {@link #createSkillConversationId(SkillConversationIdFactoryOptions)}.
+     *
+     * @return A completed {@link CompletableFuture}.
+     */
+    @Override
+    public CompletableFuture<Void> deleteConversationReference(String skillConversationId) {
+        byte[] payload = verify(skillConversationId);
+        if (payload != null) {
+            long now = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            revoked.put(skillConversationId, getExpiresAt(payload));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private String encode(SkillConversationReference reference) throws JsonProcessingException {
+        byte[] json = Serialization.toString(reference).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(BUFFER_SIZE);
+        payload.write(FORMAT_VERSION);
+        payload.write(signingKeyId);
+        byte[] expiresAt = ByteBuffer.allocate(Long.BYTES)
+            .putLong(System.currentTimeMillis() + timeToLiveMillis)
+            .array();
+        payload.write(expiresAt, 0, expiresAt.length);
+        byte[] nonce = new byte[NONCE_LENGTH];
+        random.nextBytes(nonce);
+        payload.write(nonce, 0, nonce.length);
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(json);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                payload.write(buffer, 0, count);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        byte[] payloadBytes = payload.toByteArray();
+        return ENCODER.encodeToString(payloadBytes)
+            + SEPARATOR
+            + ENCODER.encodeToString(sign(keys.get(signingKeyId), payloadBytes));
+    }
+
+    private SkillConversationReference decode(String skillConversationId) {
+        byte[] payload = verify(skillConversationId);
+        if (payload == null || revoked.containsKey(skillConversationId)) {
+            return null;
+        }
+
+        Inflater inflater = new Inflater(true);
+        try (InputStream json = new InflaterInputStream(
+            new ByteArrayInputStream(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH),
+            inflater
+        )) {
+            return Serialization.readValue(json, SkillConversationReference.class);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Gets the payload of an id that is well formed, signed with one of the
+     * keys and not expired.
+     */
+    private byte[] verify(String skillConversationId) {
+        int separator = skillConversationId != null ? skillConversationId.lastIndexOf(SEPARATOR) : -1;
+        if (separator <= 0) {
+            return null;
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(skillConversationId.substring(0, separator));
+            signature = DECODER.decode(skillConversationId.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (payload.length <= HEADER_LENGTH || payload[0] != FORMAT_VERSION) {
+            return null;
+        }
+
+        ThreadLocal<Mac> key = keys.get(payload[KEY_ID_OFFSET] & BYTE_MASK);
+        if (key == null
+            || !MessageDigest.isEqual(signature, sign(key, payload))
+            || getExpiresAt(payload) <= System.currentTimeMillis()) {
+            return null;
+        }
+        return payload;
+    }
+
+    private static long getExpiresAt(byte[] payload) {
+        return ByteBuffer.wrap(payload, EXPIRES_AT_OFFSET, Long.BYTES).getLong();
+    }
+
+    private static byte[] sign(ThreadLocal<Mac> key, byte[] payload) {
+        return Arrays.copyOf(key.get().doFinal(payload), SIGNATURE_LENGTH);
+    }
+}
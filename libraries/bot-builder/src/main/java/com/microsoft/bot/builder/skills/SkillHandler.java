@@ -24,7 +24,6 @@ import com.microsoft.bot.connector.authentication.JwtTokenValidation;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ActivityTypes;
 import com.microsoft.bot.schema.CallerIdConstants;
-import com.microsoft.bot.schema.ConversationReference;
 import com.microsoft.bot.schema.ResourceResponse;
 
 import org.apache.commons.lang3.NotImplementedException;
@@ -163,17 +162,17 @@ public class SkillHandler extends ChannelServiceHandler {
                         String conversationId,
                         String activityId) {
 
-        SkillConversationReference skillConversationReference =  getSkillConversationReference(conversationId).join();
-
-        BotCallbackHandler callback = turnContext -> {
-            turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
-            return turnContext.deleteActivity(activityId);
-        };
-
-        return adapter.continueConversation(claimsIdentity,
-                                             skillConversationReference.getConversationReference(),
-                                             skillConversationReference.getOAuthScope(),
-                                             callback);
+        return getSkillConversationReference(conversationId).thenCompose(skillConversationReference -> {
+            BotCallbackHandler callback = turnContext -> {
+                turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
+                return turnContext.deleteActivity(activityId);
+            };
+
+            return adapter.continueConversation(claimsIdentity,
+                                                skillConversationReference.getConversationReference(),
+                                                skillConversationReference.getOAuthScope(),
+                                                callback);
+        });
     }
 
     /**
@@ -184,32 +183,26 @@ public class SkillHandler extends ChannelServiceHandler {
                     String conversationId,
                     String activityId,
                     Activity activity) {
-        SkillConversationReference skillConversationReference =  getSkillConversationReference(conversationId).join();
-
-        AtomicReference<ResourceResponse> resourceResponse = new AtomicReference<ResourceResponse>();
-
-        BotCallbackHandler callback = turnContext -> {
-            turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
-            activity.applyConversationReference(skillConversationReference.getConversationReference());
-            turnContext.getActivity().setId(activityId);
-            String callerId = String.format("%s%s",
-                                            CallerIdConstants.BOT_TO_BOT_PREFIX,
-                                            JwtTokenValidation.getAppIdFromClaims(claimsIdentity.claims()));
-            turnContext.getActivity().setCallerId(callerId);
-            resourceResponse.set(turnContext.updateActivity(activity).join());
-            return CompletableFuture.completedFuture(null);
-        };
-
-        adapter.continueConversation(claimsIdentity,
-                                      skillConversationReference.getConversationReference(),
-                                      skillConversationReference.getOAuthScope(),
-                                      callback);
-
-        if (resourceResponse.get() != null) {
-            return CompletableFuture.completedFuture(resourceResponse.get());
-        } else {
-            return CompletableFuture.completedFuture(new ResourceResponse(UUID.randomUUID().toString()));
-        }
+        return getSkillConversationReference(conversationId).thenCompose(skillConversationReference -> {
+            AtomicReference<ResourceResponse> resourceResponse = new AtomicReference<ResourceResponse>();
+
+            BotCallbackHandler callback = turnContext -> {
+                turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
+                activity.applyConversationReference(skillConversationReference.getConversationReference());
+                turnContext.getActivity().setId(activityId);
+                String callerId = String.format("%s%s",
+                                                CallerIdConstants.BOT_TO_BOT_PREFIX,
+                                                JwtTokenValidation.getAppIdFromClaims(claimsIdentity.claims()));
+                turnContext.getActivity().setCallerId(callerId);
+                return turnContext.updateActivity(activity).thenAccept(resourceResponse::set);
+            };
+
+            return adapter.continueConversation(claimsIdentity,
+                                                skillConversationReference.getConversationReference(),
+                                                skillConversationReference.getOAuthScope(),
+                                                callback)
+                .thenApply(result -> resourceResponseOrDefault(resourceResponse.get()));
+        });
     }
 
     private static void applyEoCToTurnContextActivity(TurnContext turnContext, Activity endOfConversationActivity) {
@@ -250,23 +243,45 @@ public class SkillHandler extends ChannelServiceHandler {
     }
 
     private CompletableFuture<SkillConversationReference> getSkillConversationReference(String conversationId) {
-
-        SkillConversationReference skillConversationReference;
+        CompletableFuture<SkillConversationReference> lookup;
         try {
-            skillConversationReference =  conversationIdFactory.getSkillConversationReference(conversationId).join();
+            lookup = conversationIdFactory.getSkillConversationReference(conversationId);
         } catch (NotImplementedException ex) {
-            if (logger != null) {
-                logger.warn("Got NotImplementedException when trying to call "
-                            + "GetSkillConversationReference() on the ConversationIdFactory,"
-                            + " attempting to use deprecated GetConversationReference() method instead.");
+            lookup = getDeprecatedSkillConversationReference(conversationId);
+        }
+
+        return lookup.thenApply(skillConversationReference -> {
+            if (skillConversationReference == null) {
+                if (logger != null) {
+                    logger.warn(
+                        String.format("Unable to get skill conversation reference for conversationId %s.",
+                                      conversationId)
+                    );
+                }
+                throw new RuntimeException("Key not found");
             }
+            return skillConversationReference;
+        });
+    }
 
-            // Attempt to get SkillConversationReference using deprecated method.
-            // this catch should be removed once we remove the deprecated method.
-            // We need to use the deprecated method for backward compatibility.
-            ConversationReference conversationReference =
-                    conversationIdFactory.getConversationReference(conversationId).join();
-            skillConversationReference = new SkillConversationReference();
+    private CompletableFuture<SkillConversationReference> getDeprecatedSkillConversationReference(
+        String conversationId
+    ) {
+        if (logger != null) {
+            logger.warn("Got NotImplementedException when trying to call "
+                        + "GetSkillConversationReference() on the ConversationIdFactory,"
+                        + " attempting to use deprecated GetConversationReference() method instead.");
+        }
+
+        // Attempt to get SkillConversationReference using deprecated method.
+        // this should be removed once we remove the deprecated method.
+        // We need to use the deprecated method for backward compatibility.
+        return conversationIdFactory.getConversationReference(conversationId).thenApply(conversationReference -> {
+            if (conversationReference == null) {
+                return null;
+            }
+
+            SkillConversationReference skillConversationReference = new SkillConversationReference();
             skillConversationReference.setConversationReference(conversationReference);
             if (getChannelProvider() != null && getChannelProvider().isGovernment()) {
                 skillConversationReference.setOAuthScope(
@@ -275,18 +290,12 @@ public class SkillHandler extends ChannelServiceHandler {
                 skillConversationReference.setOAuthScope(
                         AuthenticationConstants.TO_CHANNEL_FROM_BOT_OAUTH_SCOPE);
             }
-        }
-
-        if (skillConversationReference == null) {
-            if (logger != null) {
-                logger.warn(
-                    String.format("Unable to get skill conversation reference for conversationId %s.", conversationId)
-                );
-            }
-            throw new RuntimeException("Key not found");
-        }
+            return skillConversationReference;
+        });
+    }
 
-        return CompletableFuture.completedFuture(skillConversationReference);
+    private static ResourceResponse resourceResponseOrDefault(ResourceResponse resourceResponse) {
+        return resourceResponse != null ? resourceResponse : new ResourceResponse(UUID.randomUUID().toString());
     }
 
     private CompletableFuture<ResourceResponse> processActivity(
@@ -294,47 +303,38 @@ public class SkillHandler extends ChannelServiceHandler {
                     String conversationId,
                     String replyToActivityId,
                     Activity activity) {
-
-        SkillConversationReference skillConversationReference = getSkillConversationReference(conversationId).join();
-
-        AtomicReference<ResourceResponse> resourceResponse = new AtomicReference<ResourceResponse>();
-
-        BotCallbackHandler callback = turnContext -> {
-            turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
-            activity.applyConversationReference(skillConversationReference.getConversationReference());
-            turnContext.getActivity().setId(replyToActivityId);
-            String callerId = String.format("%s%s",
-                                            CallerIdConstants.BOT_TO_BOT_PREFIX,
-                                            JwtTokenValidation.getAppIdFromClaims(claimsIdentity.claims()));
-            turnContext.getActivity().setCallerId(callerId);
-
-            switch (activity.getType()) {
-                case ActivityTypes.END_OF_CONVERSATION:
-                     conversationIdFactory.deleteConversationReference(conversationId).join();
-                    applyEoCToTurnContextActivity(turnContext, activity);
-                     bot.onTurn(turnContext).join();
-                    break;
-                case ActivityTypes.EVENT:
-                    applyEventToTurnContextActivity(turnContext, activity);
-                     bot.onTurn(turnContext).join();
-                    break;
-                default:
-                    resourceResponse.set(turnContext.sendActivity(activity).join());
-                    break;
-            }
-            return CompletableFuture.completedFuture(null);
-        };
-
-         adapter.continueConversation(claimsIdentity,
-                                       skillConversationReference.getConversationReference(),
-                                       skillConversationReference.getOAuthScope(),
-                                       callback).join();
-
-        if (resourceResponse.get() != null) {
-            return CompletableFuture.completedFuture(resourceResponse.get());
-        } else {
-            return CompletableFuture.completedFuture(new ResourceResponse(UUID.randomUUID().toString()));
-        }
+        return getSkillConversationReference(conversationId).thenCompose(skillConversationReference -> {
+            AtomicReference<ResourceResponse> resourceResponse = new AtomicReference<ResourceResponse>();
+
+            BotCallbackHandler callback = turnContext -> {
+                turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
+                activity.applyConversationReference(skillConversationReference.getConversationReference());
+                turnContext.getActivity().setId(replyToActivityId);
+                String callerId = String.format("%s%s",
+                                                CallerIdConstants.BOT_TO_BOT_PREFIX,
+                                                JwtTokenValidation.getAppIdFromClaims(claimsIdentity.claims()));
+                turnContext.getActivity().setCallerId(callerId);
+
+                switch (activity.getType()) {
+                    case ActivityTypes.END_OF_CONVERSATION:
+                        return conversationIdFactory.deleteConversationReference(conversationId)
+                            .thenCompose(deleted -> {
+                                applyEoCToTurnContextActivity(turnContext, activity);
+                                return bot.onTurn(turnContext);
+                            });
+                    case ActivityTypes.EVENT:
+                        applyEventToTurnContextActivity(turnContext, activity);
+                        return bot.onTurn(turnContext);
+                    default:
+                        return turnContext.sendActivity(activity).thenAccept(resourceResponse::set);
+                }
+            };
+
+            return adapter.continueConversation(claimsIdentity,
+                                                skillConversationReference.getConversationReference(),
+                                                skillConversationReference.getOAuthScope(),
+                                                callback)
+                .thenApply(result -> resourceResponseOrDefault(resourceResponse.get()));
+        });
     }
 }
-
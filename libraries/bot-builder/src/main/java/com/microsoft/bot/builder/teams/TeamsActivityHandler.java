@@ -527,6 +527,8 @@ public class TeamsActivityHandler extends ActivityHandler {
             ResultPair<TeamsChannelData> channelData =
                 turnContext.getActivity().tryGetChannelData(TeamsChannelData.class);
 
+            invalidateTeamsInfoCache(turnContext, channelData);
+
             if (turnContext.getActivity().getMembersAdded() != null) {
                 return onTeamsMembersAddedDispatch(
                     turnContext.getActivity().getMembersAdded(),
@@ -624,6 +626,28 @@ public class TeamsActivityHandler extends ActivityHandler {
         return super.onConversationUpdateActivity(turnContext);
     }
 
+    /**
+     * Removes the cached details and members of the team and conversation of a
+     * Teams conversation update, since the update may have changed them.
+     */
+    private static void invalidateTeamsInfoCache(
+        TurnContext turnContext,
+        ResultPair<TeamsChannelData> channelData
+    ) {
+        TeamsInfoCache cache = TeamsInfo.getCache(turnContext);
+        if (cache == null) {
+            return;
+        }
+
+        if (turnContext.getActivity().getConversation() != null) {
+            cache.invalidate(turnContext.getActivity().getConversation().getId());
+        }
+
+        if (channelData.result() && channelData.value().getTeam() != null) {
+            cache.invalidate(channelData.value().getTeam().getId());
+        }
+    }
+
     /**
      * Override this in a derived class to provide logic for when members other than
      * the bot join the channel, such as your bot's welcome logic. It will get the
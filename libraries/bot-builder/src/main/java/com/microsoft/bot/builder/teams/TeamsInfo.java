@@ -37,9 +37,47 @@ import java.util.stream.Collectors;
  */
 @SuppressWarnings({ "checkstyle:JavadocMethod" })
 public final class TeamsInfo {
+    /**
+     * The cache of team details and members, or null if lookups are not cached.
+     */
+    private static volatile TeamsInfoCache cache;
+
     private TeamsInfo() {
     }
 
+    /**
+     * Gets the cache of team details and member lookups.
+     *
+     * @return The cache, or null if lookups are not cached.
+     */
+    public static TeamsInfoCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the cache of team details and member lookups for every turn that
+     * has no cache in its turn state. Lookups are not cached by default.
+     *
+     * @param withCache The cache to use, or null to stop caching lookups.
+     */
+    public static void setCache(TeamsInfoCache withCache) {
+        cache = withCache;
+    }
+
+    /**
+     * Gets the cache of team details and member lookups for a turn: the
+     * {@link TeamsInfoCache} in the turn state, such as one registered on the
+     * adapter with a {@link com.microsoft.bot.builder.RegisterClassMiddleware},
+     * or else the one set with {@link #setCache(TeamsInfoCache)}.
+     *
+     * @param turnContext The current TurnContext.
+     * @return The cache, or null if lookups are not cached.
+     */
+    public static TeamsInfoCache getCache(TurnContext turnContext) {
+        TeamsInfoCache turnCache = turnContext.getTurnState().get(TeamsInfoCache.class);
+        return turnCache != null ? turnCache : cache;
+    }
+
     /**
      * Returns TeamDetails for a Team.
      *
@@ -58,6 +96,14 @@ public final class TeamsInfo {
             return illegalArgument("This method is only valid within the scope of MS Teams Team.");
         }
 
+        TeamsInfoCache teamsInfoCache = getCache(turnContext);
+        if (teamsInfoCache != null) {
+            return teamsInfoCache.getTeamDetails(
+                effectiveTeamId,
+                () -> getTeamsConnectorClient(turnContext).getTeams().fetchTeamDetails(effectiveTeamId)
+            );
+        }
+
         return getTeamsConnectorClient(turnContext).getTeams().fetchTeamDetails(effectiveTeamId);
     }
 
@@ -102,7 +148,7 @@ public final class TeamsInfo {
             return illegalArgument("This method is only valid within the scope of MS Teams Team.");
         }
 
-        return getMembers(getConnectorClient(turnContext), effectiveTeamId);
+        return getMembers(getCache(turnContext), getConnectorClient(turnContext), effectiveTeamId);
     }
 
     /**
@@ -125,7 +171,7 @@ public final class TeamsInfo {
             return illegalArgument("This method is only valid within the scope of MS Teams Team.");
         }
 
-        return getMember(getConnectorClient(turnContext), userId, effectiveTeamId);
+        return getMember(getCache(turnContext), getConnectorClient(turnContext), userId, effectiveTeamId);
     }
 
     /**
@@ -145,7 +191,7 @@ public final class TeamsInfo {
         String conversationId = turnContext.getActivity().getConversation() != null
             ? turnContext.getActivity().getConversation().getId()
             : null;
-        return getMembers(getConnectorClient(turnContext), conversationId);
+        return getMembers(getCache(turnContext), getConnectorClient(turnContext), conversationId);
     }
 
     public static CompletableFuture<TeamsChannelAccount> getMember(
@@ -160,7 +206,7 @@ public final class TeamsInfo {
         String conversationId = turnContext.getActivity().getConversation() != null
             ? turnContext.getActivity().getConversation().getId()
             : null;
-        return getMember(getConnectorClient(turnContext), userId, conversationId);
+        return getMember(getCache(turnContext), getConnectorClient(turnContext), userId, conversationId);
     }
 
     /**
@@ -184,7 +230,12 @@ public final class TeamsInfo {
             return illegalArgument("This method is only valid within the scope of MS Teams Team.");
         }
 
-        return getPagedMembers(getConnectorClient(turnContext), effectiveTeamId, continuationToken);
+        return getPagedMembers(
+            getCache(turnContext),
+            getConnectorClient(turnContext),
+            effectiveTeamId,
+            continuationToken
+        );
     }
 
     /**
@@ -208,7 +259,12 @@ public final class TeamsInfo {
         String conversationId = turnContext.getActivity().getConversation() != null
             ? turnContext.getActivity().getConversation().getId()
             : null;
-        return getPagedMembers(getConnectorClient(turnContext), conversationId, continuationToken);
+        return getPagedMembers(
+            getCache(turnContext),
+            getConnectorClient(turnContext),
+            conversationId,
+            continuationToken
+        );
     }
 
     /**
@@ -298,6 +354,7 @@ public final class TeamsInfo {
     }
 
     private static CompletableFuture<List<TeamsChannelAccount>> getMembers(
+        TeamsInfoCache teamsInfoCache,
         ConnectorClient connectorClient,
         String conversationId
     ) {
@@ -305,6 +362,17 @@ public final class TeamsInfo {
             return illegalArgument("The getMembers operation needs a valid conversation Id.");
         }
 
+        if (teamsInfoCache != null) {
+            return teamsInfoCache.getMembers(conversationId, () -> fetchMembers(connectorClient, conversationId));
+        }
+
+        return fetchMembers(connectorClient, conversationId);
+    }
+
+    private static CompletableFuture<List<TeamsChannelAccount>> fetchMembers(
+        ConnectorClient connectorClient,
+        String conversationId
+    ) {
         return connectorClient.getConversations().getConversationMembers(conversationId).thenApply(
             teamMembers -> {
                 List<TeamsChannelAccount> members = teamMembers.stream().map(
@@ -321,6 +389,7 @@ public final class TeamsInfo {
     }
 
     private static CompletableFuture<TeamsChannelAccount> getMember(
+        TeamsInfoCache teamsInfoCache,
         ConnectorClient connectorClient,
         String userId,
         String conversationId
@@ -331,6 +400,22 @@ public final class TeamsInfo {
             );
         }
 
+        if (teamsInfoCache != null) {
+            return teamsInfoCache.getMember(
+                conversationId,
+                userId,
+                () -> fetchMember(connectorClient, userId, conversationId)
+            );
+        }
+
+        return fetchMember(connectorClient, userId, conversationId);
+    }
+
+    private static CompletableFuture<TeamsChannelAccount> fetchMember(
+        ConnectorClient connectorClient,
+        String userId,
+        String conversationId
+    ) {
         return connectorClient.getConversations().getConversationMember(
             userId,
             conversationId
@@ -338,6 +423,7 @@ public final class TeamsInfo {
     }
 
     private static CompletableFuture<TeamsPagedMembersResult> getPagedMembers(
+        TeamsInfoCache teamsInfoCache,
         ConnectorClient connectorClient,
         String conversationId,
         String continuationToken
@@ -346,6 +432,22 @@ public final class TeamsInfo {
             return illegalArgument("The getPagedMembers operation needs a valid conversation Id.");
         }
 
+        if (teamsInfoCache != null) {
+            return teamsInfoCache.getPagedMembers(
+                conversationId,
+                continuationToken,
+                token -> fetchPagedMembers(connectorClient, conversationId, token)
+            );
+        }
+
+        return fetchPagedMembers(connectorClient, conversationId, continuationToken);
+    }
+
+    private static CompletableFuture<TeamsPagedMembersResult> fetchPagedMembers(
+        ConnectorClient connectorClient,
+        String conversationId,
+        String continuationToken
+    ) {
         CompletableFuture<PagedMembersResult> pagedResult;
         if (StringUtils.isEmpty(continuationToken)) {
             pagedResult = connectorClient.getConversations().getConversationPagedMembers(
@@ -0,0 +1,363 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder.teams;
+
+import com.microsoft.bot.schema.teams.TeamDetails;
+import com.microsoft.bot.schema.teams.TeamsChannelAccount;
+import com.microsoft.bot.schema.teams.TeamsPagedMembersResult;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caches the team details and member lookups made by {@link TeamsInfo}.
+ *
+ * <p>
+ * Register the cache for the turns of an adapter with
+ * {@code adapter.use(new RegisterClassMiddleware<>(cache))}, or for every
+ * turn with {@link TeamsInfo#setCache(TeamsInfoCache)}. A cache in the turn
+ * state is used before the one set on {@link TeamsInfo}.
+ * </p>
+ *
+ * <p>
+ * Each team or conversation is cached separately. Its entries expire after the
+ * time to live, and are invalidated when {@link TeamsActivityHandler} receives
+ * a Teams conversation update for the team or conversation, such as members
+ * being added or removed. Up to a number of entries are kept, and the least
+ * recently used entries are removed first. Concurrent lookups of the same
+ * entry share one request to the channel, and a request that fails is not
+ * cached.
+ * </p>
+ *
+ * <p>
+ * When a page of members is fetched with a continuation token, the next pages
+ * are fetched ahead, so walking the members of a large team does not wait for
+ * each page in turn.
+ * </p>
+ *
+ * <p>
+ * The cached {@link TeamDetails} and {@link TeamsChannelAccount} objects are
+ * shared by every caller, and should not be modified.
+ * </p>
+ */
+public final class TeamsInfoCache {
+    /**
+     * The default time an entry is kept.
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    /**
+     * The default number of member pages fetched ahead.
+     */
+    public static final int DEFAULT_PREFETCH_PAGES = 1;
+
+    /**
+     * The default maximum number of entries kept.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final String MEMBERS_KEY = "members";
+    private static final String DETAILS_KEY = "details";
+    private static final String MEMBER_PREFIX = "member:";
+    private static final String PAGE_PREFIX = "page:";
+
+    private final long timeToLiveNanos;
+    private final int prefetchPages;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    /**
+     * The entries, by team or conversation id and entry key, in least recently
+     * used order.
+     */
+    private final Map<List<String>, CachedValue<?>> entries;
+
+    private final AtomicLong nextSweep;
+
+    /**
+     * Initializes a new instance of the {@link TeamsInfoCache} class with the
+     * {@link #DEFAULT_TIME_TO_LIVE}, {@link #DEFAULT_PREFETCH_PAGES} and
+     * {@link #DEFAULT_MAX_ENTRIES}.
+     */
+    public TeamsInfoCache() {
+        this(DEFAULT_TIME_TO_LIVE, DEFAULT_PREFETCH_PAGES);
+    }
+
+    /**
+     * Initializes a new instance of the {@link TeamsInfoCache} class with the
+     * {@link #DEFAULT_MAX_ENTRIES}.
+     *
+     * @param withTimeToLive    How long an entry is kept.
+     * @param withPrefetchPages The number of member pages to fetch ahead, or 0 to
+     *                          fetch each page when it is asked for.
+     */
+    public TeamsInfoCache(Duration withTimeToLive, int withPrefetchPages) {
+        this(withTimeToLive, withPrefetchPages, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Initializes a new instance of the {@link TeamsInfoCache} class.
+     *
+     * @param withTimeToLive    How long an entry is kept.
+     * @param withPrefetchPages The number of member pages to fetch ahead, or 0 to
+     *                          fetch each page when it is asked for.
+     * @param withMaxEntries    The maximum number of entries kept. The least
+     *                          recently used entries are removed first.
+     */
+    public TeamsInfoCache(Duration withTimeToLive, int withPrefetchPages, int withMaxEntries) {
+        this(withTimeToLive, withPrefetchPages, withMaxEntries, System::nanoTime);
+    }
+
+    TeamsInfoCache(Duration withTimeToLive, int withPrefetchPages, int withMaxEntries, LongSupplier withClock) {
+        if (withTimeToLive == null || withTimeToLive.isNegative() || withTimeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLive must be greater than 0");
+        }
+
+        if (withPrefetchPages < 0) {
+            throw new IllegalArgumentException("prefetchPages cannot be negative");
+        }
+
+        if (withMaxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+
+        timeToLiveNanos = withTimeToLive.toNanos();
+        prefetchPages = withPrefetchPages;
+        maxEntries = withMaxEntries;
+        clock = withClock;
+        entries = Collections.synchronizedMap(new LinkedHashMap<List<String>, CachedValue<?>>(
+            INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, CachedValue<?>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        nextSweep = new AtomicLong(clock.getAsLong() + timeToLiveNanos);
+    }
+
+    /**
+     * Gets how long an entry is kept.
+     *
+     * @return The time to live.
+     */
+    public Duration getTimeToLive() {
+        return Duration.ofNanos(timeToLiveNanos);
+    }
+
+    /**
+     * Gets the number of member pages fetched ahead.
+     *
+     * @return The number of pages.
+     */
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    /**
+     * Gets the maximum number of entries kept.
+     *
+     * @return The number of entries.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the number of entries, including the ones still loading.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes the cached details and members of a team or conversation.
+     *
+     * @param id The team or conversation id.
+     */
+    public void invalidate(String id) {
+        if (id != null) {
+            synchronized (entries) {
+                entries.keySet().removeIf(key -> id.equals(key.get(0)));
+            }
+        }
+    }
+
+    /**
+     * Removes every cached entry.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    CompletableFuture<List<TeamsChannelAccount>> getMembers(
+        String id,
+        Supplier<CompletableFuture<List<TeamsChannelAccount>>> loader
+    ) {
+        // each caller gets its own list
+        return this.<List<TeamsChannelAccount>>getOrLoad(id, MEMBERS_KEY, loader).thenApply(ArrayList::new);
+    }
+
+    CompletableFuture<TeamsChannelAccount> getMember(
+        String id,
+        String userId,
+        Supplier<CompletableFuture<TeamsChannelAccount>> loader
+    ) {
+        TeamsChannelAccount member = findMember(id, userId);
+        if (member != null) {
+            return CompletableFuture.completedFuture(member);
+        }
+
+        return getOrLoad(id, MEMBER_PREFIX + userId, loader);
+    }
+
+    CompletableFuture<TeamDetails> getTeamDetails(String teamId, Supplier<CompletableFuture<TeamDetails>> loader) {
+        return getOrLoad(teamId, DETAILS_KEY, loader);
+    }
+
+    CompletableFuture<TeamsPagedMembersResult> getPagedMembers(
+        String id,
+        String continuationToken,
+        Function<String, CompletableFuture<TeamsPagedMembersResult>> loader
+    ) {
+        return getPage(id, continuationToken, loader, prefetchPages);
+    }
+
+    private CompletableFuture<TeamsPagedMembersResult> getPage(
+        String id,
+        String continuationToken,
+        Function<String, CompletableFuture<TeamsPagedMembersResult>> loader,
+        int pagesAhead
+    ) {
+        CompletableFuture<TeamsPagedMembersResult> page = getOrLoad(
+            id,
+            PAGE_PREFIX + StringUtils.defaultString(continuationToken),
+            () -> loader.apply(continuationToken)
+        );
+
+        if (pagesAhead > 0) {
+            page.thenAccept(result -> {
+                if (!StringUtils.isEmpty(result.getContinuationToken())) {
+                    getPage(id, result.getContinuationToken(), loader, pagesAhead - 1);
+                }
+            });
+        }
+        return page;
+    }
+
+    /**
+     * Looks a member up in the cached members of a team or conversation, by id
+     * or AAD object id.
+     */
+    private TeamsChannelAccount findMember(String id, String userId) {
+        CachedValue<?> members = entries.get(Arrays.asList(id, MEMBERS_KEY));
+        if (members == null || members.isExpired(clock.getAsLong()) || !members.future.isDone()
+            || members.future.isCompletedExceptionally()) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<TeamsChannelAccount> accounts = (List<TeamsChannelAccount>) members.future.join();
+        for (TeamsChannelAccount account : accounts) {
+            if (StringUtils.equals(userId, account.getId())
+                || StringUtils.equals(userId, account.getAadObjectId())) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets an entry, or starts loading it if it is not cached or has expired.
+     * The callers of an entry that is loading share its request.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> getOrLoad(String id, String key, Supplier<CompletableFuture<T>> loader) {
+        long now = clock.getAsLong();
+        sweep(now);
+
+        List<String> entryKey = Arrays.asList(id, key);
+        CachedValue<T> created = new CachedValue<>(now + timeToLiveNanos);
+        CachedValue<T> entry = (CachedValue<T>) entries.compute(
+            entryKey,
+            (k, existing) -> existing != null && !existing.isExpired(now) ? existing : created
+        );
+
+        if (entry == created) {
+            // the request is started outside of the map update
+            load(entries, entryKey, created, loader);
+        }
+
+        // callers cannot complete the cached future
+        return entry.future.thenApply(Function.identity());
+    }
+
+    private static <T> void load(
+        Map<List<String>, CachedValue<?>> cached,
+        List<String> key,
+        CachedValue<T> entry,
+        Supplier<CompletableFuture<T>> loader
+    ) {
+        CompletableFuture<T> request;
+        try {
+            request = loader.get();
+        } catch (RuntimeException e) {
+            cached.remove(key, entry);
+            entry.future.completeExceptionally(e);
+            return;
+        }
+
+        request.whenComplete((value, exception) -> {
+            if (exception != null) {
+                cached.remove(key, entry);
+                entry.future.completeExceptionally(exception);
+            } else {
+                entry.future.complete(value);
+            }
+        });
+    }
+
+    /**
+     * Removes the expired entries, at most once per time to live.
+     */
+    private void sweep(long now) {
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt < 0 || !nextSweep.compareAndSet(sweepAt, now + timeToLiveNanos)) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+    }
+
+    private static final class CachedValue<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long expiresAt;
+
+        private CachedValue(long withExpiresAt) {
+            expiresAt = withExpiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
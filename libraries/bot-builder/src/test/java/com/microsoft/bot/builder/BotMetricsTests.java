@@ -0,0 +1,191 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import com.microsoft.bot.builder.adapters.TestAdapter;
+import com.microsoft.bot.builder.adapters.TestFlow;
+import com.microsoft.bot.connector.Async;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class BotMetricsTests {
+    @After
+    public void cleanup() {
+        BotMetricsRegistry.setMetrics(null);
+    }
+
+    @Test
+    public void BotMetrics_DisabledByDefault() {
+        Assert.assertFalse(BotMetricsRegistry.isEnabled());
+        Assert.assertTrue(BotMetricsRegistry.getMetrics() instanceof NullBotMetrics);
+
+        BotMetricsRegistry.setMetrics(new NullBotMetrics());
+        Assert.assertFalse(BotMetricsRegistry.isEnabled());
+
+        CompletableFuture<String> result = CompletableFuture.completedFuture("result");
+        Assert.assertSame(result, BotMetricsRegistry.time("timer", () -> result));
+    }
+
+    @Test
+    public void BotMetrics_Percentiles() {
+        InMemoryBotMetrics metrics = new InMemoryBotMetrics();
+        for (long millis = 1; millis <= 1000; millis++) {
+            metrics.recordTimer("timer", Duration.ofMillis(millis).toNanos(), millis % 100 != 0);
+        }
+
+        InMemoryBotMetrics.Timer timer = metrics.getTimer("timer");
+        Assert.assertEquals(1000, timer.getCount());
+        Assert.assertEquals(10, timer.getErrorCount());
+        Assert.assertEquals(Duration.ofMillis(1000), timer.getMax());
+        Assert.assertEquals(Duration.ofNanos(Duration.ofMillis(500500).toNanos() / 1000), timer.getMean());
+        assertWithin(Duration.ofMillis(500), timer.getPercentile(50));
+        assertWithin(Duration.ofMillis(990), timer.getPercentile(99));
+        Assert.assertEquals(Duration.ofMillis(1000), timer.getPercentile(100));
+        Assert.assertNull(metrics.getTimer("other"));
+
+        metrics.incrementCounter("counter", 2);
+        metrics.incrementCounter("counter", 3);
+        Assert.assertEquals(5, metrics.getCounter("counter"));
+        Assert.assertEquals(0, metrics.getCounter("other"));
+
+        metrics.reset();
+        Assert.assertTrue(metrics.getTimers().isEmpty());
+        Assert.assertTrue(metrics.getCounters().isEmpty());
+    }
+
+    @Test
+    public void BotMetrics_TimesFailures() {
+        InMemoryBotMetrics metrics = new InMemoryBotMetrics();
+        BotMetricsRegistry.setMetrics(metrics);
+
+        BotMetricsRegistry.time("failed", () -> Async.completeExceptionally(new IllegalStateException()));
+        try {
+            BotMetricsRegistry.time("thrown", () -> {
+                throw new IllegalStateException();
+            });
+            Assert.fail("expected the exception to be thrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        Assert.assertEquals(1, metrics.getTimer("failed").getErrorCount());
+        Assert.assertEquals(1, metrics.getTimer("thrown").getErrorCount());
+    }
+
+    @Test
+    public void BotMetrics_RecordsTurnStages() {
+        InMemoryBotMetrics metrics = new InMemoryBotMetrics();
+        BotMetricsRegistry.setMetrics(metrics);
+
+        Storage storage = new MemoryStorage();
+        ConversationState convState = new ConversationState(storage);
+        StatePropertyAccessor<Integer> convProperty = convState.createProperty("convCount");
+        TestAdapter adapter = new TestAdapter()
+            .use(new AutoSaveStateMiddleware(convState))
+            .use(new SlowMiddleware());
+
+        new TestFlow(adapter, turnContext -> {
+            Integer count = convProperty.get(turnContext, () -> 0).join();
+            convProperty.set(turnContext, count + 1).join();
+            return turnContext.sendActivity(count.toString()).thenApply(response -> null);
+        })
+            .send("one").assertReply("0")
+            .send("two").assertReply("1")
+            .startTest()
+            .join();
+
+        Assert.assertEquals(2, metrics.getTimer(BotMetricsConstants.BOT).getCount());
+        Assert.assertTrue(metrics.getTimer(BotMetricsConstants.STATE_LOAD).getCount() >= 2);
+        Assert.assertEquals(2, metrics.getTimer(BotMetricsConstants.STORAGE_READ).getCount());
+        Assert.assertEquals(2, metrics.getTimer(BotMetricsConstants.STATE_SAVE).getCount());
+        Assert.assertEquals(2, metrics.getTimer(BotMetricsConstants.STORAGE_WRITE).getCount());
+        Assert.assertEquals(2, metrics.getCounter(BotMetricsConstants.ACTIVITIES_SENT));
+
+        InMemoryBotMetrics.Timer slow =
+            metrics.getTimer(BotMetricsConstants.MIDDLEWARE_PREFIX + SlowMiddleware.class.getSimpleName());
+        InMemoryBotMetrics.Timer autoSave =
+            metrics.getTimer(BotMetricsConstants.MIDDLEWARE_PREFIX + AutoSaveStateMiddleware.class.getSimpleName());
+        Assert.assertEquals(2, slow.getCount());
+        Assert.assertEquals(2, autoSave.getCount());
+        Assert.assertTrue(slow.getMax().compareTo(Duration.ofMillis(SlowMiddleware.DELAY_MILLIS)) >= 0);
+
+        // The time spent in the slow middleware is not counted in the middleware before it.
+        Assert.assertTrue(autoSave.getMax().compareTo(Duration.ofMillis(SlowMiddleware.DELAY_MILLIS)) < 0);
+    }
+
+    @Test
+    public void BotMetrics_NamesAnonymousMiddleware() {
+        InMemoryBotMetrics metrics = new InMemoryBotMetrics();
+        BotMetricsRegistry.setMetrics(metrics);
+
+        Middleware anonymous = new Middleware() {
+            @Override
+            public CompletableFuture<Void> onTurn(TurnContext turnContext, NextDelegate next) {
+                return next.next();
+            }
+        };
+        TestAdapter adapter = new TestAdapter().use(anonymous);
+
+        new TestFlow(adapter, turnContext -> CompletableFuture.completedFuture(null))
+            .send("one")
+            .startTest()
+            .join();
+
+        Assert.assertNull(metrics.getTimer(BotMetricsConstants.MIDDLEWARE_PREFIX));
+        Assert.assertEquals(
+            1,
+            metrics.getTimer(BotMetricsConstants.MIDDLEWARE_PREFIX + anonymous.getClass().getName()).getCount()
+        );
+    }
+
+    @Test
+    public void BotMetrics_SendsTimersToTelemetry() {
+        BotTelemetryClient telemetryClient = mock(BotTelemetryClient.class);
+        BotMetrics metrics = new TelemetryBotMetrics(telemetryClient);
+
+        metrics.recordTimer(BotMetricsConstants.STORAGE_READ, Duration.ofMillis(5).toNanos(), true);
+        metrics.incrementCounter(BotMetricsConstants.ACTIVITIES_SENT, 1);
+
+        verify(telemetryClient).trackDependency(
+            eq(TelemetryBotMetrics.DEPENDENCY_TYPE),
+            eq(BotMetricsConstants.STORAGE_READ),
+            eq(BotMetricsConstants.STORAGE_READ),
+            isNull(),
+            any(OffsetDateTime.class),
+            eq(Duration.ofMillis(5)),
+            isNull(),
+            eq(true)
+        );
+    }
+
+    private static void assertWithin(Duration expected, Duration actual) {
+        double error = Math.abs(actual.toNanos() - expected.toNanos()) / (double) expected.toNanos();
+        Assert.assertTrue("expected " + expected + " but was " + actual, error <= 0.125);
+    }
+
+    private static class SlowMiddleware implements Middleware {
+        private static final long DELAY_MILLIS = 50;
+
+        @Override
+        public CompletableFuture<Void> onTurn(TurnContext turnContext, NextDelegate next) {
+            try {
+                Thread.sleep(DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return next.next();
+        }
+    }
+}
@@ -3,6 +3,10 @@
 
 package com.microsoft.bot.builder;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -66,6 +70,35 @@ public class BotStateSetTests {
         }
     }
 
+    @Test
+    public void BotStateSet_LoadAllUsesOverriddenLoad() {
+        Storage storage = new MemoryStorage();
+        TurnContext turnContext = TestUtilities.createEmptyContext();
+
+        ConversationState convState = new ConversationState(storage);
+        StatePropertyAccessor<Integer> convProperty = convState.createProperty("convCount");
+        convProperty.set(turnContext, 20).join();
+        convState.saveChanges(turnContext).join();
+
+        turnContext = TestUtilities.createEmptyContext();
+        AtomicInteger overriddenLoads = new AtomicInteger();
+        ConversationState overridingState = new ConversationState(storage) {
+            @Override
+            public CompletableFuture<Void> load(TurnContext context, boolean force) {
+                overriddenLoads.incrementAndGet();
+                return super.load(context, force);
+            }
+        };
+        StatePropertyAccessor<Integer> overridingProperty = overridingState.createProperty("convCount");
+        UserState userState = new UserState(storage);
+
+        new BotStateSet(userState, overridingState).loadAll(turnContext).join();
+
+        Assert.assertEquals(1, overriddenLoads.get());
+        Assert.assertEquals(20, overridingProperty.get(turnContext, () -> 0).join().intValue());
+        Assert.assertNotNull(userState.getCachedState(turnContext));
+    }
+
     @Test
     public void BotStateSet_SaveAsync() {
         Storage storage = new MemoryStorage();
@@ -98,4 +131,45 @@ public class BotStateSetTests {
         convCount = convProperty.get(turnContext, () -> 0).join();
         Assert.assertEquals(20, convCount.intValue());
     }
+
+    @Test
+    public void BotStateSet_LoadAllReadsSharedStorageOnce() {
+        AtomicInteger reads = new AtomicInteger();
+        Storage storage = new MemoryStorage() {
+            @Override
+            public CompletableFuture<Map<String, Object>> read(String[] keys) {
+                reads.incrementAndGet();
+                return super.read(keys);
+            }
+        };
+
+        {
+            TurnContext turnContext = TestUtilities.createEmptyContext();
+            UserState userState = new UserState(storage);
+            ConversationState convState = new ConversationState(storage);
+            BotStateSet stateSet = new BotStateSet(userState, convState);
+
+            stateSet.loadAll(turnContext).join();
+            userState.<Integer>createProperty("userCount").set(turnContext, 10).join();
+            convState.<Integer>createProperty("convCount").set(turnContext, 20).join();
+            stateSet.saveAllChanges(turnContext).join();
+            Assert.assertEquals(1, reads.get());
+        }
+
+        {
+            TurnContext turnContext = TestUtilities.createEmptyContext();
+            UserState userState = new UserState(storage);
+            ConversationState convState = new ConversationState(storage);
+            BotStateSet stateSet = new BotStateSet(userState, convState);
+
+            stateSet.loadAll(turnContext).join();
+            stateSet.loadAll(turnContext).join();
+            Assert.assertEquals(2, reads.get());
+
+            Integer userCount = userState.<Integer>createProperty("userCount").get(turnContext, () -> 0).join();
+            Assert.assertEquals(10, userCount.intValue());
+            Integer convCount = convState.<Integer>createProperty("convCount").get(turnContext, () -> 0).join();
+            Assert.assertEquals(20, convCount.intValue());
+        }
+    }
 }
@@ -0,0 +1,181 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import com.microsoft.bot.builder.adapters.TestAdapter;
+import com.microsoft.bot.builder.adapters.TestFlow;
+import com.microsoft.bot.schema.Activity;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BufferedBotTelemetryClientTests {
+    @Test
+    public void BufferedTelemetry_SendsInOrderOffTheCaller() {
+        BotTelemetryClient inner = mock(BotTelemetryClient.class);
+        ManualExecutor executor = new ManualExecutor();
+        BufferedBotTelemetryClient client = new BufferedBotTelemetryClient(inner, 10, 2, executor);
+
+        client.trackEvent("first");
+        client.trackTrace("second", Severity.INFORMATION, null);
+        client.trackException(new IllegalStateException("third"));
+        verify(inner, never()).trackEvent(any(), any(), any());
+        Assert.assertEquals(3, client.getQueuedCount());
+        Assert.assertEquals(1, executor.tasks.size());
+
+        executor.runAll();
+
+        InOrder order = inOrder(inner);
+        order.verify(inner).trackEvent(eq("first"), isNull(), isNull());
+        order.verify(inner).trackTrace(eq("second"), eq(Severity.INFORMATION), isNull());
+        order.verify(inner).trackException(any(IllegalStateException.class), isNull(), isNull());
+        Assert.assertEquals(0, client.getQueuedCount());
+    }
+
+    @Test
+    public void BufferedTelemetry_BuildsPropertiesWhenSent() {
+        BotTelemetryClient inner = mock(BotTelemetryClient.class);
+        ManualExecutor executor = new ManualExecutor();
+        BufferedBotTelemetryClient client = new BufferedBotTelemetryClient(inner, 10, 10, executor);
+
+        int[] built = new int[] { 0 };
+        client.trackEvent("lazy", () -> {
+            built[0]++;
+            return Collections.singletonMap("key", "value");
+        }, null);
+        client.trackEvent("broken", () -> {
+            throw new IllegalStateException("unable to build the properties");
+        }, null);
+        Assert.assertEquals(0, built[0]);
+
+        client.flush();
+
+        Assert.assertEquals(1, built[0]);
+        verify(inner).trackEvent("lazy", Collections.singletonMap("key", "value"), null);
+        verify(inner).flush();
+        Assert.assertEquals(1, client.getDroppedCount());
+    }
+
+    @Test
+    public void BufferedTelemetry_DropsWhenFull() {
+        BotTelemetryClient inner = mock(BotTelemetryClient.class);
+        ManualExecutor executor = new ManualExecutor();
+        BufferedBotTelemetryClient client = new BufferedBotTelemetryClient(inner, 2, 10, executor);
+
+        client.trackEvent("1");
+        client.trackEvent("2");
+        client.trackEvent("3");
+        Assert.assertEquals(1, client.getDroppedCount());
+
+        client.setDropPolicy(BufferedBotTelemetryClient.DropPolicy.DROP_OLDEST);
+        client.trackEvent("4");
+        Assert.assertEquals(2, client.getDroppedCount());
+
+        executor.runAll();
+
+        InOrder order = inOrder(inner);
+        order.verify(inner).trackEvent(eq("2"), isNull(), isNull());
+        order.verify(inner).trackEvent(eq("4"), isNull(), isNull());
+        verify(inner, never()).trackEvent(eq("1"), any(), any());
+        verify(inner, never()).trackEvent(eq("3"), any(), any());
+    }
+
+    @Test
+    public void BufferedTelemetry_SamplesUnderPressure() {
+        BotTelemetryClient inner = mock(BotTelemetryClient.class);
+        ManualExecutor executor = new ManualExecutor();
+        BufferedBotTelemetryClient client = new BufferedBotTelemetryClient(inner, 100, 10, executor);
+        client.setSamplingRatio(4);
+
+        for (int i = 0; i < 50; i++) {
+            client.trackEvent("event");
+        }
+        Assert.assertEquals(0, client.getSampledOutCount());
+
+        for (int i = 0; i < 40; i++) {
+            client.trackEvent("event");
+            client.trackException(new IllegalStateException());
+        }
+        Assert.assertEquals(30, client.getSampledOutCount());
+        Assert.assertEquals(0, client.getDroppedCount());
+
+        executor.runAll();
+
+        verify(inner, times(60)).trackEvent(eq("event"), isNull(), isNull());
+        verify(inner, times(40)).trackException(any(IllegalStateException.class), isNull(), isNull());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void BufferedTelemetry_LoggerMiddleware() {
+        BotTelemetryClient inner = mock(BotTelemetryClient.class);
+        BufferedBotTelemetryClient client = new BufferedBotTelemetryClient(inner, 10, 10, new ManualExecutor());
+        AtomicInteger filled = new AtomicInteger();
+        TestAdapter adapter = new TestAdapter().use(new TelemetryLoggerMiddleware(client, true) {
+            @Override
+            protected CompletableFuture<Map<String, String>> fillReceiveEventProperties(
+                Activity activity,
+                Map<String, String> additionalProperties
+            ) {
+                filled.incrementAndGet();
+                return super.fillReceiveEventProperties(activity, additionalProperties);
+            }
+        });
+
+        // the properties are filled off the turn, from a copy of the activity taken on the turn
+        new TestFlow(adapter, turnContext -> turnContext.sendActivity("echo:" + turnContext.getActivity().getText())
+            .thenApply(response -> {
+                turnContext.getActivity().setText("changed");
+                return null;
+            }))
+            .send("foo")
+            .assertReply("echo:foo")
+            .startTest()
+            .join();
+
+        verify(inner, never()).trackEvent(any(), any(), any());
+        Assert.assertEquals(0, filled.get());
+        client.flush();
+        Assert.assertEquals(1, filled.get());
+
+        ArgumentCaptor<Map<String, String>> properties = ArgumentCaptor.forClass(Map.class);
+        InOrder order = inOrder(inner);
+        order.verify(inner).trackEvent(eq(TelemetryLoggerConstants.BOTMSGRECEIVEEVENT), properties.capture(), isNull());
+        order.verify(inner).trackEvent(eq(TelemetryLoggerConstants.BOTMSGSENDEVENT), properties.capture(), isNull());
+        Assert.assertEquals("foo", properties.getAllValues().get(0).get(TelemetryConstants.TEXTPROPERTY));
+        Assert.assertEquals("echo:foo", properties.getAllValues().get(1).get(TelemetryConstants.TEXTPROPERTY));
+    }
+
+    private static class ManualExecutor implements java.util.concurrent.Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+}
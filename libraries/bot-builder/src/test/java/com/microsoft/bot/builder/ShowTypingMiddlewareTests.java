@@ -11,6 +11,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class ShowTypingMiddlewareTests {
     @Test
@@ -65,6 +66,53 @@ public class ShowTypingMiddlewareTests {
         })).send("foo").assertReply("Message send after delay").startTest().join();
     }
 
+    @Test
+    public void ShowTyping_TestMiddleware_StopsWhenTurnFails() throws InterruptedException {
+        TestAdapter adapter = new TestAdapter().use(new ShowTypingMiddleware(100, 200));
+
+        try {
+            adapter.processActivity(adapter.makeActivity("foo"), turnContext -> {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+                throw new IllegalStateException("turn failed");
+            }).join();
+            Assert.fail("expected the turn to fail");
+        } catch (CompletionException | IllegalStateException e) {
+            // expected
+        }
+
+        Thread.sleep(300);
+        adapter.activeQueue().clear();
+        Thread.sleep(500);
+        Assert.assertTrue(adapter.activeQueue().isEmpty());
+    }
+
+    @Test
+    public void ShowTyping_TestMiddleware_CoalescesConversationTurns() {
+        TestAdapter adapter = new TestAdapter().use(new ShowTypingMiddleware(100, 400));
+        BotCallbackHandler slowBot = turnContext -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                // do nothing
+            }
+            return CompletableFuture.completedFuture(null);
+        };
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(
+            () -> adapter.processActivity(adapter.makeActivity("one"), slowBot).join());
+        CompletableFuture<Void> second = CompletableFuture.runAsync(
+            () -> adapter.processActivity(adapter.makeActivity("two"), slowBot).join());
+        CompletableFuture.allOf(first, second).join();
+
+        // one indicator for both turns sends at 100, 500 and 900 ms
+        long typing = adapter.activeQueue().stream().filter(a -> a.isType(ActivityTypes.TYPING)).count();
+        Assert.assertTrue("typing activities: " + typing, typing >= 2 && typing <= 4);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void ShowTyping_TestMiddleware_NegativeDelay() {
         TestAdapter adapter = new TestAdapter().use(new ShowTypingMiddleware(-100, 5000));
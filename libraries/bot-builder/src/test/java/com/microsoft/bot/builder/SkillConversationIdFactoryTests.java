@@ -5,12 +5,16 @@ package com.microsoft.bot.builder;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.UUID;
 
 import com.microsoft.bot.builder.skills.BotFrameworkSkill;
+import com.microsoft.bot.builder.skills.CachingSkillConversationIdFactory;
 import com.microsoft.bot.builder.skills.SkillConversationIdFactory;
 import com.microsoft.bot.builder.skills.SkillConversationIdFactoryOptions;
 import com.microsoft.bot.builder.skills.SkillConversationReference;
+import com.microsoft.bot.builder.skills.SignedSkillConversationIdFactory;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ConversationAccount;
 import com.microsoft.bot.schema.ConversationReference;
@@ -23,6 +27,7 @@ import org.junit.Assert;
 public class SkillConversationIdFactoryTests {
 
     private static final String SERVICE_URL = "http://testbot.com/api/messages";
+    private static final String SIGNING_SECRET = "0123456789abcdefghijklmnopqrstuvwxyz";
     private final String skillId = "skill";
 
     private final SkillConversationIdFactory skillConversationIdFactory =
@@ -92,6 +97,129 @@ public class SkillConversationIdFactoryTests {
 
 
 
+    @Test
+    public void CachingFactoryResolvesFromMemory() {
+        MemoryStorage storage = new MemoryStorage();
+        CachingSkillConversationIdFactory factory = new CachingSkillConversationIdFactory(storage);
+        ConversationReference conversationReference = buildConversationReference();
+
+        String skillConversationId = factory.createSkillConversationId(buildOptions(conversationReference)).join();
+
+        // Removing the storage entry directly shows the reference comes from the cache.
+        storage.delete(new String[] {skillConversationId}).join();
+        SkillConversationReference cachedReference =
+            factory.getSkillConversationReference(skillConversationId).join();
+        Assert.assertNotNull(cachedReference);
+        Assert.assertTrue(compareConversationReferences(conversationReference,
+                                                       cachedReference.getConversationReference()));
+
+        factory.deleteConversationReference(skillConversationId).join();
+        Assert.assertNull(factory.getSkillConversationReference(skillConversationId).join());
+    }
+
+    @Test
+    public void CachingFactoryFallsBackToStorage() {
+        MemoryStorage storage = new MemoryStorage();
+        ConversationReference conversationReference = buildConversationReference();
+
+        String skillConversationId = new SkillConversationIdFactory(storage)
+            .createSkillConversationId(buildOptions(conversationReference)).join();
+
+        CachingSkillConversationIdFactory factory =
+            new CachingSkillConversationIdFactory(new SkillConversationIdFactory(storage), 1);
+        SkillConversationReference retrievedReference =
+            factory.getSkillConversationReference(skillConversationId).join();
+
+        Assert.assertNotNull(retrievedReference);
+        Assert.assertTrue(compareConversationReferences(conversationReference,
+                                                       retrievedReference.getConversationReference()));
+    }
+
+    @Test
+    public void SignedFactoryRoundTrip() {
+        SignedSkillConversationIdFactory factory = new SignedSkillConversationIdFactory(SIGNING_SECRET);
+        ConversationReference conversationReference = buildConversationReference();
+
+        String skillConversationId = factory.createSkillConversationId(buildOptions(conversationReference)).join();
+        Assert.assertTrue(skillConversationId.matches("[A-Za-z0-9_\\-.]+"));
+        Assert.assertNotEquals(skillConversationId,
+                               factory.createSkillConversationId(buildOptions(conversationReference)).join());
+
+        SkillConversationReference retrievedReference =
+            factory.getSkillConversationReference(skillConversationId).join();
+        Assert.assertNotNull(retrievedReference);
+        Assert.assertEquals(botId, retrievedReference.getOAuthScope());
+        Assert.assertEquals(conversationReference.getConversation().getId(),
+                            retrievedReference.getConversationReference().getConversation().getId());
+        Assert.assertEquals(conversationReference.getServiceUrl(),
+                            retrievedReference.getConversationReference().getServiceUrl());
+    }
+
+    @Test
+    public void SignedFactoryRejectsTamperedIds() {
+        SignedSkillConversationIdFactory factory = new SignedSkillConversationIdFactory(SIGNING_SECRET);
+        String skillConversationId = factory.createSkillConversationId(
+            buildOptions(buildConversationReference())).join();
+
+        SignedSkillConversationIdFactory otherFactory =
+            new SignedSkillConversationIdFactory(StringUtils.reverse(SIGNING_SECRET));
+        Assert.assertNull(otherFactory.getSkillConversationReference(skillConversationId).join());
+
+        char replaced = skillConversationId.charAt(12) == 'A' ? 'B' : 'A';
+        String tampered = skillConversationId.substring(0, 12) + replaced + skillConversationId.substring(13);
+        Assert.assertNull(factory.getSkillConversationReference(tampered).join());
+        Assert.assertNull(factory.getSkillConversationReference("not-a-signed-id").join());
+    }
+
+    @Test
+    public void SignedFactoryRejectsExpiredIds() throws InterruptedException {
+        SignedSkillConversationIdFactory factory = new SignedSkillConversationIdFactory(
+            0, SIGNING_SECRET.getBytes(StandardCharsets.UTF_8), Duration.ofMillis(1));
+        String skillConversationId = factory.createSkillConversationId(
+            buildOptions(buildConversationReference())).join();
+
+        Thread.sleep(20);
+        Assert.assertNull(factory.getSkillConversationReference(skillConversationId).join());
+    }
+
+    @Test
+    public void SignedFactoryVerifiesRotatedKeys() {
+        byte[] oldKey = SIGNING_SECRET.getBytes(StandardCharsets.UTF_8);
+        byte[] newKey = StringUtils.reverse(SIGNING_SECRET).getBytes(StandardCharsets.UTF_8);
+        String skillConversationId = new SignedSkillConversationIdFactory(oldKey)
+            .createSkillConversationId(buildOptions(buildConversationReference())).join();
+
+        SignedSkillConversationIdFactory rotated = new SignedSkillConversationIdFactory(
+            1, newKey, SignedSkillConversationIdFactory.DEFAULT_TIME_TO_LIVE);
+        Assert.assertNull(rotated.getSkillConversationReference(skillConversationId).join());
+
+        rotated.addVerificationKey(0, oldKey);
+        Assert.assertNotNull(rotated.getSkillConversationReference(skillConversationId).join());
+        String rotatedId = rotated.createSkillConversationId(buildOptions(buildConversationReference())).join();
+        Assert.assertNull(new SignedSkillConversationIdFactory(oldKey).getSkillConversationReference(rotatedId).join());
+    }
+
+    @Test
+    public void SignedFactoryRevokesDeletedIds() {
+        SignedSkillConversationIdFactory factory = new SignedSkillConversationIdFactory(SIGNING_SECRET);
+        String skillConversationId = factory.createSkillConversationId(
+            buildOptions(buildConversationReference())).join();
+        String otherId = factory.createSkillConversationId(buildOptions(buildConversationReference())).join();
+
+        factory.deleteConversationReference(skillConversationId).join();
+        Assert.assertNull(factory.getSkillConversationReference(skillConversationId).join());
+        Assert.assertNotNull(factory.getSkillConversationReference(otherId).join());
+    }
+
+    private SkillConversationIdFactoryOptions buildOptions(ConversationReference conversationReference) {
+        SkillConversationIdFactoryOptions options = new SkillConversationIdFactoryOptions();
+        options.setActivity(buildMessageActivity(conversationReference));
+        options.setBotFrameworkSkill(buildBotFrameworkSkill());
+        options.setFromBotId(botId);
+        options.setFromBotOAuthScope(botId);
+        return options;
+    }
+
     private static ConversationReference buildConversationReference() {
         ConversationReference conversationReference = new ConversationReference();
         conversationReference.setConversation(new ConversationAccount(UUID.randomUUID().toString()));
@@ -0,0 +1,229 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MT License.
+
+package com.microsoft.bot.builder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.microsoft.bot.builder.skills.SkillConversationIdFactoryBase;
+import com.microsoft.bot.builder.skills.SkillConversationIdFactoryOptions;
+import com.microsoft.bot.builder.skills.SkillConversationReference;
+import com.microsoft.bot.builder.skills.SkillHandler;
+import com.microsoft.bot.connector.authentication.AuthenticationConfiguration;
+import com.microsoft.bot.connector.authentication.ClaimsIdentity;
+import com.microsoft.bot.connector.authentication.SimpleCredentialProvider;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ActivityTypes;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationAccount;
+import com.microsoft.bot.schema.ConversationReference;
+import com.microsoft.bot.schema.ResourceResponse;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * These tests run every SkillHandler request on the test thread while the
+ * conversation id factory, the adapter and the bot are still pending. A
+ * blocking call anywhere on those paths would never return, and the test would
+ * fail on its timeout instead of getting back an incomplete future.
+ */
+public class SkillHandlerTests {
+    private static final long TIMEOUT = 5000;
+
+    private final DeferredConversationIdFactory factory = new DeferredConversationIdFactory();
+    private final DeferredAdapter adapter = new DeferredAdapter();
+    private final DeferredBot bot = new DeferredBot();
+    private final SkillHandler sut = new SkillHandler(adapter, bot, factory, new SimpleCredentialProvider(),
+                                                      new AuthenticationConfiguration(), null);
+
+    @Test(timeout = TIMEOUT)
+    public void ReplyToActivityDoesNotBlock() {
+        CompletableFuture<ResourceResponse> result =
+            sut.handleReplyToActivity(null, "conversationId", "replyToId", new Activity(ActivityTypes.MESSAGE));
+        Assert.assertFalse(result.isDone());
+
+        factory.lookup.complete(buildSkillConversationReference());
+        Assert.assertFalse(result.isDone());
+
+        adapter.send.complete(new ResourceResponse[] { new ResourceResponse("sentId") });
+        Assert.assertEquals("sentId", result.join().getId());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void SendToConversationDoesNotBlock() {
+        CompletableFuture<ResourceResponse> result =
+            sut.handleSendToConversation(null, "conversationId", new Activity(ActivityTypes.MESSAGE));
+        Assert.assertFalse(result.isDone());
+
+        factory.lookup.complete(buildSkillConversationReference());
+        Assert.assertFalse(result.isDone());
+
+        adapter.send.complete(new ResourceResponse[] { new ResourceResponse("sentId") });
+        Assert.assertEquals("sentId", result.join().getId());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void UpdateActivityDoesNotBlock() {
+        CompletableFuture<ResourceResponse> result =
+            sut.handleUpdateActivity(null, "conversationId", "activityId", new Activity(ActivityTypes.MESSAGE));
+        Assert.assertFalse(result.isDone());
+
+        factory.lookup.complete(buildSkillConversationReference());
+        Assert.assertFalse(result.isDone());
+
+        adapter.update.complete(new ResourceResponse("updatedId"));
+        Assert.assertEquals("updatedId", result.join().getId());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void DeleteActivityDoesNotBlock() {
+        CompletableFuture<Void> result = sut.handleDeleteActivity(null, "conversationId", "activityId");
+        Assert.assertFalse(result.isDone());
+
+        factory.lookup.complete(buildSkillConversationReference());
+        Assert.assertFalse(result.isDone());
+
+        adapter.delete.complete(null);
+        result.join();
+        Assert.assertEquals("activityId", adapter.deletedActivityId);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void EndOfConversationDoesNotBlock() {
+        CompletableFuture<ResourceResponse> result =
+            sut.handleSendToConversation(null, "conversationId", new Activity(ActivityTypes.END_OF_CONVERSATION));
+        Assert.assertFalse(result.isDone());
+
+        factory.lookup.complete(buildSkillConversationReference());
+        Assert.assertFalse(result.isDone());
+
+        factory.delete.complete(null);
+        Assert.assertFalse(result.isDone());
+        Assert.assertEquals(ActivityTypes.END_OF_CONVERSATION, bot.turnContext.getActivity().getType());
+
+        bot.turn.complete(null);
+        Assert.assertNotNull(result.join());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void EventDoesNotBlock() {
+        Activity event = new Activity(ActivityTypes.EVENT);
+        event.setName("skillEvent");
+        CompletableFuture<ResourceResponse> result = sut.handleSendToConversation(null, "conversationId", event);
+        Assert.assertFalse(result.isDone());
+
+        factory.lookup.complete(buildSkillConversationReference());
+        Assert.assertFalse(result.isDone());
+        Assert.assertEquals("skillEvent", bot.turnContext.getActivity().getName());
+
+        bot.turn.complete(null);
+        Assert.assertNotNull(result.join());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void UnknownConversationFailsFuture() {
+        CompletableFuture<ResourceResponse> result =
+            sut.handleReplyToActivity(null, "conversationId", "replyToId", new Activity(ActivityTypes.MESSAGE));
+
+        factory.lookup.complete(null);
+        Assert.assertTrue(result.isCompletedExceptionally());
+        try {
+            result.join();
+            Assert.fail("Expected the lookup failure to surface through the future.");
+        } catch (CompletionException ex) {
+            Assert.assertEquals("Key not found", ex.getCause().getMessage());
+        }
+    }
+
+    private static SkillConversationReference buildSkillConversationReference() {
+        ConversationReference conversationReference = new ConversationReference();
+        conversationReference.setServiceUrl("http://testbot.com/api/messages");
+        conversationReference.setChannelId("test");
+        conversationReference.setConversation(new ConversationAccount("parentConversationId"));
+        conversationReference.setUser(new ChannelAccount("user"));
+        conversationReference.setBot(new ChannelAccount("bot"));
+
+        SkillConversationReference skillConversationReference = new SkillConversationReference();
+        skillConversationReference.setConversationReference(conversationReference);
+        skillConversationReference.setOAuthScope("parentBot");
+        return skillConversationReference;
+    }
+
+    /**
+     * A conversation id factory whose lookups complete when the test says so.
+     */
+    private static class DeferredConversationIdFactory extends SkillConversationIdFactoryBase {
+        private final CompletableFuture<SkillConversationReference> lookup = new CompletableFuture<>();
+        private final CompletableFuture<Void> delete = new CompletableFuture<>();
+
+        @Override
+        public CompletableFuture<String> createSkillConversationId(SkillConversationIdFactoryOptions options) {
+            return CompletableFuture.completedFuture("conversationId");
+        }
+
+        @Override
+        public CompletableFuture<SkillConversationReference> getSkillConversationReference(
+            String skillConversationId
+        ) {
+            return lookup;
+        }
+
+        @Override
+        public CompletableFuture<Void> deleteConversationReference(String skillConversationId) {
+            return delete;
+        }
+    }
+
+    /**
+     * An adapter whose channel operations complete when the test says so.
+     */
+    private static class DeferredAdapter extends BotAdapter {
+        private final CompletableFuture<ResourceResponse[]> send = new CompletableFuture<>();
+        private final CompletableFuture<ResourceResponse> update = new CompletableFuture<>();
+        private final CompletableFuture<Void> delete = new CompletableFuture<>();
+        private String deletedActivityId;
+
+        @Override
+        public CompletableFuture<Void> continueConversation(
+            ClaimsIdentity claimsIdentity,
+            ConversationReference reference,
+            String audience,
+            BotCallbackHandler callback
+        ) {
+            return runPipeline(new TurnContextImpl(this, reference.getContinuationActivity()), callback);
+        }
+
+        @Override
+        public CompletableFuture<ResourceResponse[]> sendActivities(TurnContext context, List<Activity> activities) {
+            return send;
+        }
+
+        @Override
+        public CompletableFuture<ResourceResponse> updateActivity(TurnContext context, Activity activity) {
+            return update;
+        }
+
+        @Override
+        public CompletableFuture<Void> deleteActivity(TurnContext context, ConversationReference reference) {
+            deletedActivityId = reference.getActivityId();
+            return delete;
+        }
+    }
+
+    /**
+     * A bot whose turns complete when the test says so.
+     */
+    private static class DeferredBot implements Bot {
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+        private TurnContext turnContext;
+
+        @Override
+        public CompletableFuture<Void> onTurn(TurnContext withTurnContext) {
+            turnContext = withTurnContext;
+            return turn;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.microsoft.bot.connector.ExecutorFactory;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationAccount;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load benchmark of how many turns the adapter completes per second when the
+ * bot blocks on the SDK executor, as several SDK code paths still do. Each turn
+ * runs through the adapter pipeline, loads and saves conversation state, and
+ * blocks an executor thread for a fixed time.
+ *
+ * <p>
+ * The executor strategy is fixed once the executor is used, so each run
+ * measures one strategy. Run with -Dbot.benchmark=true, and add
+ * -Dcom.microsoft.bot.connector.executor=virtual to measure virtual threads.
+ * On a JDK without virtual threads, the virtual strategy falls back to the
+ * ForkJoinPool and the run measures the pool; this is logged.
+ * </p>
+ */
+public class TurnCapacityBenchmarkTests {
+    private static final int BENCHMARK_TURNS = 2000;
+    private static final long BENCHMARK_BLOCKING_MILLIS = 50;
+    private static final Logger LOGGER = LoggerFactory.getLogger(TurnCapacityBenchmarkTests.class);
+
+    @Test
+    public void TurnCapacityBenchmark() {
+        Assume.assumeTrue(Boolean.getBoolean("bot.benchmark"));
+
+        boolean virtual = ExecutorFactory.getExecutorStrategy() == ExecutorFactory.VIRTUAL_THREADS;
+        String mode = !virtual
+            ? "forkjoin"
+            : ExecutorFactory.isVirtualThreadsSupported() ? "virtual" : "virtual (fallback to forkjoin)";
+        if (virtual && !ExecutorFactory.isVirtualThreadsSupported()) {
+            LOGGER.warn("Virtual threads are not supported by this JDK; virtual thread capacity is not measured.");
+        }
+
+        ConversationState conversationState = new ConversationState(new MemoryStorage());
+        StatePropertyAccessor<Integer> turnCount = conversationState.createProperty("turnCount");
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+
+        BotCallbackHandler bot = turnContext -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return turnCount.get(turnContext, () -> 0)
+                .thenCompose(count -> turnCount.set(turnContext, count + 1))
+                .thenRunAsync(TurnCapacityBenchmarkTests::block, ExecutorFactory.getExecutor())
+                .thenCompose(result -> conversationState.saveChanges(turnContext))
+                .whenComplete((result, exception) -> inFlight.decrementAndGet());
+        };
+
+        SimpleAdapter adapter = new SimpleAdapter();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> turns = new ArrayList<>(BENCHMARK_TURNS);
+        for (int i = 0; i < BENCHMARK_TURNS; i++) {
+            turns.add(adapter.processRequest(createActivity(i), bot));
+        }
+        CompletableFuture.allOf(turns.toArray(new CompletableFuture[0])).join();
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        LOGGER.info(
+            "{} turns={} blocking={}ms elapsed={}ms turns/s={} peak concurrent turns={}",
+            mode,
+            BENCHMARK_TURNS,
+            BENCHMARK_BLOCKING_MILLIS,
+            elapsedMillis,
+            BENCHMARK_TURNS * 1000L / elapsedMillis,
+            peakInFlight.get()
+        );
+        Assert.assertEquals(0, inFlight.get());
+    }
+
+    private static Activity createActivity(int index) {
+        Activity activity = Activity.createMessageActivity();
+        activity.setChannelId("test");
+        activity.setText("turn " + index);
+        activity.setFrom(new ChannelAccount("user"));
+        activity.setRecipient(new ChannelAccount("bot"));
+        activity.setConversation(new ConversationAccount("conversation-" + index));
+        return activity;
+    }
+
+    private static void block() {
+        try {
+            Thread.sleep(BENCHMARK_BLOCKING_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
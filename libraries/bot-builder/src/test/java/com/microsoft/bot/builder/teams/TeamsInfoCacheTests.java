@@ -0,0 +1,212 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder.teams;
+
+import com.microsoft.bot.builder.BotFrameworkAdapter;
+import com.microsoft.bot.builder.SimpleAdapter;
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.builder.TurnContextImpl;
+import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.connector.Channels;
+import com.microsoft.bot.connector.ConnectorClient;
+import com.microsoft.bot.connector.Conversations;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ActivityTypes;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationAccount;
+import com.microsoft.bot.schema.PagedMembersResult;
+import com.microsoft.bot.schema.teams.TeamInfo;
+import com.microsoft.bot.schema.teams.TeamsChannelAccount;
+import com.microsoft.bot.schema.teams.TeamsChannelData;
+import com.microsoft.bot.schema.teams.TeamsPagedMembersResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class TeamsInfoCacheTests {
+    private long now;
+    private Conversations conversations;
+    private ConnectorClient connectorClient;
+
+    @Before
+    public void initialize() {
+        now = 0;
+        conversations = Mockito.mock(Conversations.class);
+        connectorClient = Mockito.mock(ConnectorClient.class);
+        Mockito.when(connectorClient.getConversations()).thenReturn(conversations);
+        TeamsInfo.setCache(new TeamsInfoCache(Duration.ofMinutes(1), 1, TeamsInfoCache.DEFAULT_MAX_ENTRIES, () -> now));
+    }
+
+    @After
+    public void cleanup() {
+        TeamsInfo.setCache(null);
+    }
+
+    @Test
+    public void TestMembersAreCoalescedAndCached() {
+        CompletableFuture<List<ChannelAccount>> members = new CompletableFuture<>();
+        Mockito.when(conversations.getConversationMembers("team-id")).thenReturn(members);
+        TurnContext turnContext = getTurnContext(new Activity(ActivityTypes.MESSAGE));
+
+        CompletableFuture<List<TeamsChannelAccount>> first = TeamsInfo.getMembers(turnContext);
+        CompletableFuture<List<TeamsChannelAccount>> second = TeamsInfo.getMembers(turnContext);
+        members.complete(getMembers("id-1", "id-2"));
+
+        Assert.assertEquals(2, first.join().size());
+        Assert.assertEquals(2, second.join().size());
+        Assert.assertEquals(2, TeamsInfo.getMembers(turnContext).join().size());
+        Assert.assertEquals("id-2", TeamsInfo.getMember(turnContext, "id-2").join().getId());
+
+        Mockito.verify(conversations, Mockito.times(1)).getConversationMembers("team-id");
+        Mockito.verify(conversations, Mockito.never()).getConversationMember(Mockito.any(), Mockito.any());
+
+        // entries expire after the time to live
+        now += Duration.ofMinutes(1).toNanos();
+        TeamsInfo.getMembers(turnContext).join();
+        Mockito.verify(conversations, Mockito.times(2)).getConversationMembers("team-id");
+    }
+
+    @Test
+    public void TestFailuresAreNotCached() {
+        Mockito.when(conversations.getConversationMembers("team-id"))
+            .thenReturn(Async.completeExceptionally(new IllegalStateException("unavailable")))
+            .thenReturn(CompletableFuture.completedFuture(getMembers("id-1")));
+        TurnContext turnContext = getTurnContext(new Activity(ActivityTypes.MESSAGE));
+
+        try {
+            TeamsInfo.getMembers(turnContext).join();
+            Assert.fail("expected the lookup to fail");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        Assert.assertEquals(1, TeamsInfo.getMembers(turnContext).join().size());
+    }
+
+    @Test
+    public void TestMembersRemovedInvalidatesCache() {
+        Mockito.when(conversations.getConversationMembers("team-id")).thenReturn(
+            CompletableFuture.completedFuture(getMembers("id-1", "id-2"))
+        );
+        TeamsInfo.getMembers(getTurnContext(new Activity(ActivityTypes.MESSAGE))).join();
+
+        Activity activity = new Activity(ActivityTypes.CONVERSATION_UPDATE);
+        activity.setMembersRemoved(Collections.singletonList(new ChannelAccount("id-2")));
+        new TeamsActivityHandler().onTurn(getTurnContext(activity)).join();
+
+        TeamsInfo.getMembers(getTurnContext(new Activity(ActivityTypes.MESSAGE))).join();
+        Mockito.verify(conversations, Mockito.times(2)).getConversationMembers("team-id");
+    }
+
+    @Test
+    public void TestPagedMembersArePrefetched() {
+        Mockito.when(conversations.getConversationPagedMembers("team-id")).thenReturn(getPage("token-1", "id-1"));
+        Mockito.when(conversations.getConversationPagedMembers("team-id", "token-1"))
+            .thenReturn(getPage("token-2", "id-2"));
+        Mockito.when(conversations.getConversationPagedMembers("team-id", "token-2"))
+            .thenReturn(getPage(null, "id-3"));
+        TurnContext turnContext = getTurnContext(new Activity(ActivityTypes.MESSAGE));
+
+        TeamsPagedMembersResult page = TeamsInfo.getPagedMembers(turnContext, null).join();
+        Assert.assertEquals("token-1", page.getContinuationToken());
+        Mockito.verify(conversations).getConversationPagedMembers("team-id", "token-1");
+        Mockito.verify(conversations, Mockito.never()).getConversationPagedMembers("team-id", "token-2");
+
+        page = TeamsInfo.getPagedMembers(turnContext, page.getContinuationToken()).join();
+        Assert.assertEquals("id-2", page.getMembers().get(0).getId());
+        Mockito.verify(conversations, Mockito.times(1)).getConversationPagedMembers("team-id", "token-1");
+        Mockito.verify(conversations).getConversationPagedMembers("team-id", "token-2");
+
+        page = TeamsInfo.getPagedMembers(turnContext, page.getContinuationToken()).join();
+        Assert.assertNull(page.getContinuationToken());
+        Mockito.verify(conversations, Mockito.times(1)).getConversationPagedMembers("team-id", "token-2");
+    }
+
+    @Test
+    public void TestTurnStateCacheIsBounded() {
+        Mockito.when(conversations.getConversationMember(Mockito.anyString(), Mockito.eq("team-id")))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                new ChannelAccount(invocation.getArgument(0))
+            ));
+        TeamsInfoCache cache = new TeamsInfoCache(Duration.ofMinutes(1), 1, 2, () -> now);
+
+        getMember(cache, "id-1");
+        getMember(cache, "id-2");
+        getMember(cache, "id-1");
+        getMember(cache, "id-3");
+        Assert.assertEquals(2, cache.size());
+        Mockito.verify(conversations, Mockito.times(1)).getConversationMember("id-1", "team-id");
+
+        // the least recently used member was removed
+        getMember(cache, "id-2");
+        Mockito.verify(conversations, Mockito.times(2)).getConversationMember("id-2", "team-id");
+        getMember(cache, "id-3");
+        Mockito.verify(conversations, Mockito.times(1)).getConversationMember("id-3", "team-id");
+
+        // the turn state cache is used instead of the one set on TeamsInfo
+        Assert.assertEquals(0, TeamsInfo.getCache().size());
+    }
+
+    @Test
+    public void TestMembersRemovedInvalidatesTurnStateCache() {
+        Mockito.when(conversations.getConversationMembers("team-id")).thenReturn(
+            CompletableFuture.completedFuture(getMembers("id-1", "id-2"))
+        );
+        TeamsInfoCache cache = new TeamsInfoCache(Duration.ofMinutes(1), 1, 2, () -> now);
+        TeamsInfo.getMembers(getTurnContext(new Activity(ActivityTypes.MESSAGE), cache)).join();
+
+        Activity activity = new Activity(ActivityTypes.CONVERSATION_UPDATE);
+        activity.setMembersRemoved(Collections.singletonList(new ChannelAccount("id-2")));
+        new TeamsActivityHandler().onTurn(getTurnContext(activity, cache)).join();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private void getMember(TeamsInfoCache cache, String userId) {
+        TurnContext turnContext = getTurnContext(new Activity(ActivityTypes.MESSAGE), cache);
+        Assert.assertEquals(userId, TeamsInfo.getMember(turnContext, userId).join().getId());
+    }
+
+    private TurnContext getTurnContext(Activity activity, TeamsInfoCache cache) {
+        TurnContext turnContext = getTurnContext(activity);
+        turnContext.getTurnState().add(cache);
+        return turnContext;
+    }
+
+    private TurnContext getTurnContext(Activity activity) {
+        activity.setChannelId(Channels.MSTEAMS);
+        activity.setConversation(new ConversationAccount("conversation-id"));
+        activity.setRecipient(new ChannelAccount("bot-id"));
+        TeamsChannelData data = new TeamsChannelData();
+        data.setTeam(new TeamInfo("team-id"));
+        activity.setChannelData(data);
+
+        TurnContext turnContext = new TurnContextImpl(new SimpleAdapter(), activity);
+        turnContext.getTurnState().add(BotFrameworkAdapter.CONNECTOR_CLIENT_KEY, connectorClient);
+        return turnContext;
+    }
+
+    private static List<ChannelAccount> getMembers(String... ids) {
+        List<ChannelAccount> members = new ArrayList<>();
+        for (String id : ids) {
+            members.add(new ChannelAccount(id));
+        }
+        return members;
+    }
+
+    private static CompletableFuture<PagedMembersResult> getPage(String continuationToken, String... ids) {
+        PagedMembersResult page = new PagedMembersResult();
+        page.setContinuationToken(continuationToken);
+        page.setMembers(getMembers(ids));
+        return CompletableFuture.completedFuture(page);
+    }
+}
@@ -0,0 +1,51 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License. See License.txt in the project root for
+// license information.
+
+package com.microsoft.bot.connector;
+
+import okhttp3.Dispatcher;
+
+/**
+ * Creates the OkHttp dispatchers of the SDK clients.
+ *
+ * <p>
+ * OkHttp allows only 64 concurrent requests, and 5 to a single host, by
+ * default. SDK clients mostly call a single endpoint, such as a LUIS or QnA
+ * Maker service or a skill, so the same limit is used for both.
+ * </p>
+ */
+public final class DispatcherFactory {
+    /**
+     * The default maximum number of concurrent requests, in total and to a
+     * single host.
+     */
+    public static final int DEFAULT_MAX_REQUESTS = 256;
+
+    private DispatcherFactory() {
+
+    }
+
+    /**
+     * Creates a dispatcher with the default limits.
+     *
+     * @return A new Dispatcher.
+     */
+    public static Dispatcher newDispatcher() {
+        return newDispatcher(DEFAULT_MAX_REQUESTS);
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param maxRequests The maximum number of concurrent requests, in total
+     *                    and to a single host.
+     * @return A new Dispatcher.
+     */
+    public static Dispatcher newDispatcher(int maxRequests) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        return dispatcher;
+    }
+}
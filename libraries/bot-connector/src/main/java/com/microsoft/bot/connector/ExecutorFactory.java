@@ -4,15 +4,41 @@
 
 package com.microsoft.bot.connector;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
 import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Provides a common Executor for Future operations.
+ *
+ * <p>
+ * The executor is created by an {@link ExecutorStrategy}. By default this is
+ * {@link #FORK_JOIN_POOL}, unless the system property
+ * {@value #EXECUTOR_STRATEGY_PROPERTY} is set to "virtual", in which case
+ * {@link #VIRTUAL_THREADS} is used. The strategy can only be changed until
+ * the executor is first used, so the executor is never shut down while work
+ * may still be submitted to it.
+ * </p>
  */
 public final class ExecutorFactory {
+    /**
+     * The system property used to pick the default strategy. Accepts "forkjoin"
+     * or "virtual".
+     */
+    public static final String EXECUTOR_STRATEGY_PROPERTY = "com.microsoft.bot.connector.executor";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorFactory.class);
+
     private ExecutorFactory() {
 
     }
@@ -27,15 +53,189 @@ public final class ExecutorFactory {
         }
     };
 
-    private static ExecutorService executor =
+    /**
+     * A ForkJoinPool with two threads per available processor. This is the
+     * default strategy.
+     */
+    public static final ExecutorStrategy FORK_JOIN_POOL = () ->
         new ForkJoinPool(Runtime.getRuntime().availableProcessors() * 2, factory, null, false);
 
+    /**
+     * Runs each task on its own virtual thread, so SDK code that blocks does not
+     * hold on to a pool thread. Falls back to {@link #FORK_JOIN_POOL} when the JDK
+     * does not support virtual threads.
+     */
+    public static final ExecutorStrategy VIRTUAL_THREADS = () -> {
+        ExecutorService virtualThreadExecutor = VirtualThreads.newExecutor();
+        if (virtualThreadExecutor == null) {
+            LOGGER.warn("Virtual threads are not supported by this JDK, using a ForkJoinPool instead.");
+            return FORK_JOIN_POOL.newExecutor();
+        }
+        return virtualThreadExecutor;
+    };
+
+    private static ExecutorStrategy strategy = defaultStrategy();
+
+    private static volatile ExecutorService executor;
+
     /**
      * Provides an SDK wide ExecutorService for async calls.
-     * 
+     *
      * @return An ExecutorService.
      */
     public static ExecutorService getExecutor() {
-        return executor;
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (ExecutorFactory.class) {
+                if (executor == null) {
+                    executor = strategy.newExecutor();
+                }
+                current = executor;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets the strategy used to create the SDK wide ExecutorService.
+     *
+     * @return The current ExecutorStrategy.
+     */
+    public static synchronized ExecutorStrategy getExecutorStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Sets the strategy used to create the SDK wide ExecutorService.
+     *
+     * <p>
+     * The strategy must be set before the first call to {@link #getExecutor()}.
+     * Setting the current strategy again has no effect.
+     * </p>
+     *
+     * @param withStrategy The ExecutorStrategy to use.
+     * @throws IllegalStateException If the executor was already created with
+     *                               another strategy.
+     */
+    public static synchronized void setExecutorStrategy(ExecutorStrategy withStrategy) {
+        if (withStrategy == null) {
+            throw new IllegalArgumentException("strategy cannot be null");
+        }
+
+        if (withStrategy == strategy) {
+            return;
+        }
+
+        if (executor != null) {
+            throw new IllegalStateException(
+                "The executor strategy cannot be changed after the executor has been created."
+            );
+        }
+        strategy = withStrategy;
+    }
+
+    /**
+     * Runs a task on an executor, or on the calling thread if the executor
+     * rejects it, such as when it has been shut down. Used by callbacks that
+     * must not leave their work undone.
+     *
+     * @param target The executor to run the task on.
+     * @param task   The task to run.
+     */
+    public static void executeOrRun(Executor target, Runnable task) {
+        try {
+            target.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * Completes a future on the SDK executor, or on the calling thread if the
+     * executor rejects it. Used by HTTP callbacks: the OkHttp callback thread
+     * holds a dispatcher slot until the callback returns, and the continuations
+     * of the future may block.
+     *
+     * @param <T>       The type of the result.
+     * @param result    The future to complete.
+     * @param value     The result, if exception is null.
+     * @param exception The exception to complete the future with, or null.
+     */
+    public static <T> void completeOnExecutor(CompletableFuture<T> result, T value, Throwable exception) {
+        executeOrRun(getExecutor(), () -> {
+            if (exception != null) {
+                result.completeExceptionally(exception);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    /**
+     * Forgets the executor and restores the default strategy, without shutting
+     * the executor down. For tests only.
+     */
+    static synchronized void reset() {
+        executor = null;
+        strategy = defaultStrategy();
+    }
+
+    /**
+     * Indicates whether the running JDK supports virtual threads.
+     *
+     * @return true if {@link #VIRTUAL_THREADS} runs tasks on virtual threads.
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.THREAD_FACTORY != null;
+    }
+
+    private static ExecutorStrategy defaultStrategy() {
+        return "virtual".equalsIgnoreCase(System.getProperty(EXECUTOR_STRATEGY_PROPERTY))
+            ? VIRTUAL_THREADS
+            : FORK_JOIN_POOL;
+    }
+
+    /**
+     * Looks up the virtual thread API reflectively, since the SDK is built for
+     * Java 8.
+     */
+    private static final class VirtualThreads {
+        private static final ThreadFactory THREAD_FACTORY;
+        private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+        static {
+            ThreadFactory threadFactory = null;
+            Method newThreadPerTaskExecutor = null;
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, "Bot-virtual-", 0L);
+                threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+                newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not available, or a preview feature that is not enabled.
+                threadFactory = null;
+                newThreadPerTaskExecutor = null;
+            }
+            THREAD_FACTORY = threadFactory;
+            NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+        }
+
+        private VirtualThreads() {
+
+        }
+
+        static ExecutorService newExecutor() {
+            if (THREAD_FACTORY == null) {
+                return null;
+            }
+
+            try {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, THREAD_FACTORY);
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
     }
 }
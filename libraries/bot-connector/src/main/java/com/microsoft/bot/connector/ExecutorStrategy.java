@@ -0,0 +1,25 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates the ExecutorService used by {@link ExecutorFactory} for SDK wide
+ * async work.
+ *
+ * <p>
+ * {@link ExecutorFactory#FORK_JOIN_POOL} and
+ * {@link ExecutorFactory#VIRTUAL_THREADS} are the built-in strategies.
+ * </p>
+ */
+@FunctionalInterface
+public interface ExecutorStrategy {
+    /**
+     * Creates a new ExecutorService.
+     *
+     * @return An ExecutorService.
+     */
+    ExecutorService newExecutor();
+}
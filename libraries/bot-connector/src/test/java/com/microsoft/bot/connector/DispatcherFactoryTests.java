@@ -0,0 +1,24 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import okhttp3.Dispatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DispatcherFactoryTests {
+    @Test
+    public void DefaultLimitsApplyInTotalAndPerHost() {
+        Dispatcher dispatcher = DispatcherFactory.newDispatcher();
+        Assert.assertEquals(DispatcherFactory.DEFAULT_MAX_REQUESTS, dispatcher.getMaxRequests());
+        Assert.assertEquals(DispatcherFactory.DEFAULT_MAX_REQUESTS, dispatcher.getMaxRequestsPerHost());
+    }
+
+    @Test
+    public void GivenLimitAppliesInTotalAndPerHost() {
+        Dispatcher dispatcher = DispatcherFactory.newDispatcher(16);
+        Assert.assertEquals(16, dispatcher.getMaxRequests());
+        Assert.assertEquals(16, dispatcher.getMaxRequestsPerHost());
+    }
+}
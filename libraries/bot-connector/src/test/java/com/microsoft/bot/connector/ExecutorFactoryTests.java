@@ -0,0 +1,105 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutorFactoryTests {
+    @Before
+    public void resetBefore() {
+        ExecutorFactory.reset();
+    }
+
+    @After
+    public void resetAfter() {
+        ExecutorFactory.reset();
+    }
+
+    @Test
+    public void DefaultStrategyIsForkJoinPool() {
+        Assume.assumeTrue(System.getProperty(ExecutorFactory.EXECUTOR_STRATEGY_PROPERTY) == null);
+        Assert.assertSame(ExecutorFactory.FORK_JOIN_POOL, ExecutorFactory.getExecutorStrategy());
+    }
+
+    @Test
+    public void StrategyIsFixedOnceTheExecutorIsCreated() {
+        ExecutorFactory.setExecutorStrategy(ExecutorFactory.VIRTUAL_THREADS);
+        ExecutorService executor = ExecutorFactory.getExecutor();
+        Assert.assertSame(executor, ExecutorFactory.getExecutor());
+
+        // setting the same strategy again is allowed
+        ExecutorFactory.setExecutorStrategy(ExecutorFactory.VIRTUAL_THREADS);
+
+        try {
+            ExecutorFactory.setExecutorStrategy(ExecutorFactory.FORK_JOIN_POOL);
+            Assert.fail("expected the strategy change to be rejected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // the executor in use is never shut down
+        Assert.assertSame(ExecutorFactory.VIRTUAL_THREADS, ExecutorFactory.getExecutorStrategy());
+        Assert.assertSame(executor, ExecutorFactory.getExecutor());
+        Assert.assertFalse(executor.isShutdown());
+        Assert.assertTrue(CompletableFuture.supplyAsync(() -> true, executor).join());
+    }
+
+    @Test
+    public void VirtualThreadsStrategyRunsOnVirtualThreadsOrFallsBack() {
+        ExecutorFactory.setExecutorStrategy(ExecutorFactory.VIRTUAL_THREADS);
+
+        String threadName = CompletableFuture
+            .supplyAsync(() -> Thread.currentThread().getName(), ExecutorFactory.getExecutor())
+            .join();
+
+        if (ExecutorFactory.isVirtualThreadsSupported()) {
+            Assert.assertTrue(threadName.startsWith("Bot-virtual-"));
+        } else {
+            Assert.assertTrue(threadName.startsWith("Bot-"));
+            Assert.assertFalse(threadName.startsWith("Bot-virtual-"));
+        }
+    }
+
+    @Test
+    public void RejectedTasksRunOnTheCallingThread() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        ExecutorFactory.executeOrRun(executor, () -> thread.set(Thread.currentThread()));
+        Assert.assertSame(Thread.currentThread(), thread.get());
+    }
+
+    @Test
+    public void CompleteOnExecutorCompletesWithValueOrException() {
+        CompletableFuture<String> value = new CompletableFuture<>();
+        ExecutorFactory.completeOnExecutor(value, "value", null);
+        Assert.assertEquals("value", value.join());
+
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        IllegalStateException exception = new IllegalStateException();
+        ExecutorFactory.completeOnExecutor(failed, null, exception);
+        try {
+            failed.join();
+            Assert.fail("The future should complete exceptionally.");
+        } catch (CompletionException e) {
+            Assert.assertSame(exception, e.getCause());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void NullStrategyIsRejected() {
+        ExecutorFactory.setExecutorStrategy(null);
+    }
+}
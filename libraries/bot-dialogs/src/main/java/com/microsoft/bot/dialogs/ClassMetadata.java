@@ -0,0 +1,186 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The declared fields of a class, with a case-insensitive name to accessor
+ * table. Built once per class and shared, so reading or writing a property of a
+ * plain Object by name costs a hash lookup. Synthetic fields, such as those
+ * added by compilers or coverage agents, are not properties.
+ *
+ * <p>
+ * Fields are accessed with the access rights of this package, like the
+ * reflective access this replaces. Private fields of other classes, such as
+ * those of a dialog subclass, are listed as properties but read as null and
+ * ignore writes.
+ * </p>
+ */
+final class ClassMetadata {
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private final List<String> propertyNames;
+    private final Map<String, PropertyAccessor> accessors;
+
+    private ClassMetadata(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<String> names = new ArrayList<>();
+        Map<String, PropertyAccessor> byName = new HashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isSynthetic()) {
+                continue;
+            }
+            names.add(field.getName());
+            byName.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), new PropertyAccessor(lookup, field));
+        }
+        propertyNames = Collections.unmodifiableList(names);
+        accessors = byName;
+    }
+
+    /**
+     * Gets the metadata for a class.
+     *
+     * @param type The class.
+     * @return The shared metadata for the class.
+     */
+    static ClassMetadata forClass(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Gets the names of the fields declared by the class, in declaration order.
+     *
+     * @return The unmodifiable list of property names.
+     */
+    List<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    /**
+     * Detects if the class declares a field with the name, ignoring case.
+     *
+     * @param name The property name.
+     * @return true if found.
+     */
+    boolean hasProperty(String name) {
+        return name != null && accessors.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the value of a property, ignoring the case of its name.
+     *
+     * @param instance The Object to read from.
+     * @param name     The property name.
+     * @return The value, or null if the property does not exist or is not
+     *         accessible.
+     */
+    Object getValue(Object instance, String name) {
+        PropertyAccessor accessor = name != null ? accessors.get(name.toLowerCase(Locale.ROOT)) : null;
+        return accessor != null ? accessor.get(instance) : null;
+    }
+
+    /**
+     * Sets the value of a property, ignoring the case of its name. Properties
+     * that do not exist, are not accessible or are final are left unchanged.
+     *
+     * @param instance The Object to modify.
+     * @param name     The property name.
+     * @param value    The value to store.
+     */
+    void setValue(Object instance, String name, Object value) {
+        PropertyAccessor accessor = name != null ? accessors.get(name.toLowerCase(Locale.ROOT)) : null;
+        if (accessor != null) {
+            accessor.set(instance, value);
+        }
+    }
+
+    /**
+     * Getter and setter method handles for a field. A null handle means the field
+     * is not accessible (or final, for the setter), which reads as null and
+     * ignores writes, like the reflective access it replaces.
+     */
+    private static final class PropertyAccessor {
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        PropertyAccessor(MethodHandles.Lookup lookup, Field field) {
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            MethodHandle withGetter;
+            try {
+                withGetter = lookup.unreflectGetter(field);
+                if (isStatic) {
+                    withGetter = MethodHandles.dropArguments(withGetter, 0, Object.class);
+                }
+                withGetter = withGetter.asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                withGetter = null;
+            }
+
+            MethodHandle withSetter;
+            try {
+                withSetter = lookup.unreflectSetter(field);
+                if (isStatic) {
+                    withSetter = MethodHandles.dropArguments(withSetter, 0, Object.class);
+                }
+                withSetter = withSetter.asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                withSetter = null;
+            }
+
+            getter = withGetter;
+            setter = withSetter;
+        }
+
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        Object get(Object instance) {
+            if (getter == null) {
+                return null;
+            }
+
+            try {
+                return getter.invokeExact(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        void set(Object instance, Object value) {
+            if (setter == null) {
+                return;
+            }
+
+            try {
+                setter.invokeExact(instance, value);
+            } catch (ClassCastException e) {
+                throw new IllegalArgumentException(e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Base64;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * A {@link DialogState} that is persisted in a compact binary encoding instead
+ * of JSON.
+ *
+ * The dialog stack, including the state of every dialog on it, is encoded with
+ * a schema version header, and repeated strings such as dialog ids, property
+ * names and type names are written once and referenced after that. The encoding is stored
+ * as a Base64 string, which any {@link com.microsoft.bot.builder.Storage} can
+ * hold. Use a {@link DialogStatePropertyAccessor} to keep the dialog state of a
+ * {@link com.microsoft.bot.builder.BotState} in this form.
+ *
+ * The stack is decoded the first time it is accessed, and encoded again only
+ * when it is persisted after being accessed. The last encoding is kept with the
+ * tokens it was encoded from, so a state that has not changed since it was last
+ * encoded or decoded is not encoded again, as when a save both hashes and
+ * writes it.
+ *
+ * A dialog state with a value that has no compact form, such as a raw JSON
+ * value, is persisted as JSON text instead; both forms are read.
+ */
+public final class CompactDialogState {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .findAndRegisterModules();
+
+    /**
+     * The Base64 form of the encoding header, which every encoded value starts
+     * with.
+     */
+    private static final String PREFIX = Base64.getEncoder().encodeToString(CompactJsonCodec.header());
+
+    static {
+        // Same typing as the storage layers, so dialog state values keep their types.
+        MAPPER.enableDefaultTyping();
+    }
+
+    private String encoded;
+    private DialogState dialogState;
+
+    /**
+     * The tokens of the dialog state that {@link #encoded} holds, once the
+     * dialog state has been accessed.
+     */
+    private TokenBuffer encodedTokens;
+
+    /**
+     * Initializes a new instance of the class.
+     *
+     * @param withDialogState The dialog state to persist.
+     */
+    public CompactDialogState(DialogState withDialogState) {
+        if (withDialogState == null) {
+            throw new IllegalArgumentException("withDialogState cannot be null.");
+        }
+        dialogState = withDialogState;
+    }
+
+    private CompactDialogState(String withEncoded) {
+        encoded = withEncoded;
+    }
+
+    /**
+     * Creates an instance from its persisted form. The dialog state is decoded
+     * when it is first accessed.
+     *
+     * @param encoded The Base64 encoded dialog state, or the JSON text of a
+     *                dialog state that has no compact form.
+     * @return The compact dialog state.
+     * @throws IllegalArgumentException The value is not a supported encoding.
+     */
+    @JsonCreator
+    public static CompactDialogState fromEncoded(String encoded) throws IllegalArgumentException {
+        if (!isEncoded(encoded) && !isJson(encoded)) {
+            throw new IllegalArgumentException("The value is not a compact dialog state.");
+        }
+        return new CompactDialogState(encoded);
+    }
+
+    /**
+     * Detects whether a persisted value is a compact dialog state.
+     *
+     * @param value The persisted value.
+     * @return True if the value is a Base64 string with a supported header.
+     *         The rest of the value is only validated when it is decoded.
+     */
+    public static boolean isEncoded(Object value) {
+        return value instanceof String && ((String) value).length() > PREFIX.length()
+            && ((String) value).startsWith(PREFIX);
+    }
+
+    /**
+     * Gets the dialog state, decoding it on first access.
+     *
+     * @return The dialog state.
+     */
+    public synchronized DialogState getDialogState() {
+        if (dialogState == null) {
+            TokenBuffer tokens = decodeTokens(encoded);
+            dialogState = readDialogState(tokens);
+            encodedTokens = tokens;
+        }
+        return dialogState;
+    }
+
+    /**
+     * Gets the persisted form of the dialog state.
+     *
+     * @return The Base64 encoded dialog state, or its JSON text if it has no
+     *         compact form.
+     */
+    @JsonValue
+    public synchronized String toEncoded() {
+        if (dialogState == null) {
+            return encoded;
+        }
+
+        // the dialog state may have been changed since it was last encoded
+        TokenBuffer tokens = writeTokens(dialogState);
+        if (encodedTokens == null || !sameTokens(encodedTokens, tokens)) {
+            encoded = encodeTokens(tokens);
+            encodedTokens = tokens;
+        }
+        return encoded;
+    }
+
+    /**
+     * Encodes a dialog state.
+     *
+     * @param dialogState The dialog state.
+     * @return The Base64 encoded dialog state, or its JSON text if it has no
+     *         compact form.
+     */
+    public static String encode(DialogState dialogState) {
+        return encodeTokens(writeTokens(dialogState));
+    }
+
+    /**
+     * Decodes a dialog state.
+     *
+     * @param encoded The Base64 encoded dialog state, or its JSON text.
+     * @return The dialog state.
+     * @throws IllegalArgumentException The value is not a supported encoding.
+     */
+    public static DialogState decode(String encoded) throws IllegalArgumentException {
+        return readDialogState(decodeTokens(encoded));
+    }
+
+    private static TokenBuffer writeTokens(DialogState dialogState) {
+        try {
+            TokenBuffer tokens = new TokenBuffer(MAPPER, false);
+            MAPPER.writeValue(tokens, dialogState);
+            return tokens;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to write the compact dialog state.", e);
+        }
+    }
+
+    private static String encodeTokens(TokenBuffer tokens) {
+        try {
+            byte[] bytes = CompactJsonCodec.encode(tokens.asParser());
+            return bytes != null ? Base64.getEncoder().encodeToString(bytes) : writeJson(tokens);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to write the compact dialog state.", e);
+        }
+    }
+
+    private static TokenBuffer decodeTokens(String encoded) {
+        if (isJson(encoded)) {
+            return readJson(encoded);
+        }
+        return CompactJsonCodec.decode(Base64.getDecoder().decode(encoded), MAPPER);
+    }
+
+    /**
+     * Detects the JSON form, which is an object. Base64 never starts with a
+     * brace.
+     */
+    private static boolean isJson(String value) {
+        return value != null && value.startsWith("{");
+    }
+
+    private static String writeJson(TokenBuffer tokens) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonParser parser = tokens.asParser(); JsonGenerator generator = MAPPER.getFactory()
+            .createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return json.toString();
+    }
+
+    private static TokenBuffer readJson(String json) {
+        try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            TokenBuffer tokens = new TokenBuffer(parser);
+            parser.nextToken();
+            tokens.copyCurrentStructure(parser);
+            return tokens;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read the dialog state.", e);
+        }
+    }
+
+    private static DialogState readDialogState(TokenBuffer tokens) {
+        try {
+            return MAPPER.readValue(tokens.asParser(), DialogState.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read the compact dialog state.", e);
+        }
+    }
+
+    /**
+     * Compares two token streams. Embedded objects are compared with equals, so
+     * an object without value equality reads as a change.
+     */
+    private static boolean sameTokens(TokenBuffer first, TokenBuffer second) {
+        try (JsonParser left = first.asParser(); JsonParser right = second.asParser()) {
+            JsonToken token;
+            while ((token = left.nextToken()) != null) {
+                if (token != right.nextToken()) {
+                    return false;
+                }
+
+                switch (token) {
+                    case FIELD_NAME:
+                    case VALUE_STRING:
+                        if (!left.getText().equals(right.getText())) {
+                            return false;
+                        }
+                        break;
+
+                    case VALUE_NUMBER_INT:
+                    case VALUE_NUMBER_FLOAT:
+                        if (!left.getNumberValue().equals(right.getNumberValue())) {
+                            return false;
+                        }
+                        break;
+
+                    case VALUE_EMBEDDED_OBJECT:
+                        if (!Objects.equals(left.getEmbeddedObject(), right.getEmbeddedObject())) {
+                            return false;
+                        }
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+            return right.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
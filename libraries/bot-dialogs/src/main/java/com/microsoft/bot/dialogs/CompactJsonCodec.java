@@ -0,0 +1,355 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Binary encoding of a stream of JSON tokens.
+ *
+ * The encoding starts with a two byte magic number and a schema version byte,
+ * followed by the tokens. A string (field name, text value, dialog id or type
+ * name) is written in full the first time it appears and as a back reference to
+ * that first occurrence after that. Integers and lengths are variable length,
+ * so small values take a single byte.
+ *
+ * Encoding reads from and decoding writes to Jackson token streams, so a value
+ * is converted without building an intermediate JSON text or tree.
+ */
+final class CompactJsonCodec {
+    /**
+     * The schema version written in the header.
+     */
+    static final byte VERSION = 1;
+
+    private static final byte MAGIC_0 = 'D';
+    private static final byte MAGIC_1 = 'S';
+    private static final int HEADER_LENGTH = 3;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_BIG_INTEGER = 5;
+    private static final int TAG_DECIMAL = 6;
+    private static final int TAG_STRING = 7;
+    private static final int TAG_BINARY = 8;
+    private static final int TAG_START_OBJECT = 9;
+    private static final int TAG_END_OBJECT = 10;
+    private static final int TAG_START_ARRAY = 11;
+    private static final int TAG_END_ARRAY = 12;
+    private static final int TAG_FIELD_NAME = 13;
+
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_MORE = 0x80;
+    private static final int VARINT_SHIFT = 7;
+
+    private CompactJsonCodec() {
+    }
+
+    /**
+     * @return The header every encoding of the current version starts with.
+     */
+    static byte[] header() {
+        return new byte[] {MAGIC_0, MAGIC_1, VERSION};
+    }
+
+    /**
+     * Detects the header of the encoding.
+     *
+     * @param bytes The bytes to check.
+     * @return True if the bytes start with the header of a supported version.
+     */
+    static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length > HEADER_LENGTH && bytes[0] == MAGIC_0 && bytes[1] == MAGIC_1
+            && bytes[2] == VERSION;
+    }
+
+    /**
+     * Encodes the tokens of a parser, up to its end.
+     *
+     * @param parser The parser to read the tokens from.
+     * @return The encoded bytes, or null if the tokens hold an embedded value
+     *         other than binary, such as a raw JSON value, which has no
+     *         compact form.
+     * @throws IOException The parser failed.
+     */
+    static byte[] encode(JsonParser parser) throws IOException {
+        Output out = new Output();
+        out.write(header());
+
+        Map<String, Integer> strings = new HashMap<>();
+        for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+            switch (token) {
+                case START_OBJECT:
+                    out.writeByte(TAG_START_OBJECT);
+                    break;
+                case END_OBJECT:
+                    out.writeByte(TAG_END_OBJECT);
+                    break;
+                case START_ARRAY:
+                    out.writeByte(TAG_START_ARRAY);
+                    break;
+                case END_ARRAY:
+                    out.writeByte(TAG_END_ARRAY);
+                    break;
+                case FIELD_NAME:
+                    out.writeByte(TAG_FIELD_NAME);
+                    writeString(out, parser.getCurrentName(), strings);
+                    break;
+                case VALUE_STRING:
+                    out.writeByte(TAG_STRING);
+                    writeString(out, parser.getText(), strings);
+                    break;
+                case VALUE_NUMBER_INT:
+                    if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                        out.writeByte(TAG_BIG_INTEGER);
+                        writeString(out, parser.getBigIntegerValue().toString(), strings);
+                    } else {
+                        long value = parser.getLongValue();
+                        out.writeByte(TAG_INT);
+                        writeVarLong(out, (value << 1) ^ (value >> (Long.SIZE - 1)));
+                    }
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+                        out.writeByte(TAG_DECIMAL);
+                        writeString(out, parser.getDecimalValue().toString(), strings);
+                    } else {
+                        out.writeByte(TAG_DOUBLE);
+                        out.writeDouble(parser.getDoubleValue());
+                    }
+                    break;
+                case VALUE_TRUE:
+                    out.writeByte(TAG_TRUE);
+                    break;
+                case VALUE_FALSE:
+                    out.writeByte(TAG_FALSE);
+                    break;
+                case VALUE_NULL:
+                    out.writeByte(TAG_NULL);
+                    break;
+                case VALUE_EMBEDDED_OBJECT:
+                    Object embedded = parser.getEmbeddedObject();
+                    if (!(embedded instanceof byte[])) {
+                        return null;
+                    }
+                    out.writeByte(TAG_BINARY);
+                    writeVarLong(out, ((byte[]) embedded).length);
+                    out.write((byte[]) embedded);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported JSON token " + token);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the tokens of an encoding.
+     *
+     * @param bytes The encoded bytes.
+     * @param codec The codec for the returned tokens.
+     * @return The decoded tokens.
+     * @throws IllegalArgumentException The bytes are not a supported encoding.
+     */
+    static TokenBuffer decode(byte[] bytes, ObjectCodec codec) throws IllegalArgumentException {
+        if (!isEncoded(bytes)) {
+            throw new IllegalArgumentException("Unsupported compact encoding or schema version.");
+        }
+
+        TokenBuffer tokens = new TokenBuffer(codec, false);
+        List<String> strings = new ArrayList<>();
+        ByteBuffer in = ByteBuffer.wrap(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        try {
+            while (in.hasRemaining()) {
+                int tag = in.get();
+                switch (tag) {
+                    case TAG_START_OBJECT:
+                        tokens.writeStartObject();
+                        break;
+                    case TAG_END_OBJECT:
+                        tokens.writeEndObject();
+                        break;
+                    case TAG_START_ARRAY:
+                        tokens.writeStartArray();
+                        break;
+                    case TAG_END_ARRAY:
+                        tokens.writeEndArray();
+                        break;
+                    case TAG_FIELD_NAME:
+                        tokens.writeFieldName(readString(in, strings));
+                        break;
+                    case TAG_STRING:
+                        tokens.writeString(readString(in, strings));
+                        break;
+                    case TAG_INT:
+                        long zigzag = readVarLong(in);
+                        long value = (zigzag >>> 1) ^ -(zigzag & 1);
+                        if (value == (int) value) {
+                            tokens.writeNumber((int) value);
+                        } else {
+                            tokens.writeNumber(value);
+                        }
+                        break;
+                    case TAG_BIG_INTEGER:
+                        tokens.writeNumber(new BigInteger(readString(in, strings)));
+                        break;
+                    case TAG_DOUBLE:
+                        tokens.writeNumber(in.getDouble());
+                        break;
+                    case TAG_DECIMAL:
+                        tokens.writeNumber(new BigDecimal(readString(in, strings)));
+                        break;
+                    case TAG_TRUE:
+                        tokens.writeBoolean(true);
+                        break;
+                    case TAG_FALSE:
+                        tokens.writeBoolean(false);
+                        break;
+                    case TAG_NULL:
+                        tokens.writeNull();
+                        break;
+                    case TAG_BINARY:
+                        byte[] binary = new byte[readLength(in)];
+                        in.get(binary);
+                        tokens.writeBinary(binary);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown tag " + tag + " in compact encoding.");
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or corrupt compact encoding.", e);
+        } catch (IOException e) {
+            // TokenBuffer does not throw, other than for unbalanced tokens.
+            throw new IllegalArgumentException("Corrupt compact encoding.", e);
+        }
+        return tokens;
+    }
+
+    /**
+     * Writes a string as a back reference if it was written before. A
+     * reference is the index of the string plus one, 0 marks a new string
+     * followed by its UTF-8 length and bytes.
+     */
+    private static void writeString(Output out, String value, Map<String, Integer> strings) {
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeVarLong(out, index + 1L);
+            return;
+        }
+
+        strings.put(value, strings.size());
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(0);
+        writeVarLong(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in, List<String> strings) {
+        int reference = readVarInt(in);
+        if (reference > 0) {
+            return strings.get(reference - 1);
+        }
+
+        int length = readLength(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        strings.add(value);
+        return value;
+    }
+
+    private static void writeVarLong(Output out, long value) {
+        long remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0) {
+            out.writeByte((int) (remaining & VARINT_MASK) | VARINT_MORE);
+            remaining >>>= VARINT_SHIFT;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    private static int readLength(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("Length out of range in compact encoding.");
+        }
+        return length;
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range in compact encoding.");
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += VARINT_SHIFT) {
+            int b = in.get();
+            value |= (long) (b & VARINT_MASK) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length integer in compact encoding.");
+    }
+
+    /**
+     * A growable byte array, without the locking of ByteArrayOutputStream.
+     */
+    private static final class Output {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private byte[] buffer = new byte[INITIAL_CAPACITY];
+        private int size;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void write(byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            ensureCapacity(Long.BYTES);
+            for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+                buffer[size++] = (byte) (bits >>> shift);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int count) {
+            if (size + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + count));
+            }
+        }
+    }
+}
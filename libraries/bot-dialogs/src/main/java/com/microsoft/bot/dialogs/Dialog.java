@@ -24,7 +24,11 @@ import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ActivityTypes;
 import com.microsoft.bot.schema.EndOfConversationCodes;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang3.StringUtils;
 
@@ -39,6 +43,25 @@ public abstract class Dialog {
      */
     public static final DialogTurnResult END_OF_TURN = new DialogTurnResult(DialogTurnStatus.WAITING);
 
+    /**
+     * The most derived classes declaring the event hooks of a dialog class,
+     * computed once per class.
+     */
+    private static final Class<?>[] EVENT_HOOK_PARAMETERS = {DialogContext.class, DialogEvent.class};
+
+    private static final ClassValue<Class<?>[]> EVENT_HOOK_DECLARERS = new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            Class<?> onDialogEvent = findDeclarer(type, "onDialogEvent");
+            return new Class<?>[] {
+                // The container override only traces version changes, which getHandledEvents declares.
+                onDialogEvent == DialogContainer.class ? Dialog.class : onDialogEvent,
+                findDeclarer(type, "onPreBubbleEvent"),
+                findDeclarer(type, "onPostBubbleEvent")
+            };
+        }
+    };
+
     @JsonIgnore
     private BotTelemetryClient telemetryClient;
 
@@ -227,6 +250,60 @@ public abstract class Dialog {
         return id;
     }
 
+    /**
+     * Gets the names of the events this dialog handles in
+     * {@link #onDialogEvent(DialogContext, DialogEvent)},
+     * {@link #onPreBubbleEvent(DialogContext, DialogEvent)} or
+     * {@link #onPostBubbleEvent(DialogContext, DialogEvent)}.
+     *
+     * <p>
+     * {@link DialogContext#emitEvent(String, Object, boolean, boolean)} does not
+     * dispatch an event when no dialog it would reach handles it. By default a
+     * dialog that does not override any of those methods handles no events, and
+     * one that does handles all of them. Override this to declare the events
+     * handled by the overrides.
+     * </p>
+     *
+     * @return The names of the handled events, or null if the dialog may handle
+     *         any event.
+     */
+    @JsonIgnore
+    public Set<String> getHandledEvents() {
+        return overridesEventHooks(Dialog.class) ? null : Collections.emptySet();
+    }
+
+    /**
+     * Detects if the class of this dialog overrides
+     * {@link #onDialogEvent(DialogContext, DialogEvent)},
+     * {@link #onPreBubbleEvent(DialogContext, DialogEvent)} or
+     * {@link #onPostBubbleEvent(DialogContext, DialogEvent)} below a base class.
+     * Used by implementations of {@link #getHandledEvents()} that only declare the
+     * events handled by their own overrides.
+     *
+     * @param base The base class.
+     * @return True if one of the methods is overridden by a class derived from
+     *         base.
+     */
+    protected boolean overridesEventHooks(Class<? extends Dialog> base) {
+        for (Class<?> declarer : EVENT_HOOK_DECLARERS.get(getClass())) {
+            if (declarer != base && base.isAssignableFrom(declarer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Detects if the dialog handles an event.
+     *
+     * @param name The name of the event.
+     * @return True if the dialog may handle the event.
+     */
+    public boolean handlesEvent(String name) {
+        Set<String> handledEvents = getHandledEvents();
+        return handledEvents == null || handledEvents.contains(name);
+    }
+
     /**
      * Called when an event has been raised, using `DialogContext.emitEvent()`, by
      * either the current dialog or a dialog that the current dialog started.
@@ -480,4 +557,19 @@ public abstract class Dialog {
 
         return getActiveDialogContext(child);
     }
+
+    /**
+     * Finds the most derived class declaring an event hook.
+     */
+    private static Class<?> findDeclarer(Class<?> type, String methodName) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.getName().equals(methodName)
+                    && Arrays.equals(method.getParameterTypes(), EVENT_HOOK_PARAMETERS)) {
+                    return current;
+                }
+            }
+        }
+        return Dialog.class;
+    }
 }
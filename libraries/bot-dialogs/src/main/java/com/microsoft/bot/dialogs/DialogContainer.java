@@ -8,12 +8,17 @@ import com.microsoft.bot.builder.BotTelemetryClient;
 import com.microsoft.bot.builder.NullBotTelemetryClient;
 import com.microsoft.bot.builder.Severity;
 import com.microsoft.bot.builder.TurnContext;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * A container for a set of Dialogs.
  */
 public abstract class DialogContainer extends Dialog {
+    private static final Set<String> HANDLED_EVENTS = Collections.singleton(DialogEvents.VERSION_CHANGED);
+
     @JsonIgnore
     private DialogSet dialogs = new DialogSet();
 
@@ -72,6 +77,28 @@ public abstract class DialogContainer extends Dialog {
         return dialogs.find(dialogId);
     }
 
+    /**
+     * Gets the names of the events this dialog handles. A container also handles
+     * {@link DialogEvents#VERSION_CHANGED}, which it traces when it is unhandled.
+     *
+     * @return The names of the handled events, or null if the dialog may handle
+     *         any event.
+     */
+    @Override
+    public Set<String> getHandledEvents() {
+        Set<String> handledEvents = super.getHandledEvents();
+        if (handledEvents == null) {
+            return null;
+        }
+        if (handledEvents.isEmpty()) {
+            return HANDLED_EVENTS;
+        }
+
+        Set<String> result = new HashSet<>(handledEvents);
+        result.add(DialogEvents.VERSION_CHANGED);
+        return result;
+    }
+
     /**
      * Called when an event has been raised, using `DialogContext.emitEvent()`, by
      * either the current dialog or a dialog that the current dialog started.
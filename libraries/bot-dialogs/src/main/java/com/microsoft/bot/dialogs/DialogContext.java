@@ -253,9 +253,9 @@ public class DialogContext {
 
                 // Dispatch "activityReceived" event
                 // - This will queue up any interruptions.
-                emitEvent(DialogEvents.ACTIVITY_RECEIVED, getContext().getActivity(), true,
+                return emitEvent(DialogEvents.ACTIVITY_RECEIVED, getContext().getActivity(), true,
                     true
-                );
+                ).thenApply(handled -> null);
             }
             return CompletableFuture.completedFuture(null);
         })
@@ -360,39 +360,51 @@ public class DialogContext {
         String eventName,
         Object eventValue
     ) {
-        eventName = eventName != null ? eventName : DialogEvents.CANCEL_DIALOG;
+        String cancelEventName = eventName != null ? eventName : DialogEvents.CANCEL_DIALOG;
 
         if (!stack.isEmpty() || getParent() != null) {
             // Cancel all local and parent dialogs while checking for interception
-            boolean notify = false;
-            DialogContext dialogContext = this;
-
-            while (dialogContext != null) {
-                if (!dialogContext.stack.isEmpty()) {
-                    // Check to see if the dialog wants to handle the event
-                    if (notify) {
-                        Boolean eventHandled = dialogContext.emitEvent(eventName, eventValue, false, false).join();
-                        if (eventHandled) {
-                            break;
-                        }
-                    }
-
-                    // End the active dialog
-                    dialogContext.endActiveDialog(DialogReason.CANCEL_CALLED).join();
-                } else {
-                    dialogContext = cancelParents ? dialogContext.getParent() : null;
-                }
-
-                notify = true;
-            }
-
-            return CompletableFuture.completedFuture(new DialogTurnResult(DialogTurnStatus.CANCELLED));
+            return cancelDialogs(this, false, cancelParents, cancelEventName, eventValue)
+                .thenApply(result -> new DialogTurnResult(DialogTurnStatus.CANCELLED));
         } else {
             // Stack was empty and no parent
             return CompletableFuture.completedFuture(new DialogTurnResult(DialogTurnStatus.EMPTY));
         }
     }
 
+    private static CompletableFuture<Void> cancelDialogs(
+        DialogContext dialogContext,
+        boolean notify,
+        boolean cancelParents,
+        String eventName,
+        Object eventValue
+    ) {
+        if (dialogContext == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (dialogContext.stack.isEmpty()) {
+            return cancelParents
+                ? cancelDialogs(dialogContext.getParent(), true, true, eventName, eventValue)
+                : CompletableFuture.completedFuture(null);
+        }
+
+        // Check to see if the dialog wants to handle the event
+        CompletableFuture<Boolean> eventHandled = notify
+            ? dialogContext.emitEvent(eventName, eventValue, false, false)
+            : CompletableFuture.completedFuture(false);
+
+        return eventHandled.thenCompose(handled -> {
+            if (handled) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            // End the active dialog
+            return dialogContext.endActiveDialog(DialogReason.CANCEL_CALLED)
+                .thenCompose(result -> cancelDialogs(dialogContext, true, cancelParents, eventName, eventValue));
+        });
+    }
+
     /**
      * Helper method for {@link #replaceDialog(String, Object)} that passes null for options.
      * @param dialogId ID of the new dialog to start.
@@ -508,16 +520,39 @@ public class DialogContext {
         }
 
         // Dispatch to active dialog first
+        Dialog dialog = findActiveDialog(dc);
+        if (dialog != null && hasEventHandler(dc, dialog, name, bubble)) {
+            return dialog.onDialogEvent(dc, dialogEvent);
+        }
+
+        return CompletableFuture.completedFuture(false);
+    }
+
+    private static Dialog findActiveDialog(DialogContext dc) {
         DialogInstance instance = dc.getActiveDialog();
-        if (instance != null) {
-            Dialog dialog = dc.findDialog(instance.getId());
+        return instance != null ? dc.findDialog(instance.getId()) : null;
+    }
 
-            if (dialog != null) {
-                return dialog.onDialogEvent(dc, dialogEvent);
+    // Whether the event reaches a dialog that handles it, so unhandled events are not
+    // dispatched through every level of the stack.
+    private static boolean hasEventHandler(DialogContext dc, Dialog dialog, String name, boolean bubble) {
+        if (dialog.handlesEvent(name)) {
+            return true;
+        }
+
+        if (bubble) {
+            for (DialogContext parent = dc.getParent(); parent != null; parent = parent.getParent()) {
+                Dialog parentDialog = findActiveDialog(parent);
+                if (parentDialog == null) {
+                    return false;
+                }
+                if (parentDialog.handlesEvent(name)) {
+                    return true;
+                }
             }
         }
 
-        return CompletableFuture.completedFuture(false);
+        return false;
     }
 
     /**
@@ -149,7 +149,9 @@ public class DialogManager {
     private DialogStateManagerConfiguration stateManagerConfiguration;
 
     /**
-     * Gets the DialogStateManagerConfiguration.
+     * Gets the DialogStateManagerConfiguration. Changes made to it are used from
+     * the next turn on. The configuration each turn runs with is a read-only
+     * copy.
      *
      * @return The DialogStateManagerConfiguration.
      */
@@ -167,6 +169,29 @@ public class DialogManager {
         this.stateManagerConfiguration = withStateManagerConfiguration;
     }
 
+    private boolean compactDialogState;
+
+    /**
+     * Gets whether the dialog stack is persisted in the compact binary form of
+     * {@link CompactDialogState} instead of JSON.
+     *
+     * @return True if the compact form is used.
+     */
+    public boolean getCompactDialogState() {
+        return this.compactDialogState;
+    }
+
+    /**
+     * Sets whether the dialog stack is persisted in the compact binary form of
+     * {@link CompactDialogState} instead of JSON. Dialog stacks persisted in
+     * either form are read, and are written back in the selected form.
+     *
+     * @param withCompactDialogState True to use the compact form.
+     */
+    public void setCompactDialogState(boolean withCompactDialogState) {
+        this.compactDialogState = withCompactDialogState;
+    }
+
     private Integer expireAfter;
 
     /**
@@ -230,37 +255,51 @@ public class DialogManager {
             botStateSet.add(userState);
         }
 
+        // share one read-only configuration with every DialogStateManager of the turn.
+        DialogStateManagerConfiguration stateConfiguration = getTurnStateManagerConfiguration(context);
+        context.getTurnState().replace(stateConfiguration);
+
         // create property accessors
         StatePropertyAccessor<OffsetDateTime> lastAccessProperty = conversationState.createProperty(lastAccess);
-
-        OffsetDateTime lastAccessed = lastAccessProperty.get(context, () -> {
-            return OffsetDateTime.now(ZoneId.of("UTC"));
-        }).join();
-
-        // Check for expired conversation
-        if (expireAfter != null && (OffsetDateTime.now(ZoneId.of("UTC")).toInstant().toEpochMilli()
-                - lastAccessed.toInstant().toEpochMilli()) >= expireAfter) {
-            conversationState.clearState(context).join();
-        }
-
-        lastAccessed = OffsetDateTime.now(ZoneId.of("UTC"));
-        lastAccessProperty.set(context, lastAccessed).join();
-
-        // get dialog stack
-        StatePropertyAccessor<DialogState> dialogsProperty = conversationState.createProperty(dialogStateProperty);
-
-        DialogState dialogState = dialogsProperty.get(context, DialogState::new).join();
-
-        // Create DialogContext
-        DialogContext dc = new DialogContext(dialogs, context, dialogState);
-
-        return Dialog.innerRun(context, rootDialogId, dc, getStateManagerConfiguration()).thenCompose(turnResult -> {
-            return botStateSet.saveAllChanges(dc.getContext(), false).thenCompose(saveResult -> {
+        StatePropertyAccessor<DialogState> dialogsProperty =
+            new DialogStatePropertyAccessor(conversationState, dialogStateProperty, compactDialogState);
+
+        // load conversation and user state together, then check for expired conversation
+        return botStateSet.loadAll(context)
+            .thenCompose(loaded -> lastAccessProperty.get(context, () -> OffsetDateTime.now(ZoneId.of("UTC"))))
+            .thenCompose(lastAccessed -> {
+                if (expireAfter != null && (OffsetDateTime.now(ZoneId.of("UTC")).toInstant().toEpochMilli()
+                        - lastAccessed.toInstant().toEpochMilli()) >= expireAfter) {
+                    return conversationState.clearState(context);
+                }
+                return CompletableFuture.completedFuture(null);
+            })
+            .thenCompose(checked -> lastAccessProperty.set(context, OffsetDateTime.now(ZoneId.of("UTC"))))
+            // get dialog stack
+            .thenCompose(accessed -> dialogsProperty.get(context, DialogState::new))
+            .thenCompose(dialogState -> {
+                // Create DialogContext
+                DialogContext dc = new DialogContext(dialogs, context, dialogState);
+                return Dialog.innerRun(context, rootDialogId, dc, stateConfiguration);
+            })
+            .thenCompose(turnResult -> botStateSet.saveAllChanges(context, false).thenApply(saveResult -> {
                 DialogManagerResult result = new DialogManagerResult();
                 result.setTurnResult(turnResult);
-                return CompletableFuture.completedFuture(result);
-            });
-        });
+                return result;
+            }));
+    }
+
+    /**
+     * Gets the read-only configuration for a turn: a copy of the configuration
+     * set on this DialogManager or, if there is none, the one built from the
+     * memory scopes and path resolvers in turn state and the registered
+     * components. Both are reused across turns while they are unchanged.
+     */
+    private DialogStateManagerConfiguration getTurnStateManagerConfiguration(TurnContext context) {
+        DialogStateManagerConfiguration configuration = stateManagerConfiguration;
+        return configuration != null
+            ? configuration.toReadOnly()
+            : DialogStateManagerConfiguration.createDefault(context.getTurnState());
     }
 
     /**
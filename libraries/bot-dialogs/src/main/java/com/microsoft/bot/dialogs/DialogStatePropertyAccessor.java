@@ -0,0 +1,122 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.bot.builder.BotState;
+import com.microsoft.bot.builder.StatePropertyAccessor;
+import com.microsoft.bot.builder.TurnContext;
+
+/**
+ * A {@link StatePropertyAccessor} for a {@link DialogState} that persists it
+ * either as JSON or as a {@link CompactDialogState}.
+ *
+ * Both forms are read, including an untyped JSON object, and a value persisted
+ * in the other form is written back in the selected one, so an existing
+ * conversation moves to the selected form on its next turn.
+ */
+public class DialogStatePropertyAccessor implements StatePropertyAccessor<DialogState> {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .findAndRegisterModules();
+
+    private final StatePropertyAccessor<Object> property;
+    private final boolean compact;
+
+    /**
+     * Initializes a new instance of the class.
+     *
+     * @param botState    The bot state to keep the dialog state in.
+     * @param name        The name of the dialog state property.
+     * @param withCompact True to persist the dialog state as a
+     *                    {@link CompactDialogState}, false for JSON.
+     */
+    public DialogStatePropertyAccessor(BotState botState, String name, boolean withCompact) {
+        if (botState == null) {
+            throw new IllegalArgumentException("botState cannot be null.");
+        }
+        property = botState.createProperty(name);
+        compact = withCompact;
+    }
+
+    /**
+     * Gets the dialog state, reading either the compact or the JSON form.
+     *
+     * @param turnContext         The turn context.
+     * @param defaultValueFactory Creates the dialog state if there is none, or
+     *                            null to return null.
+     * @return A task that represents the work queued to execute.
+     */
+    @Override
+    public CompletableFuture<DialogState> get(TurnContext turnContext, Supplier<DialogState> defaultValueFactory) {
+        return property.get(turnContext).thenCompose(value -> {
+            if (compact && value instanceof CompactDialogState) {
+                return CompletableFuture.completedFuture(((CompactDialogState) value).getDialogState());
+            }
+            if (!compact && value instanceof DialogState) {
+                return CompletableFuture.completedFuture((DialogState) value);
+            }
+
+            DialogState dialogState;
+            if (value == null) {
+                dialogState = defaultValueFactory != null ? defaultValueFactory.get() : null;
+            } else if (value instanceof DialogState) {
+                dialogState = (DialogState) value;
+            } else if (value instanceof CompactDialogState) {
+                dialogState = ((CompactDialogState) value).getDialogState();
+            } else if (CompactDialogState.isEncoded(value)) {
+                dialogState = CompactDialogState.decode((String) value);
+            } else {
+                dialogState = MAPPER.convertValue(value, DialogState.class);
+            }
+
+            if (dialogState == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            DialogState result = dialogState;
+            return set(turnContext, result).thenApply(stored -> result);
+        });
+    }
+
+    /**
+     * Deletes the dialog state.
+     *
+     * @param turnContext The turn context.
+     * @return A task that represents the work queued to execute.
+     */
+    @Override
+    public CompletableFuture<Void> delete(TurnContext turnContext) {
+        return property.delete(turnContext);
+    }
+
+    /**
+     * Sets the dialog state, to be persisted in the selected form.
+     *
+     * @param turnContext The turn context.
+     * @param value       The dialog state, or null to delete it.
+     * @return A task that represents the work queued to execute.
+     */
+    @Override
+    public CompletableFuture<Void> set(TurnContext turnContext, DialogState value) {
+        if (value == null) {
+            return property.delete(turnContext);
+        }
+        return property.set(turnContext, compact ? new CompactDialogState(value) : value);
+    }
+
+    /**
+     * Gets the name of the property.
+     *
+     * @return The property name.
+     */
+    @Override
+    public String getName() {
+        return property.getName();
+    }
+}
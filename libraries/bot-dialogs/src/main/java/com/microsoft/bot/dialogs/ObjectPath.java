@@ -11,16 +11,17 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.bot.builder.TurnContextStateCollection;
 import com.microsoft.bot.schema.Serialization;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
@@ -29,6 +30,13 @@ import org.apache.commons.lang3.StringUtils;
  * Helper methods for working with dynamic json objects.
  */
 public final class ObjectPath {
+    /**
+     * The maximum number of compiled paths kept before the cache is reset.
+     */
+    private static final int MAX_COMPILED_PATHS = 4096;
+
+    private static final Map<String, List<Object>> COMPILED_PATHS = new ConcurrentHashMap<>();
+
     private ObjectPath() { }
 
     /**
@@ -95,8 +103,19 @@ public final class ObjectPath {
             return mapValueTo(obj, valueType);
         }
 
-        Segments segments = tryResolvePath(obj, path);
-        if (segments == null) {
+        return tryGetSegmentsValue(obj, resolvePath(obj, path), valueType);
+    }
+
+    /**
+     * Get the value for already resolved path segments relative to an Object.
+     * @param <T> type to return.
+     * @param obj Object to start with.
+     * @param segments path segments, as returned by {@link #tryCompilePath(String)}.
+     * @param valueType value for the path.
+     * @return the value, or null if any part of the path is missing.
+     */
+    public static <T> T tryGetSegmentsValue(Object obj, List<Object> segments, Class<T> valueType) {
+        if (obj == null || segments == null) {
             return null;
         }
 
@@ -139,20 +158,30 @@ public final class ObjectPath {
      * @param json if true, sets the value as primitive JSON Objects.
      */
     public static void setPathValue(Object obj, String path, Object value, boolean json) {
-        Segments segments = tryResolvePath(obj, path);
-        if (segments == null) {
+        setSegmentsValue(obj, resolvePath(obj, path), value, json);
+    }
+
+    /**
+     * Given an Object and already resolved path segments, set the value.
+     * @param obj Object to start with.
+     * @param segments path segments, as returned by {@link #tryCompilePath(String)}.
+     * @param value value to store.
+     * @param json if true, sets the value as primitive JSON Objects.
+     */
+    public static void setSegmentsValue(Object obj, List<Object> segments, Object value, boolean json) {
+        if (segments == null || segments.isEmpty()) {
             return;
         }
 
         Object current = obj;
         for (int i = 0; i < segments.size() - 1; i++) {
-            SegmentType segment = segments.getSegment(i);
+            SegmentType segment = new SegmentType(segments.get(i));
             Object next;
             if (segment.isInt) {
-                if (((Segments) current).size() <= segment.intValue) {
+                if (((ArrayNode) current).size() <= segment.intValue) {
                     // TODO make sure growBy is correct
                     // Expand array to index
-                    int growBy = segment.intValue - ((Segments) current).size();
+                    int growBy = segment.intValue - ((ArrayNode) current).size();
                     ((ArrayNode) current).add(growBy);
                 }
                 next = ((ArrayNode) current).get(segment.intValue);
@@ -173,7 +202,7 @@ public final class ObjectPath {
             current = next;
         }
 
-        Object lastSegment = segments.last();
+        Object lastSegment = segments.get(segments.size() - 1);
         setObjectSegment(current, lastSegment, value, json);
     }
 
@@ -183,8 +212,16 @@ public final class ObjectPath {
      * @param path Path to remove.
      */
     public static void removePathValue(Object obj, String path) {
-        Segments segments = tryResolvePath(obj, path);
-        if (segments == null) {
+        removeSegmentsValue(obj, resolvePath(obj, path));
+    }
+
+    /**
+     * Remove already resolved path segments from Object.
+     * @param obj Object to change.
+     * @param segments path segments, as returned by {@link #tryCompilePath(String)}.
+     */
+    public static void removeSegmentsValue(Object obj, List<Object> segments) {
+        if (segments == null || segments.isEmpty()) {
             return;
         }
 
@@ -198,7 +235,7 @@ public final class ObjectPath {
         }
 
         if (current != null) {
-            Object lastSegment = segments.last();
+            Object lastSegment = segments.get(segments.size() - 1);
             if (lastSegment instanceof String) {
                 // lastSegment is a field name
                 if (current instanceof Map) {
@@ -247,12 +284,7 @@ public final class ObjectPath {
             ((JsonNode) obj).fieldNames().forEachRemaining(fields::add);
             return fields;
         } else {
-            List<String> fields = new ArrayList<>();
-            for (Field field : obj.getClass().getDeclaredFields()) {
-                fields.add(field.getName());
-            }
-
-            return fields;
+            return ClassMetadata.forClass(obj.getClass()).getPropertyNames();
         }
     }
 
@@ -275,12 +307,7 @@ public final class ObjectPath {
             return ((JsonNode) obj).findValue(name) != null;
         }
 
-        for (Field field : obj.getClass().getDeclaredFields()) {
-            if (StringUtils.equalsIgnoreCase(field.getName(), name)) {
-                return true;
-            }
-        }
-        return false;
+        return ClassMetadata.forClass(obj.getClass()).hasProperty(name);
     }
 
     /**
@@ -509,6 +536,92 @@ public final class ObjectPath {
      * @return True if it was able to resolve all nested references.
      */
     public static <T> Segments tryResolvePath(Object obj, String propertyPath, boolean eval) {
+        if (!eval) {
+            List<Object> compiled = tryCompilePath(propertyPath);
+            if (compiled != null) {
+                return new Segments(compiled);
+            }
+        }
+
+        return parsePath(obj, propertyPath, eval);
+    }
+
+    /**
+     * Parses a property path that does not depend on the Object it is evaluated
+     * against, and caches the result. Paths with bracket expressions other than
+     * quoted names or integer indexes, like conversation[user.name], are not
+     * constant and return null.
+     * @param propertyPath property path to compile.
+     * @return The unmodifiable path segments, or null if the path is not constant
+     *         or not valid.
+     */
+    public static List<Object> tryCompilePath(String propertyPath) {
+        if (propertyPath == null) {
+            return null;
+        }
+
+        List<Object> compiled = COMPILED_PATHS.get(propertyPath);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        if (!isConstantPath(propertyPath)) {
+            return null;
+        }
+
+        Segments segments = parsePath(null, propertyPath, false);
+        if (segments == null) {
+            return null;
+        }
+
+        if (COMPILED_PATHS.size() >= MAX_COMPILED_PATHS) {
+            COMPILED_PATHS.clear();
+        }
+        compiled = Collections.unmodifiableList(segments);
+        COMPILED_PATHS.put(propertyPath, compiled);
+        return compiled;
+    }
+
+    private static List<Object> resolvePath(Object obj, String propertyPath) {
+        List<Object> compiled = tryCompilePath(propertyPath);
+        return compiled != null ? compiled : parsePath(obj, propertyPath, false);
+    }
+
+    private static boolean isConstantPath(String propertyPath) {
+        char first = propertyPath.length() > 0 ? propertyPath.charAt(0) : ' ';
+        if (first == '\'' || first == '"' || isInt(propertyPath)) {
+            return true;
+        }
+
+        int open = propertyPath.indexOf('[');
+        while (open >= 0) {
+            int close = propertyPath.indexOf(']', open + 1);
+            if (close < 0) {
+                return false;
+            }
+
+            String expr = propertyPath.substring(open + 1, close);
+            if (expr.indexOf('[') >= 0 || !(isInt(expr) || isQuoted(expr))) {
+                return false;
+            }
+
+            open = propertyPath.indexOf('[', close + 1);
+        }
+
+        return true;
+    }
+
+    private static boolean isQuoted(String expr) {
+        if (expr.length() < 2) {
+            return false;
+        }
+
+        char first = expr.charAt(0);
+        return (first == '\'' || first == '"') && expr.charAt(expr.length() - 1) == first
+            && expr.indexOf(first, 1) == expr.length() - 1;
+    }
+
+    private static Segments parsePath(Object obj, String propertyPath, boolean eval) {
         Segments soFar = new Segments();
         char first = propertyPath.length() > 0 ? propertyPath.charAt(0) : ' ';
         if (first == '\'' || first == '"') {
@@ -613,7 +726,7 @@ public final class ObjectPath {
         return current;
     }
 
-    private static Object resolveSegments(Object current, Segments segments) {
+    private static Object resolveSegments(Object current, List<Object> segments) {
         Object result = current;
         for (Object segment : segments) {
             result = resolveSegment(result, segment);
@@ -652,6 +765,11 @@ public final class ObjectPath {
             return null;
         }
 
+        if (obj instanceof SortedMap
+            && ((SortedMap<String, Object>) obj).comparator() == String.CASE_INSENSITIVE_ORDER) {
+            return ((SortedMap<String, Object>) obj).get(property);
+        }
+
         if (obj instanceof Map) {
             Map<String, Object> dict = (Map<String, Object>) obj;
             List<Entry<String, Object>> matches = dict.entrySet().stream()
@@ -687,21 +805,7 @@ public final class ObjectPath {
         */
 
         // reflection on Object
-        List<Object> matches = Arrays.stream(obj.getClass().getDeclaredFields())
-            .filter(field -> field.getName().equalsIgnoreCase(property))
-            .map(field -> {
-                try {
-                    return field.get(obj);
-                } catch (IllegalAccessException e) {
-                    return null;
-                }
-            })
-            .collect(Collectors.toList());
-
-        if (matches.size() > 0) {
-            return matches.get(0);
-        }
-        return null;
+        return ClassMetadata.forClass(obj.getClass()).getValue(obj, property);
     }
 
     /// <summary>
@@ -716,7 +820,6 @@ public final class ObjectPath {
         setObjectSegment(obj, segment, value, true);
     }
 
-    @SuppressWarnings("PMD.EmptyCatchBlock")
     private static void setObjectSegment(Object obj, Object segment, Object value, boolean json) {
         Object normalizedValue = getNormalizedValue(value, json);
 
@@ -774,14 +877,7 @@ public final class ObjectPath {
 
         // reflection
         if (obj != null) {
-            for (Field f : obj.getClass().getDeclaredFields()) {
-                if (f.getName().equalsIgnoreCase(property)) {
-                    try {
-                        f.set(obj, normalizedValue);
-                    } catch (IllegalAccessException ignore) {
-                    }
-                }
-            }
+            ClassMetadata.forClass(obj.getClass()).setValue(obj, property, normalizedValue);
         }
     }
 
@@ -811,6 +907,18 @@ public final class ObjectPath {
     }
 
     private static boolean isInt(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+
+        // Reject anything that is obviously not a number without paying for an exception.
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (!Character.isDigit(ch) && !(i == 0 && (ch == '-' || ch == '+') && value.length() > 1)) {
+                return false;
+            }
+        }
+
         try {
             Integer.parseInt(value);
             return true;
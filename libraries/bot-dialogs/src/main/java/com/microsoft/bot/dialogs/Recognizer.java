@@ -7,11 +7,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.bot.builder.BotMetricsConstants;
+import com.microsoft.bot.builder.BotMetricsRegistry;
 import com.microsoft.bot.builder.BotTelemetryClient;
 import com.microsoft.bot.builder.IntentScore;
 import com.microsoft.bot.builder.NullBotTelemetryClient;
 import com.microsoft.bot.builder.RecognizerConvert;
 import com.microsoft.bot.builder.RecognizerResult;
+import com.microsoft.bot.builder.TurnContextStateCollection;
 import com.microsoft.bot.connector.Async;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.Serialization;
@@ -19,10 +22,14 @@ import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Recognizer base class.
@@ -43,6 +50,15 @@ import java.util.concurrent.CompletableFuture;
  * The default implementation of Activity method is to filter to Message activities and pull
  * out text/locale and call the text/locale method.
  * </p>
+ *
+ * <p>
+ * Recognitions started through {@link #recognize(DialogContext, Activity)} or
+ * the strongly-typed overload are recorded by the
+ * {@link BotMetricsConstants#RECOGNIZE} timer, whichever recognizer runs them.
+ * A recognizer whose generic overload is also called directly, such as by a
+ * recognizer set, times it with {@link #timeRecognize(DialogContext, Supplier)};
+ * a recognition is recorded once, whichever overload starts it.
+ * </p>
  */
 public class Recognizer {
     /**
@@ -57,6 +73,11 @@ public class Recognizer {
      */
     public static final String NONE_INTENT = "None";
 
+    /**
+     * The turn state key of the recognizers whose recognition is being timed.
+     */
+    private static final String TIMED_RECOGNIZERS_KEY = "Recognizer.timedRecognizers";
+
     @JsonProperty(value = "id")
     private String id;
 
@@ -81,7 +102,7 @@ public class Recognizer {
         DialogContext dialogContext,
         Activity activity
     ) {
-        return recognize(dialogContext, activity, null, null);
+        return timeRecognize(dialogContext, () -> recognize(dialogContext, activity, null, null));
     }
 
     /**
@@ -124,14 +145,58 @@ public class Recognizer {
     ) {
         return Async.tryCompletable(() -> {
             T result = c.newInstance();
-            return recognize(dialogContext, activity, telemetryProperties, telemetryMetrics)
-                .thenApply(recognizerResult -> {
-                    result.convert(recognizerResult);
-                    return result;
-                });
+            return timeRecognize(
+                dialogContext,
+                () -> recognize(dialogContext, activity, telemetryProperties, telemetryMetrics)
+            ).thenApply(recognizerResult -> {
+                result.convert(recognizerResult);
+                return result;
+            });
         });
     }
 
+    /**
+     * Records a recognition by this recognizer with the
+     * {@link BotMetricsConstants#RECOGNIZE} timer, unless the overload that
+     * started it is already timing it.
+     *
+     * @param dialogContext Dialog Context.
+     * @param recognition   Starts the recognition.
+     * @return Analysis of utterance.
+     */
+    protected CompletableFuture<RecognizerResult> timeRecognize(
+        DialogContext dialogContext,
+        Supplier<CompletableFuture<RecognizerResult>> recognition
+    ) {
+        if (!BotMetricsRegistry.isEnabled() || dialogContext == null) {
+            return recognition.get();
+        }
+
+        Set<Recognizer> timedRecognizers = getTimedRecognizers(dialogContext.getContext().getTurnState());
+        if (!timedRecognizers.add(this)) {
+            return recognition.get();
+        }
+
+        try {
+            return BotMetricsRegistry.time(BotMetricsConstants.RECOGNIZE, recognition)
+                .whenComplete((result, exception) -> timedRecognizers.remove(this));
+        } catch (RuntimeException e) {
+            timedRecognizers.remove(this);
+            throw e;
+        }
+    }
+
+    private static Set<Recognizer> getTimedRecognizers(TurnContextStateCollection turnState) {
+        synchronized (turnState) {
+            Set<Recognizer> timedRecognizers = turnState.get(TIMED_RECOGNIZERS_KEY);
+            if (timedRecognizers == null) {
+                timedRecognizers = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+                turnState.add(TIMED_RECOGNIZERS_KEY, timedRecognizers);
+            }
+            return timedRecognizers;
+        }
+    }
+
     /**
      * Returns ChooseIntent between multiple recognizer results.
      *
@@ -265,12 +330,14 @@ public class Recognizer {
         Map<String, String> telemetryProperties,
         Map<String, Double> telemetryMetrics
     ) {
-        if (telemetryClient instanceof NullBotTelemetryClient) {
+        // the turn state client is used for this turn only, as it may be bound to the conversation
+        BotTelemetryClient client = telemetryClient;
+        if (client instanceof NullBotTelemetryClient) {
             BotTelemetryClient turnStateTelemetryClient = dialogContext.getContext()
                 .getTurnState().get(BotTelemetryClient.class);
-            telemetryClient = turnStateTelemetryClient != null ? turnStateTelemetryClient : telemetryClient;
+            client = turnStateTelemetryClient != null ? turnStateTelemetryClient : client;
         }
 
-        telemetryClient.trackEvent(eventName, telemetryProperties, telemetryMetrics);
+        client.trackEvent(eventName, telemetryProperties, telemetryMetrics);
     }
 }
@@ -1,12 +1,28 @@
 package com.microsoft.bot.dialogs;
 
 import java.util.ArrayList;
+import java.util.Collection;
 
 /**
  * Generic Arraylist of Object.
  */
 class Segments extends ArrayList<Object> {
 
+    /**
+     * Creates an empty collection.
+     */
+    Segments() {
+    }
+
+    /**
+     * Creates a collection holding the given segments.
+     *
+     * @param segments The segments to copy.
+     */
+    Segments(Collection<?> segments) {
+        super(segments);
+    }
+
     /**
      * Returns the first item in the collection.
      *
@@ -0,0 +1,456 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs.choices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A list of choices compiled for matching user input.
+ *
+ * <p>
+ * The synonyms of the choices are tokenized once, and their tokens indexed, so
+ * only the synonyms sharing a token with the input are matched against it. A
+ * matcher is immutable and can be reused for every utterance matched against
+ * the same choices, for example on each retry of a {@link ChoiceRecognizers}
+ * based prompt. Use {@link #isCompiledFor(List, FindChoicesOptions)} to detect
+ * if a cached matcher can be used for a list of choices.
+ * </p>
+ */
+public final class ChoiceMatcher {
+    private final List<SortedValue> synonyms;
+    private final String[] choiceValues;
+    private final List<Choice> choices;
+    private final CompiledValue[] values;
+    private final Map<String, int[]> index;
+
+    private final TokenizerFunction tokenizer;
+    private final TokenizerFunction resolvedTokenizer;
+    private final String locale;
+    private final int maxTokenDistance;
+    private final boolean allowPartialMatches;
+    private final boolean noValue;
+    private final boolean noAction;
+    private final String recognizerLocale;
+    private final boolean recognizeOrdinals;
+    private final boolean recognizeNumbers;
+
+    private ChoiceMatcher(
+        List<Choice> withChoices,
+        List<SortedValue> withSynonyms,
+        FindValuesOptions options,
+        FindChoicesOptions choiceOptions
+    ) {
+        FindValuesOptions opt = options != null ? options : new FindValuesOptions();
+        tokenizer = opt.getTokenizer();
+        resolvedTokenizer = tokenizer != null ? tokenizer : new Tokenizer();
+        locale = opt.getLocale();
+        maxTokenDistance = opt.getMaxTokenDistance();
+        allowPartialMatches = opt.getAllowPartialMatches();
+        noValue = choiceOptions != null && choiceOptions.isNoValue();
+        noAction = choiceOptions != null && choiceOptions.isNoAction();
+        recognizerLocale = choiceOptions != null ? choiceOptions.getLocale() : Locale.ENGLISH.getDisplayName();
+        recognizeOrdinals = choiceOptions == null || choiceOptions.isRecognizeOrdinals();
+        recognizeNumbers = choiceOptions == null || choiceOptions.isRecognizeNumbers();
+
+        choices = withChoices;
+        choiceValues = withChoices != null
+            ? withChoices.stream().map(Choice::getValue).toArray(String[]::new)
+            : new String[0];
+        synonyms = withSynonyms;
+
+        // Sort values in descending order by length so that the longest value is searched over first.
+        List<SortedValue> sorted = new ArrayList<>(withSynonyms);
+        sorted.sort((a, b) -> b.getValue().length() - a.getValue().length());
+
+        Map<String, BitSet> tokenIndex = new HashMap<>();
+        values = new CompiledValue[sorted.size()];
+        for (int i = 0; i < values.length; i++) {
+            SortedValue entry = sorted.get(i);
+            List<Token> tokens = resolvedTokenizer.tokenize(entry.getValue().trim(), locale);
+            String[] keys = new String[tokens.size()];
+            for (int t = 0; t < keys.length; t++) {
+                keys[t] = foldCase(tokens.get(t).getNormalized());
+                tokenIndex.computeIfAbsent(keys[t], k -> new BitSet()).set(i);
+            }
+            values[i] = new CompiledValue(entry.getValue(), entry.getIndex(), keys);
+        }
+
+        index = new HashMap<>(tokenIndex.size() * 2);
+        tokenIndex.forEach((key, ids) -> index.put(key, ids.stream().toArray()));
+    }
+
+    /**
+     * Compiles a list of choices.
+     * @param choices The list of choices.
+     * @param options Optional, options to control the recognition strategy.
+     * @return The compiled choices.
+     */
+    public static ChoiceMatcher compile(List<Choice> choices, FindChoicesOptions options) {
+        if (choices == null) {
+            throw new IllegalArgumentException("choices argument is missing");
+        }
+
+        FindChoicesOptions opt = options != null ? options : new FindChoicesOptions();
+        return new ChoiceMatcher(new ArrayList<>(choices), collectSynonyms(choices, opt), opt, options);
+    }
+
+    /**
+     * This method is internal and should not be used.
+     * @param values The values.
+     * @param options The options for the search.
+     * @return The compiled values.
+     */
+    static ChoiceMatcher compileValues(List<SortedValue> values, FindValuesOptions options) {
+        return new ChoiceMatcher(null, values, options, null);
+    }
+
+    /**
+     * Detects if this matcher was compiled from the same choices and options, so
+     * it can be used to match input against them.
+     * @param withChoices The list of choices.
+     * @param options Optional, options to control the recognition strategy.
+     * @return True if the matcher matches input against the choices like a new
+     *         matcher would.
+     */
+    public boolean isCompiledFor(List<Choice> withChoices, FindChoicesOptions options) {
+        if (choices == null || withChoices == null || withChoices.size() != choiceValues.length) {
+            return false;
+        }
+
+        FindChoicesOptions opt = options != null ? options : new FindChoicesOptions();
+        if (opt.getTokenizer() != tokenizer
+            || !Objects.equals(opt.getLocale(), locale)
+            || opt.getMaxTokenDistance() != maxTokenDistance
+            || opt.getAllowPartialMatches() != allowPartialMatches
+            || opt.isNoValue() != noValue
+            || opt.isNoAction() != noAction
+            || !Objects.equals(
+                options != null ? options.getLocale() : Locale.ENGLISH.getDisplayName(), recognizerLocale)
+            || (options == null || options.isRecognizeOrdinals()) != recognizeOrdinals
+            || (options == null || options.isRecognizeNumbers()) != recognizeNumbers) {
+            return false;
+        }
+
+        for (int i = 0; i < choiceValues.length; i++) {
+            if (!Objects.equals(withChoices.get(i).getValue(), choiceValues[i])) {
+                return false;
+            }
+        }
+
+        List<SortedValue> withSynonyms = collectSynonyms(withChoices, opt);
+        if (withSynonyms.size() != synonyms.size()) {
+            return false;
+        }
+        for (int i = 0; i < synonyms.size(); i++) {
+            if (withSynonyms.get(i).getIndex() != synonyms.get(i).getIndex()
+                || !Objects.equals(withSynonyms.get(i).getValue(), synonyms.get(i).getValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Matches user input against the choices.
+     * @param utterance The input.
+     * @return A list of found choices, sorted by most relevant first.
+     */
+    public List<ModelResult<FoundChoice>> findChoices(String utterance) {
+        // Find synonyms in utterance and map back to their choices
+        List<ModelResult<FoundValue>> found = findValues(utterance);
+        List<ModelResult<FoundChoice>> results = new ArrayList<>(found.size());
+        for (ModelResult<FoundValue> v : found) {
+            FoundChoice resolution = new FoundChoice();
+            resolution.setValue(choiceValues[v.getResolution().getIndex()]);
+            resolution.setIndex(v.getResolution().getIndex());
+            resolution.setScore(v.getResolution().getScore());
+            resolution.setSynonym(v.getResolution().getValue());
+            ModelResult<FoundChoice> modelResult = new ModelResult<FoundChoice>();
+            modelResult.setStart(v.getStart());
+            modelResult.setEnd(v.getEnd());
+            modelResult.setTypeName("choice");
+            modelResult.setText(v.getText());
+            modelResult.setResolution(resolution);
+            results.add(modelResult);
+        }
+        return results;
+    }
+
+    /**
+     * This method is internal and should not be used.
+     * @param utterance The input.
+     * @return A list of found values.
+     */
+    List<ModelResult<FoundValue>> findValues(String utterance) {
+        List<Token> tokens = resolvedTokenizer.tokenize(utterance, locale);
+
+        // Index the positions of the tokens in the utterance, and find the values sharing
+        // a token with it. Other values can't match.
+        Map<String, Positions> positions = new HashMap<>();
+        BitSet candidates = new BitSet(values.length);
+        for (int i = 0; i < tokens.size(); i++) {
+            String key = foldCase(tokens.get(i).getNormalized());
+            Positions tokenPositions = positions.get(key);
+            if (tokenPositions == null) {
+                tokenPositions = new Positions();
+                positions.put(key, tokenPositions);
+
+                int[] ids = index.get(key);
+                if (ids != null) {
+                    for (int id : ids) {
+                        candidates.set(id);
+                    }
+                }
+            }
+            tokenPositions.add(i);
+        }
+
+        // Search for each value within the utterance, longest value first.
+        List<ModelResult<FoundValue>> matches = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            // Find all matches for a value
+            // - To match "last one" in "the last time I chose the last one" we need
+            //   to re-search the String starting from the end of the previous match.
+            // - The start & end position returned for the match are token positions.
+            int startPos = 0;
+            while (startPos < tokens.size()) {
+                ModelResult<FoundValue> match = matchValue(positions, values[i], startPos);
+                if (match != null) {
+                    startPos = match.getEnd() + 1;
+                    matches.add(match);
+                } else {
+                    break;
+                }
+            }
+        }
+
+        // Sort matches by score descending
+        matches.sort((a, b) -> Float.compare(b.getResolution().getScore(), a.getResolution().getScore()));
+
+        // Filter out duplicate matching indexes and overlapping characters.
+        // - The start & end positions are token positions and need to be translated to
+        //   character positions before returning. We also need to populate the "text"
+        //   field as well.
+        List<ModelResult<FoundValue>> results = new ArrayList<>();
+        Set<Integer> foundIndexes = new HashSet<>();
+        BitSet usedTokens = new BitSet(tokens.size());
+
+        for (ModelResult<FoundValue> match : matches) {
+            // Apply filters
+            int usedToken = usedTokens.nextSetBit(match.getStart());
+            boolean add = !foundIndexes.contains(match.getResolution().getIndex())
+                && (usedToken < 0 || usedToken > match.getEnd());
+
+            // Add to results
+            if (add) {
+                // Update filter info
+                foundIndexes.add(match.getResolution().getIndex());
+                usedTokens.set(match.getStart(), match.getEnd() + 1);
+
+                // Translate start & end and populate text field
+                match.setStart(tokens.get(match.getStart()).getStart());
+                match.setEnd(tokens.get(match.getEnd()).getEnd());
+                match.setText(utterance.substring(match.getStart(), match.getEnd() + 1));
+                results.add(match);
+            }
+        }
+
+        // Return the results sorted by position in the utterance
+        results.sort((a, b) -> a.getStart() - b.getStart());
+        return results;
+    }
+
+    /**
+     * Gets the compiled choices.
+     * @return The list of choices.
+     */
+    List<Choice> getChoices() {
+        return Collections.unmodifiableList(choices);
+    }
+
+    /**
+     * Gets the locale used to recognize ordinals and numbers.
+     * @return The locale.
+     */
+    String getRecognizerLocale() {
+        return recognizerLocale;
+    }
+
+    /**
+     * Gets whether ordinals are recognized when no choice is found.
+     * @return True if ordinals are recognized.
+     */
+    boolean isRecognizeOrdinals() {
+        return recognizeOrdinals;
+    }
+
+    /**
+     * Gets whether numbers are recognized when no choice is found.
+     * @return True if numbers are recognized.
+     */
+    boolean isRecognizeNumbers() {
+        return recognizeNumbers;
+    }
+
+    private ModelResult<FoundValue> matchValue(Map<String, Positions> positions, CompiledValue value, int startPos) {
+        // Match value to utterance and calculate total deviation.
+        // - The tokens are matched in order so "second last" will match in
+        //   "the second from last one" but not in "the last from the second one".
+        // - The total deviation is a count of the number of tokens skipped in the
+        //   match so for the example above the number of tokens matched would be
+        //   2 and the total deviation would be 1.
+        int matched = 0;
+        int totalDeviation = 0;
+        int start = -1;
+        int end = -1;
+        for (String key : value.keys) {
+            // Find the position of the token in the utterance.
+            Positions tokenPositions = positions.get(key);
+            int pos = tokenPositions != null ? tokenPositions.firstFrom(startPos) : -1;
+            if (pos >= 0) {
+                // Calculate the distance between the current tokens position and the
+                // previous tokens distance.
+                int distance = matched > 0 ? pos - startPos : 0;
+                if (distance <= maxTokenDistance) {
+                    // Update count of tokens matched and move start pointer to search
+                    // for next token after the current token.
+                    matched++;
+                    totalDeviation += distance;
+                    startPos = pos + 1;
+
+                    // Update start & end position that will track the span of the utterance
+                    // that's matched.
+                    if (start < 0) {
+                        start = pos;
+                    }
+
+                    end = pos;
+                }
+            }
+        }
+
+        // Calculate score and format result
+        // - The start & end positions and the results text field will be corrected by the caller.
+        ModelResult<FoundValue> result = null;
+
+        if (matched > 0 && (matched == value.keys.length || allowPartialMatches)) {
+            // Percentage of tokens matched. If matching "second last" in
+            // "the second from last one" the completeness would be 1.0 since
+            // all tokens were found.
+            int completeness = matched / value.keys.length;
+
+            // Accuracy of the match. The accuracy is reduced by additional tokens
+            // occurring in the value that weren't in the utterance. So an utterance
+            // of "second last" matched against a value of "second from last" would
+            // result in an accuracy of 0.5.
+            float accuracy = (float) matched / (matched + totalDeviation);
+
+            // The final score is simply the completeness multiplied by the accuracy.
+            float score = completeness * accuracy;
+
+            // Format result
+            FoundValue resolution = new FoundValue();
+            resolution.setValue(value.value);
+            resolution.setIndex(value.index);
+            resolution.setScore(score);
+            result = new ModelResult<>();
+            result.setStart(start);
+            result.setEnd(end);
+            result.setTypeName("value");
+            result.setResolution(resolution);
+        }
+
+        return result;
+    }
+
+    // Build up full list of synonyms to search over.
+    // - Each entry in the list contains the index of the choice it belongs to which will later be
+    //   used to map the search results back to their choice.
+    private static List<SortedValue> collectSynonyms(List<Choice> choices, FindChoicesOptions opt) {
+        List<SortedValue> synonyms = new ArrayList<>();
+
+        for (int index = 0; index < choices.size(); index++) {
+            Choice choice = choices.get(index);
+
+            if (!opt.isNoValue()) {
+                synonyms.add(new SortedValue(choice.getValue(), index));
+            }
+
+            if (choice.getAction() != null && choice.getAction().getTitle() != null && !opt.isNoAction()) {
+                synonyms.add(new SortedValue(choice.getAction().getTitle(), index));
+            }
+
+            if (choice.getSynonyms() != null) {
+                for (String synonym : choice.getSynonyms()) {
+                    synonyms.add(new SortedValue(synonym, index));
+                }
+            }
+        }
+
+        return synonyms;
+    }
+
+    // Tokens are compared ignoring case, like String.equalsIgnoreCase does.
+    private static String foldCase(String normalized) {
+        if (normalized == null) {
+            return null;
+        }
+
+        char[] chars = normalized.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static final class CompiledValue {
+        private final String value;
+        private final int index;
+        private final String[] keys;
+
+        CompiledValue(String withValue, int withIndex, String[] withKeys) {
+            value = withValue;
+            index = withIndex;
+            keys = withKeys;
+        }
+    }
+
+    // The ascending positions of a token in an utterance.
+    private static final class Positions {
+        private int[] items = new int[2];
+        private int size;
+
+        void add(int position) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = position;
+        }
+
+        int firstFrom(int startPos) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (items[mid] < startPos) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low < size ? items[low] : -1;
+        }
+    }
+}
@@ -7,7 +7,6 @@ import com.microsoft.recognizers.text.IModel;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
 import java.util.stream.Collectors;
 import com.microsoft.recognizers.text.number.NumberRecognizer;
 
@@ -65,15 +64,26 @@ public final class ChoiceRecognizers {
         List<Choice> choices,
         FindChoicesOptions options
     ) {
+        return recognizeChoices(utterance, ChoiceMatcher.compile(choices, options));
+    }
+
+    /**
+     * Matches user input against a list of compiled choices.
+     * @param utterance The input.
+     * @param matcher The choices, compiled with the options controlling the recognition strategy.
+     * @return A list of found choices, sorted by most relevant first.
+     */
+    public static List<ModelResult<FoundChoice>> recognizeChoices(String utterance, ChoiceMatcher matcher) {
         // Try finding choices by text search first
         // - We only want to use a single strategy for returning results to avoid issues where utterances
         //   like the "the third one" or "the red one" or "the first division book" would miss-recognize as
         //   a numerical index or ordinal as well.
-        String locale = options != null ? options.getLocale() : Locale.ENGLISH.getDisplayName();
-        List<ModelResult<FoundChoice>> matched = Find.findChoices(utterance, choices, options);
+        List<Choice> choices = matcher.getChoices();
+        String locale = matcher.getRecognizerLocale();
+        List<ModelResult<FoundChoice>> matched = matcher.findChoices(utterance);
         if (matched.size() == 0) {
             List<ModelResult<FoundChoice>> matches = new ArrayList<>();
-            if (options == null || options.isRecognizeOrdinals()) {
+            if (matcher.isRecognizeOrdinals()) {
                 // Next try finding by ordinal
                 matches = recognizeNumbers(utterance, new NumberRecognizer(locale).getOrdinalModel(locale, true));
                 for (ModelResult<FoundChoice> match : matches) {
@@ -81,7 +91,7 @@ public final class ChoiceRecognizers {
                 }
             }
 
-            if (matches.size() == 0 && (options == null || options.isRecognizeNumbers())) {
+            if (matches.size() == 0 && matcher.isRecognizeNumbers()) {
                 // Then try by numerical index
                 matches = recognizeNumbers(utterance, new NumberRecognizer(locale).getNumberModel(locale, true));
                 for (ModelResult<FoundChoice> match : matches) {
@@ -11,6 +11,7 @@ public class Token {
     private int start;
     private int end;
     private String normalized;
+    private boolean lowerCaseText;
 
     /**
      * Gets the original text of the token.
@@ -27,6 +28,7 @@ public class Token {
      * @param withText The original text of the token.
      */
     public void setText(String withText) {
+        resolveNormalized();
         text = withText;
     }
 
@@ -35,6 +37,7 @@ public class Token {
      * @param withText The text to append.
      */
     public void appendText(String withText) {
+        resolveNormalized();
         if (text != null) {
             text += withText;
         } else {
@@ -79,6 +82,7 @@ public class Token {
      * @return A normalized version of the token.
      */
     public String getNormalized() {
+        resolveNormalized();
         return normalized;
     }
 
@@ -87,6 +91,23 @@ public class Token {
      * @param withNormalized A normalized version of the token.
      */
     public void setNormalized(String withNormalized) {
+        lowerCaseText = false;
         normalized = withNormalized;
     }
+
+    /**
+     * Sets the normalized text to the lower case text, which is computed when it
+     * is first accessed.
+     */
+    void setNormalizedToLowerCase() {
+        normalized = null;
+        lowerCaseText = true;
+    }
+
+    private void resolveNormalized() {
+        if (lowerCaseText) {
+            lowerCaseText = false;
+            normalized = text != null ? text.toLowerCase() : null;
+        }
+    }
 }
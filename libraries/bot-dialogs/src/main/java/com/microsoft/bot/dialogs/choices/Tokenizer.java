@@ -4,6 +4,7 @@
 package com.microsoft.bot.dialogs.choices;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -11,76 +12,88 @@ import java.util.List;
  */
 public class Tokenizer implements TokenizerFunction {
 
+    // The ranges of code points that break tokens: spaces, punctuation, symbols and combining marks.
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static final int[][] BREAKING_RANGES = {
+        {0x0000, 0x002F},
+        {0x003A, 0x0040},
+        {0x005B, 0x0060},
+        {0x007B, 0x00BF},
+        {0x02B9, 0x036F},
+        {0x2000, 0x2BFF},
+        {0x2E00, 0x2E7F}
+    };
+
+    private static final int BREAKING_LIMIT = BREAKING_RANGES[BREAKING_RANGES.length - 1][1] + 1;
+
+    private static final BitSet BREAKING_CHARS = new BitSet(BREAKING_LIMIT);
+
+    static {
+        for (int[] range : BREAKING_RANGES) {
+            BREAKING_CHARS.set(range[0], range[1] + 1);
+        }
+    }
+
     /**
      * Simple tokenizer that breaks on spaces and punctuation. The only normalization
-     * done is to lowercase.
+     * done is to lowercase, which is computed when a token's normalized text is first
+     * accessed.
      * @param text The input text.
      * @param locale Optional, identifies the locale of the input text.
      * @return The list of the found Token objects.
      */
-    @SuppressWarnings("checkstyle:MagicNumber")
     @Override
     public List<Token> tokenize(String text, String locale) {
         List<Token> tokens = new ArrayList<>();
-        Token token = null;
-
         int length = text == null ? 0 : text.length();
+
+        // The start of the token being scanned, or -1 between tokens.
+        int tokenStart = -1;
         int i = 0;
 
         while (i < length) {
             int codePoint = text.codePointAt(i);
-
-            String chr = new String(Character.toChars(codePoint));
+            int charCount = Character.charCount(codePoint);
 
             if (isBreakingChar(codePoint)) {
-                appendToken(tokens, token, i - 1);
-                token = null;
-            } else if (codePoint > 0xFFFF) {
-                appendToken(tokens, token, i - 1);
-                token = null;
+                appendToken(tokens, text, tokenStart, i - 1);
+                tokenStart = -1;
+            } else if (charCount > 1) {
+                // Characters outside the basic multilingual plane are tokens of their own.
+                appendToken(tokens, text, tokenStart, i - 1);
+                tokenStart = -1;
 
+                String chr = text.substring(i, i + charCount);
                 Token t = new Token();
                 t.setStart(i);
-                t.setEnd(i + chr.length() - 1);
+                t.setEnd(i + charCount - 1);
                 t.setText(chr);
                 t.setNormalized(chr);
 
                 tokens.add(t);
-            } else if (token == null) {
-                token = new Token();
-                token.setStart(i);
-                token.setText(chr);
-            } else {
-                token.appendText(chr);
+            } else if (tokenStart < 0) {
+                tokenStart = i;
             }
 
-            i += chr.length();
+            i += charCount;
         }
 
-        appendToken(tokens, token, length - 1);
+        appendToken(tokens, text, tokenStart, length - 1);
         return tokens;
     }
 
-    private void appendToken(List<Token> tokens, Token token, int end) {
-        if (token != null) {
+    private static void appendToken(List<Token> tokens, String text, int start, int end) {
+        if (start >= 0) {
+            Token token = new Token();
+            token.setStart(start);
             token.setEnd(end);
-            token.setNormalized(token.getText().toLowerCase());
+            token.setText(text.substring(start, end + 1));
+            token.setNormalizedToLowerCase();
             tokens.add(token);
         }
     }
 
-    @SuppressWarnings("checkstyle:MagicNumber")
     private static boolean isBreakingChar(int codePoint) {
-        return isBetween(codePoint, 0x0000, 0x002F)
-            || isBetween(codePoint, 0x003A, 0x0040)
-            || isBetween(codePoint, 0x005B, 0x0060)
-            || isBetween(codePoint, 0x007B, 0x00BF)
-            || isBetween(codePoint, 0x02B9, 0x036F)
-            || isBetween(codePoint, 0x2000, 0x2BFF)
-            || isBetween(codePoint, 0x2E00, 0x2E7F);
-    }
-
-    private static boolean isBetween(int value, int from, int to) {
-        return value >= from && value <= to;
+        return codePoint < BREAKING_LIMIT && BREAKING_CHARS.get(codePoint);
     }
 }
@@ -0,0 +1,84 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs.memory;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.microsoft.bot.dialogs.memory.scopes.MemoryScope;
+
+/**
+ * A path expression after the path resolvers have been applied, bound to the
+ * memory scope it starts with.
+ */
+final class CompiledPath {
+    private static final String FIRST = ".FIRST()";
+
+    private final String path;
+    private final MemoryScope memoryScope;
+    private final boolean scopeOnly;
+    private final List<Object> segments;
+    private final int firstIndex;
+
+    /**
+     * @param withPath        The transformed path.
+     * @param withMemoryScope The memory scope the path starts with, or null if it
+     *                        does not start with a known scope.
+     * @param withScopeOnly   True if the path names the memory scope only.
+     * @param withSegments    The constant segments of the path, including the
+     *                        scope name, or null if they depend on memory.
+     */
+    CompiledPath(String withPath, MemoryScope withMemoryScope, boolean withScopeOnly, List<Object> withSegments) {
+        path = withPath;
+        memoryScope = withMemoryScope;
+        scopeOnly = withScopeOnly;
+        segments = withSegments != null && withSegments.size() > 1
+            ? withSegments.subList(1, withSegments.size())
+            : null;
+        firstIndex = withPath.toUpperCase(Locale.US).lastIndexOf(FIRST);
+    }
+
+    /**
+     * @return The transformed path.
+     */
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * @return The memory scope the path starts with, or null.
+     */
+    MemoryScope getMemoryScope() {
+        return memoryScope;
+    }
+
+    /**
+     * @return True if the path names the memory scope only.
+     */
+    boolean isScopeOnly() {
+        return scopeOnly;
+    }
+
+    /**
+     * @return The constant segments following the scope name, or null if the
+     *         path has to be resolved against memory.
+     */
+    List<Object> getScopeSegments() {
+        return segments;
+    }
+
+    /**
+     * @return The index of the .FIRST() suffix, or -1.
+     */
+    int getFirstIndex() {
+        return firstIndex;
+    }
+
+    /**
+     * @return The length of the .FIRST() suffix.
+     */
+    static int getFirstLength() {
+        return FIRST.length();
+    }
+}
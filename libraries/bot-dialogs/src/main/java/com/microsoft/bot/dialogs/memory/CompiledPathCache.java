@@ -0,0 +1,103 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs.memory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.microsoft.bot.dialogs.memory.scopes.MemoryScope;
+
+/**
+ * Compiled paths and a memory scope index for one set of path resolvers and
+ * memory scopes.
+ *
+ * The resolvers and scopes are copied when the cache is built, so a
+ * {@link DialogStateManagerConfiguration} can tell when its lists were changed
+ * and the cache has to be rebuilt.
+ */
+final class CompiledPathCache {
+    /**
+     * The maximum number of compiled paths kept before the cache is reset.
+     */
+    private static final int MAX_COMPILED_PATHS = 1024;
+
+    private final List<PathResolver> pathResolvers;
+    private final List<MemoryScope> memoryScopes;
+    private final Map<String, MemoryScope> scopesByName = new HashMap<>();
+    private final Map<String, CompiledPath> compiledPaths = new ConcurrentHashMap<>();
+
+    CompiledPathCache(List<PathResolver> withPathResolvers, List<MemoryScope> withMemoryScopes) {
+        pathResolvers = new ArrayList<>(withPathResolvers);
+        memoryScopes = new ArrayList<>(withMemoryScopes);
+        for (MemoryScope scope : memoryScopes) {
+            if (scope.getName() != null) {
+                scopesByName.putIfAbsent(scope.getName().toLowerCase(Locale.ROOT), scope);
+            }
+        }
+    }
+
+    /**
+     * @param withPathResolvers The current path resolvers.
+     * @param withMemoryScopes  The current memory scopes.
+     * @return True if the cache was built for the same resolvers and scopes.
+     */
+    boolean isCurrent(List<PathResolver> withPathResolvers, List<MemoryScope> withMemoryScopes) {
+        return sameElements(pathResolvers, withPathResolvers) && sameElements(memoryScopes, withMemoryScopes);
+    }
+
+    /**
+     * @param name Name of the scope, in any case.
+     * @return The first memory scope registered with the name, or null.
+     */
+    MemoryScope getMemoryScope(String name) {
+        return scopesByName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param path Path to transform.
+     * @return The path transformed by all path resolvers, in order.
+     */
+    String transformPath(String path) {
+        for (PathResolver resolver : pathResolvers) {
+            path = resolver.transformPath(path);
+        }
+        return path;
+    }
+
+    /**
+     * @param path The path as given by the caller.
+     * @return The compiled path, or null if it has not been compiled yet.
+     */
+    CompiledPath get(String path) {
+        return compiledPaths.get(path);
+    }
+
+    /**
+     * @param path     The path as given by the caller.
+     * @param compiled The compiled path.
+     */
+    void put(String path, CompiledPath compiled) {
+        if (compiledPaths.size() >= MAX_COMPILED_PATHS) {
+            compiledPaths.clear();
+        }
+        compiledPaths.put(path, compiled);
+    }
+
+    private static <T> boolean sameElements(List<T> snapshot, List<T> current) {
+        if (current == null || snapshot.size() != current.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.get(i) != current.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -5,15 +5,11 @@ package com.microsoft.bot.dialogs.memory;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.concurrent.CompletableFuture;
@@ -26,11 +22,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.microsoft.bot.builder.ComponentRegistration;
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.dialogs.DialogPath;
-import com.microsoft.bot.dialogs.DialogsComponentRegistration;
 import com.microsoft.bot.dialogs.ObjectPath;
+import com.microsoft.bot.dialogs.ScopePath;
 import com.microsoft.bot.dialogs.memory.scopes.MemoryScope;
 import com.microsoft.bot.schema.ResultPair;
 
@@ -44,11 +39,6 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class DialogStateManager implements Map<String, Object> {
 
-    /**
-     * Information for tracking when path was last modified.
-     */
-    private final String pathTracker = "dialog._tracker.paths";
-
     private static final char[] SEPARATORS = {',', '[' };
 
     private final DialogContext dialogContext;
@@ -76,8 +66,6 @@ public class DialogStateManager implements Map<String, Object> {
      * @param configuration Configuration for the dialog state manager.
      */
     public DialogStateManager(DialogContext dc, DialogStateManagerConfiguration configuration) {
-        ComponentRegistration.add(new DialogsComponentRegistration());
-
         if (dc != null) {
             dialogContext = dc;
         } else {
@@ -91,32 +79,7 @@ public class DialogStateManager implements Map<String, Object> {
         }
 
         if (this.configuration == null) {
-            this.configuration = new DialogStateManagerConfiguration();
-
-            Map<String, Object> turnStateServices = dc.getContext().getTurnState().getTurnStateServices();
-            for (Map.Entry<String, Object> entry : turnStateServices.entrySet()) {
-                if (entry.getValue() instanceof MemoryScope[]) {
-                    this.configuration.getMemoryScopes().addAll(Arrays.asList((MemoryScope[]) entry.getValue()));
-                }
-                if (entry.getValue() instanceof PathResolver[]) {
-                    this.configuration.getPathResolvers().addAll(Arrays.asList((PathResolver[]) entry.getValue()));
-                }
-            }
-
-            Iterable<Object> components = ComponentRegistration.getComponents();
-
-            components.forEach((component) -> {
-                if (component instanceof ComponentMemoryScopes) {
-                    ((ComponentMemoryScopes) component).getMemoryScopes().forEach((scope) -> {
-                        this.configuration.getMemoryScopes().add(scope);
-                    });
-                }
-                if (component instanceof ComponentPathResolvers) {
-                    ((ComponentPathResolvers) component).getPathResolvers().forEach((pathResolver) -> {
-                        this.configuration.getPathResolvers().add(pathResolver);
-                    });
-                }
-            });
+            this.configuration = DialogStateManagerConfiguration.createDefault(dc.getContext().getTurnState());
         }
         // cache for any other new dialogStatemanager instances in this turn.
         dc.getContext().getTurnState().replace(this.configuration);
@@ -125,9 +88,10 @@ public class DialogStateManager implements Map<String, Object> {
     private DialogStateManagerConfiguration configuration;
 
     /**
-     * Sets the configured path resolvers and memory scopes for the dialog.
+     * Gets the configured path resolvers and memory scopes for the dialog.
      *
-     * @return The DialogStateManagerConfiguration.
+     * @return The DialogStateManagerConfiguration. During a turn it is
+     *         read-only; change the DialogManager configuration instead.
      */
     public DialogStateManagerConfiguration getConfiguration() {
         return configuration;
@@ -193,10 +157,7 @@ public class DialogStateManager implements Map<String, Object> {
         if (name == null) {
             throw new IllegalArgumentException("name cannot be null.");
         }
-        Optional<MemoryScope> result = configuration.getMemoryScopes().stream()
-                .filter((scope) -> scope.getName().equalsIgnoreCase(name))
-                .findFirst();
-        return result.isPresent() ? result.get() : null;
+        return configuration.getCompiledPaths().getMemoryScope(name);
     }
 
     /**
@@ -254,13 +215,46 @@ public class DialogStateManager implements Map<String, Object> {
      * @return The transformed path.
      */
     public String transformPath(String path) {
-        List<PathResolver> resolvers = configuration.getPathResolvers();
+        if (path == null) {
+            return configuration.getCompiledPaths().transformPath(path);
+        }
+
+        return compilePath(path).getPath();
+    }
 
-        for (PathResolver resolver : resolvers) {
-            path = resolver.transformPath(path);
+    /**
+     * Gets the compiled form of a path, compiling and caching it on first use.
+     *
+     * @param path The path as given by the caller.
+     * @return The transformed path bound to its memory scope.
+     */
+    private CompiledPath compilePath(String path) {
+        CompiledPathCache cache = configuration.getCompiledPaths();
+        CompiledPath compiled = cache.get(path);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        String transformed = cache.transformPath(path);
+        MemoryScope memoryScope;
+        StringBuilder remainingPath = new StringBuilder();
+        try {
+            memoryScope = resolveMemoryScope(transformed, remainingPath);
+        } catch (IllegalArgumentException err) {
+            memoryScope = null;
+        }
+
+        // Only bind the segments if the first one is the scope that was resolved.
+        List<Object> segments = ObjectPath.tryCompilePath(transformed);
+        if (memoryScope == null || segments == null || segments.isEmpty()
+            || !(segments.get(0) instanceof String)
+            || !((String) segments.get(0)).equalsIgnoreCase(memoryScope.getName())) {
+            segments = null;
         }
 
-        return path;
+        compiled = new CompiledPath(transformed, memoryScope, remainingPath.length() == 0, segments);
+        cache.put(path, compiled);
+        return compiled;
     }
 
     /**
@@ -279,23 +273,15 @@ public class DialogStateManager implements Map<String, Object> {
             throw new IllegalArgumentException("path cannot be null");
         }
 
-        path = transformPath(path);
-
-        MemoryScope memoryScope = null;
-        StringBuilder remainingPath = new StringBuilder();
-
-        try {
-            memoryScope = resolveMemoryScope(path, remainingPath);
-        } catch (Exception err) {
-            // Trace.TraceError(err.Message);
-            return new ResultPair<>(false, instance);
-        }
+        CompiledPath compiled = compilePath(path);
+        path = compiled.getPath();
 
+        MemoryScope memoryScope = compiled.getMemoryScope();
         if (memoryScope == null) {
             return new ResultPair<>(false, instance);
         }
 
-        if (remainingPath.length() == 0) {
+        if (compiled.isScopeOnly()) {
             Object memory = memoryScope.getMemory(dialogContext);
             if (memory == null) {
                 return new ResultPair<>(false, instance);
@@ -309,10 +295,9 @@ public class DialogStateManager implements Map<String, Object> {
         // HACK to support .First() retrieval on turn.recognized.entities.foo,
         // replace with Expressions
         // once expression ship
-        final String first = ".FIRST()";
-        int iFirst = path.toUpperCase(Locale.US).lastIndexOf(first);
+        int iFirst = compiled.getFirstIndex();
         if (iFirst >= 0) {
-            remainingPath = new StringBuilder(path.substring(iFirst + first.length()));
+            StringBuilder remainingPath = new StringBuilder(path.substring(iFirst + CompiledPath.getFirstLength()));
             path = path.substring(0, iFirst);
             ResultPair<Object> getResult = tryGetFirstNestedValue(new AtomicReference<String>(path), this);
             if (getResult.result()) {
@@ -328,7 +313,12 @@ public class DialogStateManager implements Map<String, Object> {
             return new ResultPair<>(false, instance);
         }
 
-        instance = (TypeT) ObjectPath.tryGetPathValue(this, path, clsType);
+        if (compiled.getScopeSegments() != null) {
+            instance = ObjectPath.tryGetSegmentsValue(memoryScope.getMemory(dialogContext),
+                                                      compiled.getScopeSegments(), clsType);
+        } else {
+            instance = (TypeT) ObjectPath.tryGetPathValue(this, path, clsType);
+        }
 
         return new ResultPair<>(instance != null, instance);
     }
@@ -427,9 +417,16 @@ public class DialogStateManager implements Map<String, Object> {
             value = mapper.valueToTree(value);
         }
 
-        path = transformPath(path);
-        if (trackChange(path, value)) {
-            ObjectPath.setPathValue(this, path, value);
+        CompiledPath compiled = compilePath(path);
+        if (trackChange(compiled.getPath(), value)) {
+            Object memory = compiled.getScopeSegments() != null
+                ? compiled.getMemoryScope().getMemory(dialogContext)
+                : null;
+            if (memory != null) {
+                ObjectPath.setSegmentsValue(memory, compiled.getScopeSegments(), value, true);
+            } else {
+                ObjectPath.setPathValue(this, compiled.getPath(), value);
+            }
         }
 
         // Every set will increase version
@@ -446,9 +443,16 @@ public class DialogStateManager implements Map<String, Object> {
             throw new IllegalArgumentException("Path cannot be null");
         }
 
-        path = transformPath(path);
-        if (trackChange(path, null)) {
-            ObjectPath.removePathValue(this, path);
+        CompiledPath compiled = compilePath(path);
+        if (trackChange(compiled.getPath(), null)) {
+            Object memory = compiled.getScopeSegments() != null
+                ? compiled.getMemoryScope().getMemory(dialogContext)
+                : null;
+            if (memory != null) {
+                ObjectPath.removeSegmentsValue(memory, compiled.getScopeSegments());
+            } else {
+                ObjectPath.removePathValue(this, compiled.getPath());
+            }
         }
     }
 
@@ -652,15 +656,19 @@ public class DialogStateManager implements Map<String, Object> {
      */
     public List<String> trackPaths(Iterable<String> paths) {
         List<String> allPaths = new ArrayList<String>();
+        PathChangeTracker tracker = null;
         for (String path : paths) {
             String tpath = transformPath(path);
             // Track any path that resolves to a constant path
             ArrayList<Object> resolved = ObjectPath.tryResolvePath(this, tpath);
-            String[] segments = resolved.toArray(new String[resolved.size()]);
             if (resolved != null) {
-                String npath = String.join("_", segments);
-                setValue(pathTracker + "." + npath, 0);
+                if (tracker == null) {
+                    tracker = getChangeTracker(true);
+                }
+                String npath = PathChangeTracker.toKey(resolved);
+                tracker.track(npath);
                 allPaths.add(npath);
+                version++;
             }
         }
         return allPaths;
@@ -674,17 +682,41 @@ public class DialogStateManager implements Map<String, Object> {
      * @return True if any path has changed since counter.
      */
     public Boolean anyPathChanged(int counter, Iterable<String> paths) {
-        Boolean found = false;
-        if (paths != null) {
-            for (String path : paths) {
-                int resultValue = getValue(pathTracker + "." + path, -1, Integer.class);
-                if (resultValue != -1 && resultValue > counter) {
-                    found = true;
-                    break;
-                }
+        if (paths == null) {
+            return false;
+        }
+
+        PathChangeTracker tracker = getChangeTracker(false);
+        if (tracker == null) {
+            return false;
+        }
+
+        for (String path : paths) {
+            int resultValue = tracker.getCounter(path);
+            if (resultValue != -1 && resultValue > counter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the change tracker of the dialog memory scope.
+     *
+     * @param create True to start tracking if no path is tracked yet.
+     * @return The tracker, or null if there is none and create is false.
+     */
+    private PathChangeTracker getChangeTracker(boolean create) {
+        MemoryScope dialogScope = getMemoryScope(ScopePath.DIALOG);
+        Object dialogMemory = dialogScope != null ? dialogScope.getMemory(dialogContext) : null;
+        if (dialogMemory == null) {
+            if (create) {
+                throw new IllegalStateException("Cannot track paths. There is no active dialog in the context.");
             }
+            return null;
         }
-        return found;
+
+        return PathChangeTracker.get(dialogContext.getContext().getTurnState(), dialogMemory, create);
     }
 
     @SuppressWarnings("PMD.UnusedFormalParameter")
@@ -723,75 +755,22 @@ public class DialogStateManager implements Map<String, Object> {
     }
 
     private Boolean trackChange(String path, Object value) {
-        Boolean hasPath = false;
         ArrayList<Object> segments = ObjectPath.tryResolvePath(this, path, false);
-        if (segments != null) {
-            String root = segments.size() > 1 ? (String) segments.get(1) : new String();
-
-            // Skip _* as first scope, i.e. _adaptive, _tracker, ...
-            if (!root.startsWith("_")) {
-                List<String> stringSegments = segments.stream().map(Object -> Objects.toString(Object, null))
-                        .collect(Collectors.toList());
-
-                // Convert to a simple path with _ between segments
-                String pathName = String.join("_", stringSegments);
-                String trackedPath = String.format("%s.%s", pathTracker, pathName);
-                Integer counter = null;
-                /**
-                 *
-                 */
-                ResultPair<Integer> result = tryGetValue(trackedPath, Integer.class);
-                if (result.result()) {
-                    if (counter == null) {
-                        counter = getValue(DialogPath.EVENTCOUNTER, 0, Integer.class);
-                    }
-                    setValue(trackedPath, counter);
-                }
-                if (value instanceof Map) {
-                    final int count = counter;
-                    ((Map<String, Object>) value).forEach((key, val) -> {
-                        checkChildren(key, val, trackedPath, count);
-                    });
-                } else if (value instanceof ObjectNode) {
-                    ObjectNode node = (ObjectNode) value;
-                    Iterator<String> fields = node.fieldNames();
-
-                    while (fields.hasNext()) {
-                        String field = fields.next();
-                        checkChildren(field, node.findValue(field), trackedPath, counter);
-                    }
-                }
-            }
-            hasPath = true;
-        }
-        return hasPath;
-    }
-
-    private void checkChildren(String property, Object instance, String path, Integer counter) {
-        // Add new child segment
-        String trackedPath = path + "_" + property.toLowerCase();
-        ResultPair<Integer> pathCheck = tryGetValue(trackedPath, Integer.class);
-        if (pathCheck.result()) {
-            if (counter == null) {
-                counter = getValue(DialogPath.EVENTCOUNTER, 0, Integer.class);
-            }
-            setValue(trackedPath, counter);
+        if (segments == null) {
+            return false;
         }
 
-        if (instance instanceof Map) {
-            final int count = counter;
-            ((Map<String, Object>) instance).forEach((key, value) -> {
-                checkChildren(key, value, trackedPath, count);
-            });
-        } else if (instance instanceof ObjectNode) {
-            ObjectNode node = (ObjectNode) instance;
-            Iterator<String> fields = node.fieldNames();
+        String root = segments.size() > 1 ? Objects.toString(segments.get(1), "") : "";
 
-            while (fields.hasNext()) {
-                String field = fields.next();
-                checkChildren(field, node.findValue(field), trackedPath, counter);
+        // Skip _* as first scope, i.e. _adaptive, _tracker, ...
+        if (!root.startsWith("_")) {
+            PathChangeTracker tracker = getChangeTracker(false);
+            if (tracker != null) {
+                version += tracker.recordChange(segments, value,
+                    () -> getValue(DialogPath.EVENTCOUNTER, 0, Integer.class));
             }
         }
+        return true;
     }
 
     @Override
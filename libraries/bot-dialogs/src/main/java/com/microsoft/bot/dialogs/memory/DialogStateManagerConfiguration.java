@@ -4,22 +4,133 @@
 package com.microsoft.bot.dialogs.memory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import com.microsoft.bot.builder.ComponentRegistration;
+import com.microsoft.bot.builder.TurnContextStateCollection;
+import com.microsoft.bot.dialogs.DialogsComponentRegistration;
 import com.microsoft.bot.dialogs.memory.scopes.MemoryScope;
 
 /**
  * Configures the path resolvers and memory scopes for the dialog state manager.
+ *
+ * A configuration created with the constructor is mutable. Its
+ * {@link #toReadOnly()} copy indexes the memory scopes by name and compiles
+ * paths once, so it can be shared by every turn and every dialog context
+ * without being checked or rebuilt. The copy is reused until the path
+ * resolvers or memory scopes of the mutable configuration change.
+ *
+ * The configuration of a {@link DialogStateManager} during a turn is read-only:
+ * its lists cannot be changed, and its setters throw
+ * UnsupportedOperationException. Change the configuration of the
+ * DialogManager, or the MemoryScope[] and PathResolver[] services in turn
+ * state, instead; the next turn uses them.
  */
 public class DialogStateManagerConfiguration {
 
-    private List<PathResolver> pathResolvers = new ArrayList<PathResolver>();
+    private static volatile ComponentDefaults componentDefaults;
 
-    private List<MemoryScope> memoryScopes = new ArrayList<MemoryScope>();
+    static {
+        ComponentRegistration.add(new DialogsComponentRegistration());
+    }
+
+    private final boolean readOnly;
+
+    private List<PathResolver> pathResolvers;
+
+    private List<MemoryScope> memoryScopes;
+
+    private volatile CompiledPathCache compiledPaths;
 
+    private volatile DialogStateManagerConfiguration readOnlyCopy;
 
     /**
-     * @return Returns the list of PathResolvers.
+     * Initializes a new, empty and modifiable configuration.
+     */
+    public DialogStateManagerConfiguration() {
+        readOnly = false;
+        pathResolvers = new ArrayList<PathResolver>();
+        memoryScopes = new ArrayList<MemoryScope>();
+    }
+
+    private DialogStateManagerConfiguration(List<PathResolver> withPathResolvers, List<MemoryScope> withMemoryScopes) {
+        readOnly = true;
+        pathResolvers = Collections.unmodifiableList(new ArrayList<>(withPathResolvers));
+        memoryScopes = Collections.unmodifiableList(new ArrayList<>(withMemoryScopes));
+        compiledPaths = new CompiledPathCache(pathResolvers, memoryScopes);
+    }
+
+    /**
+     * Builds the default configuration for a turn: the MemoryScope[] and
+     * PathResolver[] services in turn state followed by the scopes and resolvers
+     * of the registered components.
+     *
+     * The components part is built once and reused until the registered
+     * components change, so when turn state holds no scopes or resolvers of its
+     * own this returns the same shared instance every time.
+     *
+     * @param turnState The turn state to look for MemoryScope[] and
+     *                  PathResolver[] services in.
+     * @return A read-only configuration.
+     */
+    public static DialogStateManagerConfiguration createDefault(TurnContextStateCollection turnState) {
+        List<MemoryScope> scopes = new ArrayList<>();
+        List<PathResolver> resolvers = new ArrayList<>();
+        if (turnState != null) {
+            for (Map.Entry<String, Object> entry : turnState.getTurnStateServices().entrySet()) {
+                if (entry.getValue() instanceof MemoryScope[]) {
+                    scopes.addAll(Arrays.asList((MemoryScope[]) entry.getValue()));
+                }
+                if (entry.getValue() instanceof PathResolver[]) {
+                    resolvers.addAll(Arrays.asList((PathResolver[]) entry.getValue()));
+                }
+            }
+        }
+
+        DialogStateManagerConfiguration components = getComponentConfiguration();
+        if (scopes.isEmpty() && resolvers.isEmpty()) {
+            return components;
+        }
+
+        scopes.addAll(components.getMemoryScopes());
+        resolvers.addAll(components.getPathResolvers());
+        return new DialogStateManagerConfiguration(resolvers, scopes);
+    }
+
+    /**
+     * Gets a read-only copy of this configuration. The same copy is returned
+     * until the path resolvers or memory scopes of this configuration change;
+     * later changes are not reflected in a copy already returned.
+     *
+     * @return This configuration if it is already read-only, otherwise a
+     *         read-only copy.
+     */
+    public DialogStateManagerConfiguration toReadOnly() {
+        if (readOnly) {
+            return this;
+        }
+
+        DialogStateManagerConfiguration copy = readOnlyCopy;
+        if (copy == null || !copy.compiledPaths.isCurrent(pathResolvers, memoryScopes)) {
+            copy = new DialogStateManagerConfiguration(pathResolvers, memoryScopes);
+            readOnlyCopy = copy;
+        }
+        return copy;
+    }
+
+    /**
+     * @return True if the configuration cannot be changed.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return Returns the list of PathResolvers. The list is unmodifiable if the
+     *         configuration is read-only.
      */
     public List<PathResolver> getPathResolvers() {
         return this.pathResolvers;
@@ -28,14 +139,17 @@ public class DialogStateManagerConfiguration {
 
     /**
      * @param withPathResolvers Set the list of PathResolvers.
+     * @throws UnsupportedOperationException If the configuration is read-only.
      */
     public void setPathResolvers(List<PathResolver> withPathResolvers) {
+        checkModifiable();
         this.pathResolvers = withPathResolvers;
     }
 
 
     /**
-     * @return Returns the list of MemoryScopes.
+     * @return Returns the list of MemoryScopes. The list is unmodifiable if the
+     *         configuration is read-only.
      */
     public List<MemoryScope> getMemoryScopes() {
         return this.memoryScopes;
@@ -44,10 +158,85 @@ public class DialogStateManagerConfiguration {
 
     /**
      * @param withMemoryScopes Set the list of MemoryScopes.
+     * @throws UnsupportedOperationException If the configuration is read-only.
      */
     public void setMemoryScopes(List<MemoryScope> withMemoryScopes) {
+        checkModifiable();
         this.memoryScopes = withMemoryScopes;
     }
 
+    /**
+     * Gets the compiled paths for the current path resolvers and memory scopes,
+     * rebuilding them if either list changed. A read-only configuration builds
+     * them once.
+     *
+     * @return The compiled path cache.
+     */
+    CompiledPathCache getCompiledPaths() {
+        CompiledPathCache current = compiledPaths;
+        if (readOnly) {
+            return current;
+        }
+
+        if (current == null || !current.isCurrent(pathResolvers, memoryScopes)) {
+            current = new CompiledPathCache(pathResolvers, memoryScopes);
+            compiledPaths = current;
+        }
+        return current;
+    }
+
+    private void checkModifiable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("The DialogStateManagerConfiguration is read-only.");
+        }
+    }
+
+    private static DialogStateManagerConfiguration getComponentConfiguration() {
+        List<Object> components = new ArrayList<>();
+        ComponentRegistration.getComponents().forEach(components::add);
+
+        ComponentDefaults current = componentDefaults;
+        if (current == null || !current.isFor(components)) {
+            List<MemoryScope> scopes = new ArrayList<>();
+            List<PathResolver> resolvers = new ArrayList<>();
+            for (Object component : components) {
+                if (component instanceof ComponentMemoryScopes) {
+                    ((ComponentMemoryScopes) component).getMemoryScopes().forEach(scopes::add);
+                }
+                if (component instanceof ComponentPathResolvers) {
+                    ((ComponentPathResolvers) component).getPathResolvers().forEach(resolvers::add);
+                }
+            }
+
+            current = new ComponentDefaults(components, new DialogStateManagerConfiguration(resolvers, scopes));
+            componentDefaults = current;
+        }
+        return current.configuration;
+    }
 
+    /**
+     * The configuration built from a set of registered components.
+     */
+    private static final class ComponentDefaults {
+        private final List<Object> components;
+        private final DialogStateManagerConfiguration configuration;
+
+        ComponentDefaults(List<Object> withComponents, DialogStateManagerConfiguration withConfiguration) {
+            components = withComponents;
+            configuration = withConfiguration;
+        }
+
+        boolean isFor(List<Object> current) {
+            if (components.size() != current.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < components.size(); i++) {
+                if (components.get(i) != current.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
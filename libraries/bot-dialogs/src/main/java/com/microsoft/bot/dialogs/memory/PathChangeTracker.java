@@ -0,0 +1,292 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs.memory;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.bot.builder.TurnContextStateCollection;
+
+/**
+ * Tracks when watched memory paths change, for
+ * {@link DialogStateManager#trackPaths(Iterable)} and
+ * {@link DialogStateManager#anyPathChanged(int, Iterable)}.
+ *
+ * The counters are persisted in dialog memory under dialog._tracker.paths,
+ * keyed by the path segments joined with "_". This class indexes them in a trie
+ * of those "_" separated tokens, so a change is recorded in time proportional
+ * to the depth of the changed path, and is kept in turn state for the rest of
+ * the turn. All writes to the counters go through the trie and are written
+ * through to dialog memory.
+ */
+final class PathChangeTracker {
+    private static final String TURN_STATE_KEY = PathChangeTracker.class.getName();
+    private static final String TRACKER = "_tracker";
+    private static final String PATHS = "paths";
+    private static final String SEPARATOR = "_";
+
+    private final Object paths;
+    private final Node root = new Node();
+
+    private PathChangeTracker(Object withPaths) {
+        paths = withPaths;
+
+        if (paths instanceof ObjectNode) {
+            Iterator<Map.Entry<String, JsonNode>> fields = ((ObjectNode) paths).fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                load(field.getKey(), field.getValue().asInt());
+            }
+        } else {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) paths).entrySet()) {
+                if (entry.getValue() instanceof Number) {
+                    load(entry.getKey(), ((Number) entry.getValue()).intValue());
+                } else if (entry.getValue() instanceof JsonNode) {
+                    load(entry.getKey(), ((JsonNode) entry.getValue()).asInt());
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the tracker for a dialog's memory, building it once per turn.
+     *
+     * @param turnState    The turn state to keep the tracker in.
+     * @param dialogMemory The memory of the dialog scope.
+     * @param create       True to create the persisted counters if there are
+     *                     none yet.
+     * @return The tracker, or null if the dialog has no tracked paths and create
+     *         is false.
+     */
+    static PathChangeTracker get(TurnContextStateCollection turnState, Object dialogMemory, boolean create) {
+        Object trackedPaths = child(child(dialogMemory, TRACKER, create), PATHS, create);
+        if (trackedPaths == null) {
+            return null;
+        }
+
+        Map<Object, PathChangeTracker> trackers = turnState.get(TURN_STATE_KEY);
+        if (trackers == null) {
+            trackers = new IdentityHashMap<>();
+            turnState.add(TURN_STATE_KEY, trackers);
+        }
+        return trackers.computeIfAbsent(trackedPaths, PathChangeTracker::new);
+    }
+
+    /**
+     * Joins path segments into the key the counter of the path is stored under.
+     *
+     * @param segments The resolved path segments.
+     * @return The tracked path key.
+     */
+    static String toKey(List<Object> segments) {
+        StringBuilder key = new StringBuilder();
+        for (Object segment : segments) {
+            if (key.length() > 0) {
+                key.append(SEPARATOR);
+            }
+            key.append(Objects.toString(segment, null));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Starts tracking a path, resetting its counter to 0.
+     *
+     * @param key The tracked path key.
+     */
+    void track(String key) {
+        Node node = root;
+        for (String token : key.split(SEPARATOR, -1)) {
+            node = node.child(token, true);
+        }
+        if (node.key == null) {
+            node.key = key;
+        }
+        write(node, 0);
+    }
+
+    /**
+     * Gets the counter of a tracked path.
+     *
+     * @param key The tracked path key.
+     * @return The counter when the path last changed, or -1 if it is not
+     *         tracked.
+     */
+    int getCounter(String key) {
+        Node node = find(root, key);
+        return node != null && node.key != null ? node.counter : -1;
+    }
+
+    /**
+     * Records a change to a path. The path and any tracked path below it that
+     * is present in the new value are marked as changed.
+     *
+     * @param segments The resolved segments of the changed path.
+     * @param value    The new value.
+     * @param counter  Supplies the current event counter, only called if a
+     *                 tracked path changed.
+     * @return The number of tracked paths that were marked as changed.
+     */
+    int recordChange(List<Object> segments, Object value, IntSupplier counter) {
+        Node node = root;
+        for (Object segment : segments) {
+            node = find(node, Objects.toString(segment, null));
+            if (node == null) {
+                return 0;
+            }
+        }
+
+        return recordChange(node, value, new LazyCounter(counter));
+    }
+
+    private int recordChange(Node node, Object value, LazyCounter counter) {
+        int changed = 0;
+        if (node.key != null) {
+            write(node, counter.get());
+            changed++;
+        }
+
+        if (node.children == null) {
+            return changed;
+        }
+
+        if (value instanceof ObjectNode) {
+            Iterator<Map.Entry<String, JsonNode>> fields = ((ObjectNode) value).fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                Node child = find(node, field.getKey());
+                if (child != null) {
+                    changed += recordChange(child, field.getValue(), counter);
+                }
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                Node child = find(node, entry.getKey());
+                if (child != null) {
+                    changed += recordChange(child, entry.getValue(), counter);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private void load(String key, int counter) {
+        Node node = root;
+        for (String token : key.split(SEPARATOR, -1)) {
+            node = node.child(token, true);
+        }
+        node.key = key;
+        node.counter = counter;
+    }
+
+    private void write(Node node, int counter) {
+        node.counter = counter;
+        if (paths instanceof ObjectNode) {
+            ((ObjectNode) paths).put(node.key, counter);
+        } else {
+            ((Map<String, Object>) paths).put(node.key, counter);
+        }
+    }
+
+    private static Node find(Node from, String path) {
+        Node node = from;
+        for (String token : path.split(SEPARATOR, -1)) {
+            node = node.child(token, false);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private static Object child(Object parent, String name, boolean create) {
+        if (parent instanceof ObjectNode) {
+            ObjectNode node = (ObjectNode) parent;
+            Iterator<String> fields = node.fieldNames();
+            while (fields.hasNext()) {
+                String field = fields.next();
+                if (field.equalsIgnoreCase(name)) {
+                    JsonNode value = node.get(field);
+                    return value instanceof ObjectNode ? value : null;
+                }
+            }
+            return create ? node.putObject(name) : null;
+        }
+
+        if (parent instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>) parent;
+            Object value = map.get(name);
+            if (value == null) {
+                for (Map.Entry<String, Object> entry : map.entrySet()) {
+                    if (entry.getKey().equalsIgnoreCase(name)) {
+                        value = entry.getValue();
+                        break;
+                    }
+                }
+            }
+            if (value instanceof ObjectNode || value instanceof Map) {
+                return value;
+            }
+            if (value == null && create) {
+                ObjectNode created = JsonNodeFactory.instance.objectNode();
+                map.put(name, created);
+                return created;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * A node of the trie. Tokens are matched ignoring case, like memory paths.
+     */
+    private static final class Node {
+        private Map<String, Node> children;
+        private String key;
+        private int counter;
+
+        Node child(String token, boolean create) {
+            String name = token.toLowerCase(Locale.ROOT);
+            Node child = children != null ? children.get(name) : null;
+            if (child == null && create) {
+                if (children == null) {
+                    children = new HashMap<>();
+                }
+                child = new Node();
+                children.put(name, child);
+            }
+            return child;
+        }
+    }
+
+    /**
+     * Reads the event counter once, the first time a tracked path changes.
+     */
+    private static final class LazyCounter {
+        private final IntSupplier supplier;
+        private boolean loaded;
+        private int value;
+
+        LazyCounter(IntSupplier withSupplier) {
+            supplier = withSupplier;
+        }
+
+        int get() {
+            if (!loaded) {
+                value = supplier.getAsInt();
+                loaded = true;
+            }
+            return value;
+        }
+    }
+}
@@ -3,26 +3,50 @@
 
 package com.microsoft.bot.dialogs.memory.scopes;
 
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
 
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.dialogs.ScopePath;
 import com.microsoft.bot.integration.Configuration;
 
 /**
- * TurnMemoryScope represents memory scoped to the current turn.
+ * SettingsMemoryScope represents the application settings.
+ *
+ * The settings of a {@link Configuration} are loaded once and shared by all
+ * turns until {@link Configuration#getVersion()} changes. Without a
+ * Configuration in turn state the scope is an empty map for the turn.
+ *
+ * <p>
+ * Each turn sees the shared settings through its own overlay. Values set under
+ * the settings scope, such as "settings.key" or "settings.feature.key", are
+ * kept in the overlay for the rest of the turn and never change the shared
+ * settings.
+ * </p>
  */
 public class SettingsMemoryScope extends MemoryScope {
+    private static final Map<Configuration, Snapshot> SNAPSHOTS =
+        Collections.synchronizedMap(new WeakHashMap<Configuration, Snapshot>());
+
     /**
-     * Initializes a new instance of the TurnMemoryScope class.
+     * Initializes a new instance of the SettingsMemoryScope class.
      */
     public SettingsMemoryScope() {
         super(ScopePath.SETTINGS, false);
     }
 
     /**
-     * Get the backing memory for this scope.
+     * Get the backing memory for this scope. When the settings were loaded from
+     * a {@link Configuration}, the memory is an overlay for the turn on top of
+     * the shared settings: values set in it only last for the turn.
      */
     @Override
     public final Object getMemory(DialogContext dialogContext) {
@@ -30,15 +54,15 @@ public class SettingsMemoryScope extends MemoryScope {
             throw new IllegalArgumentException("dialogContext cannot be null.");
         }
 
-        Object returnValue;
-
-        returnValue = dialogContext.getContext().getTurnState().get(ScopePath.TURN);
+        Object returnValue = dialogContext.getContext().getTurnState().get(ScopePath.SETTINGS);
         if (returnValue == null) {
             Configuration configuration = dialogContext.getContext().getTurnState().get(Configuration.class);
             if (configuration != null) {
-                returnValue = loadSettings(configuration);
-                dialogContext.getContext().getTurnState().add(ScopePath.SETTINGS, returnValue);
+                returnValue = new SettingsOverlay(getSettings(configuration));
+            } else {
+                returnValue = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
             }
+            dialogContext.getContext().getTurnState().add(ScopePath.SETTINGS, returnValue);
         }
         return returnValue;
     }
@@ -51,9 +75,30 @@ public class SettingsMemoryScope extends MemoryScope {
         throw new UnsupportedOperationException("You cannot set the memory for a final memory scope");
     }
 
+    /**
+     * Gets the shared, read-only settings of a configuration, loading them if
+     * they were not loaded yet or the configuration changed since.
+     *
+     * @param configuration The configuration to get Settings from.
+     * @return The read-only settings, keyed ignoring case.
+     */
+    protected static SortedMap<String, Object> getSettings(Configuration configuration) {
+        long version = configuration.getVersion();
+        Snapshot snapshot = SNAPSHOTS.get(configuration);
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new Snapshot(version, readOnly(loadSettings(configuration)));
+            SNAPSHOTS.put(configuration, snapshot);
+        }
+        return snapshot.settings;
+    }
+
     /**
      * Loads the settings from configuration.
      *
+     * Each property is available by its full name. Dotted names are also
+     * available as nested settings, so "a.b.c" can be read as settings.a.b.c,
+     * unless a property already uses one of the parent names.
+     *
      * @param configuration The configuration to load Settings from.
      * @return The collection of settings.
      */
@@ -62,12 +107,168 @@ public class SettingsMemoryScope extends MemoryScope {
 
         if (configuration != null) {
             Properties properties = configuration.getProperties();
-            properties.forEach((k, v) -> {
-                settings.put((String) k, v);
-            });
+            if (properties != null) {
+                properties.forEach((k, v) -> {
+                    settings.put((String) k, v);
+                });
+                properties.forEach((k, v) -> {
+                    addNested(settings, ((String) k).split("\\."), v);
+                });
+            }
         }
 
         return settings;
     }
 
+    private static void addNested(TreeMap<String, Object> settings, String[] names, Object value) {
+        TreeMap<String, Object> parent = settings;
+        for (int i = 0; i < names.length - 1; i++) {
+            Object child = parent.get(names[i]);
+            if (child == null) {
+                child = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
+                parent.put(names[i], child);
+            } else if (!(child instanceof TreeMap)) {
+                return;
+            }
+            parent = (TreeMap<String, Object>) child;
+        }
+        parent.put(names[names.length - 1], value);
+    }
+
+    private static SortedMap<String, Object> readOnly(TreeMap<String, Object> settings) {
+        settings.replaceAll((k, v) -> v instanceof TreeMap ? readOnly((TreeMap<String, Object>) v) : v);
+        return Collections.unmodifiableSortedMap(settings);
+    }
+
+    /**
+     * The settings of one turn. Reads fall through to the shared settings until
+     * a key is set in the turn; nested settings are wrapped in their own
+     * overlay when they are first read. Operations that need every key, such as
+     * iterating or removing, copy the remaining shared keys into the overlay
+     * first.
+     */
+    private static final class SettingsOverlay extends AbstractMap<String, Object>
+        implements SortedMap<String, Object> {
+        private final TreeMap<String, Object> local = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
+        private SortedMap<String, Object> shared;
+
+        SettingsOverlay(SortedMap<String, Object> withShared) {
+            shared = withShared;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Object value = local.get(key);
+            if (value != null || local.containsKey(key) || shared == null) {
+                return value;
+            }
+
+            value = shared.get(key);
+            if (value instanceof SortedMap) {
+                value = new SettingsOverlay((SortedMap<String, Object>) value);
+                local.put((String) key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return local.containsKey(key) || shared != null && shared.containsKey(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            Object previous = get(key);
+            local.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return copyShared().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            shared = null;
+            local.clear();
+        }
+
+        @Override
+        public int size() {
+            return copyShared().size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return copyShared().entrySet();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return copyShared().keySet();
+        }
+
+        @Override
+        public Collection<Object> values() {
+            return copyShared().values();
+        }
+
+        @Override
+        public Comparator<? super String> comparator() {
+            return local.comparator();
+        }
+
+        @Override
+        public SortedMap<String, Object> subMap(String fromKey, String toKey) {
+            return copyShared().subMap(fromKey, toKey);
+        }
+
+        @Override
+        public SortedMap<String, Object> headMap(String toKey) {
+            return copyShared().headMap(toKey);
+        }
+
+        @Override
+        public SortedMap<String, Object> tailMap(String fromKey) {
+            return copyShared().tailMap(fromKey);
+        }
+
+        @Override
+        public String firstKey() {
+            return copyShared().firstKey();
+        }
+
+        @Override
+        public String lastKey() {
+            return copyShared().lastKey();
+        }
+
+        private TreeMap<String, Object> copyShared() {
+            if (shared != null) {
+                shared.forEach((key, value) -> {
+                    if (!local.containsKey(key)) {
+                        local.put(key, value instanceof SortedMap
+                            ? new SettingsOverlay((SortedMap<String, Object>) value)
+                            : value);
+                    }
+                });
+                shared = null;
+            }
+            return local;
+        }
+    }
+
+    /**
+     * The settings loaded for one version of a configuration.
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final SortedMap<String, Object> settings;
+
+        Snapshot(long withVersion, SortedMap<String, Object> withSettings) {
+            version = withVersion;
+            settings = withSettings;
+        }
+    }
 }
@@ -13,6 +13,7 @@ import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.connector.Async;
 import com.microsoft.bot.dialogs.choices.Choice;
 import com.microsoft.bot.dialogs.choices.ChoiceFactoryOptions;
+import com.microsoft.bot.dialogs.choices.ChoiceMatcher;
 import com.microsoft.bot.dialogs.choices.ChoiceRecognizers;
 import com.microsoft.bot.dialogs.choices.FindChoicesOptions;
 import com.microsoft.bot.dialogs.choices.FoundChoice;
@@ -39,6 +40,9 @@ public class ChoicePrompt extends Prompt<FoundChoice> {
     private FindChoicesOptions recognizerOptions;
     private ChoiceFactoryOptions choiceOptions;
 
+    // The choices of the last recognized prompt, which retries of the prompt reuse.
+    private volatile ChoiceMatcher choiceMatcher;
+
     /**
      * Initializes a new instance of the {@link ChoicePrompt} class.
      *
@@ -278,7 +282,8 @@ public class ChoicePrompt extends Prompt<FoundChoice> {
 
             FindChoicesOptions opt = recognizerOptions != null ? recognizerOptions : new FindChoicesOptions();
             opt.setLocale(determineCulture(activity, opt));
-            List<ModelResult<FoundChoice>> results = ChoiceRecognizers.recognizeChoices(utterance, choices, opt);
+            List<ModelResult<FoundChoice>> results =
+                ChoiceRecognizers.recognizeChoices(utterance, getChoiceMatcher(choices, opt));
             if (results != null && results.size() > 0) {
                 result.setSucceeded(true);
                 result.setValue(results.get(0).getResolution());
@@ -287,6 +292,15 @@ public class ChoicePrompt extends Prompt<FoundChoice> {
         return CompletableFuture.completedFuture(result);
     }
 
+    private ChoiceMatcher getChoiceMatcher(List<Choice> choices, FindChoicesOptions opt) {
+        ChoiceMatcher matcher = choiceMatcher;
+        if (matcher == null || !matcher.isCompiledFor(choices, opt)) {
+            matcher = ChoiceMatcher.compile(choices, opt);
+            choiceMatcher = matcher;
+        }
+        return matcher;
+    }
+
     private String determineCulture(Activity activity) {
         return determineCulture(activity, null);
     }
@@ -3,9 +3,11 @@
 
 package com.microsoft.bot.dialogs.prompts;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import com.microsoft.bot.builder.TurnContext;
@@ -50,6 +52,7 @@ public abstract class Prompt<T> extends Dialog {
 
     private static final String PERSISTED_OPTIONS = "options";
     private static final String PERSISTED_STATE = "state";
+    private static final Set<String> HANDLED_EVENTS = Collections.singleton(DialogEvents.ACTIVITY_RECEIVED);
     private final PromptValidator<T> validator;
 
     /**
@@ -229,6 +232,18 @@ public abstract class Prompt<T> extends Dialog {
         return onPrompt(turnContext, state, options, false).thenApply(result -> null);
     }
 
+    /**
+     * Gets the names of the events this dialog handles. A prompt handles
+     * {@link DialogEvents#ACTIVITY_RECEIVED} to recognize the user's input.
+     *
+     * @return The names of the handled events, or null if the dialog may handle
+     *         any event.
+     */
+    @Override
+    public Set<String> getHandledEvents() {
+        return overridesEventHooks(Prompt.class) ? super.getHandledEvents() : HANDLED_EVENTS;
+    }
+
     /**
      * Called before an event is bubbled to its parent.
      *
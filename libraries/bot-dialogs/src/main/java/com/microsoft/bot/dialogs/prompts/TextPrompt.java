@@ -3,7 +3,9 @@
 
 package com.microsoft.bot.dialogs.prompts;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import com.microsoft.bot.builder.TurnContext;
@@ -115,6 +117,18 @@ public class TextPrompt extends Prompt<String> {
         return CompletableFuture.completedFuture(result);
     }
 
+    /**
+     * Gets the names of the events this dialog handles. A text prompt does not
+     * recognize the user's input in {@link #onPreBubbleEvent(DialogContext, DialogEvent)}.
+     *
+     * @return The names of the handled events, or null if the dialog may handle
+     *         any event.
+     */
+    @Override
+    public Set<String> getHandledEvents() {
+        return overridesEventHooks(TextPrompt.class) ? super.getHandledEvents() : Collections.emptySet();
+    }
+
     /**
      * Called before an event is bubbled to its parent.
      *
@@ -0,0 +1,263 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.microsoft.bot.builder.ConversationState;
+import com.microsoft.bot.builder.MemoryStorage;
+import com.microsoft.bot.builder.adapters.TestAdapter;
+import com.microsoft.bot.builder.adapters.TestFlow;
+import com.microsoft.bot.dialogs.prompts.PromptOptions;
+import com.microsoft.bot.dialogs.prompts.TextPrompt;
+import com.microsoft.bot.schema.Activity;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactDialogStateTests {
+    private final ObjectMapper mapper = createStorageMapper();
+
+    @Test
+    public void CompactDialogState_RoundTrip() {
+        DialogState dialogState = createStack(3);
+
+        String encoded = CompactDialogState.encode(dialogState);
+        Assert.assertTrue(CompactDialogState.isEncoded(encoded));
+
+        DialogState decoded = CompactDialogState.decode(encoded);
+        Assert.assertEquals(mapper.valueToTree(dialogState), mapper.valueToTree(decoded));
+
+        DialogInstance instance = decoded.getDialogStack().get(0);
+        Assert.assertTrue(instance.getState().get("options") instanceof PromptOptions);
+        Assert.assertEquals("Prompt 0", ((PromptOptions) instance.getState().get("options")).getPrompt().getText());
+        Assert.assertTrue(instance.getState().get("dialogs") instanceof DialogState);
+        Assert.assertEquals(Integer.valueOf(-42), instance.getState().get("int"));
+        Assert.assertEquals(Long.valueOf(Long.MAX_VALUE), instance.getState().get("long"));
+        Assert.assertEquals(Double.valueOf(1.5), instance.getState().get("double"));
+        Assert.assertEquals(Boolean.TRUE, instance.getState().get("bool"));
+    }
+
+    @Test
+    public void CompactDialogState_SmallerThanJson() throws Exception {
+        DialogState dialogState = createStack(8);
+        String json = mapper.writeValueAsString(dialogState);
+        String encoded = CompactDialogState.encode(dialogState);
+        Assert.assertTrue(encoded.length() < json.length());
+    }
+
+    @Test
+    public void CompactDialogState_EncodesOnlyWhenChanged() {
+        DialogState dialogState = createStack(3);
+        CompactDialogState compact = new CompactDialogState(dialogState);
+
+        String encoded = compact.toEncoded();
+        Assert.assertSame(encoded, compact.toEncoded());
+
+        dialogState.getDialogStack().get(0).getState().put("stepIndex", 1);
+        String changed = compact.toEncoded();
+        Assert.assertNotEquals(encoded, changed);
+        Assert.assertEquals(
+            Integer.valueOf(1),
+            CompactDialogState.decode(changed).getDialogStack().get(0).getState().get("stepIndex")
+        );
+
+        CompactDialogState decoded = CompactDialogState.fromEncoded(changed);
+        decoded.getDialogState().getDialogStack().get(0).getState().put("stepIndex", 2);
+        Assert.assertEquals(
+            Integer.valueOf(2),
+            CompactDialogState.decode(decoded.toEncoded()).getDialogStack().get(0).getState().get("stepIndex")
+        );
+    }
+
+    @Test
+    public void CompactDialogState_RejectsOtherValues() {
+        Assert.assertFalse(CompactDialogState.isEncoded(null));
+        Assert.assertFalse(CompactDialogState.isEncoded("hello"));
+        Assert.assertFalse(CompactDialogState.isEncoded(new DialogState()));
+
+        String encoded = CompactDialogState.encode(createStack(1));
+        try {
+            CompactDialogState.decode(encoded.substring(0, encoded.length() / 2 / 4 * 4));
+            Assert.fail("A truncated value should not decode.");
+        } catch (IllegalArgumentException e) {
+        }
+
+        try {
+            CompactDialogState.fromEncoded("[\"dialogStack\"]");
+            Assert.fail("A value that is neither compact nor a JSON object should not be accepted.");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void CompactDialogState_FallsBackToJsonForEmbeddedValues() throws Exception {
+        DialogState dialogState = createStack(2);
+        ObjectNode values = JsonNodeFactory.instance.objectNode();
+        values.putPOJO("raw", new RawValue("{\"answer\":42}"));
+        dialogState.getDialogStack().get(0).getState().put("node", values);
+
+        String encoded = CompactDialogState.encode(dialogState);
+        Assert.assertFalse(CompactDialogState.isEncoded(encoded));
+        Assert.assertTrue(encoded.startsWith("{"));
+
+        DialogState decoded = CompactDialogState.fromEncoded(encoded).getDialogState();
+        DialogInstance instance = decoded.getDialogStack().get(0);
+        Assert.assertTrue(instance.getState().get("options") instanceof PromptOptions);
+        Assert.assertEquals(
+            42,
+            ((JsonNode) instance.getState().get("node")).get("raw").get("answer").asInt()
+        );
+
+        // once the value is gone the compact form is used again
+        instance.getState().remove("node");
+        Assert.assertTrue(CompactDialogState.isEncoded(CompactDialogState.encode(decoded)));
+    }
+
+    @Test
+    public void CompactDialogState_PersistedAcrossTurns() {
+        Map<String, JsonNode> memory = new ConcurrentHashMap<>();
+        MemoryStorage storage = new MemoryStorage(memory);
+
+        createFlow(storage, true)
+            .send("hi")
+            .assertReply("What is your name?")
+            .send("Carlos")
+            .assertReply("Hello Carlos")
+            .startTest()
+            .join();
+
+        Assert.assertTrue(storedDialogState(memory).isArray());
+        Assert.assertEquals(CompactDialogState.class.getName(), storedDialogState(memory).get(0).asText());
+    }
+
+    @Test
+    public void CompactDialogState_MigratesBetweenFormats() {
+        Map<String, JsonNode> memory = new ConcurrentHashMap<>();
+        MemoryStorage storage = new MemoryStorage(memory);
+
+        createFlow(storage, false)
+            .send("hi")
+            .assertReply("What is your name?")
+            .startTest()
+            .join();
+        Assert.assertTrue(storedDialogState(memory).toString().contains("dialogStack"));
+
+        createFlow(storage, true)
+            .send("Carlos")
+            .assertReply("Hello Carlos")
+            .send("hi")
+            .assertReply("What is your name?")
+            .startTest()
+            .join();
+        Assert.assertEquals(CompactDialogState.class.getName(), storedDialogState(memory).get(0).asText());
+
+        createFlow(storage, false)
+            .send("Maria")
+            .assertReply("Hello Maria")
+            .startTest()
+            .join();
+        Assert.assertTrue(storedDialogState(memory).toString().contains("dialogStack"));
+    }
+
+    private static ObjectMapper createStorageMapper() {
+        ObjectMapper storageMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .findAndRegisterModules();
+        storageMapper.enableDefaultTyping();
+        return storageMapper;
+    }
+
+    private static DialogState createStack(int depth) {
+        List<DialogInstance> stack = new ArrayList<>();
+        DialogState inner = null;
+        for (int i = depth - 1; i >= 0; i--) {
+            Map<String, Object> state = new HashMap<>();
+            PromptOptions options = new PromptOptions();
+            options.setPrompt(message(String.format("Prompt %d", i)));
+            options.setRetryPrompt(message("Please try again."));
+            state.put("options", options);
+            state.put("stepIndex", i);
+            state.put("values", new HashMap<>(singletonMap("instanceId", "waterfall-" + i)));
+            state.put("int", -42);
+            state.put("long", Long.MAX_VALUE);
+            state.put("double", 1.5);
+            state.put("bool", true);
+            state.put("list", new ArrayList<>(Arrays.asList("a", "b", "c")));
+            if (inner != null) {
+                state.put("dialogs", inner);
+            }
+
+            DialogInstance instance = new DialogInstance(String.format("component-%d", i), state);
+            inner = new DialogState(new ArrayList<>(Arrays.asList(instance)));
+            if (i == 0) {
+                stack.add(instance);
+            }
+        }
+        return new DialogState(stack);
+    }
+
+    private static Activity message(String text) {
+        Activity activity = Activity.createMessageActivity();
+        activity.setText(text);
+        return activity;
+    }
+
+    private static Map<String, Object> singletonMap(String key, Object value) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+
+    private static JsonNode storedDialogState(Map<String, JsonNode> memory) {
+        for (Map.Entry<String, JsonNode> entry : memory.entrySet()) {
+            if (entry.getKey().contains("/conversations/")) {
+                return entry.getValue().get("DialogState");
+            }
+        }
+        return null;
+    }
+
+    private static TestFlow createFlow(MemoryStorage storage, boolean compact) {
+        ConversationState conversationState = new ConversationState(storage);
+        TestAdapter adapter = new TestAdapter(
+            TestAdapter.createConversationReference("CompactDialogState", "User1", "Bot"))
+            .useStorage(storage)
+            .useBotState(conversationState);
+
+        WaterfallStep[] steps = new WaterfallStep[] {
+            step -> {
+                PromptOptions options = new PromptOptions();
+                options.setPrompt(message("What is your name?"));
+                return step.prompt("name", options);
+            },
+            step -> step.getContext().sendActivity(String.format("Hello %s", step.getResult()))
+                .thenCompose(sent -> step.endDialog())
+        };
+
+        ComponentDialog root = new ComponentDialog("root") { };
+        root.addDialog(new WaterfallDialog("waterfall", Arrays.asList(steps)));
+        root.addDialog(new TextPrompt("name"));
+        root.setInitialDialogId("waterfall");
+
+        DialogManager dm = new DialogManager(root, null);
+        dm.setCompactDialogState(compact);
+        return new TestFlow(adapter, turnContext -> {
+            dm.onTurn(turnContext).join();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+}
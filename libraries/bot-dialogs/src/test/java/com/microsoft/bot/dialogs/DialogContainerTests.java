@@ -3,8 +3,16 @@
 
 package com.microsoft.bot.dialogs;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
+import com.microsoft.bot.builder.MessageFactory;
+import com.microsoft.bot.builder.TurnContextImpl;
+import com.microsoft.bot.builder.adapters.TestAdapter;
+import com.microsoft.bot.dialogs.prompts.ConfirmPrompt;
+import com.microsoft.bot.dialogs.prompts.TextPrompt;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -68,6 +76,74 @@ public class DialogContainerTests {
         Assert.assertEquals(version7, version6);
     }
 
+    @Test
+    public void DialogContainer_HandledEvents() {
+        Assert.assertEquals(Collections.emptySet(), new LamdbaDialog("A", dc -> null).getHandledEvents());
+        Assert.assertEquals(Collections.singleton(DialogEvents.VERSION_CHANGED),
+            new TestContainer().getHandledEvents());
+        Assert.assertEquals(Collections.singleton(DialogEvents.ACTIVITY_RECEIVED),
+            new ConfirmPrompt("confirm").getHandledEvents());
+        Assert.assertEquals(Collections.emptySet(), new TextPrompt("text").getHandledEvents());
+
+        TextPrompt interceptingPrompt = new TextPrompt("text") {
+            @Override
+            protected CompletableFuture<Boolean> onPreBubbleEvent(DialogContext dc, DialogEvent e) {
+                return CompletableFuture.completedFuture(true);
+            }
+        };
+        Assert.assertNull(interceptingPrompt.getHandledEvents());
+        Assert.assertTrue(interceptingPrompt.handlesEvent(DialogEvents.CANCEL_DIALOG));
+    }
+
+    @Test
+    public void DialogContainer_EmitEventSkipsUnhandledEvents() {
+        EventCountingDialog dialog = new EventCountingDialog("counter", Collections.singleton("custom"));
+        DialogSet dialogs = new DialogSet();
+        dialogs.add(dialog);
+
+        TestAdapter adapter = new TestAdapter(
+            TestAdapter.createConversationReference("EmitEventSkipsUnhandledEvents", "testUser", "testBot"));
+        TurnContextImpl context = new TurnContextImpl(adapter, MessageFactory.text("hi"));
+        DialogContext dc = new DialogContext(dialogs, context, new DialogState());
+        dc.beginDialog("counter").join();
+
+        Assert.assertFalse(dc.emitEvent("other").join());
+        Assert.assertEquals(0, dialog.getEventCount());
+
+        Assert.assertTrue(dc.emitEvent("custom").join());
+        Assert.assertEquals(1, dialog.getEventCount());
+    }
+
+    private static class EventCountingDialog extends Dialog {
+        private final Set<String> handledEvents;
+        private int eventCount;
+
+        EventCountingDialog(String dialogId, Set<String> withHandledEvents) {
+            super(dialogId);
+            handledEvents = withHandledEvents;
+        }
+
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        @Override
+        public CompletableFuture<DialogTurnResult> beginDialog(DialogContext dc, Object options) {
+            return CompletableFuture.completedFuture(END_OF_TURN);
+        }
+
+        @Override
+        public Set<String> getHandledEvents() {
+            return handledEvents;
+        }
+
+        @Override
+        protected CompletableFuture<Boolean> onPreBubbleEvent(DialogContext dc, DialogEvent e) {
+            eventCount++;
+            return CompletableFuture.completedFuture(true);
+        }
+    }
+
     public class TestContainer extends DialogContainer {
 
         private String property;
@@ -506,6 +506,45 @@ public class DialogManagerTests {
         Assert.assertTrue(actual.getConfiguration().getPathResolvers().contains(pathResolver));
     }
 
+    @Test
+    public void DialogManager_StateConfigurationChangesAreUsedOnNextTurn() {
+        WaterfallDialog dialog = new WaterfallDialog("test-dialog", null);
+
+        DialogManager dialogManager = new DialogManager(dialog, null);
+        dialogManager.setStateManagerConfiguration(new DialogStateManagerConfiguration());
+        ConversationState conversationState = new ConversationState(new MemoryStorage());
+        TestAdapter adapter = new TestAdapter();
+
+        Activity activity = new Activity(ActivityTypes.MESSAGE);
+        activity.setChannelId("test-channel");
+        ConversationAccount conversation = new ConversationAccount();
+        conversation.setId("test-conversation-id");
+        ChannelAccount channelAccount = new ChannelAccount();
+        channelAccount.setId("test-id");
+        activity.setConversation(conversation);
+        activity.setFrom(channelAccount);
+
+        TurnContext firstTurn = new TurnContextImpl(adapter, activity);
+        firstTurn.getTurnState().add(conversationState);
+        dialogManager.onTurn(firstTurn).join();
+        DialogStateManagerConfiguration first =
+            firstTurn.getTurnState().get(DialogStateManager.class).getConfiguration();
+        Assert.assertTrue(first.isReadOnly());
+        Assert.assertSame(first, dialogManager.getStateManagerConfiguration().toReadOnly());
+
+        CustomMemoryScope memoryScope = new CustomMemoryScope();
+        dialogManager.getStateManagerConfiguration().getMemoryScopes().add(memoryScope);
+
+        TurnContext secondTurn = new TurnContextImpl(adapter, activity);
+        secondTurn.getTurnState().add(conversationState);
+        dialogManager.onTurn(secondTurn).join();
+        DialogStateManagerConfiguration second =
+            secondTurn.getTurnState().get(DialogStateManager.class).getConfiguration();
+
+        Assert.assertFalse(first.getMemoryScopes().contains(memoryScope));
+        Assert.assertTrue(second.getMemoryScopes().contains(memoryScope));
+    }
+
     private Dialog CreateTestDialog(String property) {
         return new AskForNameDialog(property.replace(".", ""), property);
     }
@@ -10,7 +10,9 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -34,6 +36,8 @@ import com.microsoft.bot.dialogs.memory.pathresolvers.DollarPathResolver;
 import com.microsoft.bot.dialogs.memory.pathresolvers.HashPathResolver;
 import com.microsoft.bot.dialogs.memory.pathresolvers.PercentPathResolver;
 import com.microsoft.bot.dialogs.memory.scopes.MemoryScope;
+import com.microsoft.bot.dialogs.memory.scopes.SettingsMemoryScope;
+import com.microsoft.bot.integration.Configuration;
 import com.microsoft.bot.schema.ResultPair;
 
 import org.junit.Rule;
@@ -602,6 +606,131 @@ public class DialogStateManagerTests {
         }).startTest().join();
     }
 
+    @Test
+    public void TestChangeTrackingPersistsCounters() {
+        createDialogContext(dc -> {
+
+            DialogStateManager state = dc.getState();
+            List<String> dialogPaths = state.trackPaths(Arrays.asList("dialog.user.address.city"));
+            Assert.assertEquals(Arrays.asList("dialog_user_address_city"), dialogPaths);
+            Assert.assertEquals(0, state.getIntValue("dialog._tracker.paths.dialog_user_address_city", -1));
+
+            state.setValue("dialog.eventCounter", 5);
+            Map<String, Object> address = new HashMap<String, Object>();
+            address.put("City", "Seattle");
+            state.setValue("dialog.user.address", address);
+
+            Assert.assertTrue(state.anyPathChanged(4, dialogPaths));
+            Assert.assertEquals(5, state.getIntValue("dialog._tracker.paths.dialog_user_address_city", -1));
+            Assert.assertFalse(state.anyPathChanged(0, Arrays.asList("dialog_user_name")));
+            return CompletableFuture.completedFuture(null);
+        }).startTest().join();
+    }
+
+    @Test
+    public void TestDefaultConfigurationIsSharedAndReadOnly() {
+        DialogStateManagerConfiguration configuration = DialogStateManagerConfiguration.createDefault(null);
+        Assert.assertTrue(configuration.isReadOnly());
+        Assert.assertSame(configuration, DialogStateManagerConfiguration.createDefault(null));
+        Assert.assertSame(configuration, configuration.toReadOnly());
+        Assert.assertFalse(configuration.getMemoryScopes().isEmpty());
+        Assert.assertFalse(configuration.getPathResolvers().isEmpty());
+
+        try {
+            configuration.getMemoryScopes().clear();
+            fail("Read-only configuration should not be modified.");
+        } catch (UnsupportedOperationException e) {
+        }
+
+        DialogStateManagerConfiguration custom = new DialogStateManagerConfiguration();
+        custom.getPathResolvers().add(new DollarPathResolver());
+        DialogStateManagerConfiguration copy = custom.toReadOnly();
+        custom.getPathResolvers().add(new HashPathResolver());
+        Assert.assertEquals(1, copy.getPathResolvers().size());
+    }
+
+    @Test
+    public void TestSettingsMemoryScope() {
+        Properties properties = new Properties();
+        properties.setProperty("MicrosoftAppId", "appId");
+        properties.setProperty("feature.retry.count", "3");
+        Configuration configuration = new VersionedConfiguration(properties);
+
+        createDialogContext(dc -> {
+            dc.getContext().getTurnState().add(Configuration.class.getName(), configuration);
+            DialogStateManager state = dc.getState();
+            Assert.assertEquals("appId", state.getStringValue("settings.microsoftappid", null));
+            Assert.assertEquals("3", state.getStringValue("settings.Feature.Retry.Count", null));
+            Assert.assertEquals("3", state.getStringValue("settings['feature.retry.count']", null));
+
+            // values set in settings last for the turn
+            state.setValue("settings.other", "value");
+            state.setValue("settings.feature.retry.count", "5");
+            Assert.assertEquals("value", state.getStringValue("settings.other", null));
+            Assert.assertEquals("5", state.getStringValue("settings.feature.retry.count", null));
+            Assert.assertEquals("appId", state.getStringValue("settings.MicrosoftAppId", null));
+            Assert.assertTrue(((Map<?, ?>) new SettingsMemoryScope().getMemory(dc)).containsKey("feature"));
+
+            // and do not change the settings shared with the other turns
+            dc.getContext().getTurnState().remove(ScopePath.SETTINGS);
+            Assert.assertNull(state.getStringValue("settings.other", null));
+            Assert.assertEquals("3", state.getStringValue("settings.feature.retry.count", null));
+            return CompletableFuture.completedFuture(null);
+        }).startTest().join();
+    }
+
+    @Test
+    public void TestSettingsMemoryScopeReloadsWhenConfigurationVersionChanges() {
+        Properties properties = new Properties();
+        properties.setProperty("retry", "3");
+        VersionedConfiguration configuration = new VersionedConfiguration(properties);
+
+        createDialogContext(dc -> {
+            dc.getContext().getTurnState().add(Configuration.class.getName(), configuration);
+            DialogStateManager state = dc.getState();
+            Assert.assertEquals("3", state.getStringValue("settings.retry", null));
+
+            // unchanged version: the settings loaded before are used
+            properties.setProperty("retry", "4");
+            dc.getContext().getTurnState().remove(ScopePath.SETTINGS);
+            Assert.assertEquals("3", state.getStringValue("settings.retry", null));
+
+            configuration.version.incrementAndGet();
+            dc.getContext().getTurnState().remove(ScopePath.SETTINGS);
+            Assert.assertEquals("4", state.getStringValue("settings.retry", null));
+            return CompletableFuture.completedFuture(null);
+        }).startTest().join();
+    }
+
+    private static class VersionedConfiguration implements Configuration {
+        private final Properties properties;
+        private final AtomicLong version = new AtomicLong();
+
+        VersionedConfiguration(Properties withProperties) {
+            properties = withProperties;
+        }
+
+        @Override
+        public String getProperty(String key) {
+            return properties.getProperty(key);
+        }
+
+        @Override
+        public Properties getProperties() {
+            return properties;
+        }
+
+        @Override
+        public String[] getProperties(String key) {
+            return null;
+        }
+
+        @Override
+        public long getVersion() {
+            return version.get();
+        }
+    }
+
     @Test
     public void TestMemoryScope_PathResolver_Registration() {
         final String key = "testKey";
@@ -6,6 +6,8 @@ package com.microsoft.bot.dialogs;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.microsoft.bot.schema.Serialization;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -470,6 +472,71 @@ public class ObjectPathTests {
         }
     }
 
+    @Test
+    public void tryCompilePath() {
+        List<Object> compiled = ObjectPath.tryCompilePath("bar['options'].numbers[1]");
+        Assert.assertEquals(Arrays.asList("bar", "options", "numbers", 1), compiled);
+        Assert.assertSame(compiled, ObjectPath.tryCompilePath("bar['options'].numbers[1]"));
+
+        // bracket expressions that have to be evaluated are not constant
+        Assert.assertNull(ObjectPath.tryCompilePath("bar.numbers[bar.numIndex]"));
+        Assert.assertNull(ObjectPath.tryCompilePath("bar.numbers[1"));
+    }
+
+    @Test
+    public void setPathValueOnPojo() {
+        PathTest test = new PathTest();
+        test.bar = new Bar();
+
+        ObjectPath.setPathValue(test, "Test", "updated", false);
+        ObjectPath.setPathValue(test, "bar.numIndex", 7, false);
+
+        Assert.assertEquals("updated", test.test);
+        Assert.assertEquals(Integer.valueOf(7), test.bar.numIndex);
+        Assert.assertEquals("updated", ObjectPath.getPathValue(test, "TEST", String.class));
+    }
+
+    @Test
+    public void propertiesOfPojo() {
+        Options options = new Options();
+
+        Assert.assertEquals(
+            Arrays.asList("firstName", "lastName", "age", "bool", "location"),
+            ObjectPath.getProperties(options)
+        );
+        Assert.assertTrue(ObjectPath.containsProperty(options, "FIRSTNAME"));
+        Assert.assertFalse(ObjectPath.containsProperty(options, "middleName"));
+        Assert.assertSame(ClassMetadata.forClass(Options.class), ClassMetadata.forClass(options.getClass()));
+    }
+
+    @Test
+    public void propertiesSkipSyntheticFields() {
+        // the inner class has a synthetic reference to the enclosing test
+        InnerPojo pojo = new InnerPojo();
+
+        Assert.assertEquals(Arrays.asList("name"), ObjectPath.getProperties(pojo));
+        Assert.assertFalse(ObjectPath.containsProperty(pojo, "this$0"));
+    }
+
+    @Test
+    public void privateFieldsOfOtherClassesAreNotAccessible() {
+        PrivatePojo pojo = new PrivatePojo();
+
+        Assert.assertEquals(Arrays.asList("name"), ObjectPath.getProperties(pojo));
+        Assert.assertNull(ObjectPath.tryGetPathValue(pojo, "name", String.class));
+
+        ObjectPath.setPathValue(pojo, "name", "changed");
+        Assert.assertEquals("private", pojo.name);
+    }
+
+    private class InnerPojo {
+        public String name;
+    }
+
+    private static class PrivatePojo {
+        private String name = "private";
+    }
+
     // Test classes
     //
     // Note: This is different from the support dotnet provides due to Java
@@ -10,9 +10,13 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+import com.microsoft.bot.builder.BotMetricsConstants;
+import com.microsoft.bot.builder.BotMetricsRegistry;
 import com.microsoft.bot.builder.BotTelemetryClient;
+import com.microsoft.bot.builder.InMemoryBotMetrics;
 import com.microsoft.bot.builder.IntentScore;
 import com.microsoft.bot.builder.MessageFactory;
+import com.microsoft.bot.builder.RecognizerConvert;
 import com.microsoft.bot.builder.RecognizerResult;
 import com.microsoft.bot.builder.TurnContextImpl;
 import com.microsoft.bot.builder.adapters.TestAdapter;
@@ -57,6 +61,35 @@ public class RecognizerTest {
         verify(telemetryClient, atLeastOnce()).trackEvent("MyRecognizerSubclassResult", expectedProperties, null);
     }
 
+    @Test
+    public void RecordsRecognizeTimer() {
+        InMemoryBotMetrics metrics = new InMemoryBotMetrics();
+        BotMetricsRegistry.setMetrics(metrics);
+        try {
+            MyRecognizerSubclass recognizer = new MyRecognizerSubclass();
+            TestAdapter adapter = new TestAdapter(
+                TestAdapter.createConversationReference("RecognizerRecordsTimer", "testUser", "testBot"));
+            Activity activity = MessageFactory.text("hi");
+            TurnContextImpl context = new TurnContextImpl(adapter, activity);
+            DialogContext dc = new DialogContext(new DialogSet(), context, new DialogState());
+
+            recognizer.recognize(dc, activity).join();
+            recognizer.recognize(dc, activity, null, null, MyRecognizerConvert.class).join();
+            recognizer.recognize(dc, activity, null, null).join();
+
+            // each recognition is recorded once, whichever overload started it
+            Assert.assertEquals(3, metrics.getTimer(BotMetricsConstants.RECOGNIZE).getCount());
+        } finally {
+            BotMetricsRegistry.setMetrics(null);
+        }
+    }
+
+    public static class MyRecognizerConvert implements RecognizerConvert {
+        @Override
+        public void convert(Object result) {
+        }
+    }
+
     /**
      * Subclass to test
      * {@link Recognizer#fillRecognizerResultTelemetryProperties(RecognizerResult,
@@ -70,7 +103,15 @@ public class RecognizerTest {
                                                              Map<String, String> telemetryProperties,
                                                              Map<String, Double> telemetryMetrics
         ) {
+            return timeRecognize(dialogContext, () -> recognizeText(dialogContext, activity,
+                                                                    telemetryProperties, telemetryMetrics));
+        }
 
+        private CompletableFuture<RecognizerResult> recognizeText(DialogContext dialogContext,
+                                                                  Activity activity,
+                                                                  Map<String, String> telemetryProperties,
+                                                                  Map<String, Double> telemetryMetrics
+        ) {
             String text = activity.getText() != null ? activity.getText() : "";
 
             RecognizerResult recognizerResult =  new RecognizerResult();
@@ -3,6 +3,7 @@
 
 package com.microsoft.bot.dialogs.choices;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.Assert;
@@ -192,10 +193,64 @@ public class ChoicesRecognizerTests {
         Assert.assertEquals(0, found.size());
     }
 
+    //
+    // ChoiceMatcher
+    //
+
+    @Test
+    public void shouldReuseACompiledMatcher() {
+        List<Choice> choices = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Choice choice = new Choice(String.format("product %d", i));
+            choice.setSynonyms(Arrays.asList(String.format("item %d", i), String.format("sku-%d", i)));
+            choices.add(choice);
+        }
+
+        ChoiceMatcher matcher = ChoiceMatcher.compile(choices, null);
+        for (String utterance : Arrays.asList("I'd like product 42 please", "sku-7 and item 310", "nothing", "third")) {
+            Assert.assertEquals(
+                describe(ChoiceRecognizers.recognizeChoices(utterance, choices, null)),
+                describe(ChoiceRecognizers.recognizeChoices(utterance, matcher)));
+        }
+
+        List<ModelResult<FoundChoice>> found = matcher.findChoices("I'd like SKU-7 and Product 310");
+        Assert.assertEquals(2, found.size());
+        assertChoice(found.get(0), "product 7", 7, 1.0f, "sku-7");
+        assertChoice(found.get(1), "product 310", 310, 1.0f, "product 310");
+    }
+
+    @Test
+    public void shouldDetectChangesToCompiledChoices() {
+        List<Choice> choices = new ArrayList<>(Arrays.asList(new Choice("red"), new Choice("green")));
+        FindChoicesOptions options = new FindChoicesOptions();
+        ChoiceMatcher matcher = ChoiceMatcher.compile(choices, options);
+
+        Assert.assertTrue(matcher.isCompiledFor(Arrays.asList(new Choice("red"), new Choice("green")), options));
+        Assert.assertTrue(matcher.isCompiledFor(choices, new FindChoicesOptions()));
+        Assert.assertFalse(matcher.isCompiledFor(choices, null));
+        Assert.assertFalse(matcher.isCompiledFor(Arrays.asList(new Choice("red"), new Choice("blue")), options));
+
+        choices.get(1).setSynonyms(Arrays.asList("verde"));
+        Assert.assertFalse(matcher.isCompiledFor(choices, options));
+
+        options.setLocale("es-es");
+        Assert.assertFalse(matcher.isCompiledFor(Arrays.asList(new Choice("red"), new Choice("green")), options));
+    }
+
     //
     // Helper methods
     //
 
+    private static String describe(List<ModelResult<FoundChoice>> found) {
+        StringBuilder result = new StringBuilder();
+        for (ModelResult<FoundChoice> r : found) {
+            result.append(String.format("%d-%d %s %s %d %s %f;", r.getStart(), r.getEnd(), r.getText(),
+                r.getResolution().getValue(), r.getResolution().getIndex(), r.getResolution().getSynonym(),
+                r.getResolution().getScore()));
+        }
+        return result.toString();
+    }
+
     private static <T> void assertResult(ModelResult<T> result, int start, int end, String text) {
         Assert.assertEquals(start, result.getStart());
         Assert.assertEquals(end, result.getEnd());
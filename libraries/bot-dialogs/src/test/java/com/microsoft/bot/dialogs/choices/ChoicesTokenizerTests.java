@@ -69,6 +69,31 @@ public class ChoicesTokenizerTests {
         assertToken(tokens.get(3), 9, 10, "\uD83D\uDE00");
     }
 
+    @Test
+    public void shouldTokenizeLongTokens() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            text.append(i % 2 == 0 ? 'A' : 'b');
+        }
+        String word = text.toString();
+
+        List<Token> tokens = new Tokenizer().tokenize(word + ", " + word, null);
+        Assert.assertEquals(2, tokens.size());
+        assertToken(tokens.get(0), 0, 9999, word, word.toLowerCase());
+        assertToken(tokens.get(1), 10002, 20001, word, word.toLowerCase());
+    }
+
+    @Test
+    public void shouldKeepAnExplicitlyNormalizedText() {
+        Token token = new Tokenizer().tokenize("Food", null).get(0);
+        token.setNormalized("meal");
+        Assert.assertEquals("meal", token.getNormalized());
+
+        token = new Tokenizer().tokenize("Food", null).get(0);
+        token.setText("Drink");
+        assertToken(token, 0, 3, "Drink", "food");
+    }
+
     private static void assertToken(Token token, int start, int end, String text) {
         assertToken(token, start, end, text, null);
     }
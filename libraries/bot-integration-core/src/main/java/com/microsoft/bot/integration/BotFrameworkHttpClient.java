@@ -4,21 +4,28 @@
 package com.microsoft.bot.integration;
 
 import com.microsoft.bot.connector.ConversationConstants;
+import com.microsoft.bot.connector.DispatcherFactory;
+import com.microsoft.bot.connector.ExecutorFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.microsoft.bot.connector.authentication.CredentialProvider;
 import com.microsoft.bot.connector.authentication.MicrosoftAppCredentials;
 import com.microsoft.bot.connector.authentication.MicrosoftGovernmentAppCredentials;
 import com.microsoft.bot.restclient.serializer.JacksonAdapter;
 
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import com.microsoft.bot.connector.authentication.ChannelProvider;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -50,8 +57,14 @@ import java.net.URI;
  * (External service -> Bot) which is done via PostActivity(botId, endpoint,
  * activity)The latter is used by external services such as webjobs that need to
  * post activities to the bot using the bots own credentials.
+ *
+ * Requests are sent asynchronously and never block the calling thread. Each
+ * skill gets its own connection pool and concurrency limit, and call metrics
+ * are kept per skill id. Responses are completed on the SDK executor, so the
+ * continuations of a call never hold one of the skill's request slots. Call
+ * {@link #close()} to release the threads and connections of the skills.
  */
-public class BotFrameworkHttpClient extends BotFrameworkClient {
+public class BotFrameworkHttpClient extends BotFrameworkClient implements AutoCloseable {
 
     private static Map<String, AppCredentials> appCredentialMapCache = new HashMap<String, AppCredentials>();;
 
@@ -61,6 +74,21 @@ public class BotFrameworkHttpClient extends BotFrameworkClient {
 
     private OkHttpClient httpClient;
 
+    private static final ObjectMapper SERIALIZER = new JacksonAdapter().serializer();
+
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
+
+    /**
+     * The default maximum number of concurrent requests to a single skill.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS_PER_SKILL = 64;
+
+    private volatile int maxConcurrentRequestsPerSkill = DEFAULT_MAX_CONCURRENT_REQUESTS_PER_SKILL;
+
+    private final Map<String, SkillChannel> skillChannels = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
     /**
      * Initializes a new instance of the {@link BotFrameworkHttpClient} class.
      *
@@ -96,6 +124,31 @@ public class BotFrameworkHttpClient extends BotFrameworkClient {
     @Override
     public <T extends Object> CompletableFuture<TypedInvokeResponse<T>> postActivity(String fromBotId, String toBotId,
             URI toUrl, URI serviceUrl, String conversationId, Activity activity, Class<T> type) {
+        return postActivity(toBotId, fromBotId, toBotId, toUrl, serviceUrl, conversationId, activity, type);
+    }
+
+    /**
+     * Forwards an activity to a skill (bot), tracking the call under the given
+     * skill id.
+     *
+     * @param skillId        The id used to limit concurrency and report metrics
+     *                       for the skill, usually the BotFrameworkSkill id.
+     * @param fromBotId      The MicrosoftAppId of the bot sending the activity.
+     * @param toBotId        The MicrosoftAppId of the bot receiving the activity.
+     * @param toUrl          The URL of the bot receiving the activity.
+     * @param serviceUrl     The callback Url for the skill host.
+     * @param conversationId A conversation ID to use for the conversation with the
+     *                       skill.
+     * @param activity       activity to forward.
+     * @param type           Type of <T>.
+     * @param <T>            Type of expected TypedInvokeResponse.
+     *
+     * @return task with optional invokeResponse.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    protected <T extends Object> CompletableFuture<TypedInvokeResponse<T>> postActivity(String skillId,
+            String fromBotId, String toBotId, URI toUrl, URI serviceUrl, String conversationId, Activity activity,
+            Class<T> type) {
 
         return getAppCredentials(fromBotId, toBotId).thenCompose(appCredentials -> {
             if (appCredentials == null) {
@@ -136,7 +189,7 @@ public class BotFrameworkHttpClient extends BotFrameworkClient {
                 }
                 activityClone.getRecipient().setRole(RoleTypes.SKILL);
 
-                return securePostActivity(toUrl, activityClone, token, type);
+                return securePostActivity(skillId, toUrl, activityClone, token, type);
             });
         });
     }
@@ -173,7 +226,7 @@ public class BotFrameworkHttpClient extends BotFrameworkClient {
 
             return getToken(appCredentials).thenCompose(token -> {
                 // post the activity to the url using the bot's credentials.
-                return securePostActivity(botEndpoint, activity, token, type);
+                return securePostActivity(botId, botEndpoint, activity, token, type);
             });
         });
     }
@@ -197,31 +250,90 @@ public class BotFrameworkHttpClient extends BotFrameworkClient {
     }
 
     private <T extends Object> CompletableFuture<TypedInvokeResponse<T>> securePostActivity(
+        String skillId,
         URI toUrl,
         Activity activity,
         String token,
         Class<T> type
     ) {
-        String jsonContent = "";
+        byte[] jsonContent;
         try {
-            ObjectMapper mapper = new JacksonAdapter().serializer();
-            jsonContent = mapper.writeValueAsString(activity);
+            jsonContent = SERIALIZER.writeValueAsBytes(activity);
         } catch (JsonProcessingException e) {
             return Async.completeExceptionally(
                     new RuntimeException("securePostActivity: Unable to serialize the Activity"));
         }
 
+        RequestBody body = RequestBody.create(JSON_MEDIA_TYPE, jsonContent);
+        Request request = buildRequest(activity, toUrl, body, token);
+
+        SkillChannel channel = getSkillChannel(skillId);
+        if (channel == null) {
+            return Async.completeExceptionally(
+                new IllegalStateException("securePostActivity: The BotFrameworkHttpClient is closed."));
+        }
+
+        long startNanos = channel.metrics.callStarted();
+        CompletableFuture<TypedInvokeResponse<T>> result = new CompletableFuture<>();
+        channel.client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                channel.metrics.callCompleted(startNanos, 0);
+                ExecutorFactory.completeOnExecutor(result, null, e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                // the call is recorded once the body has been read
+                try (ResponseBody responseBody = response.body()) {
+                    T value = readBody(responseBody, type);
+                    channel.metrics.callCompleted(startNanos, response.code());
+                    ExecutorFactory.completeOnExecutor(
+                        result, new TypedInvokeResponse<T>(response.code(), value), null);
+                } catch (IOException e) {
+                    channel.metrics.callCompleted(startNanos, 0);
+                    ExecutorFactory.completeOnExecutor(result, null, e);
+                }
+            }
+        });
+        return result;
+    }
+
+
+    private static <T> T readBody(ResponseBody body, Class<T> type) throws IOException {
+        if (body == null || body.contentLength() == 0) {
+            return null;
+        }
+
         try {
-            RequestBody body = RequestBody.create(MediaType.parse("application/json; charset=utf-8"), jsonContent);
-            Request request = buildRequest(activity, toUrl, body, token);
-            Response response = httpClient.newCall(request).execute();
-
-            T result = Serialization.getAs(response.body().string(), type);
-            TypedInvokeResponse<T> returnValue = new TypedInvokeResponse<T>(response.code(), result);
-            return CompletableFuture.completedFuture(returnValue);
-        } catch (IOException e) {
-            return Async.completeExceptionally(e);
+            return Serialization.readValue(body.byteStream(), type);
+        } catch (JsonProcessingException e) {
+            // Unparseable bodies are reported as a null invoke body, as before.
+            return null;
+        }
+    }
+
+    /**
+     * Gets the channel of a skill, or null if the client is closed.
+     */
+    private SkillChannel getSkillChannel(String skillId) {
+        if (closed) {
+            return null;
+        }
+
+        String key = skillId != null ? skillId : "";
+        SkillChannel channel = skillChannels.computeIfAbsent(
+            key,
+            id -> new SkillChannel(id, getHttpClient(), maxConcurrentRequestsPerSkill)
+        );
+
+        if (closed) {
+            // the client was closed while the channel was created
+            skillChannels.remove(key, channel);
+            channel.close();
+            return null;
         }
+        return channel;
     }
 
     private Request buildRequest(Activity activity, URI url, RequestBody body, String token) {
@@ -303,9 +415,98 @@ public class BotFrameworkHttpClient extends BotFrameworkClient {
     /**
      * Gets the HttpClient for this adapter.
      *
+     * Calls to skills use clients derived from this one, each with its own
+     * connection pool and dispatcher so a slow skill can't exhaust connections or
+     * request slots used by other skills.
+     *
      * @return the OkhttpClient value as a getHttpClient().
      */
     public OkHttpClient getHttpClient() {
         return httpClient;
     }
+
+    /**
+     * Gets the maximum number of concurrent requests to a single skill. Further
+     * requests are queued without blocking the caller.
+     *
+     * @return The maximum number of concurrent requests per skill.
+     */
+    public int getMaxConcurrentRequestsPerSkill() {
+        return maxConcurrentRequestsPerSkill;
+    }
+
+    /**
+     * Sets the maximum number of concurrent requests to a single skill. Applies
+     * to the skills already called as well as to new ones.
+     *
+     * @param withMaxConcurrentRequests The maximum number of concurrent requests
+     *                                  per skill.
+     */
+    public void setMaxConcurrentRequestsPerSkill(int withMaxConcurrentRequests) {
+        if (withMaxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequestsPerSkill must be at least 1.");
+        }
+        maxConcurrentRequestsPerSkill = withMaxConcurrentRequests;
+        skillChannels.values().forEach(channel -> channel.setMaxConcurrentRequests(withMaxConcurrentRequests));
+    }
+
+    /**
+     * Gets the call metrics for a skill.
+     *
+     * @param skillId The skill id, as passed to postActivity.
+     * @return The metrics for the skill, or null if the skill has not been called.
+     */
+    public SkillCallMetrics getSkillMetrics(String skillId) {
+        SkillChannel channel = skillChannels.get(skillId);
+        return channel != null ? channel.metrics : null;
+    }
+
+    /**
+     * Gets the call metrics for every skill called by this client.
+     *
+     * @return The metrics, keyed by skill id.
+     */
+    public Map<String, SkillCallMetrics> getSkillMetrics() {
+        Map<String, SkillCallMetrics> metrics = new HashMap<>();
+        skillChannels.forEach((id, channel) -> metrics.put(id, channel.metrics));
+        return metrics;
+    }
+
+    /**
+     * Shuts down the dispatcher threads and closes the pooled connections of
+     * every skill called by this client. Calls made after the client is closed
+     * complete exceptionally with an IllegalStateException.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        skillChannels.values().forEach(SkillChannel::close);
+        skillChannels.clear();
+    }
+
+    /**
+     * The HTTP client and metrics used for calls to a single skill.
+     */
+    private static final class SkillChannel {
+        private final OkHttpClient client;
+        private final SkillCallMetrics metrics;
+
+        SkillChannel(String skillId, OkHttpClient baseClient, int maxConcurrentRequests) {
+            client = baseClient.newBuilder()
+                .dispatcher(DispatcherFactory.newDispatcher(maxConcurrentRequests))
+                .connectionPool(new ConnectionPool())
+                .build();
+            metrics = new SkillCallMetrics(skillId);
+        }
+
+        void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            client.dispatcher().setMaxRequests(maxConcurrentRequests);
+            client.dispatcher().setMaxRequestsPerHost(maxConcurrentRequests);
+        }
+
+        void close() {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
 }
@@ -30,4 +30,15 @@ public interface Configuration {
      * @return The property values.
      */
     String[] getProperties(String key);
+
+    /**
+     * Returns a number that changes whenever the properties change. Consumers
+     * that keep a view of the properties compare it to know when to reload.
+     * Configurations that never change can rely on the default of 0.
+     *
+     * @return The version of the properties.
+     */
+    default long getVersion() {
+        return 0;
+    }
 }
@@ -0,0 +1,135 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.integration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and error counters for the calls a {@link BotFrameworkHttpClient}
+ * makes to a single skill.
+ *
+ * Instances are kept per skill id by the client and can be read at any time
+ * through {@link BotFrameworkHttpClient#getSkillMetrics(String)}.
+ */
+public class SkillCallMetrics {
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_MULTIPLE_CHOICES = 300;
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String skillId;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder errorResponses = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    /**
+     * Initializes a new instance of the {@link SkillCallMetrics} class.
+     *
+     * @param withSkillId The id of the skill these metrics are for.
+     */
+    public SkillCallMetrics(String withSkillId) {
+        skillId = withSkillId;
+    }
+
+    /**
+     * Gets the id of the skill these metrics are for.
+     *
+     * @return The skill id.
+     */
+    public String getSkillId() {
+        return skillId;
+    }
+
+    /**
+     * Gets the number of completed calls, successful or not.
+     *
+     * @return The number of completed calls.
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of calls that failed without receiving an HTTP response.
+     *
+     * @return The number of transport failures.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Gets the number of calls that received a non-success HTTP status code.
+     *
+     * @return The number of error responses.
+     */
+    public long getErrorResponseCount() {
+        return errorResponses.sum();
+    }
+
+    /**
+     * Gets the number of calls currently waiting for a response.
+     *
+     * @return The number of in-flight calls.
+     */
+    public long getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the average latency of completed calls.
+     *
+     * @return The average latency in milliseconds, or 0 if no call has completed.
+     */
+    public double getAverageLatencyMillis() {
+        long count = requests.sum();
+        if (count == 0) {
+            return 0;
+        }
+        return totalLatencyNanos.sum() / NANOS_PER_MILLI / count;
+    }
+
+    /**
+     * Gets the highest latency of a completed call.
+     *
+     * @return The maximum latency in milliseconds.
+     */
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    /**
+     * Records the start of a call.
+     *
+     * @return The start timestamp to pass back to {@link #callCompleted}.
+     */
+    long callStarted() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the completion of a call.
+     *
+     * @param startNanos The timestamp returned by {@link #callStarted()}.
+     * @param statusCode The HTTP status code, or 0 if no response was received.
+     */
+    void callCompleted(long startNanos, int statusCode) {
+        long elapsed = System.nanoTime() - startNanos;
+        inFlight.decrementAndGet();
+        requests.increment();
+        totalLatencyNanos.add(elapsed);
+        maxLatencyNanos.accumulateAndGet(elapsed, Math::max);
+
+        if (statusCode == 0) {
+            failures.increment();
+        } else if (statusCode < HTTP_OK || statusCode >= HTTP_MULTIPLE_CHOICES) {
+            errorResponses.increment();
+        }
+    }
+}
@@ -60,8 +60,8 @@ public class SkillHttpClient extends BotFrameworkHttpClient {
             String fromBotId, BotFrameworkSkill toSkill, URI callbackUrl, Activity activity, Class<T> type) {
         return getSkillConversationId(originatingAudience, fromBotId, toSkill, activity)
                 .thenCompose(skillConversationId -> {
-                    return postActivity(fromBotId, toSkill.getAppId(), toSkill.getSkillEndpoint(), callbackUrl,
-                            skillConversationId, activity, type);
+                    return postActivity(toSkill.getId(), fromBotId, toSkill.getAppId(), toSkill.getSkillEndpoint(),
+                            callbackUrl, skillConversationId, activity, type);
                 });
 
     }
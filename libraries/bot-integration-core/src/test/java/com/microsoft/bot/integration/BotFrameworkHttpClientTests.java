@@ -0,0 +1,176 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.integration;
+
+import com.microsoft.bot.builder.TypedInvokeResponse;
+import com.microsoft.bot.connector.authentication.AppCredentials;
+import com.microsoft.bot.connector.authentication.MicrosoftAppCredentials;
+import com.microsoft.bot.connector.authentication.SimpleCredentialProvider;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ConversationAccount;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class BotFrameworkHttpClientTests {
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile int statusCode = 200;
+
+    private BotFrameworkHttpClient client;
+
+    @Before
+    public void initialize() {
+        // answers every request without a network call, once released
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .addInterceptor(chain -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return new Response.Builder()
+                    .request(chain.request())
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(statusCode)
+                    .message("")
+                    .body(ResponseBody.create("{\"value\":\"done\"}", MediaType.parse("application/json")))
+                    .build();
+            })
+            .build();
+
+        client = new BotFrameworkHttpClient(new SimpleCredentialProvider(), null) {
+            @Override
+            public OkHttpClient getHttpClient() {
+                return httpClient;
+            }
+
+            @Override
+            protected CompletableFuture<AppCredentials> buildCredentials(String appId, String oAuthScope) {
+                return CompletableFuture.completedFuture(new MicrosoftAppCredentials(appId, "password") {
+                    @Override
+                    public CompletableFuture<String> getToken() {
+                        return CompletableFuture.completedFuture("token");
+                    }
+                });
+            }
+        };
+    }
+
+    @After
+    public void cleanup() {
+        release.countDown();
+        client.close();
+    }
+
+    @Test
+    public void LimitsConcurrentRequestsPerSkill() throws InterruptedException {
+        client.setMaxConcurrentRequestsPerSkill(2);
+
+        List<CompletableFuture<TypedInvokeResponse<Result>>> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            calls.add(post("skill-a"));
+        }
+        CompletableFuture<TypedInvokeResponse<Result>> otherSkill = post("skill-b");
+
+        waitFor(() -> running.get() == 3);
+        Thread.sleep(100);
+        Assert.assertEquals(3, running.get());
+        Assert.assertEquals(5, client.getSkillMetrics("skill-a").getInFlightCount());
+
+        release.countDown();
+        for (CompletableFuture<TypedInvokeResponse<Result>> call : calls) {
+            Assert.assertEquals("done", call.join().getTypedBody().value);
+        }
+        otherSkill.join();
+        Assert.assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    public void CompletesOffTheDispatcherThread() {
+        release.countDown();
+
+        String thread = post("skill-a").thenApply(response -> Thread.currentThread().getName()).join();
+        Assert.assertFalse(thread, thread.startsWith("OkHttp"));
+    }
+
+    @Test
+    public void RecordsSkillCallMetrics() {
+        release.countDown();
+        post("skill-a").join();
+        statusCode = 500;
+        TypedInvokeResponse<Result> response = post("skill-a").join();
+
+        Assert.assertEquals(500, response.getStatus());
+        SkillCallMetrics metrics = client.getSkillMetrics("skill-a");
+        Assert.assertEquals("skill-a", metrics.getSkillId());
+        Assert.assertEquals(2, metrics.getRequestCount());
+        Assert.assertEquals(1, metrics.getErrorResponseCount());
+        Assert.assertEquals(0, metrics.getFailureCount());
+        Assert.assertEquals(0, metrics.getInFlightCount());
+        Assert.assertNull(client.getSkillMetrics("skill-b"));
+        Assert.assertEquals(1, client.getSkillMetrics().size());
+    }
+
+    @Test
+    public void RejectsCallsAfterClose() {
+        release.countDown();
+        post("skill-a").join();
+        client.close();
+
+        try {
+            post("skill-a").join();
+            Assert.fail("expected the call to fail");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertTrue(client.getSkillMetrics().isEmpty());
+    }
+
+    private CompletableFuture<TypedInvokeResponse<Result>> post(String skillId) {
+        Activity activity = Activity.createMessageActivity();
+        activity.setConversation(new ConversationAccount("conversation-id"));
+        return client.postActivity(
+            skillId,
+            "bot-id",
+            skillId,
+            URI.create("http://" + skillId + "/api/messages"),
+            URI.create("http://localhost/api/skills"),
+            "skill-conversation-id",
+            activity,
+            Result.class
+        );
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(50);
+        }
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+
+    public static class Result {
+        public String value;
+    }
+}
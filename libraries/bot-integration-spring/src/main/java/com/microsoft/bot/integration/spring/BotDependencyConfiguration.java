@@ -9,6 +9,7 @@ import com.microsoft.bot.builder.Storage;
 import com.microsoft.bot.builder.UserState;
 import com.microsoft.bot.builder.inspection.InspectionState;
 import com.microsoft.bot.connector.ExecutorFactory;
+import com.microsoft.bot.connector.ExecutorStrategy;
 import com.microsoft.bot.connector.authentication.AuthenticationConfiguration;
 import com.microsoft.bot.connector.authentication.ChannelProvider;
 import com.microsoft.bot.connector.authentication.CredentialProvider;
@@ -45,13 +46,37 @@ public abstract class BotDependencyConfiguration {
      * multiple thread pools.
      * </p>
      *
+     * <p>
+     * The ExecutorService is created by the strategy returned from
+     * {@link #getExecutorStrategy()}, which must be selected before the SDK
+     * first uses the executor. The ExecutorService is shared and is never shut
+     * down by the SDK.
+     * </p>
+     *
      * @return An ExecutorService.
      */
     @Bean
     public ExecutorService getExecutorService() {
+        ExecutorFactory.setExecutorStrategy(getExecutorStrategy());
         return ExecutorFactory.getExecutor();
     }
 
+    /**
+     * Returns the strategy used to create the SDK wide ExecutorService.
+     *
+     * <p>
+     * By default, this is the strategy already selected on
+     * {@link ExecutorFactory}. Override to return
+     * {@link ExecutorFactory#VIRTUAL_THREADS} to run SDK async work on virtual
+     * threads when the JDK supports them.
+     * </p>
+     *
+     * @return An ExecutorStrategy.
+     */
+    protected ExecutorStrategy getExecutorStrategy() {
+        return ExecutorFactory.getExecutorStrategy();
+    }
+
     /**
      * Returns the Configuration for the application.
      *
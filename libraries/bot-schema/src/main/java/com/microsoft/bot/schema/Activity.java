@@ -13,12 +13,17 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.microsoft.bot.schema.teams.TeamsMeetingInfo;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -37,6 +42,16 @@ import java.util.stream.Collectors;
 public class Activity {
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    /**
+     * The readers channel data is converted with, by target class.
+     */
+    private static final ClassValue<ObjectReader> CHANNEL_DATA_READERS = new ClassValue<ObjectReader>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return MAPPER.readerFor(type);
+        }
+    };
+
     @JsonProperty(value = "type")
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private String type;
@@ -1451,6 +1466,9 @@ public class Activity {
      * intended for use with a message activity, where the activity
      * {@link Activity#type} is set to {@link ActivityTypes#MESSAGE}.
      *
+     * The mentions are converted from the current entities on each call, so
+     * each caller gets its own copies.
+     *
      * @return The array of mentions; or an empty array, if none are found.
      */
     @JsonIgnore
@@ -1469,6 +1487,10 @@ public class Activity {
     /**
      * Get channelData as typed structure.
      *
+     * <p>The channel data is converted on each call, so each caller gets its
+     * own copy, and changes made to the channel data in place are seen. Only
+     * the reader of each target class is reused.</p>
+     *
      * @param classType Class of TypeT to use
      * @param <TypeT>   The type of the returned object.
      * @return typed Object or default(TypeT)
@@ -1480,11 +1502,43 @@ public class Activity {
             return null;
         }
 
-        if (classType.isInstance(this.getChannelData())) {
-            return (TypeT) this.getChannelData();
+        Object currentChannelData = this.getChannelData();
+        if (classType.isInstance(currentChannelData)) {
+            return (TypeT) currentChannelData;
+        }
+
+        return convertChannelData(currentChannelData, classType);
+    }
+
+    /**
+     * Converts channel data to a typed structure without going through an
+     * intermediate JSON tree: a JsonNode is read directly, and other values
+     * are read from a token buffer.
+     *
+     * @param source    The raw channel data.
+     * @param classType The class to convert to.
+     * @param <TypeT>   The type of the returned object.
+     * @return The converted channel data.
+     * @throws JsonProcessingException If the channel data can't be converted.
+     */
+    private static <TypeT> TypeT convertChannelData(
+        Object source,
+        Class<TypeT> classType
+    ) throws JsonProcessingException {
+        ObjectReader reader = CHANNEL_DATA_READERS.get(classType);
+        try {
+            if (source instanceof JsonNode) {
+                return reader.readValue((JsonNode) source);
+            }
+
+            TokenBuffer buffer = new TokenBuffer(MAPPER, false);
+            MAPPER.writeValue(buffer, source);
+            return reader.readValue(buffer.asParser());
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.from((JsonParser) null, e.getMessage(), e);
         }
-        JsonNode node = MAPPER.valueToTree(this.getChannelData());
-        return MAPPER.treeToValue(node, classType);
     }
 
     /**
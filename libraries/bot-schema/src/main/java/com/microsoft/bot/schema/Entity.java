@@ -8,11 +8,9 @@ import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -135,25 +133,14 @@ public class Entity implements EntitySerialization {
         EntitySerialization entity,
         Class<T> classType
     ) {
-        // Serialize
-        String tempJson;
+        // Convert directly through a token buffer, without an intermediate
+        // JSON string or tree.
         try {
-            tempJson = objectMapper.writeValueAsString(entity);
-        } catch (JsonProcessingException e) {
+            return objectMapper.convertValue(entity, classType);
+        } catch (IllegalArgumentException e) {
             e.printStackTrace();
             return null;
         }
-
-        // Deserialize
-        T newObj = null;
-        try {
-            newObj = objectMapper.readValue(tempJson, classType);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
-
-        return newObj;
     }
 
     /**
@@ -172,20 +159,7 @@ public class Entity implements EntitySerialization {
      */
     @JsonIgnore
     public <T extends EntitySerialization> Entity setAs(T obj) throws IllegalArgumentException {
-        // Serialize
-        String tempJson;
-        try {
-            tempJson = objectMapper.writeValueAsString(obj);
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException(e);
-        }
-
-        Entity tempEntity;
-        try {
-            tempEntity = objectMapper.readValue(tempJson, Entity.class);
-        } catch (IOException e) {
-            throw new IllegalArgumentException(e);
-        }
+        Entity tempEntity = objectMapper.convertValue(obj, Entity.class);
 
         for (Map.Entry<String, JsonNode> entry : tempEntity.properties.entrySet()) {
             this.properties.put(entry.getKey(), entry.getValue());
@@ -12,6 +12,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -183,6 +184,20 @@ public final class Serialization {
     }
 
 
+    /**
+     * Deserializes a JSON stream directly to a value, without reading it into an
+     * intermediate String or tree first.
+     *
+     * @param input     The JSON stream.
+     * @param classType The class type to convert to.
+     * @param <T>       The type of the return value.
+     * @return The deserialized value.
+     * @throws IOException Error reading or parsing the stream.
+     */
+    public static <T> T readValue(InputStream input, Class<T> classType) throws IOException {
+        return objectMapper.readerFor(classType).readValue(input);
+    }
+
     /**
      * @param s The string to convert to a JsonNode
      * @return JsonNode
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.bot.schema.teams.TeamInfo;
 import com.microsoft.bot.schema.teams.TeamsChannelData;
 import com.microsoft.bot.schema.teams.TeamsMeetingInfo;
@@ -706,6 +707,58 @@ public class ActivityTest {
         Assert.assertTrue(activity.getMentions() != null);
     }
 
+    @Test
+    public void GetMentionsReflectsEntityChanges() {
+        ArrayList<Entity> entities = new ArrayList<Entity>();
+        Entity mentionEntity = new Entity();
+        mentionEntity.setType("mention");
+        entities.add(mentionEntity);
+
+        Activity activity = createActivity();
+        activity.setEntities(entities);
+
+        Mention first = activity.getMentions().get(0);
+        first.setText("changed");
+        Assert.assertNotSame(first, activity.getMentions().get(0));
+        Assert.assertNull(activity.getMentions().get(0).getText());
+
+        mentionEntity.setProperties("text", JsonNodeFactory.instance.textNode("<at>bot</at>"));
+        Assert.assertEquals("<at>bot</at>", activity.getMentions().get(0).getText());
+
+        Entity secondMention = new Entity();
+        secondMention.setType("mention");
+        activity.getEntities().add(secondMention);
+        Assert.assertEquals(2, activity.getMentions().size());
+
+        activity.setEntities(new ArrayList<Entity>());
+        Assert.assertEquals(0, activity.getMentions().size());
+    }
+
+    @Test
+    public void GetChannelDataReflectsChannelDataChanges() throws JsonProcessingException, IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        Activity activity = objectMapper.readValue(
+            ActivityTest.serializedActivityFromTeamsWithoutTeamsChannelIdorTeamId, Activity.class);
+
+        TeamsChannelData channelData = activity.getChannelData(TeamsChannelData.class);
+        Assert.assertEquals("channel_id", channelData.getChannel().getId());
+        channelData.getChannel().setId("changed_id");
+        Assert.assertNotSame(channelData, activity.getChannelData(TeamsChannelData.class));
+        Assert.assertEquals("channel_id", activity.teamsGetChannelId());
+
+        ObjectNode channelDataNode = objectMapper.valueToTree(activity.getChannelData());
+        activity.setChannelData(channelDataNode);
+        ((ObjectNode) channelDataNode.get("channel")).put("id", "edited_id");
+        Assert.assertEquals("edited_id", activity.teamsGetChannelId());
+
+        activity.setChannelData(objectMapper.readTree("{ \"channel\": { \"id\": \"other_id\" } }"));
+        Assert.assertEquals("other_id", activity.teamsGetChannelId());
+
+        activity.setChannelData("badChannelData");
+        Assert.assertFalse(activity.tryGetChannelData(TeamsChannelData.class).result());
+    }
+
     @Test
     public void CreateTraceForConversationUpdateActivity() {
         Activity activity = createActivity();